@@ -38,8 +38,9 @@ import com.gamingmesh.jobs.container.*;
 import com.gamingmesh.jobs.container.blockOwnerShip.BlockOwnerShip;
 import com.gamingmesh.jobs.container.blockOwnerShip.BlockTypes;
 import com.gamingmesh.jobs.dao.JobsDAO;
-import com.gamingmesh.jobs.dao.JobsDAOData;
 import com.gamingmesh.jobs.dao.JobsManager;
+import com.gamingmesh.jobs.dao.JobsPlayerLoader;
+import com.gamingmesh.jobs.dao.JobsWriteBehind;
 import com.gamingmesh.jobs.economy.*;
 import com.gamingmesh.jobs.i18n.Language;
 import com.gamingmesh.jobs.listeners.JobsListener;
@@ -53,7 +54,6 @@ import com.gamingmesh.jobs.stuff.complement.Complement;
 import com.gamingmesh.jobs.stuff.complement.Complement1;
 import com.gamingmesh.jobs.stuff.complement.Complement2;
 import com.gamingmesh.jobs.tasks.BufferedPaymentThread;
-import com.gamingmesh.jobs.tasks.DatabaseSaveThread;
 
 import org.bukkit.Bukkit;
 import org.bukkit.block.Block;
@@ -68,11 +68,13 @@ import java.io.File;
 import java.sql.SQLException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 public class Jobs extends JavaPlugin {
 
     private static PlayerManager pManager;
+    private static LeaderboardManager leaderboards;
     private static JobsCommands cManager;
     private static Language lManager;
     private static LanguageManager lmManager;
@@ -109,9 +111,9 @@ public class Jobs extends JavaPlugin {
     private static Map<Job, Integer> usedSlots = new WeakHashMap<>();
 
     public static BufferedPaymentThread paymentThread;
-    private static DatabaseSaveThread saveTask;
+    private static JobsWriteBehind writeBehind;
+    private static volatile JobsPlayerLoader playerLoader;
 
-    public static final Map<UUID, FastPayment> FASTPAYMENT = new HashMap<>();
 
     private static NMS nms;
 
@@ -237,6 +239,13 @@ public class Jobs extends JavaPlugin {
 	return reflections;
     }
 
+    /**
+     * @return the {@link JobsWriteBehind} which saves player data in the background
+     */
+    public static JobsWriteBehind getWriteBehind() {
+	return writeBehind;
+    }
+
     public static JobsManager getDBManager() {
 	if (dbManager == null)
 	    dbManager = new JobsManager(instance);
@@ -288,6 +297,15 @@ public class Jobs extends JavaPlugin {
 	return pManager;
     }
 
+    /**
+     * @return {@link LeaderboardManager}
+     */
+    public static LeaderboardManager getLeaderboards() {
+	if (leaderboards == null)
+	    leaderboards = new LeaderboardManager();
+	return leaderboards;
+    }
+
     public static RestrictedBlockManager getRestrictedBlockManager() {
 	if (rbManager == null) {
 	    rbManager = new RestrictedBlockManager();
@@ -513,54 +531,56 @@ public class Jobs extends JavaPlugin {
     private void startup() {
 	reload(true);
 
-	CompletableFuture<Void> pd = loadAllPlayersData();
-
-	// attempt to add all online players to cache
-	pd.thenAccept(e -> getServer().getOnlinePlayers().forEach(getPlayerManager()::playerJoin));
-    }
-
-    public static CompletableFuture<Void> loadAllPlayersData() {
-	return CompletableFuture.supplyAsync(() -> {
-	    long time = System.currentTimeMillis();
-	    // Cloning to avoid issues
-	    Map<UUID, PlayerInfo> temp = new HashMap<>(getPlayerManager().getPlayersInfoUUIDMap());
-	    Map<Integer, List<JobsDAOData>> playersJobs = dao.getAllJobs();
-	    Map<Integer, PlayerPoints> playersPoints = dao.getAllPoints();
-	    Map<Integer, Map<String, Log>> playersLogs = dao.getAllLogs();
-	    Map<Integer, ArchivedJobs> playersArchives = dao.getAllArchivedJobs();
-	    Map<Integer, PaymentData> playersLimits = dao.loadPlayerLimits();
-
-	    for (Iterator<PlayerInfo> it = temp.values().iterator(); it.hasNext();) {
-		PlayerInfo one = it.next();
-		int id = one.getID();
-		JobsPlayer jPlayer = getPlayerManager().getJobsPlayerOffline(
-		    one,
-		    playersJobs.get(id),
-		    playersPoints.get(id),
-		    playersLogs.get(id),
-		    playersArchives.get(id),
-		    playersLimits.get(id));
-		if (jPlayer != null)
-		    getPlayerManager().addPlayerToCache(jPlayer);
-	    }
+	// Offline players are loaded on demand, only the online ones are loaded here
+	getServer().getOnlinePlayers().forEach(getPlayerManager()::playerJoin);
 
-	    return time;
-	}).thenAccept(t -> {
-	    if (!getPlayerManager().getPlayersCache().isEmpty())
-		consoleMsg("&e[Jobs] Preloaded " + getPlayerManager().getPlayersCache().size() + " players data in " +
-		    ((int) (((System.currentTimeMillis() - t) / 1000d) * 100) / 100D));
-	});
+	CompletableFuture.runAsync(getLeaderboards()::load);
+    }
+
+    /**
+     * Loads the data of every player from database without caching them. This
+     * is only meant for full scans like database conversion.
+     * 
+     * @return the list of players, or null if the loading failed or was cancelled
+     */
+    public static List<JobsPlayer> loadAllPlayersData() {
+	List<JobsPlayer> all = new ArrayList<>();
+	return loadAllPlayersData(all::add) < 0 ? null : all;
+    }
+
+    /**
+     * Streams the data of every player from database page by page, the loading
+     * is cancelled when the plugin is disabled.
+     * 
+     * @param consumer receives each loaded player
+     * @return the amount of loaded players, or -1 if the loading failed or was cancelled
+     */
+    public static int loadAllPlayersData(Consumer<JobsPlayer> consumer) {
+	JobsPlayerLoader loader = new JobsPlayerLoader(dao, 1000);
+	playerLoader = loader;
+	try {
+	    return loader.load(consumer);
+	} finally {
+	    playerLoader = null;
+	}
     }
 
     public static void convertDatabase() {
 	try {
+	    // Players are loaded from the old database before switching
+	    List<JobsPlayer> allPlayers = loadAllPlayersData();
+	    if (allPlayers == null) {
+		Jobs.consoleMsg("&cCan't read players data from data base, conversion cancelled.");
+		return;
+	    }
+
 	    List<Convert> archivelist = dao.convertDatabase();
 
 	    getDBManager().switchDataBase();
 	    getPlayerManager().reload();
 
 	    dao.truncateAllTables();
-	    getPlayerManager().convertChacheOfPlayers(true);
+	    getPlayerManager().convertChacheOfPlayers(allPlayers, true);
 
 	    dao.continueConvertions(archivelist);
 	    getPlayerManager().clearMaps();
@@ -576,7 +596,8 @@ public class Jobs extends JavaPlugin {
 	}
 
 	reload();
-	loadAllPlayersData();
+	Bukkit.getOnlinePlayers().forEach(getPlayerManager()::playerJoin);
+	CompletableFuture.runAsync(getLeaderboards()::load);
     }
 
     /**
@@ -810,8 +831,8 @@ public class Jobs extends JavaPlugin {
 	    }
 	}
 
-	if (saveTask != null) {
-	    saveTask.shutdown();
+	if (writeBehind != null) {
+	    writeBehind.shutdown();
 	}
 
 	if (paymentThread != null) {
@@ -819,6 +840,19 @@ public class Jobs extends JavaPlugin {
 	}
 
 	smanager = new SelectionManager();
+	instance.getPlaceholderAPIManager().clearCache();
+
+	if (!startup) {
+	    long hits = PayoutTable.getHits(), misses = PayoutTable.getMisses();
+	    if (hits + misses > 0) {
+		consoleMsg("&e[Jobs] Payout cache hit rate: " + String.format("%.2f", PayoutTable.getHitRate() * 100)
+		    + "% (" + hits + " hits, " + misses + " misses)");
+	    }
+	}
+
+	// Job infos are recreated below, so their payout tables start empty
+	PayoutTable.resetStatistics();
+	PayoutMemo.invalidateAll();
 
 	getGCManager().reload();
 	getLanguage().reload();
@@ -839,6 +873,10 @@ public class Jobs extends JavaPlugin {
 	    instance.getBlockOwnerShip(CMIMaterial.SMOKER).ifPresent(BlockOwnerShip::load);
 	}
 
+	writeBehind = new JobsWriteBehind(dao, new File(getFolder(), "saveJournal.dat"));
+	if (startup)
+	    writeBehind.replayJournal();
+
 	ToggleBarHandling.load();
 	usedSlots.clear();
 	for (Job job : jobs) {
@@ -848,8 +886,8 @@ public class Jobs extends JavaPlugin {
 	getPermissionHandler().registerPermissions();
 
 	// set the system to auto save
-	saveTask = new DatabaseSaveThread(getGCManager().getSavePeriod());
-	saveTask.start();
+	writeBehind.start(getGCManager().getSavePeriod(), getGCManager().getSaveJournalInterval(),
+	    getGCManager().MultiServerCompatability() ? getGCManager().getRankingsRefreshInterval() : 0);
 
 	// schedule payouts to buffered payments
 	paymentThread = new BufferedPaymentThread(getGCManager().getEconomyBatchDelay());
@@ -880,16 +918,19 @@ public class Jobs extends JavaPlugin {
 	blockOwnerShips.forEach(BlockOwnerShip::save);
 	ToggleBarHandling.save();
 
-	if (saveTask != null)
-	    saveTask.shutdown();
+	JobsPlayerLoader loader = playerLoader;
+	if (loader != null)
+	    loader.cancel();
 
 	if (paymentThread != null)
 	    paymentThread.shutdown();
 
-	if (pManager != null) {
+	if (pManager != null)
 	    pManager.removePlayerAdditions();
-	    pManager.saveAll();
-	}
+
+	// Waits for the queued saves and saves the rest
+	if (writeBehind != null)
+	    writeBehind.shutdown();
 
 	if (dao != null) {
 	    dao.closeConnections();
@@ -978,7 +1019,7 @@ public class Jobs extends JavaPlugin {
      * @see #action(JobsPlayer, ActionInfo, Block, Entity, LivingEntity)
      */
     public static void action(JobsPlayer jPlayer, ActionInfo info, Block block, Entity ent, LivingEntity victim) {
-	if (jPlayer == null)
+	if (jPlayer == null || getPlayerManager().isLoading(jPlayer.getUniqueId()))
 	    return;
 
 	List<JobProgression> progression = jPlayer.getJobProgression();
@@ -1007,16 +1048,18 @@ public class Jobs extends JavaPlugin {
 
 	    Boost boost = getPlayerManager().getFinalBonus(jPlayer, noneJob);
 
-	    JobsPrePaymentEvent jobsPrePaymentEvent = new JobsPrePaymentEvent(jPlayer.getPlayer(), noneJob, income,
-		pointAmount, block, ent, victim, info);
-	    Bukkit.getServer().getPluginManager().callEvent(jobsPrePaymentEvent);
-	    // If event is canceled, don't do anything
-	    if (jobsPrePaymentEvent.isCancelled()) {
-		income = 0D;
-		pointAmount = 0D;
-	    } else {
-		income = jobsPrePaymentEvent.getAmount();
-		pointAmount = jobsPrePaymentEvent.getPoints();
+	    if (hasListeners(JobsPrePaymentEvent.getHandlerList())) {
+		JobsPrePaymentEvent jobsPrePaymentEvent = new JobsPrePaymentEvent(jPlayer.getPlayer(), noneJob, income,
+		    pointAmount, block, ent, victim, info);
+		Bukkit.getServer().getPluginManager().callEvent(jobsPrePaymentEvent);
+		// If event is canceled, don't do anything
+		if (jobsPrePaymentEvent.isCancelled()) {
+		    income = 0D;
+		    pointAmount = 0D;
+		} else {
+		    income = jobsPrePaymentEvent.getAmount();
+		    pointAmount = jobsPrePaymentEvent.getPoints();
+		}
 	    }
 
 	    // Calculate income
@@ -1070,30 +1113,55 @@ public class Jobs extends JavaPlugin {
 	    if (pointAmount != 0D)
 		jPlayer.setSaved(false);
 
-	    Map<CurrencyType, Double> payments = new HashMap<>();
-	    if (income != 0D)
-		payments.put(CurrencyType.MONEY, income);
-	    if (pointAmount != 0D)
-		payments.put(CurrencyType.POINTS, pointAmount);
-
-	    economy.pay(jPlayer, payments);
+	    economy.pay(jPlayer, income, pointAmount, 0D);
 
 	    if (gConfigManager.LoggingUse) {
-		Map<CurrencyType, Double> amounts = new HashMap<>();
-		amounts.put(CurrencyType.MONEY, income);
-		getLoging().recordToLog(jPlayer, info, amounts);
+		getLoging().recordToLog(jPlayer, info, income, 0D, 0D);
 	    }
 
 	} else {
-	    FASTPAYMENT.clear();
+	    // Bonuses can depend on the entities, which are not part of the memo.
+	    // Replayed payouts skip the payment events, so listeners which change or cancel them disable the memo
+	    boolean memoizable = PayoutMemo.isMemoizable(info.getType()) && ent == null && victim == null
+		&& !hasListeners(JobsPrePaymentEvent.getHandlerList()) && !hasListeners(JobsExpGainEvent.getHandlerList());
+	    String world = block == null ? null : block.getWorld().getName();
+
+	    if (memoizable) {
+		PayoutMemo memo = jPlayer.getPayoutMemo(info, world);
+
+		if (memo != null) {
+		    for (JobProgression prog : progression) {
+			if (!prog.getJob().isWorldBlackListed(block))
+			    checkDailyQuests(jPlayer, prog.getJob(), info);
+		    }
+
+		    for (PayoutMemo.Payout payout : memo.getPayouts()) {
+			BufferedPayment payment = payout.getPayment();
+			giveVanillaExp(jPlayer, payout.getVanillaExp());
 
-	    List<Job> expiredJobs = new ArrayList<>();
+			// Limits are reached by the replayed payouts too
+			payment = applyLimits(jPlayer, new BufferedPayment(jPlayer.getPlayer(), payment.get(CurrencyType.MONEY),
+			    payment.get(CurrencyType.POINTS), payment.get(CurrencyType.EXP)));
+			if (payment.containsPayment())
+			    perform(jPlayer, info, payment, payout.getJob());
+		    }
+
+		    setBlockPaid(block);
+		    return;
+		}
+	    }
+
+	    List<PayoutMemo.Payout> payouts = null;
+	    List<Job> expiredJobs = null;
 	    for (JobProgression prog : progression) {
 		if (prog.getJob().isWorldBlackListed(block) || prog.getJob().isWorldBlackListed(block, ent)
 		    || prog.getJob().isWorldBlackListed(victim))
 		    continue;
 
 		if (jPlayer.isLeftTimeEnded(prog.getJob())) {
+		    if (expiredJobs == null)
+			expiredJobs = new ArrayList<>();
+
 		    expiredJobs.add(prog.getJob());
 		}
 
@@ -1114,46 +1182,24 @@ public class Jobs extends JavaPlugin {
 		if (income == 0D && pointAmount == 0D && expAmount == 0D)
 		    continue;
 
-		if (gConfigManager.addXpPlayer()) {
-		    Player player = jPlayer.getPlayer();
-		    if (player != null) {
-			/*
-			 * Minecraft experience is calculated in whole numbers only.
-			 * Calculate the fraction of an experience point and perform a dice roll.
-			 * That way jobs that give fractions of experience points will slowly give
-			 * experience in the aggregate
-			 */
-			int expInt = (int) expAmount;
-			double remainder = expAmount - expInt;
-			if (Math.abs(remainder) > Math.random()) {
-			    if (expAmount < 0)
-				expInt--;
-			    else
-				expInt++;
-			}
-
-			if (expInt < 0 && getPlayerExperience(player) < -expInt) {
-			    player.setLevel(0);
-			    player.setTotalExperience(0);
-			    player.setExp(0);
-			} else
-			    player.giveExp(expInt);
-		    }
-		}
+		double vanillaExp = expAmount;
+		giveVanillaExp(jPlayer, vanillaExp);
 
 		Boost boost = getPlayerManager().getFinalBonus(jPlayer, prog.getJob(), ent, victim);
 
-		JobsPrePaymentEvent jobsPrePaymentEvent = new JobsPrePaymentEvent(jPlayer.getPlayer(), prog.getJob(), income,
-		    pointAmount, block, ent, victim, info);
+		if (hasListeners(JobsPrePaymentEvent.getHandlerList())) {
+		    JobsPrePaymentEvent jobsPrePaymentEvent = new JobsPrePaymentEvent(jPlayer.getPlayer(), prog.getJob(), income,
+			pointAmount, block, ent, victim, info);
 
-		Bukkit.getServer().getPluginManager().callEvent(jobsPrePaymentEvent);
-		// If event is canceled, don't do anything
-		if (jobsPrePaymentEvent.isCancelled()) {
-		    income = 0D;
-		    pointAmount = 0D;
-		} else {
-		    income = jobsPrePaymentEvent.getAmount();
-		    pointAmount = jobsPrePaymentEvent.getPoints();
+		    Bukkit.getServer().getPluginManager().callEvent(jobsPrePaymentEvent);
+		    // If event is canceled, don't do anything
+		    if (jobsPrePaymentEvent.isCancelled()) {
+			income = 0D;
+			pointAmount = 0D;
+		    } else {
+			income = jobsPrePaymentEvent.getAmount();
+			pointAmount = jobsPrePaymentEvent.getPoints();
+		    }
 		}
 
 		// Calculate income
@@ -1192,51 +1238,22 @@ public class Jobs extends JavaPlugin {
 		    }
 		}
 
-		if (!jPlayer.isUnderLimit(CurrencyType.MONEY, income)) {
-		    income = 0D;
-
-		    CurrencyLimit cLimit = gConfigManager.getLimit(CurrencyType.MONEY);
-
-		    if (cLimit.getStopWith().contains(CurrencyType.EXP))
-			expAmount = 0D;
-
-		    if (cLimit.getStopWith().contains(CurrencyType.POINTS))
-			pointAmount = 0D;
-		}
-
-		if (!jPlayer.isUnderLimit(CurrencyType.EXP, expAmount)) {
-		    expAmount = 0D;
-
-		    CurrencyLimit cLimit = gConfigManager.getLimit(CurrencyType.EXP);
-
-		    if (cLimit.getStopWith().contains(CurrencyType.MONEY))
-			income = 0D;
-
-		    if (cLimit.getStopWith().contains(CurrencyType.POINTS))
-			pointAmount = 0D;
-		}
-
-		if (!jPlayer.isUnderLimit(CurrencyType.POINTS, pointAmount)) {
-		    pointAmount = 0D;
-
-		    CurrencyLimit cLimit = gConfigManager.getLimit(CurrencyType.POINTS);
-
-		    if (cLimit.getStopWith().contains(CurrencyType.MONEY))
-			income = 0D;
-
-		    if (cLimit.getStopWith().contains(CurrencyType.EXP))
-			expAmount = 0D;
-		}
+		BufferedPayment limited = applyLimits(jPlayer, new BufferedPayment(jPlayer.getPlayer(), income, pointAmount, expAmount));
+		income = limited.get(CurrencyType.MONEY);
+		pointAmount = limited.get(CurrencyType.POINTS);
+		expAmount = limited.get(CurrencyType.EXP);
 
 		if (income == 0D && pointAmount == 0D && expAmount == 0D)
 		    continue;
 
 		// JobsPayment event
-		JobsExpGainEvent jobsExpGainEvent = new JobsExpGainEvent(jPlayer.getPlayer(), prog.getJob(), expAmount,
-		    block, ent, victim, info);
-		Bukkit.getServer().getPluginManager().callEvent(jobsExpGainEvent);
-		// If event is canceled, don't do anything
-		expAmount = jobsExpGainEvent.isCancelled() ? 0D : jobsExpGainEvent.getExp();
+		if (hasListeners(JobsExpGainEvent.getHandlerList())) {
+		    JobsExpGainEvent jobsExpGainEvent = new JobsExpGainEvent(jPlayer.getPlayer(), prog.getJob(), expAmount,
+			block, ent, victim, info);
+		    Bukkit.getServer().getPluginManager().callEvent(jobsExpGainEvent);
+		    // If event is canceled, don't do anything
+		    expAmount = jobsExpGainEvent.isCancelled() ? 0D : jobsExpGainEvent.getExp();
+		}
 
 		try {
 		    if (expAmount != 0D && gConfigManager.BossBarEnabled)
@@ -1249,41 +1266,103 @@ public class Jobs extends JavaPlugin {
 		    consoleMsg("&c[Jobs] Some issues with boss bar feature accured, try disabling it to avoid it.");
 		}
 
-		Map<CurrencyType, Double> payments = new HashMap<>();
-		if (income != 0D)
-		    payments.put(CurrencyType.MONEY, income);
-		if (pointAmount != 0D)
-		    payments.put(CurrencyType.POINTS, pointAmount);
-		if (expAmount != 0D)
-		    payments.put(CurrencyType.EXP, expAmount);
+		if (memoizable) {
+		    if (payouts == null)
+			payouts = new ArrayList<>(numjobs);
 
-		FASTPAYMENT.put(jPlayer.getUniqueId(), new FastPayment(jPlayer, info, new BufferedPayment(jPlayer.getPlayer(), payments), prog
-		    .getJob()));
+		    payouts.add(new PayoutMemo.Payout(prog.getJob(), new BufferedPayment(jPlayer.getPlayer(), income,
+			pointAmount, expAmount), vanillaExp));
+		}
 
-		economy.pay(jPlayer, payments);
+		economy.pay(jPlayer, income, pointAmount, expAmount);
 		int oldLevel = prog.getLevel();
 
 		if (gConfigManager.LoggingUse) {
-		    Map<CurrencyType, Double> amounts = new HashMap<>();
-		    amounts.put(CurrencyType.MONEY, income);
-		    amounts.put(CurrencyType.EXP, expAmount);
-		    amounts.put(CurrencyType.POINTS, pointAmount);
-		    getLoging().recordToLog(jPlayer, info, amounts);
+		    getLoging().recordToLog(jPlayer, info, income, pointAmount, expAmount);
 		}
 
 		if (prog.addExperience(expAmount))
 		    getPlayerManager().performLevelUp(jPlayer, prog.getJob(), oldLevel);
 	    }
 
-	    //need to update bp
-	    if (block != null) {
-		BlockProtection bp = getBpManager().getBp(block.getLocation());
-		if (bp != null)
-		    bp.setPaid(true);
+	    setBlockPaid(block);
+
+	    if (expiredJobs != null)
+		expiredJobs.forEach(j -> getPlayerManager().leaveJob(jPlayer, j));
+	    else if (payouts != null)
+		jPlayer.setPayoutMemo(new PayoutMemo(info, world, payouts));
+	}
+    }
+
+    /**
+     * Zeroes the amounts of the given payment which are over the limits of the player,
+     * together with the currencies which are configured to stop with them.
+     * 
+     * @param jPlayer {@link JobsPlayer}
+     * @param payment {@link BufferedPayment}
+     * @return the given payment
+     */
+    private static BufferedPayment applyLimits(JobsPlayer jPlayer, BufferedPayment payment) {
+	for (CurrencyType type : CurrencyType.values()) {
+	    if (jPlayer.isUnderLimit(type, payment.get(type)))
+		continue;
+
+	    payment.set(type, 0D);
+
+	    for (CurrencyType stopWith : gConfigManager.getLimit(type).getStopWith()) {
+		payment.set(stopWith, 0D);
 	    }
+	}
+
+	return payment;
+    }
+
+    //need to update bp
+    private static void setBlockPaid(Block block) {
+	if (block != null)
+	    getBpManager().setPaid(block.getLocation());
+    }
+
+    private static void giveVanillaExp(JobsPlayer jPlayer, double expAmount) {
+	if (!gConfigManager.addXpPlayer())
+	    return;
+
+	Player player = jPlayer.getPlayer();
+	if (player == null)
+	    return;
 
-	    expiredJobs.forEach(j -> getPlayerManager().leaveJob(jPlayer, j));
+	/*
+	 * Minecraft experience is calculated in whole numbers only.
+	 * Calculate the fraction of an experience point and perform a dice roll.
+	 * That way jobs that give fractions of experience points will slowly give
+	 * experience in the aggregate
+	 */
+	int expInt = (int) expAmount;
+	double remainder = expAmount - expInt;
+	if (Math.abs(remainder) > Math.random()) {
+	    if (expAmount < 0)
+		expInt--;
+	    else
+		expInt++;
 	}
+
+	if (expInt < 0 && getPlayerExperience(player) < -expInt) {
+	    player.setLevel(0);
+	    player.setTotalExperience(0);
+	    player.setExp(0);
+	} else
+	    player.giveExp(expInt);
+    }
+
+    /**
+     * Checks if the given handler list has any registered listener, so
+     * events can be skipped entirely on hot paths when nobody listens.
+     * 
+     * @param handlers {@link HandlerList}
+     * @return true if at least one listener is registered
+     */
+    public static boolean hasListeners(HandlerList handlers) {
+	return handlers.getRegisteredListeners().length != 0;
     }
 
     private static boolean isBpOk(JobsPlayer player, ActionInfo info, Block block, boolean inform) {
@@ -1407,11 +1486,13 @@ public class Jobs extends JavaPlugin {
     public static void perform(JobsPlayer jPlayer, ActionInfo info, BufferedPayment payment, Job job) {
 	double expPayment = payment.get(CurrencyType.EXP);
 
-	JobsExpGainEvent jobsExpGainEvent = new JobsExpGainEvent(payment.getOfflinePlayer(), job, expPayment);
-	Bukkit.getServer().getPluginManager().callEvent(jobsExpGainEvent);
-	// If event is canceled, don't do anything
-	if (jobsExpGainEvent.isCancelled())
-	    return;
+	if (hasListeners(JobsExpGainEvent.getHandlerList())) {
+	    JobsExpGainEvent jobsExpGainEvent = new JobsExpGainEvent(payment.getOfflinePlayer(), job, expPayment);
+	    Bukkit.getServer().getPluginManager().callEvent(jobsExpGainEvent);
+	    // If event is canceled, don't do anything
+	    if (jobsExpGainEvent.isCancelled())
+		return;
+	}
 
 	boolean limited = true;
 	for (CurrencyType one : CurrencyType.values()) {
@@ -1424,13 +1505,17 @@ public class Jobs extends JavaPlugin {
 	if (limited)
 	    return;
 
-	economy.pay(jPlayer, payment.getPayment());
-
 	JobProgression prog = jPlayer.getJobProgression(job);
+	if (prog == null)
+	    return;
+
+	economy.pay(jPlayer, payment.get(CurrencyType.MONEY), payment.get(CurrencyType.POINTS), payment.get(CurrencyType.EXP));
+
 	int oldLevel = prog.getLevel();
 
 	if (gConfigManager.LoggingUse) {
-	    getLoging().recordToLog(jPlayer, info, payment.getPayment());
+	    getLoging().recordToLog(jPlayer, info, payment.get(CurrencyType.MONEY), payment.get(CurrencyType.POINTS),
+		payment.get(CurrencyType.EXP));
 	}
 
 	if (prog.addExperience(expPayment))
@@ -0,0 +1,323 @@
+/**
+ * Jobs Plugin for Bukkit
+ * Copyright (C) 2011 Zak Ford <zak.j.ford@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gamingmesh.jobs;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.gamingmesh.jobs.container.Job;
+import com.gamingmesh.jobs.container.JobProgression;
+import com.gamingmesh.jobs.container.JobsPlayer;
+import com.gamingmesh.jobs.container.PlayerInfo;
+import com.gamingmesh.jobs.container.Ranking;
+import com.gamingmesh.jobs.container.TopList;
+
+/**
+ * In memory rankings for the job, global and quest top lists.
+ * <p>
+ * The rankings are read from database once on start up and updated on every level or
+ * experience change of a {@link JobProgression}, so top list pages and positions are
+ * served without database queries. With multi server compatibility the pages are read
+ * from database, as other servers change the data too, and the rankings are reloaded every
+ * configured refresh interval. Positions can lag behind the pages until then.
+ */
+public class LeaderboardManager {
+
+    private Map<Integer, Ranking> jobs = new HashMap<>();
+    private Ranking global = new Ranking(), quests = new Ranking();
+
+    private volatile boolean loaded = false;
+
+    /**
+     * Reads the rankings from database. This should be called asynchronously.
+     */
+    public void load() {
+	Map<Integer, Ranking> jobs = new HashMap<>();
+	Ranking quests = new Ranking();
+
+	if (!Jobs.getJobsDAO().loadRankings(jobs, quests))
+	    return;
+
+	Map<Integer, Integer> totals = new HashMap<>();
+	for (Ranking ranking : jobs.values()) {
+	    for (int i = 0; i < ranking.size(); i++) {
+		totals.merge(ranking.getUserAt(i), ranking.getLevelAt(i), Integer::sum);
+	    }
+	}
+
+	Ranking global = new Ranking();
+	totals.forEach((userId, total) -> global.set(userId, total, 0));
+
+	synchronized (this) {
+	    this.jobs = jobs;
+	    this.global = global;
+	    this.quests = quests;
+
+	    // Players in memory can have changes which are not saved yet
+	    for (JobsPlayer jPlayer : Jobs.getPlayerManager().getLoadedPlayers()) {
+		update(jPlayer);
+	    }
+
+	    loaded = true;
+	}
+    }
+
+    /**
+     * @return true if the rankings are used instead of the database
+     */
+    public boolean isLoaded() {
+	return loaded && !Jobs.getGCManager().MultiServerCompatability();
+    }
+
+    /**
+     * Updates the rank of the given progression in its job and the global ranking.
+     *
+     * @param jPlayer the owner of progression
+     * @param prog {@link JobProgression}
+     */
+    public synchronized void update(JobsPlayer jPlayer, JobProgression prog) {
+	int userId = jPlayer.getUserId();
+	if (userId == -1 || prog.getJob() == null)
+	    return;
+
+	jobs.computeIfAbsent(prog.getJob().getId(), id -> new Ranking()).set(userId, prog.getLevel(), prog.getExperience());
+	updateTotal(jPlayer);
+    }
+
+    /**
+     * Updates every rank of the given player.
+     *
+     * @param jPlayer {@link JobsPlayer}
+     */
+    public synchronized void update(JobsPlayer jPlayer) {
+	int userId = jPlayer.getUserId();
+	if (userId == -1)
+	    return;
+
+	for (JobProgression prog : jPlayer.getJobProgression()) {
+	    if (prog.getJob() != null)
+		jobs.computeIfAbsent(prog.getJob().getId(), id -> new Ranking()).set(userId, prog.getLevel(), prog.getExperience());
+	}
+
+	updateTotal(jPlayer);
+	updateQuests(jPlayer);
+    }
+
+    /**
+     * Removes the given player from the ranking of the given job, used when the player left the job.
+     *
+     * @param jPlayer {@link JobsPlayer}
+     * @param job {@link Job}
+     */
+    public synchronized void remove(JobsPlayer jPlayer, Job job) {
+	Ranking ranking = jobs.get(job.getId());
+	if (ranking != null)
+	    ranking.remove(jPlayer.getUserId());
+
+	updateTotal(jPlayer);
+    }
+
+    /**
+     * Removes the given player from every job ranking.
+     *
+     * @param jPlayer {@link JobsPlayer}
+     */
+    public synchronized void removeAll(JobsPlayer jPlayer) {
+	for (Ranking ranking : jobs.values()) {
+	    ranking.remove(jPlayer.getUserId());
+	}
+
+	global.remove(jPlayer.getUserId());
+    }
+
+    /**
+     * Removes every job ranking, used when the jobs table was cleared.
+     */
+    public synchronized void clearJobs() {
+	jobs.clear();
+	global.clear();
+    }
+
+    public synchronized void updateQuests(JobsPlayer jPlayer) {
+	if (jPlayer.getUserId() == -1)
+	    return;
+
+	if (jPlayer.getDoneQuests() > 0)
+	    quests.set(jPlayer.getUserId(), jPlayer.getDoneQuests(), 0);
+	else
+	    quests.remove(jPlayer.getUserId());
+    }
+
+    private void updateTotal(JobsPlayer jPlayer) {
+	int total = 0;
+	for (JobProgression prog : jPlayer.getJobProgression()) {
+	    total += prog.getLevel();
+	}
+
+	if (jPlayer.getJobProgression().isEmpty())
+	    global.remove(jPlayer.getUserId());
+	else
+	    global.set(jPlayer.getUserId(), total, 0);
+    }
+
+    /**
+     * Returns the position of the given player in the top list of the given job.
+     * <p>
+     * This never queries the database, so it is safe to use from the main thread.
+     *
+     * @param job {@link Job}
+     * @param jPlayer {@link JobsPlayer}
+     * @return the position starting from 1, or 0 if the player is not ranked or the
+     *         rankings are not loaded yet
+     */
+    public int getRank(Job job, JobsPlayer jPlayer) {
+	if (!loaded || job == null)
+	    return 0;
+
+	synchronized (this) {
+	    Ranking ranking = jobs.get(job.getId());
+	    return ranking == null ? 0 : ranking.indexOf(jPlayer.getUserId()) + 1;
+	}
+    }
+
+    /**
+     * Returns the player at the given position in the top list of the given job.
+     * <p>
+     * This never queries the database, so it is safe to use from the main thread.
+     *
+     * @param job {@link Job}
+     * @param rank the position starting from 1
+     * @return {@link TopList} or null if there is no player at the position or the
+     *         rankings are not loaded yet
+     */
+    public TopList getPlayerAt(Job job, int rank) {
+	if (!loaded || job == null)
+	    return null;
+
+	synchronized (this) {
+	    return entryAt(jobs.get(job.getId()), rank - 1, true);
+	}
+    }
+
+    /**
+     * Returns the position of the given player by total level of all jobs.
+     *
+     * @param jPlayer {@link JobsPlayer}
+     * @return the position starting from 1, or 0 if the player is not ranked or the
+     *         rankings are not loaded yet
+     */
+    public int getGlobalRank(JobsPlayer jPlayer) {
+	if (!loaded)
+	    return 0;
+
+	synchronized (this) {
+	    return global.indexOf(jPlayer.getUserId()) + 1;
+	}
+    }
+
+    /**
+     * Returns the player at the given position by total level of all jobs.
+     *
+     * @param rank the position starting from 1
+     * @return {@link TopList} or null if there is no player at the position or the
+     *         rankings are not loaded yet
+     */
+    public TopList getGlobalPlayerAt(int rank) {
+	if (!loaded)
+	    return null;
+
+	synchronized (this) {
+	    return entryAt(global, rank - 1, false);
+	}
+    }
+
+    /**
+     * Returns a page of the top list of the given job.
+     *
+     * @param jobName the job name
+     * @param start the position of first entry
+     * @return up to 50 entries
+     */
+    public List<TopList> toplist(String jobName, int start) {
+	if (!isLoaded())
+	    return Jobs.getJobsDAO().toplist(jobName, start);
+
+	Job job = Jobs.getJob(jobName);
+	if (job == null)
+	    return new ArrayList<>();
+
+	synchronized (this) {
+	    return page(jobs.get(job.getId()), start, 50, true);
+	}
+    }
+
+    /**
+     * Returns a page of players by total level of all jobs.
+     *
+     * @param start the position of first entry
+     * @return twice the top amount of entries at most
+     */
+    public List<TopList> getGlobalTopList(int start) {
+	if (!isLoaded())
+	    return Jobs.getJobsDAO().getGlobalTopList(start);
+
+	synchronized (this) {
+	    return page(global, start, Jobs.getGCManager().JobsTopAmount * 2, false);
+	}
+    }
+
+    /**
+     * Returns a page of players by done quests.
+     *
+     * @param start the position of first entry
+     * @return the top amount of entries at most
+     */
+    public List<TopList> getQuestTopList(int start) {
+	if (!isLoaded())
+	    return Jobs.getJobsDAO().getQuestTopList(start);
+
+	synchronized (this) {
+	    return page(quests, start, Jobs.getGCManager().JobsTopAmount, false);
+	}
+    }
+
+    private static List<TopList> page(Ranking ranking, int start, int amount, boolean withExp) {
+	List<TopList> list = new ArrayList<>();
+	if (ranking == null)
+	    return list;
+
+	for (int i = Math.max(0, start); i < ranking.size() && list.size() < amount; i++) {
+	    TopList entry = entryAt(ranking, i, withExp);
+	    if (entry != null)
+		list.add(entry);
+	}
+
+	return list;
+    }
+
+    private static TopList entryAt(Ranking ranking, int index, boolean withExp) {
+	if (ranking == null || index < 0 || index >= ranking.size())
+	    return null;
+
+	PlayerInfo info = Jobs.getPlayerManager().getPlayerInfo(ranking.getUserAt(index));
+	return info == null ? null : new TopList(info, ranking.getLevelAt(index), withExp ? (int) ranking.getExpAt(index) : 0);
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Jobs Plugin for Bukkit
+ * Copyright (C) 2011 Zak Ford <zak.j.ford@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gamingmesh.jobs;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.gamingmesh.jobs.container.JobsPlayer;
+
+/**
+ * Size and time bounded cache of offline {@link JobsPlayer} objects.
+ * <p>
+ * Entries are kept in access order, so the least recently used players are
+ * evicted first once the cache is over its size or the entries were not used
+ * for longer than the expire time. Players with unsaved changes are never evicted.
+ */
+final class OfflinePlayerCache {
+
+    private final Map<UUID, Entry> byUuid = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, UUID> byName = new HashMap<>();
+
+    private int maxSize = 1000;
+    private long expireMillis = 30 * 60 * 1000L;
+
+    /**
+     * Changes the bounds of this cache.
+     *
+     * @param maxSize the max amount of cached players, 0 or less for no limit
+     * @param expireMinutes the minutes after an unused player is evicted, 0 or less to never expire
+     */
+    synchronized void setBounds(int maxSize, int expireMinutes) {
+	this.maxSize = maxSize;
+	expireMillis = expireMinutes * 60 * 1000L;
+	evict();
+    }
+
+    synchronized JobsPlayer get(UUID uuid) {
+	Entry entry = byUuid.get(uuid);
+	if (entry == null)
+	    return null;
+
+	entry.accessed = System.currentTimeMillis();
+	return entry.jPlayer;
+    }
+
+    synchronized JobsPlayer get(String name) {
+	UUID uuid = byName.get(name.toLowerCase());
+	return uuid == null ? null : get(uuid);
+    }
+
+    synchronized boolean contains(UUID uuid) {
+	return byUuid.containsKey(uuid);
+    }
+
+    synchronized void put(JobsPlayer jPlayer) {
+	UUID uuid = jPlayer.getUniqueId();
+	if (uuid == null)
+	    return;
+
+	Entry old = byUuid.put(uuid, new Entry(jPlayer));
+	if (old != null)
+	    byName.remove(old.jPlayer.getName().toLowerCase(), uuid);
+
+	byName.put(jPlayer.getName().toLowerCase(), uuid);
+	evict();
+    }
+
+    synchronized JobsPlayer remove(UUID uuid) {
+	Entry entry = byUuid.remove(uuid);
+	if (entry == null)
+	    return null;
+
+	byName.remove(entry.jPlayer.getName().toLowerCase(), uuid);
+	return entry.jPlayer;
+    }
+
+    synchronized int size() {
+	return byUuid.size();
+    }
+
+    /**
+     * @return a copy of the cached players
+     */
+    synchronized List<JobsPlayer> values() {
+	List<JobsPlayer> values = new ArrayList<>(byUuid.size());
+	for (Entry entry : byUuid.values()) {
+	    values.add(entry.jPlayer);
+	}
+	return values;
+    }
+
+    synchronized void clear() {
+	byUuid.clear();
+	byName.clear();
+    }
+
+    /**
+     * Removes the expired players and the least recently used players over the size limit.
+     */
+    synchronized void evict() {
+	long expiredBefore = expireMillis > 0 ? System.currentTimeMillis() - expireMillis : Long.MIN_VALUE;
+	int over = maxSize > 0 ? byUuid.size() - maxSize : 0;
+
+	Iterator<Entry> it = byUuid.values().iterator();
+	while (it.hasNext()) {
+	    Entry entry = it.next();
+
+	    // Entries are in access order, the remaining ones are newer
+	    if (over <= 0 && entry.accessed >= expiredBefore)
+		break;
+
+	    if (!entry.jPlayer.isSaved() || entry.jPlayer.isOnline())
+		continue;
+
+	    it.remove();
+	    byName.remove(entry.jPlayer.getName().toLowerCase(), entry.jPlayer.getUniqueId());
+	    over--;
+	}
+    }
+
+    private static final class Entry {
+	private final JobsPlayer jPlayer;
+	private long accessed = System.currentTimeMillis();
+
+	private Entry(JobsPlayer jPlayer) {
+	    this.jPlayer = jPlayer;
+	}
+    }
+}
@@ -5,13 +5,14 @@ import java.text.NumberFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 
@@ -32,9 +33,17 @@ public class Placeholder {
 
     private Jobs plugin;
 
-    private final AtomicInteger jobLevel = new AtomicInteger();
     private final Pattern placeholderPatern = Pattern.compile("(%)([^\"^%]*)(%)");
 
+    // Owner of the cached values which are the same for every player
+    private static final UUID GLOBAL = new UUID(0L, 0L);
+    private static final int MAX_CACHED_NAMES = 1000;
+    // Per owner, complex placeholders are cached by their arguments
+    private static final int MAX_CACHED_VALUES = 256;
+
+    private final Map<UUID, Map<String, CachedValue>> valueCache = new ConcurrentHashMap<>();
+    private final Map<String, Optional<JobsPlaceHolders>> nameCache = new ConcurrentHashMap<>();
+
     public Placeholder(Jobs plugin) {
 	this.plugin = plugin;
     }
@@ -70,6 +79,7 @@ public class Placeholder {
 
 	user_boost_$1_$2("jname/number", "money/exp/points"),
 	user_jtoplvl_$1_$2("jname/number", "number"),
+	user_jrank_$1("jname/number"),
 	user_isin_$1("jname/number"),
 	user_canjoin_$1("jname/number"),
 	user_jlevel_$1("jname/number"),
@@ -82,6 +92,7 @@ public class Placeholder {
 	user_title_$1("jname/number"),
 	user_archived_jobs_level_$1("jname/number"),
 	user_archived_jobs_exp_$1("jname/number"),
+	user_grank,
 
 	maxjobs,
 
@@ -99,6 +110,8 @@ public class Placeholder {
 	maxlvl_$1("jname/number"),
 	maxviplvl_$1("jname/number"),
 	totalplayers_$1("jname/number"),
+	toplist_name_$1_$2("jname/number", "number"),
+	toplist_level_$1_$2("jname/number", "number"),
 	maxslots_$1("jname/number"),
 	bonus_$1("jname/number");
 
@@ -280,6 +293,91 @@ public class Placeholder {
 	public boolean isHidden() {
 	    return hidden;
 	}
+
+	/**
+	 * @return true if the value of this placeholder is the same for every player
+	 */
+	public boolean isGlobal() {
+	    switch (this) {
+	    case total_workers:
+	    case name_$1:
+	    case shortname_$1:
+	    case chatcolor_$1:
+	    case description_$1:
+	    case maxdailyq_$1:
+	    case maxlvl_$1:
+	    case maxviplvl_$1:
+	    case totalplayers_$1:
+	    case toplist_name_$1_$2:
+	    case toplist_level_$1_$2:
+	    case maxslots_$1:
+	    case bonus_$1:
+		return true;
+	    default:
+		return false;
+	    }
+	}
+
+	/**
+	 * Returns the time the value of this placeholder is cached for. Values of players are also
+	 * removed from cache when they level up, get paid or join or leave a job.
+	 *
+	 * @return the time in milliseconds
+	 */
+	public long getCacheTime() {
+	    switch (this) {
+	    case name_$1:
+	    case shortname_$1:
+	    case chatcolor_$1:
+	    case description_$1:
+	    case maxdailyq_$1:
+	    case maxlvl_$1:
+	    case maxviplvl_$1:
+	    case maxslots_$1:
+		// Only changed by reload, which clears the cache
+		return 300000L;
+	    case total_workers:
+	    case totalplayers_$1:
+	    case bonus_$1:
+		return 60000L;
+	    case user_jtoplvl_$1_$2:
+	    case user_jrank_$1:
+	    case user_grank:
+	    case toplist_name_$1_$2:
+	    case toplist_level_$1_$2:
+		return 5000L;
+	    default:
+		return 1000L;
+	    }
+	}
+    }
+
+    private static final class CachedValue {
+	private final String value;
+	private final long expires;
+
+	private CachedValue(String value, long expires) {
+	    this.value = value;
+	    this.expires = expires;
+	}
+    }
+
+    /**
+     * Removes the cached placeholder values of the given player.
+     *
+     * @param uuid the player {@link UUID}
+     */
+    public void invalidate(UUID uuid) {
+	if (uuid != null)
+	    valueCache.remove(uuid);
+    }
+
+    /**
+     * Removes every cached placeholder value.
+     */
+    public void clearCache() {
+	valueCache.clear();
+	nameCache.clear();
     }
 
     public List<String> updatePlaceHolders(Player player, List<String> messages) {
@@ -341,29 +439,50 @@ public class Placeholder {
 	if (message == null)
 	    return null;
 
-	if (message.contains("%")) {
-	    Matcher match = placeholderPatern.matcher(message);
-	    while (match.find()) {
-		if (!message.contains("%"))
-		    break;
+	if (!message.contains("%"))
+	    return message;
 
-		JobsPlaceHolders place = JobsPlaceHolders.getByNameExact(match.group(2));
-		if (place == null)
-		    continue;
+	StringBuilder builder = null;
+	int last = 0;
 
-		String group = match.group();
-		String with = getValue(player, place, group);
-		if (with == null)
-		    with = "";
+	Matcher match = placeholderPatern.matcher(message);
+	while (match.find()) {
+	    JobsPlaceHolders place = getByNameExact(match.group(2));
+	    if (place == null)
+		continue;
 
-		if (with.startsWith("$"))
-		    with = "\\" + with;
+	    String with = getValue(player, place, match.group());
 
-		message = message.replaceFirst(group, with);
-	    }
+	    if (builder == null)
+		builder = new StringBuilder(message.length());
+
+	    builder.append(message, last, match.start());
+	    if (with != null)
+		builder.append(with);
+
+	    last = match.end();
 	}
 
-	return message;
+	if (builder == null)
+	    return message;
+
+	return builder.append(message, last, message.length()).toString();
+    }
+
+    private JobsPlaceHolders getByNameExact(String name) {
+	name = name.toLowerCase();
+
+	Optional<JobsPlaceHolders> place = nameCache.get(name);
+	if (place == null) {
+	    // Messages can contain any text between percent signs
+	    if (nameCache.size() >= MAX_CACHED_NAMES)
+		nameCache.clear();
+
+	    place = Optional.ofNullable(JobsPlaceHolders.getByNameExact(name));
+	    nameCache.put(name, place);
+	}
+
+	return place.orElse(null);
     }
 
     public String getValue(Player player, JobsPlaceHolders placeHolder) {
@@ -407,7 +526,48 @@ public class Placeholder {
 	if (placeHolder == null)
 	    return null;
 
-	JobsPlayer user = uuid == null ? null : Jobs.getPlayerManager().getJobsPlayer(uuid);
+	UUID owner = uuid == null || placeHolder.isGlobal() ? GLOBAL : uuid;
+	String key = placeHolder.isComplex() && value != null ? value : placeHolder.name();
+
+	// Values of offline players are not cached, their entries would never be invalidated
+	if (!GLOBAL.equals(owner) && Bukkit.getPlayer(owner) == null)
+	    return getUncachedValue(uuid, placeHolder, value);
+
+	Map<String, CachedValue> values = valueCache.get(owner);
+	if (values == null) {
+	    sweepOwners();
+	    values = valueCache.computeIfAbsent(owner, k -> new ConcurrentHashMap<>());
+	}
+
+	long now = System.currentTimeMillis();
+
+	CachedValue cached = values.get(key);
+	if (cached != null && cached.expires > now)
+	    return cached.value;
+
+	if (values.size() >= MAX_CACHED_VALUES) {
+	    values.values().removeIf(one -> one.expires <= now);
+
+	    if (values.size() >= MAX_CACHED_VALUES)
+		values.clear();
+	}
+
+	String result = getUncachedValue(uuid, placeHolder, value);
+	values.put(key, new CachedValue(result, now + placeHolder.getCacheTime()));
+	return result;
+    }
+
+    /**
+     * Removes the cached values of players who went offline without being invalidated.
+     */
+    private void sweepOwners() {
+	if (valueCache.size() > Bukkit.getOnlinePlayers().size())
+	    valueCache.keySet().removeIf(owner -> !GLOBAL.equals(owner) && Bukkit.getPlayer(owner) == null);
+    }
+
+    private String getUncachedValue(UUID uuid, JobsPlaceHolders placeHolder, String value) {
+	// Offline players are loaded in the background, until then only the placeholders without user data are resolved
+	JobsPlayer user = uuid == null ? null : Jobs.getPlayerManager().getJobsPlayerAsync(uuid).getNow(null);
 	// Placeholders by JobsPlayer object
 	if (user != null) {
 	    NumberFormat format = NumberFormat.getInstance(Locale.ENGLISH);
@@ -447,6 +607,8 @@ public class Placeholder {
 		return TimeManage.to24hourShort(System.currentTimeMillis() - user.getSeen());
 	    case user_totallevels:
 		return Integer.toString(user.getTotalLevels());
+	    case user_grank:
+		return Integer.toString(Jobs.getLeaderboards().getGlobalRank(user));
 	    case user_points:
 		DecimalFormat dec = new DecimalFormat("00.0");
 		return dec.format(user.getPointsData().getCurrentPoints());
@@ -528,22 +690,21 @@ public class Placeholder {
 		    if (vals.size() < 2 || job == null)
 			return "";
 
+			int start;
 			try {
-			    jobLevel.set(Integer.parseInt(vals.get(1)));
+			    start = Integer.parseInt(vals.get(1));
 			} catch (NumberFormatException e) {
 			    return "";
 			}
 
-			return CompletableFuture.supplyAsync(() -> {
-			    for (TopList l : Jobs.getJobsDAO().getGlobalTopList(jobLevel.get())) {
-				if (l.getPlayerInfo().getName().equals(user.getName())) {
-				    JobProgression prog = l.getPlayerInfo().getJobsPlayer().getJobProgression(job);
-				    return prog == null ? "" : Integer.toString(prog.getLevel());
-				}
-			    }
-
+			// Same as looking the player up in the global top list page from the given position
+			int rank = Jobs.getLeaderboards().getGlobalRank(user) - 1;
+			if (rank < Math.max(0, start) || rank >= Math.max(0, start) + Jobs.getGCManager().JobsTopAmount * 2)
 			    return "";
-			}).join();
+
+			return j == null ? "" : Integer.toString(j.getLevel());
+		case user_jrank_$1:
+		    return job == null ? "" : Integer.toString(Jobs.getLeaderboards().getRank(job, user));
 		case user_isin_$1:
 		    return job == null ? "no" : convert(user.isInJob(job));
 		case user_job_$1:
@@ -634,6 +795,22 @@ public class Placeholder {
 		return Double.toString(jo.getBonus());
 	    case totalplayers_$1:
 		return Integer.toString(jo.getTotalPlayers());
+	    case toplist_name_$1_$2:
+	    case toplist_level_$1_$2:
+		if (values.size() < 2)
+		    return "";
+
+		TopList top;
+		try {
+		    top = Jobs.getLeaderboards().getPlayerAt(jo, Integer.parseInt(values.get(1)));
+		} catch (NumberFormatException e) {
+		    return "";
+		}
+
+		if (top == null)
+		    return "";
+
+		return placeHolder == JobsPlaceHolders.toplist_name_$1_$2 ? top.getPlayerInfo().getName() : Integer.toString(top.getLevel());
 	    case maxslots_$1:
 		return Integer.toString(jo.getMaxSlots());
 	    default:
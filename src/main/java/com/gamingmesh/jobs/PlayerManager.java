@@ -18,12 +18,15 @@
 
 package com.gamingmesh.jobs;
 
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ThreadLocalRandom;
@@ -69,16 +72,23 @@ import com.gamingmesh.jobs.stuff.Util;
 
 public class PlayerManager {
 
-    private final ConcurrentMap<String, JobsPlayer> playersCache = new ConcurrentHashMap<>();
-    private final ConcurrentMap<UUID, JobsPlayer> playersUUIDCache = new ConcurrentHashMap<>();
+    private static final int SAVE_BATCH_SIZE = 200;
+    // Ticks to wait before loading a joined player again after a database error
+    private static final long LOAD_RETRY_DELAY = 100L;
+
+    private final OfflinePlayerCache offlineCache = new OfflinePlayerCache();
     private final ConcurrentMap<String, JobsPlayer> players = new ConcurrentHashMap<>();
     private final ConcurrentMap<UUID, JobsPlayer> playersUUID = new ConcurrentHashMap<>();
+    // players whose data is being loaded from database
+    private final ConcurrentMap<UUID, CompletableFuture<JobsPlayer>> loading = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, CompletableFuture<JobsPlayer>> offlineLoading = new ConcurrentHashMap<>();
 
     private final String mobSpawnerMetadata = "jobsMobSpawner";
 
-    private final Map<UUID, PlayerInfo> playerUUIDMap = new HashMap<>();
-    private final Map<Integer, PlayerInfo> playerIdMap = new HashMap<>();
-    private final Map<String, PlayerInfo> playerNameMap = new HashMap<>();
+    // Filled by the async player loaders too
+    private final Map<UUID, PlayerInfo> playerUUIDMap = new ConcurrentHashMap<>();
+    private final Map<Integer, PlayerInfo> playerIdMap = new ConcurrentHashMap<>();
+    private final Map<String, PlayerInfo> playerNameMap = new ConcurrentHashMap<>();
 
     private final Jobs plugin;
 
@@ -114,25 +124,26 @@ public class PlayerManager {
     }
 
     public void clearCache() {
-	playersCache.clear();
-	playersUUIDCache.clear();
+	offlineCache.clear();
 	players.clear();
 	playersUUID.clear();
     }
 
     public void addPlayerToMap(PlayerInfo info) {
-	playerUUIDMap.put(info.getUuid(), info);
+	if (info.getUuid() != null)
+	    playerUUIDMap.put(info.getUuid(), info);
 	playerIdMap.put(info.getID(), info);
-	playerNameMap.put(info.getName().toLowerCase(), info);
+	if (info.getName() != null)
+	    playerNameMap.put(info.getName().toLowerCase(), info);
     }
 
+    /**
+     * Keeps the given player in the bounded cache of offline players.
+     * 
+     * @param jPlayer {@link JobsPlayer}
+     */
     public void addPlayerToCache(JobsPlayer jPlayer) {
-	String jName = jPlayer.getName().toLowerCase();
-
-	playersCache.put(jName, jPlayer);
-
-	if (jPlayer.getUniqueId() != null)
-	    playersUUIDCache.put(jPlayer.getUniqueId(), jPlayer);
+	offlineCache.put(jPlayer);
     }
 
     public void addPlayer(JobsPlayer jPlayer) {
@@ -159,8 +170,54 @@ public class PlayerManager {
 	return playersUUID.remove(player.getUniqueId());
     }
 
+    /**
+     * Removes the given offline player from the player maps, unless it was
+     * replaced by another instance in the meantime.
+     * 
+     * @param jPlayer {@link JobsPlayer}
+     */
+    public void removePlayer(JobsPlayer jPlayer) {
+	if (jPlayer.isOnline())
+	    return;
+
+	players.remove(jPlayer.getName().toLowerCase(), jPlayer);
+
+	if (jPlayer.getUniqueId() != null)
+	    playersUUID.remove(jPlayer.getUniqueId(), jPlayer);
+    }
+
+    /**
+     * Returns a copy of the currently cached offline players. Players are loaded
+     * on demand and evicted after a while, so this is not the list of every player.
+     * 
+     * @deprecated use {@link #getLoadedPlayers()} or the database for full scans
+     */
+    @Deprecated
     public ConcurrentMap<UUID, JobsPlayer> getPlayersCache() {
-	return playersUUIDCache;
+	ConcurrentMap<UUID, JobsPlayer> copy = new ConcurrentHashMap<>();
+	for (JobsPlayer jPlayer : offlineCache.values()) {
+	    copy.put(jPlayer.getUniqueId(), jPlayer);
+	}
+	return copy;
+    }
+
+    /**
+     * @return a copy of the players which are in memory, online or cached
+     */
+    public List<JobsPlayer> getLoadedPlayers() {
+	List<JobsPlayer> loaded = offlineCache.values();
+	for (JobsPlayer jPlayer : playersUUID.values()) {
+	    if (!offlineCache.contains(jPlayer.getUniqueId()))
+		loaded.add(jPlayer);
+	}
+	return loaded;
+    }
+
+    /**
+     * Applies the cache bounds from the general config and evicts the players over them.
+     */
+    public void reloadCacheBounds() {
+	offlineCache.setBounds(Jobs.getGCManager().getMaxCachedPlayers(), Jobs.getGCManager().getCachedPlayerExpire());
     }
 
     public Map<UUID, PlayerInfo> getPlayersInfoUUIDMap() {
@@ -187,7 +244,7 @@ public class PlayerManager {
      * @return the identifier
      */
     public int getPlayerId(UUID uuid) {
-	PlayerInfo info = playerUUIDMap.get(uuid);
+	PlayerInfo info = getPlayerInfo(uuid);
 	return info == null ? -1 : info.getID();
     }
 
@@ -221,41 +278,116 @@ public class PlayerManager {
      * @return {@link PlayerInfo}
      */
     public PlayerInfo getPlayerInfo(UUID uuid) {
-	return playerUUIDMap.get(uuid);
+	return uuid == null ? null : playerUUIDMap.get(uuid);
+    }
+
+    /**
+     * Starts loading the data of the given player from database in the background,
+     * if it is not cached into memory. This is called before the player joins, so
+     * the data is usually ready by the time {@link #playerJoin(Player)} is called.
+     * 
+     * @param uuid the player uuid
+     * @param name the player name
+     */
+    public void preloadPlayer(UUID uuid, String name) {
+	// Other servers may still be saving the player data
+	if (!Jobs.getGCManager().MultiServerCompatability() && !playersUUID.containsKey(uuid) && !offlineCache.contains(uuid))
+	    loadPlayer(uuid, name);
     }
 
     /**
-     * Handles join of new player synchronously. This can be called
-     * within an asynchronous operation in order to load the player
-     * from database if it is not cached into memory.
+     * Forgets the preloaded data of the given player, used when the player was not allowed to join.
+     * 
+     * @param uuid the player uuid
+     */
+    public void cancelPreload(UUID uuid) {
+	loading.remove(uuid);
+    }
+
+    private CompletableFuture<JobsPlayer> loadPlayer(UUID uuid, String name) {
+	return loading.computeIfAbsent(uuid, u -> loadFromDatabase(uuid, name));
+    }
+
+    private static CompletableFuture<JobsPlayer> loadFromDatabase(UUID uuid, String name) {
+	return CompletableFuture.supplyAsync(() -> {
+	    JobsPlayer jPlayer = new JobsPlayer(name);
+	    jPlayer.setPlayerUUID(uuid);
+	    try {
+		return Jobs.getJobsDAO().loadPlayer(jPlayer, Jobs.getGCManager().MultiServerCompatability());
+	    } catch (SQLException e) {
+		throw new CompletionException(e);
+	    }
+	});
+    }
+
+    /**
+     * Checks if the data of the given player is being loaded from database. Jobs actions
+     * of these players are ignored until the load is finished.
+     * 
+     * @param uuid the player uuid
+     * @return true if loading
+     */
+    public boolean isLoading(UUID uuid) {
+	return loading.containsKey(uuid);
+    }
+
+    /**
+     * Handles join of new player. If the player is not cached into memory,
+     * the player is loaded from database asynchronously and the join is
+     * finished on the main thread once the data is loaded.
      * 
      * @param player {@link Player}
      */
     public void playerJoin(Player player) {
-	JobsPlayer jPlayer = playersUUIDCache.get(player.getUniqueId());
+	UUID uuid = player.getUniqueId();
 
-	if (jPlayer == null || Jobs.getGCManager().MultiServerCompatability()) {
-	    if (jPlayer != null)
-		jPlayer = Jobs.getJobsDAO().loadFromDao(jPlayer);
-	    else
-		jPlayer = Jobs.getJobsDAO().loadFromDao(player);
+	// Players who quit recently can have changes which are not saved yet
+	JobsPlayer jPlayer = playersUUID.get(uuid);
+	if (jPlayer == null)
+	    jPlayer = offlineCache.get(uuid);
 
-	    if (Jobs.getGCManager().MultiServerCompatability()) {
-		jPlayer.setArchivedJobs(Jobs.getJobsDAO().getArchivedJobs(jPlayer));
-		jPlayer.setPaymentLimit(Jobs.getJobsDAO().getPlayersLimits(jPlayer));
-		jPlayer.setPoints(Jobs.getJobsDAO().getPlayerPoints(jPlayer));
-	    }
+	// Unsaved changes are newer than the database, even with other servers
+	if (jPlayer != null && (!jPlayer.isSaved() || !Jobs.getGCManager().MultiServerCompatability())) {
+	    finishJoin(player, jPlayer);
+	    return;
+	}
 
-	    // Lets load quest progression
-	    PlayerInfo info = Jobs.getJobsDAO().loadPlayerData(player.getUniqueId());
-	    if (info != null) {
-		jPlayer.setDoneQuests(info.getQuestsDone());
-		jPlayer.setQuestProgressionFromString(info.getQuestProgression());
+	loadPlayer(uuid, player.getName()).whenComplete((loaded, e) -> {
+	    if (e != null) {
+		e.printStackTrace();
+
+		// The player stays in loading state, so nothing is paid or saved until the data is loaded
+		Bukkit.getScheduler().runTaskLater(plugin, () -> {
+		    if (player.isOnline()) {
+			loading.put(uuid, loadFromDatabase(uuid, player.getName()));
+			playerJoin(player);
+		    } else
+			loading.remove(uuid);
+		}, LOAD_RETRY_DELAY);
+		return;
 	    }
 
-	    Jobs.getJobsDAO().loadLog(jPlayer);
-	}
+	    Runnable finish = () -> {
+		if (player.isOnline()) {
+		    loaded.reloadMaxExperience();
+		    loaded.reloadLimits();
+		    finishJoin(player, loaded);
+		}
+
+		// Removed after the player is added, so offline loads never cache a second copy
+		loading.remove(uuid);
+	    };
+
+	    if (Bukkit.isPrimaryThread())
+		finish.run();
+	    else
+		Bukkit.getScheduler().runTask(plugin, finish);
+	});
+    }
 
+    private void finishJoin(Player player, JobsPlayer jPlayer) {
+	// Online players are kept in the player map until they are saved after quit
+	offlineCache.remove(player.getUniqueId());
 	addPlayer(jPlayer);
 	autoJoinJobs(player);
 	jPlayer.onConnect();
@@ -274,9 +406,10 @@ public class PlayerManager {
 	    return;
 
 	jPlayer.onDisconnect();
+	jPlayer.invalidatePlaceholders();
 	if (Jobs.getGCManager().saveOnDisconnect()) {
 	    jPlayer.setSaved(false);
-	    jPlayer.save();
+	    Jobs.getWriteBehind().queue(jPlayer);
 	}
     }
 
@@ -292,8 +425,10 @@ public class PlayerManager {
 
     /**
      * Save all the information of all of the players
+     * 
+     * @return true if every player was saved
      */
-    public void saveAll() {
+    public boolean saveAll() {
 	/*
 	 * Saving is a three step process to minimize synchronization locks when called asynchronously.
 	 * 
@@ -301,29 +436,60 @@ public class PlayerManager {
 	 * 2) Perform save on all players on copied list.
 	 * 3) Garbage collect the real list to remove any offline players with saved data
 	 */
-	for (JobsPlayer jPlayer : new ArrayList<>(players.values()))
-	    jPlayer.save();
+	List<JobsPlayer> toSave = getUnsavedPlayers();
+	boolean saved = true;
 
-	Iterator<JobsPlayer> iter = players.values().iterator();
-	while (iter.hasNext()) {
-	    JobsPlayer jPlayer = iter.next();
+	// Every chunk of players is saved in one transaction
+	for (int i = 0; i < toSave.size(); i += SAVE_BATCH_SIZE) {
+	    List<JobsPlayer> batch = toSave.subList(i, Math.min(toSave.size(), i + SAVE_BATCH_SIZE));
 
-	    if (jPlayer.isSaved() && !jPlayer.isOnline())
-		iter.remove();
+	    saved &= Jobs.getJobsDAO().savePlayers(batch);
+	    batch.forEach(JobsPlayer::onSaved);
 	}
 
+	for (JobsPlayer jPlayer : playersUUID.values()) {
+	    if (jPlayer.isSaved() && !jPlayer.isOnline()) {
+		addPlayerToCache(jPlayer);
+		removePlayer(jPlayer);
+	    }
+	}
+
+	players.values().removeIf(jPlayer -> jPlayer.isSaved() && !jPlayer.isOnline());
+
+	offlineCache.evict();
 	Jobs.getBpManager().saveCache();
+	return saved;
     }
 
     /**
-     * Converts the cache of all the players into a new one.
+     * @return a copy of the loaded players which have unsaved changes, online or cached
+     */
+    public List<JobsPlayer> getUnsavedPlayers() {
+	List<JobsPlayer> unsaved = new ArrayList<>();
+	for (JobsPlayer jPlayer : players.values()) {
+	    if (!jPlayer.isSaved())
+		unsaved.add(jPlayer);
+	}
+
+	// Offline players changed by commands or payments
+	for (JobsPlayer jPlayer : offlineCache.values()) {
+	    if (!jPlayer.isSaved() && players.get(jPlayer.getName().toLowerCase()) != jPlayer)
+		unsaved.add(jPlayer);
+	}
+
+	return unsaved;
+    }
+
+    /**
+     * Writes the given players into the current database.
      * 
+     * @param players the players loaded from the old database
      * @param resetID true to not insert into database and reset the players id
      */
-    public void convertChacheOfPlayers(boolean resetID) {
-	int y = 0, i = 0, total = playersUUIDCache.size();
+    public void convertChacheOfPlayers(Collection<JobsPlayer> players, boolean resetID) {
+	int y = 0, i = 0, total = players.size();
 
-	for (JobsPlayer jPlayer : playersUUIDCache.values()) {
+	for (JobsPlayer jPlayer : players) {
 	    if (resetID)
 		jPlayer.setUserId(-1);
 
@@ -365,22 +531,31 @@ public class PlayerManager {
     /**
      * Gets the player job info for specific player uuid if exist.
      * <p>
-     * This can return null sometimes if the given player
-     * is not cached into memory.
+     * Offline players which are not cached are loaded from database, which
+     * blocks the calling thread. Use {@link #getJobsPlayerAsync(UUID)} for
+     * offline players on the main thread.
+     * This can return null if the player is unknown or its data is being
+     * loaded on join.
      * 
      * @param player the player uuid
      * @return {@link JobsPlayer} the player job info of the player
      */
     public JobsPlayer getJobsPlayer(UUID uuid) {
 	JobsPlayer jPlayer = playersUUID.get(uuid);
-	return jPlayer != null ? jPlayer : playersUUIDCache.get(uuid);
+	if (jPlayer == null)
+	    jPlayer = offlineCache.get(uuid);
+
+	return jPlayer != null ? jPlayer : waitForOfflinePlayer(getPlayerInfo(uuid));
     }
 
     /**
      * Get the player job info for specific player name if exist.
      * <p>
-     * This can return null sometimes if the given player
-     * is not cached into memory.
+     * Offline players which are not cached are loaded from database, which
+     * blocks the calling thread. Use {@link #getJobsPlayerAsync(String)} for
+     * offline players on the main thread.
+     * This can return null if the player is unknown or its data is being
+     * loaded on join.
      * 
      * @param player name - the player name who's job you're getting
      * @return {@link JobsPlayer} the player job info of the player
@@ -389,7 +564,144 @@ public class PlayerManager {
 	playerName = playerName.toLowerCase();
 
 	JobsPlayer jPlayer = players.get(playerName);
-	return jPlayer != null ? jPlayer : playersCache.get(playerName);
+	if (jPlayer == null)
+	    jPlayer = offlineCache.get(playerName);
+
+	return jPlayer != null ? jPlayer : waitForOfflinePlayer(getPlayerInfo(playerName));
+    }
+
+    /**
+     * Gets the player job info for specific player uuid, offline players which
+     * are not cached are loaded from database in the background.
+     * <p>
+     * The returned future completes on the main thread, right away if the player is cached.
+     * 
+     * @param uuid the player uuid
+     * @return future of the {@link JobsPlayer}, completed with null if the player is unknown
+     * or could not be loaded
+     */
+    public CompletableFuture<JobsPlayer> getJobsPlayerAsync(UUID uuid) {
+	JobsPlayer jPlayer = playersUUID.get(uuid);
+	if (jPlayer == null)
+	    jPlayer = offlineCache.get(uuid);
+
+	return jPlayer != null ? CompletableFuture.completedFuture(jPlayer) : completeOnMainThread(loadOfflinePlayer(getPlayerInfo(uuid)));
+    }
+
+    /**
+     * Gets the player job info for specific player name, offline players which
+     * are not cached are loaded from database in the background.
+     * <p>
+     * The returned future completes on the main thread, right away if the player is cached.
+     * 
+     * @param playerName the player name
+     * @return future of the {@link JobsPlayer}, completed with null if the player is unknown
+     * or could not be loaded
+     */
+    public CompletableFuture<JobsPlayer> getJobsPlayerAsync(String playerName) {
+	playerName = playerName.toLowerCase();
+
+	JobsPlayer jPlayer = players.get(playerName);
+	if (jPlayer == null)
+	    jPlayer = offlineCache.get(playerName);
+
+	return jPlayer != null ? CompletableFuture.completedFuture(jPlayer) : completeOnMainThread(loadOfflinePlayer(getPlayerInfo(playerName)));
+    }
+
+    private CompletableFuture<JobsPlayer> completeOnMainThread(CompletableFuture<JobsPlayer> future) {
+	CompletableFuture<JobsPlayer> result = new CompletableFuture<>();
+
+	future.whenComplete((jPlayer, e) -> {
+	    if (e != null)
+		e.printStackTrace();
+
+	    JobsPlayer loaded = e == null ? jPlayer : null;
+	    if (Bukkit.isPrimaryThread())
+		result.complete(loaded);
+	    else
+		Bukkit.getScheduler().runTask(plugin, () -> result.complete(loaded));
+	});
+
+	return result;
+    }
+
+    /**
+     * Loads an offline player on the calling thread, see {@link #loadOfflinePlayer(PlayerInfo)}.
+     * 
+     * @param info {@link PlayerInfo}
+     * @return {@link JobsPlayer} or null if info is null, the load failed or the player is joining
+     */
+    private JobsPlayer waitForOfflinePlayer(PlayerInfo info) {
+	// The join is finished on the main thread, so it can't be waited for
+	CompletableFuture<JobsPlayer> joining = info == null || info.getUuid() == null ? null : loading.get(info.getUuid());
+	if (joining != null)
+	    return joining.isCompletedExceptionally() ? null : joining.getNow(null);
+
+	try {
+	    return loadOfflinePlayer(info).join();
+	} catch (CompletionException e) {
+	    e.printStackTrace();
+	    return null;
+	}
+    }
+
+    /**
+     * Loads the data of a known offline player from database into the cache.
+     * 
+     * @param info {@link PlayerInfo}
+     * @return future of the cached {@link JobsPlayer}, completed with null if info is null
+     * or the player joined meanwhile. A player who is joining gives the future of the join.
+     */
+    private CompletableFuture<JobsPlayer> loadOfflinePlayer(PlayerInfo info) {
+	if (info == null || info.getUuid() == null)
+	    return CompletableFuture.completedFuture(null);
+
+	UUID uuid = info.getUuid();
+
+	// Do not create a second copy of a player whose join is not finished yet
+	CompletableFuture<JobsPlayer> joining = loading.get(uuid);
+	if (joining != null)
+	    return joining;
+
+	CompletableFuture<JobsPlayer> future = offlineLoading.computeIfAbsent(uuid, u -> CompletableFuture.supplyAsync(() -> {
+	    JobsPlayer jPlayer = new JobsPlayer(info.getName());
+	    jPlayer.setPlayerUUID(uuid);
+	    try {
+		Jobs.getJobsDAO().loadPlayer(jPlayer, true);
+	    } catch (SQLException e) {
+		throw new CompletionException(e);
+	    }
+	    jPlayer.reloadMaxExperience();
+	    jPlayer.reloadLimits();
+	    jPlayer.setSaved(true);
+	    return cacheOfflinePlayer(jPlayer);
+	}));
+	future.whenComplete((jPlayer, e) -> offlineLoading.remove(uuid, future));
+	return future;
+    }
+
+    /**
+     * Adds the loaded offline player to the cache, unless the player joined or
+     * was cached in the meantime.
+     * 
+     * @param jPlayer {@link JobsPlayer}
+     * @return the cached {@link JobsPlayer}, or null if the player is joining
+     */
+    private synchronized JobsPlayer cacheOfflinePlayer(JobsPlayer jPlayer) {
+	UUID uuid = jPlayer.getUniqueId();
+
+	JobsPlayer current = playersUUID.get(uuid);
+	if (current == null)
+	    current = offlineCache.get(uuid);
+
+	if (current != null)
+	    return current;
+
+	if (loading.containsKey(uuid))
+	    return null;
+
+	addPlayerToCache(jPlayer);
+	return jPlayer;
     }
 
     /**
@@ -637,6 +949,9 @@ public class PlayerManager {
 	if (prog == null)
 	    return;
 
+	jPlayer.invalidatePayoutMemo();
+	jPlayer.invalidatePlaceholders();
+
 	Player player = jPlayer.getPlayer();
 
 	// when the player loses income
@@ -914,7 +1229,9 @@ public class PlayerManager {
      * Perform reload for all jobs players.
      */
     public void reload() {
-	for (JobsPlayer jPlayer : players.values()) {
+	reloadCacheBounds();
+
+	for (JobsPlayer jPlayer : getLoadedPlayers()) {
 	    for (JobProgression progression : jPlayer.progression) {
 		Job job = Jobs.getJob(progression.getJob().getName());
 		if (job != null)
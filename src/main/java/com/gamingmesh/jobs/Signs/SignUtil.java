@@ -3,18 +3,27 @@ package com.gamingmesh.jobs.Signs;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
-import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
+import org.bukkit.block.BlockState;
 import org.bukkit.block.Sign;
 import org.bukkit.block.Skull;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.scheduler.BukkitTask;
 
 import com.gamingmesh.jobs.Jobs;
 import com.gamingmesh.jobs.CMILib.CMIMaterial;
@@ -28,6 +37,15 @@ public class SignUtil {
     private final Map<String, Map<String, jobsSign>> signsByType = new HashMap<>();
     private final Map<String, jobsSign> signsByLocation = new HashMap<>();
 
+    // Identifiers of the signs waiting for refresh
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final Queue<SignChange> changes = new ConcurrentLinkedQueue<>();
+    // Changes of signs in unloaded chunks by sign location, written when their chunk loads
+    private final Map<String, SignChange> unloaded = new HashMap<>();
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private BukkitTask applyTask;
+    private long lastRefresh = 0L;
+
     private Jobs plugin;
 
     public SignUtil(Jobs plugin) {
@@ -80,6 +98,7 @@ public class SignUtil {
 
 	signsByType.clear();
 	signsByLocation.clear();
+	unloaded.clear();
 
 	File file = new File(Jobs.getFolder(), "Signs.yml");
 	ConfigurationSection confCategory = YamlConfiguration.loadConfiguration(file).getConfigurationSection("Signs");
@@ -173,6 +192,14 @@ public class SignUtil {
 	return signUpdate(job, SignTopType.toplist);
     }
 
+    /**
+     * Marks the signs of the given job and type for update. The top lists are read asynchronously
+     * and only the signs with changed content are updated, spread over the next ticks.
+     *
+     * @param job {@link Job}
+     * @param type {@link SignTopType}
+     * @return false if there are no signs of the given job and type
+     */
     public boolean signUpdate(Job job, SignTopType type) {
 	if (!Jobs.getGCManager().SignsEnabled)
 	    return true;
@@ -186,128 +213,252 @@ public class SignUtil {
 	if (signs == null || signs.isEmpty())
 	    return false;
 
-	List<TopList> playerList = new ArrayList<>();
+	dirty.add(jobNameOrType);
+	scheduleRefresh();
+	return true;
+    }
+
+    /**
+     * Schedules the next refresh, at most once per sign update interval.
+     */
+    private void scheduleRefresh() {
+	if (!plugin.isEnabled() || !refreshing.compareAndSet(false, true))
+	    return;
+
+	long wait = lastRefresh + Jobs.getGCManager().InfoUpdateInterval * 1000L - System.currentTimeMillis();
+	plugin.getServer().getScheduler().runTaskLater(plugin, this::refresh, Math.max(1L, wait / 50L));
+    }
+
+    private void refresh() {
+	lastRefresh = System.currentTimeMillis();
+
+	// The sign maps are only used on main thread
+	Map<String, List<jobsSign>> snapshot = new HashMap<>();
+	for (String identifier : dirty) {
+	    dirty.remove(identifier);
+
+	    Map<String, jobsSign> signs = signsByType.get(identifier);
+	    if (signs != null && !signs.isEmpty())
+		snapshot.put(identifier, new ArrayList<>(signs.values()));
+	}
+
+	if (snapshot.isEmpty()) {
+	    refreshing.set(false);
+	    return;
+	}
+
+	plugin.getServer().getScheduler().runTaskAsynchronously(plugin, () -> {
+	    try {
+		for (List<jobsSign> signs : snapshot.values()) {
+		    render(signs);
+		}
+	    } finally {
+		if (plugin.isEnabled())
+		    plugin.getServer().getScheduler().runTask(plugin, this::refreshDone);
+	    }
+	});
+    }
+
+    private void refreshDone() {
+	refreshing.set(false);
+	startApplying();
+
+	// Updates requested while refreshing
+	if (!dirty.isEmpty())
+	    scheduleRefresh();
+    }
+
+    /**
+     * Computes the content of the given signs of the same identifier and queues the changed ones.
+     */
+    private void render(List<jobsSign> signs) {
+	jobsSign first = signs.get(0);
+	SignTopType type = first.getType();
+	String signJobName = first.getJobName();
 
+	List<TopList> playerList;
 	switch (type) {
 	case gtoplist:
-	    playerList = Jobs.getJobsDAO().getGlobalTopList(0);
+	    playerList = Jobs.getLeaderboards().getGlobalTopList(0);
 	    break;
 	case questtoplist:
-	    playerList = Jobs.getJobsDAO().getQuestTopList(0);
+	    playerList = Jobs.getLeaderboards().getQuestTopList(0);
 	    break;
 	default:
+	    playerList = Jobs.getLeaderboards().toplist(signJobName, 0);
 	    break;
 	}
 
-	int timelapse = 1;
-
-	Map<String, List<TopList>> temp = new HashMap<>();
-
-	boolean save = false;
-	for (jobsSign jSign : new HashMap<>(signs).values()) {
-	    Location loc = jSign.getLocation();
-	    if (loc == null)
-		continue;
-
-	    Block block = loc.getBlock();
-	    if (!(block.getState() instanceof Sign)) {
-		if (!jobNameOrType.isEmpty()) {
-		    Map<String, jobsSign> tt = signsByType.get(jobNameOrType);
-		    if (tt != null) {
-			tt.remove(jSign.locToBlockString());
-		    }
-		}
-
-		signsByLocation.remove(jSign.locToBlockString());
-		save = true;
-		continue;
-	    }
-
-	    String signJobName = jSign.getJobName();
-	    if (type == SignTopType.toplist && (playerList = temp.get(signJobName)) == null) {
-		playerList = Jobs.getJobsDAO().toplist(signJobName);
-		temp.put(signJobName, playerList);
-	    }
+	if (playerList.isEmpty())
+	    return;
 
-	    if (playerList.isEmpty())
-		continue;
+	for (jobsSign jSign : signs) {
+	    String[] lines = new String[4];
+	    String head;
 
 	    int number = jSign.getNumber() - 1;
-	    Sign sign = (Sign) block.getState();
 
 	    if (!jSign.isSpecial()) {
 		for (int i = 0; i < 4; i++) {
 		    if (i + number >= playerList.size()) {
-			plugin.getComplement().setLine(sign, i, "");
+			lines[i] = "";
 			continue;
 		    }
 
 		    TopList pl = playerList.get(i + number);
-		    String playerName = pl.getPlayerInfo().getName();
-		    if (playerName.length() > 15) {
-			// We need to split 10 char of name, because of sign rows
-			playerName = playerName.split("(?<=\\G.{10})", 2)[0] + "~";
-		    }
+		    String playerName = shortName(pl.getPlayerInfo().getName());
 
-		    String line = "";
 		    switch (type) {
 		    case toplist:
 		    case gtoplist:
-			line = Jobs.getLanguage().getMessage("signs.List", "[number]", i + number + 1, "[player]", playerName, "[level]", pl.getLevel());
+			lines[i] = Jobs.getLanguage().getMessage("signs.List", "[number]", i + number + 1, "[player]", playerName, "[level]", pl.getLevel());
 			break;
 		    case questtoplist:
-			line = Jobs.getLanguage().getMessage("signs.questList", "[number]", i + number + 1, "[player]", playerName, "[quests]", pl.getLevel());
+			lines[i] = Jobs.getLanguage().getMessage("signs.questList", "[number]", i + number + 1, "[player]", playerName, "[quests]", pl.getLevel());
 			break;
 		    default:
+			lines[i] = "";
 			break;
 		    }
-
-		    if (!line.isEmpty())
-			sign.setLine(i, line);
-		}
-		sign.update();
-		if (!updateHead(sign, playerList.get(0).getPlayerInfo().getName(), timelapse)) {
-		    timelapse--;
 		}
+
+		head = playerList.get(0).getPlayerInfo().getName();
 	    } else {
 		if (jSign.getNumber() > playerList.size())
 		    continue;
 
 		TopList pl = playerList.get(jSign.getNumber() - 1);
-		String playerName = pl.getPlayerInfo().getName();
-		if (playerName.length() > 15) {
-		    playerName = playerName.split("(?<=\\G.{10})", 2)[0] + "~";
-		}
+		String playerName = shortName(pl.getPlayerInfo().getName());
 
 		int no = jSign.getNumber() + number + 1;
-		sign.setLine(0, translateSignLine("signs.SpecialList.p" + jSign.getNumber(), no, playerName, pl.getLevel(), signJobName));
-		sign.setLine(1, translateSignLine("signs.SpecialList.name", no, playerName, pl.getLevel(), signJobName));
-
-		switch (type) {
-		case toplist:
-		case gtoplist:
-		    sign.setLine(2, translateSignLine("signs.SpecialList.level", no, playerName, pl.getLevel(), signJobName));
-		    break;
-		case questtoplist:
-		    sign.setLine(2, Jobs.getLanguage().getMessage("signs.SpecialList.quests", "[number]", no, "[player]", playerName, "[quests]", pl.getLevel(), "[job]", signJobName));
-		    break;
-		default:
-		    break;
+		lines[0] = translateSignLine("signs.SpecialList.p" + jSign.getNumber(), no, playerName, pl.getLevel(), signJobName);
+		lines[1] = translateSignLine("signs.SpecialList.name", no, playerName, pl.getLevel(), signJobName);
+
+		if (type == SignTopType.questtoplist)
+		    lines[2] = Jobs.getLanguage().getMessage("signs.SpecialList.quests", "[number]", no, "[player]", playerName, "[quests]", pl.getLevel(), "[job]", signJobName);
+		else
+		    lines[2] = translateSignLine("signs.SpecialList.level", no, playerName, pl.getLevel(), signJobName);
+
+		lines[3] = translateSignLine("signs.SpecialList.bottom", no, playerName, pl.getLevel(), signJobName);
+
+		head = pl.getPlayerInfo().getName();
+	    }
+
+	    if (!Arrays.equals(lines, jSign.getLines()) || !head.equals(jSign.getHead()))
+		changes.add(new SignChange(jSign, lines, head));
+	}
+    }
+
+    private static String shortName(String playerName) {
+	if (playerName.length() > 15) {
+	    // We need to split 10 char of name, because of sign rows
+	    playerName = playerName.split("(?<=\\G.{10})", 2)[0] + "~";
+	}
+
+	return playerName;
+    }
+
+    private void startApplying() {
+	if (!changes.isEmpty() && applyTask == null)
+	    applyTask = plugin.getServer().getScheduler().runTaskTimer(plugin, this::applyChanges, 1L, 1L);
+    }
+
+    /**
+     * Queues the changes of signs which were waiting for the given chunk, or for a chunk next to
+     * it as heads can be in the neighbour chunk. Changes still waiting for another chunk are kept.
+     *
+     * @param chunk the loaded {@link Chunk}
+     */
+    public void onChunkLoad(Chunk chunk) {
+	if (unloaded.isEmpty())
+	    return;
+
+	for (Iterator<SignChange> it = unloaded.values().iterator(); it.hasNext();) {
+	    SignChange change = it.next();
+
+	    Location loc = change.jSign.getLocation();
+	    if (loc == null) {
+		it.remove();
+		continue;
+	    }
+
+	    if (loc.getWorld().equals(chunk.getWorld()) && Math.abs((loc.getBlockX() >> 4) - chunk.getX()) <= 1
+		&& Math.abs((loc.getBlockZ() >> 4) - chunk.getZ()) <= 1) {
+		changes.add(change);
+		it.remove();
+	    }
+	}
+
+	startApplying();
+    }
+
+    private static boolean isChunkLoaded(Location loc) {
+	return loc.getWorld() != null && loc.getWorld().isChunkLoaded(loc.getBlockX() >> 4, loc.getBlockZ() >> 4);
+    }
+
+    /**
+     * Writes the queued sign changes, up to the configured amount per tick.
+     */
+    private void applyChanges() {
+	boolean save = false;
+
+	SignChange change;
+	for (int i = 0; i < Jobs.getGCManager().SignsUpdatesPerTick && (change = changes.poll()) != null; i++) {
+	    jobsSign jSign = change.jSign;
+
+	    Location loc = jSign.getLocation();
+	    if (loc == null)
+		continue;
+
+	    // Written once the chunk is loaded
+	    if (!isChunkLoaded(loc)) {
+		unloaded.put(jSign.locToBlockString(), change);
+		continue;
+	    }
+
+	    BlockState state = loc.getBlock().getState();
+	    if (!(state instanceof Sign)) {
+		if (signsByLocation.containsKey(jSign.locToBlockString())) {
+		    removeSign(loc);
+		    save = true;
+		}
+		continue;
+	    }
+
+	    Sign sign = (Sign) state;
+	    if (!Arrays.equals(change.lines, jSign.getLines())) {
+		for (int l = 0; l < 4; l++) {
+		    if (change.lines[l].isEmpty())
+			plugin.getComplement().setLine(sign, l, "");
+		    else
+			sign.setLine(l, change.lines[l]);
 		}
 
-		sign.setLine(3, translateSignLine("signs.SpecialList.bottom", no, playerName, pl.getLevel(), signJobName));
 		sign.update();
-		if (!updateHead(sign, pl.getPlayerInfo().getName(), timelapse)) {
-		    timelapse--;
+		jSign.setLines(change.lines);
+	    }
+
+	    if (!change.head.equals(jSign.getHead())) {
+		Location head = getHeadLocation(sign);
+
+		// The head can be in the neighbour chunk
+		if (!isChunkLoaded(head)) {
+		    unloaded.put(jSign.locToBlockString(), change);
+		    continue;
 		}
+
+		setSkullOwner(head, change.head);
+		jSign.setHead(change.head);
 	    }
-	    timelapse++;
 	}
 
 	if (save)
 	    saveSigns();
 
-	return true;
+	if (changes.isEmpty() && applyTask != null) {
+	    applyTask.cancel();
+	    applyTask = null;
+	}
     }
 
     private static String translateSignLine(String path, int number, String playerName, int level, String jobname) {
@@ -318,7 +469,6 @@ public class SignUtil {
 	    "[job]", jobname);
     }
 
-    @SuppressWarnings("deprecation")
     public boolean updateHead(final Sign sign, final String playerName, int timelapse) {
 	if (playerName == null)
 	    return false;
@@ -327,6 +477,15 @@ public class SignUtil {
 	    timelapse = 1;
 	}
 
+	final Location loc = getHeadLocation(sign);
+
+	Bukkit.getServer().getScheduler().scheduleSyncDelayedTask(plugin, () -> setSkullOwner(loc, playerName),
+	    timelapse * Jobs.getGCManager().InfoUpdateInterval * 20L);
+	return true;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Location getHeadLocation(Sign sign) {
 	BlockFace directionFacing = null;
 	if (Version.isCurrentEqualOrLower(Version.v1_13_R2)) {
 	    org.bukkit.material.Sign signMat = (org.bukkit.material.Sign) sign.getData();
@@ -341,26 +500,37 @@ public class SignUtil {
 	    }
 	}
 
-	final Location loc = sign.getLocation().clone();
+	Location loc = sign.getLocation().clone();
 	loc.add(0, 1, 0);
 
 	if (directionFacing != null && !(loc.getBlock().getState() instanceof Skull))
 	    loc.add(directionFacing.getOppositeFace().getModX(), 0, directionFacing.getOppositeFace().getModZ());
 
-	Bukkit.getServer().getScheduler().scheduleSyncDelayedTask(plugin, new Runnable() {
-	    @Override
-	    public void run() {
-		if (!(loc.getBlock().getState() instanceof Skull))
-		    return;
+	return loc;
+    }
 
-		Skull skull = (Skull) loc.getBlock().getState();
-		if (playerName.equalsIgnoreCase(skull.getOwner()))
-		    return;
+    @SuppressWarnings("deprecation")
+    private static void setSkullOwner(Location loc, String playerName) {
+	if (!isChunkLoaded(loc) || !(loc.getBlock().getState() instanceof Skull))
+	    return;
 
-		skull.setOwner(playerName);
-		skull.update();
-	    }
-	}, timelapse * Jobs.getGCManager().InfoUpdateInterval * 20L);
-	return true;
+	Skull skull = (Skull) loc.getBlock().getState();
+	if (playerName.equalsIgnoreCase(skull.getOwner()))
+	    return;
+
+	skull.setOwner(playerName);
+	skull.update();
+    }
+
+    private static final class SignChange {
+	private final jobsSign jSign;
+	private final String[] lines;
+	private final String head;
+
+	private SignChange(jobsSign jSign, String[] lines, String head) {
+	    this.jSign = jSign;
+	    this.lines = lines;
+	    this.head = head;
+	}
     }
 }
@@ -20,6 +20,10 @@ public class jobsSign {
     private boolean special = false;
     private SignTopType type;
 
+    // Content last written to the sign block, to skip the updates which change nothing
+    private volatile String[] lines;
+    private volatile String head;
+
     public void setSpecial(boolean special) {
 	this.special = special;
     }
@@ -129,6 +133,22 @@ public class jobsSign {
 	setLoc(new Location(world, x, y, z));
     }
 
+    public String[] getLines() {
+	return lines;
+    }
+
+    public void setLines(String[] lines) {
+	this.lines = lines;
+    }
+
+    public String getHead() {
+	return head;
+    }
+
+    public void setHead(String head) {
+	this.head = head;
+    }
+
     public SignTopType getType() {
 	return type == null ? SignTopType.toplist : type;
     }
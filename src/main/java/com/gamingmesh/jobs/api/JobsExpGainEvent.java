@@ -5,6 +5,7 @@ import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.event.Cancellable;
+import org.bukkit.event.HandlerList;
 
 import com.gamingmesh.jobs.container.ActionInfo;
 import com.gamingmesh.jobs.container.Job;
@@ -14,6 +15,8 @@ import com.gamingmesh.jobs.container.Job;
  */
 public final class JobsExpGainEvent extends BaseEvent implements Cancellable {
 
+    private static final HandlerList handlers = new HandlerList();
+
     private OfflinePlayer offlinePlayer;
     private double exp;
     private Job job;
@@ -123,4 +126,13 @@ public final class JobsExpGainEvent extends BaseEvent implements Cancellable {
     public void setCancelled(boolean cancelled) {
 	this.cancelled = cancelled;
     }
+
+    @Override
+    public HandlerList getHandlers() {
+	return handlers;
+    }
+
+    public static HandlerList getHandlerList() {
+	return handlers;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.gamingmesh.jobs.api;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+import com.gamingmesh.jobs.container.CurrencyType;
+import com.gamingmesh.jobs.economy.BufferedPayment;
+
+/**
+ * Called once per payment cycle with every payment which was scheduled in it.
+ * <p>
+ * Use this instead of {@link JobsPaymentEvent} when per player granularity
+ * is not needed. The payments can not be modified at this point.
+ */
+public final class JobsPaymentSummaryEvent extends Event {
+
+    private static final HandlerList handlers = new HandlerList();
+
+    private final List<BufferedPayment> payments;
+
+    public JobsPaymentSummaryEvent(List<BufferedPayment> payments) {
+	super(true);
+	this.payments = Collections.unmodifiableList(payments);
+    }
+
+    /**
+     * Returns all payments which was scheduled in this cycle.
+     * 
+     * @return unmodifiable {@link List} of {@link BufferedPayment}
+     */
+    public List<BufferedPayment> getPayments() {
+	return payments;
+    }
+
+    /**
+     * Returns the total amount of the given currency type paid in this cycle.
+     * 
+     * @param type {@link CurrencyType}
+     * @return the sum of payments
+     */
+    public double getTotal(CurrencyType type) {
+	double total = 0D;
+	for (BufferedPayment payment : payments) {
+	    total += payment.get(type);
+	}
+	return total;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+	return handlers;
+    }
+
+    public static HandlerList getHandlerList() {
+	return handlers;
+    }
+}
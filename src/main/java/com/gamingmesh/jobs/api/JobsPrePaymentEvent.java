@@ -7,11 +7,15 @@ import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.event.Cancellable;
+import org.bukkit.event.HandlerList;
 
 /**
  * Event fired, before the payment calculation process should beginning.
  */
 public final class JobsPrePaymentEvent extends BaseEvent implements Cancellable {
+
+    private static final HandlerList handlers = new HandlerList();
+
     private OfflinePlayer offlinePlayer;
     private double money;
     private double points;
@@ -143,4 +147,13 @@ public final class JobsPrePaymentEvent extends BaseEvent implements Cancellable
     public void setCancelled(boolean cancelled) {
 	this.cancelled = cancelled;
     }
+
+    @Override
+    public HandlerList getHandlers() {
+	return handlers;
+    }
+
+    public static HandlerList getHandlerList() {
+	return handlers;
+    }
 }
@@ -5,6 +5,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
@@ -92,6 +93,31 @@ public class JobsCommands implements CommandExecutor {
 	return cmdClass.perform(plugin, sender, myArgs) || help(sender, 1);
     }
 
+    /**
+     * Loads the target player of a command in the background when it is an
+     * offline player who is not cached yet. The command is performed again once
+     * the player is loaded, so the main thread does not wait for the database.
+     * 
+     * @param cmd the command to perform again
+     * @param sender the command sender
+     * @param args the command arguments
+     * @param playerName the name of the target player
+     * @return true if the player is being loaded, the command should stop then
+     */
+    public boolean loadPlayerFirst(Cmd cmd, CommandSender sender, String[] args, String playerName) {
+	CompletableFuture<JobsPlayer> future = Jobs.getPlayerManager().getJobsPlayerAsync(playerName);
+	if (future.isDone())
+	    return false;
+
+	future.thenAccept(jPlayer -> {
+	    if (jPlayer == null)
+		sender.sendMessage(Jobs.getLanguage().getMessage("general.error.noinfoByPlayer", "%playername%", playerName));
+	    else if (!cmd.perform(plugin, sender, args))
+		help(sender, 1);
+	});
+	return true;
+    }
+
     private String[] reduceArgs(String[] args) {
 	return args.length <= 1 ? new String[0] : Arrays.copyOfRange(args, 1, args.length);
     }
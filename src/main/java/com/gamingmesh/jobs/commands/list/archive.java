@@ -21,6 +21,9 @@ public class archive implements Cmd {
 	    if (!Jobs.hasPermission(sender, "jobs.command.admin.archive", true)) {
 		return true;
 	    }
+	    if (Jobs.getCommandManager().loadPlayerFirst(this, sender, args, args[0]))
+		return true;
+
 	    jPlayer = Jobs.getPlayerManager().getJobsPlayer(args[0]);
 
 	} else if (sender instanceof Player) {
@@ -16,6 +16,9 @@ public class clearownership implements Cmd {
 	if (args.length >= 1) {
 	    if (!Jobs.hasPermission(sender, "jobs.command.admin.clearownership", true))
 		    return true;
+	    if (Jobs.getCommandManager().loadPlayerFirst(this, sender, args, args[0]))
+		return true;
+
 	    jPlayer = Jobs.getPlayerManager().getJobsPlayer(args[0]);
 	} else if (sender instanceof Player)
 	    jPlayer = Jobs.getPlayerManager().getJobsPlayer((Player) sender);
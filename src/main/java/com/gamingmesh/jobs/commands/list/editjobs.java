@@ -284,6 +284,7 @@ public class editjobs implements Cmd {
 		}
 
 		action.remove(jInfo);
+		job.setJobInfo(actionT, action);
 		Jobs.getConfigManager().changeJobsSettings(args[1], jInfo.getConfigPath(), null);
 		player.performCommand("jobs editjobs list " + job.getName() + " " + actionT.getName() + " 1");
 		Util.getJobsEditorMap().remove(player.getUniqueId());
@@ -378,6 +379,7 @@ public class editjobs implements Cmd {
 		}
 
 		action.add(jInfo);
+		job.setJobInfo(actionT, action);
 		player.performCommand("jobs editjobs list " + job.getName() + " " + actionT.getName() + " " + jInfo.getName());
 
 		Jobs.getConfigManager().changeJobsSettings(args[1], jInfo.getConfigPath() + "/income", 0);
@@ -15,6 +15,9 @@ public class editpoints implements Cmd {
 	    return true;
 	}
 
+	if (Jobs.getCommandManager().loadPlayerFirst(this, sender, args, args[1]))
+	    return true;
+
 	JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(args[1]);
 	if (jPlayer == null) {
 	    sender.sendMessage(Jobs.getLanguage().getMessage("general.error.noinfoByPlayer", "%playername%", args[1]));
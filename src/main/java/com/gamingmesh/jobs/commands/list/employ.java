@@ -17,6 +17,9 @@ public class employ implements Cmd {
 	    return true;
 	}
 
+	if (Jobs.getCommandManager().loadPlayerFirst(this, sender, args, args[0]))
+	    return true;
+
 	JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(args[0]);
 	if (jPlayer == null) {
 	    sender.sendMessage(Jobs.getLanguage().getMessage("general.error.noinfoByPlayer", "%playername%", args[0]));
@@ -24,11 +24,15 @@ public class fireall implements Cmd {
 		return true;
 	    }
 
+	    // Players which are not loaded are archived by the database
+	    Jobs.getJobsDAO().archiveAllJobs();
 	    Jobs.getDBManager().getDB().truncate(DBTables.JobsTable.getTableName());
+	    Jobs.getLeaderboards().clearJobs();
 
-	    for (JobsPlayer one : Jobs.getPlayerManager().getPlayersCache().values()) {
+	    long now = System.currentTimeMillis();
+	    for (JobsPlayer one : Jobs.getPlayerManager().getLoadedPlayers()) {
 		for (JobProgression job : one.getJobProgression()) {
-		    Jobs.getJobsDAO().recordToArchive(one, job.getJob());
+		    one.getArchivedJobs().addArchivedJob(job.setLeftOn(now));
 		}
 		one.leaveAllJobs();
 		// No need to save as we are clearing database with more efficient method
@@ -39,6 +43,9 @@ public class fireall implements Cmd {
 	    return true;
 	}
 
+	if (Jobs.getCommandManager().loadPlayerFirst(this, sender, args, args[0]))
+	    return true;
+
 	JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(args[0]);
 	if (jPlayer == null) {
 	    sender.sendMessage(Jobs.getLanguage().getMessage("general.error.noinfoByPlayer", "%playername%", args[0]));
@@ -46,9 +46,9 @@ public class gtop implements Cmd {
 	    page = 1;
 
 	int amount = Jobs.getGCManager().JobsTopAmount;
-	PageInfo pi = new PageInfo(amount, Jobs.getPlayerManager().getPlayersCache().size(), page);
+	PageInfo pi = new PageInfo(amount, Jobs.getPlayerManager().getPlayersInfoUUIDMap().size(), page);
 
-	List<TopList> FullList = Jobs.getJobsDAO().getGlobalTopList(pi.getStart());
+	List<TopList> FullList = Jobs.getLeaderboards().getGlobalTopList(pi.getStart());
 	if (FullList.isEmpty()) {
 	    sender.sendMessage(Jobs.getLanguage().getMessage("command.gtop.error.nojob"));
 	    return true;
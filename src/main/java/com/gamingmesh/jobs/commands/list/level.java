@@ -58,6 +58,9 @@ public class level implements Cmd {
 	if (playerName == null)
 	    return false;
 
+	if (Jobs.getCommandManager().loadPlayerFirst(this, sender, args, playerName))
+	    return true;
+
 	JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(playerName);
 	if (jPlayer == null) {
 	    sender.sendMessage(Jobs.getLanguage().getMessage("general.error.noinfoByPlayer", "%playername%", args[0]));
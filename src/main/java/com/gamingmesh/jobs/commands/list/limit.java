@@ -20,9 +20,12 @@ public class limit implements Cmd {
 	}
 
 	JobsPlayer JPlayer = null;
-	if (args.length >= 1)
+	if (args.length >= 1) {
+	    if (Jobs.getCommandManager().loadPlayerFirst(this, sender, args, args[0]))
+		return true;
+
 	    JPlayer = Jobs.getPlayerManager().getJobsPlayer(args[0]);
-	else if (sender instanceof Player)
+	} else if (sender instanceof Player)
 	    JPlayer = Jobs.getPlayerManager().getJobsPlayer((Player) sender);
 
 	boolean disabled = true;
@@ -38,6 +38,9 @@ public class log implements Cmd {
 	    if (!Jobs.hasPermission(sender, "jobs.command.log.others", true))
 		return true;
 
+	    if (Jobs.getCommandManager().loadPlayerFirst(this, sender, args, args[0]))
+		return true;
+
 	    JPlayer = Jobs.getPlayerManager().getJobsPlayer(args[0]);
 	}
 
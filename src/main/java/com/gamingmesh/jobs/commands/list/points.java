@@ -23,6 +23,9 @@ public class points implements Cmd {
 	    if (!Jobs.hasPermission(sender, "jobs.command.admin.points", true)) {
 		return true;
 	    }
+	    if (Jobs.getCommandManager().loadPlayerFirst(this, sender, args, args[0]))
+		return true;
+
 	    jPlayer = Jobs.getPlayerManager().getJobsPlayer(args[0]);
 	} else if (sender instanceof Player) {
 	    jPlayer = Jobs.getPlayerManager().getJobsPlayer((Player) sender);
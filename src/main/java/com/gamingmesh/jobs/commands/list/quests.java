@@ -32,6 +32,9 @@ public class quests implements Cmd {
 		if (!Jobs.hasPermission(sender, "jobs.command.admin.quests", true))
 		    return true;
 
+		if (Jobs.getCommandManager().loadPlayerFirst(this, sender, args, args[0]))
+		    return true;
+
 		jPlayer = Jobs.getPlayerManager().getJobsPlayer(args[0]);
 	    } else if (isPlayer)
 		jPlayer = Jobs.getPlayerManager().getJobsPlayer((Player) sender);
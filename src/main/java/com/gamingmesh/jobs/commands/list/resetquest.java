@@ -29,6 +29,9 @@ public class resetquest implements Cmd {
 		if (job != null)
 		    continue;
 	    }
+	    if (Jobs.getCommandManager().loadPlayerFirst(this, sender, args, one))
+		return true;
+
 	    jPlayer = Jobs.getPlayerManager().getJobsPlayer(one);
 	}
 
@@ -34,6 +34,9 @@ public class skipquest implements Cmd {
 		    continue;
 	    }
 	    if (jPlayer == null) {
+		if (Jobs.getCommandManager().loadPlayerFirst(this, sender, args, one))
+		    return true;
+
 		jPlayer = Jobs.getPlayerManager().getJobsPlayer(one);
 		if (jPlayer != null)
 		    continue;
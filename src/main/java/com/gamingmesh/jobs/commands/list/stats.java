@@ -18,6 +18,9 @@ public class stats implements Cmd {
 	    if (!Jobs.hasPermission(sender, "jobs.command.admin.stats", true))
 		return true;
 
+	    if (Jobs.getCommandManager().loadPlayerFirst(this, sender, args, args[0]))
+		return true;
+
 	    jPlayer = Jobs.getPlayerManager().getJobsPlayer(args[0]);
 	} else if (sender instanceof Player)
 	    jPlayer = Jobs.getPlayerManager().getJobsPlayer((Player) sender);
@@ -54,7 +54,7 @@ public class top implements Cmd {
 	int workingIn = Jobs.getUsedSlots(job);
 	PageInfo pi = new PageInfo(Jobs.getGCManager().JobsTopAmount, workingIn, page);
 
-	List<TopList> FullList = Jobs.getJobsDAO().toplist(job.getName(), pi.getStart());
+	List<TopList> FullList = Jobs.getLeaderboards().toplist(job.getName(), pi.getStart());
 	if (FullList.isEmpty()) {
 	    player.sendMessage(Jobs.getLanguage().getMessage("general.error.noinfo"));
 	    return true;
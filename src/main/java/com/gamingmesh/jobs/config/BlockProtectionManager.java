@@ -1,6 +1,8 @@
 package com.gamingmesh.jobs.config;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -11,25 +13,19 @@ import org.bukkit.block.Block;
 import com.gamingmesh.jobs.Jobs;
 import com.gamingmesh.jobs.CMILib.CMIMaterial;
 import com.gamingmesh.jobs.container.BlockProtection;
+import com.gamingmesh.jobs.container.BlockProtectionStore;
 import com.gamingmesh.jobs.container.DBAction;
 
 public class BlockProtectionManager {
 
-    private final HashMap<World, HashMap<String, HashMap<String, HashMap<String, BlockProtection>>>> map = new HashMap<>();
-    private final ConcurrentHashMap<World, ConcurrentHashMap<String, BlockProtection>> tempCache = new ConcurrentHashMap<>();
-
-    public HashMap<World, HashMap<String, HashMap<String, HashMap<String, BlockProtection>>>> getMap() {
-	return map;
-    }
+    private final HashMap<World, BlockProtectionStore> map = new HashMap<>();
+    // Changed protections by packed block coordinates, see BlockProtectionStore#pack
+    private final ConcurrentHashMap<World, ConcurrentHashMap<Long, BlockProtection>> tempCache = new ConcurrentHashMap<>();
 
     public int getSize() {
 	int i = 0;
-	for (HashMap<String, HashMap<String, HashMap<String, BlockProtection>>> worlds : map.values()) {
-	    for (HashMap<String, HashMap<String, BlockProtection>> regions : worlds.values()) {
-		for (HashMap<String, BlockProtection> chunks : regions.values()) {
-		    i += chunks.size();
-		}
-	    }
+	for (BlockProtectionStore store : map.values()) {
+	    i += store.size();
 	}
 	return i;
     }
@@ -56,44 +52,30 @@ public class BlockProtectionManager {
     }
 
     public BlockProtection addP(Location loc, Long time, boolean paid, boolean cache) {
-	String v = loc.getBlockX() + ":" + loc.getBlockY() + ":" + loc.getBlockZ();
-
-	HashMap<String, HashMap<String, HashMap<String, BlockProtection>>> regions = map.getOrDefault(loc.getWorld(), new HashMap<>());
-
-	String region = locToRegion(loc);
-	HashMap<String, HashMap<String, BlockProtection>> chunks = regions.getOrDefault(region, new HashMap<>());
-
-	String chunk = locToChunk(loc);
-	HashMap<String, BlockProtection> Bpm = chunks.getOrDefault(chunk, new HashMap<>());
-	BlockProtection Bp = Bpm.get(v);
-
-	if (Bp == null)
-	    Bp = new BlockProtection(DBAction.INSERT, loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
-	else
-	    Bp.setAction(DBAction.UPDATE);
-
-	Bp.setPaid(paid);
-	Bp.setTime(time);
-	Bpm.put(v, Bp);
-	chunks.put(chunk, Bpm);
-	regions.put(region, chunks);
-	map.put(loc.getWorld(), regions);
+	BlockProtectionStore store = map.computeIfAbsent(loc.getWorld(), w -> new BlockProtectionStore());
+	BlockProtection Bp = store.put(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(), time, paid);
 	if (cache)
 	    addToCache(loc, Bp);
 	return Bp;
     }
 
+    /**
+     * Adds a protection read from database.
+     */
+    public void load(World world, int id, int x, int y, int z, long time, long recorded) {
+	map.computeIfAbsent(world, w -> new BlockProtectionStore()).load(id, x, y, z, time, recorded);
+    }
+
     private void addToCache(Location loc, BlockProtection Bp) {
 	if (!Jobs.getGCManager().useBlockProtection)
 	    return;
-	String v = loc.getBlockX() + ":" + loc.getBlockY() + ":" + loc.getBlockZ();
-	ConcurrentHashMap<String, BlockProtection> locations = tempCache.get(loc.getWorld());
+	ConcurrentHashMap<Long, BlockProtection> locations = tempCache.get(loc.getWorld());
 	if (locations == null) {
 	    locations = new ConcurrentHashMap<>();
 	    tempCache.put(loc.getWorld(), locations);
 	}
 
-	locations.put(v, Bp);
+	locations.put(BlockProtectionStore.pack(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ()), Bp);
 
 //	if (locations.size() > 10) {
 //	    Jobs.getJobsDAO().saveBlockProtection(loc.getWorld().getName(), new HashMap<String, BlockProtection>(locations));
@@ -101,34 +83,62 @@ public class BlockProtectionManager {
 //	}
     }
 
+    /**
+     * @return the protections changed since the last {@link #saveCache()}, by world
+     */
+    public Map<World, ConcurrentHashMap<Long, BlockProtection>> getTempCache() {
+	return Collections.unmodifiableMap(tempCache);
+    }
+
     public void saveCache() {
 	if (!Jobs.getGCManager().useBlockProtection)
 	    return;
-	for (Entry<World, ConcurrentHashMap<String, BlockProtection>> one : tempCache.entrySet()) {
+	for (Entry<World, ConcurrentHashMap<Long, BlockProtection>> one : tempCache.entrySet()) {
 	    Jobs.getJobsDAO().saveBlockProtection(one.getKey().getName(), one.getValue());
 	}
 	tempCache.clear();
     }
 
-    public BlockProtection remove(Block block) {
+    public boolean remove(Block block) {
 	return remove(block.getLocation());
     }
 
-    public BlockProtection remove(Location loc) {
-	HashMap<String, HashMap<String, HashMap<String, BlockProtection>>> world = map.get(loc.getWorld());
-	if (world == null)
-	    return null;
-	HashMap<String, HashMap<String, BlockProtection>> region = world.get(locToRegion(loc));
-	if (region == null)
-	    return null;
-	HashMap<String, BlockProtection> chunk = region.get(locToChunk(loc));
-	if (chunk == null)
-	    return null;
-	String v = loc.getBlockX() + ":" + loc.getBlockY() + ":" + loc.getBlockZ();
-	BlockProtection bp = chunk.get(v);
-	if (bp != null)
-	    bp.setAction(DBAction.DELETE);
-	return bp;
+    /**
+     * Marks the protection of the given location for delete.
+     *
+     * @return true if the location was protected
+     */
+    public boolean remove(Location loc) {
+	BlockProtectionStore store = map.get(loc.getWorld());
+	if (store == null || !store.setAction(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(), DBAction.DELETE))
+	    return false;
+
+	// Not saved yet, the save needs to know about it
+	BlockProtection changed = getChanged(loc);
+	if (changed != null)
+	    changed.setAction(DBAction.DELETE);
+	return true;
+    }
+
+    /**
+     * Sets the protection of the given location paid.
+     *
+     * @return true if the location was protected
+     */
+    public boolean setPaid(Location loc) {
+	BlockProtectionStore store = map.get(loc.getWorld());
+	if (store == null || !store.setPaid(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ(), true))
+	    return false;
+
+	BlockProtection changed = getChanged(loc);
+	if (changed != null)
+	    changed.setPaid(true);
+	return true;
+    }
+
+    private BlockProtection getChanged(Location loc) {
+	ConcurrentHashMap<Long, BlockProtection> locations = tempCache.get(loc.getWorld());
+	return locations == null ? null : locations.get(BlockProtectionStore.pack(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ()));
     }
 
     public Long getTime(Block block) {
@@ -140,27 +150,15 @@ public class BlockProtectionManager {
 	return Bp == null ? null : Bp.getTime();
     }
 
+    /**
+     * Returns a copy of the protection of the given location. Use {@link #remove(Location)}
+     * or {@link #setPaid(Location)} to change it.
+     *
+     * @return {@link BlockProtection} or null if the location is not protected
+     */
     public BlockProtection getBp(Location loc) {
-	HashMap<String, HashMap<String, HashMap<String, BlockProtection>>> world = map.get(loc.getWorld());
-	if (world == null)
-	    return null;
-	HashMap<String, HashMap<String, BlockProtection>> region = world.get(locToRegion(loc));
-	if (region == null)
-	    return null;
-	HashMap<String, BlockProtection> chunk = region.get(locToChunk(loc));
-	if (chunk == null)
-	    return null;
-	return chunk.get(loc.getBlockX() + ":" + loc.getBlockY() + ":" + loc.getBlockZ());
-    }
-
-    private static String locToChunk(Location loc) {
-	return (int) Math.floor(loc.getBlockX() / 16D) + ":" + (int) Math.floor(loc.getBlockZ() / 16D);
-    }
-
-    private static String locToRegion(Location loc) {
-	int x = (int) Math.floor(loc.getBlockX() / 16D);
-	int z = (int) Math.floor(loc.getBlockZ() / 16D);
-	return (int) Math.floor(x / 32D) + ":" + (int) Math.floor(z / 32D);
+	BlockProtectionStore store = map.get(loc.getWorld());
+	return store == null ? null : store.get(loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
     }
 
     public Integer getBlockDelayTime(Block block) {
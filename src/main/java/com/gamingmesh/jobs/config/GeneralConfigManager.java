@@ -69,9 +69,9 @@ public class GeneralConfigManager {
 	globalblocktimer, CowMilkingTimer, InfoUpdateInterval, JobsTopAmount, PlaceholdersPage, ConfirmExpiryTime,
 	SegmentCount, BossBarTimer, AutoJobJoinDelay, DBCleaningJobsLvl, DBCleaningUsersDays, BlastFurnacesMaxDefault, SmokersMaxDefault,
 	levelLossPercentageFromMax, levelLossPercentage, SoundLevelupVolume, SoundLevelupPitch, SoundTitleChangeVolume,
-	SoundTitleChangePitch, ToplistInScoreboardInterval;
+	SoundTitleChangePitch, ToplistInScoreboardInterval, SignsUpdatesPerTick;
 
-    protected int savePeriod, maxJobs, economyBatchDelay;
+    protected int savePeriod, saveJournalInterval, rankingsRefreshInterval, maxCachedPlayers, cachedPlayerExpire, maxJobs, economyBatchDelay, economyPaymentsPerTick, economyMaxMillisPerTick;
     private int ResetTimeHour, ResetTimeMinute, DailyQuestsSkips, FurnacesMaxDefault, BrewingStandsMaxDefault,
 	BrowseAmountToShow, JobsGUIRows, JobsGUIBackButton, JobsGUINextButton, JobsGUIStartPosition, JobsGUIGroupAmount, JobsGUISkipAmount;
 
@@ -131,6 +131,25 @@ public class GeneralConfigManager {
 	return savePeriod;
     }
 
+    public int getSaveJournalInterval() {
+	return saveJournalInterval;
+    }
+
+    /**
+     * @return how often in minutes to read the rankings from data base with multi server compatibility
+     */
+    public int getRankingsRefreshInterval() {
+	return rankingsRefreshInterval;
+    }
+
+    public int getMaxCachedPlayers() {
+	return maxCachedPlayers;
+    }
+
+    public int getCachedPlayerExpire() {
+	return cachedPlayerExpire;
+    }
+
     /**
      * Should we use asynchronous economy calls
      * @return true - use async
@@ -213,6 +232,14 @@ public class GeneralConfigManager {
 	return economyBatchDelay;
     }
 
+    public int getEconomyPaymentsPerTick() {
+	return economyPaymentsPerTick;
+    }
+
+    public int getEconomyMaxMillisPerTick() {
+	return economyMaxMillisPerTick;
+    }
+
     public boolean saveOnDisconnect() {
 	return saveOnDisconnect;
     }
@@ -318,6 +345,16 @@ public class GeneralConfigManager {
 	    "Only enable this if you have a multi-server setup, or have a really good reason for enabling this.", "Turning this on will decrease database performance.");
 	saveOnDisconnect = c.get("save-on-disconnect", false);
 
+	c.addComment("save-journal-interval", "How often in seconds changes which are not saved yet are written to a local journal file.",
+	    "The journal is restored on the next start up when the server stops without saving. Set to 0 to disable.");
+	saveJournalInterval = c.get("save-journal-interval", 5);
+
+	c.addComment("cached-players", "Offline players are loaded from data base when needed and kept in memory for a while.",
+	    "max-amount is the max amount of offline players kept in memory, set to 0 for no limit.",
+	    "expire-after is the time in minutes after a player which was not used is removed from memory, set to 0 to never expire.");
+	maxCachedPlayers = c.get("cached-players.max-amount", 1000);
+	cachedPlayerExpire = c.get("cached-players.expire-after", 30);
+
 	c.addComment("selectionTool", "Tool used when selecting bounds for restricted area.");
 	getSelectionTool = c.get("selectionTool", "golden_hoe");
 
@@ -330,6 +367,12 @@ public class GeneralConfigManager {
 	    saveOnDisconnect = true;
 	}
 
+	c.addComment("multi-server-rankings-refresh", "How often in minutes the rankings are read from data base when MultiServerCompatability is enabled",
+	    "Top list pages are always read from data base, but positions of players, like the rank placeholders,",
+	    "come from the rankings and can lag behind changes made on other servers for up to this time",
+	    "Set to 0 to only read them on start up");
+	rankingsRefreshInterval = c.get("multi-server-rankings-refresh", 10);
+
 	c.addComment("Optimizations.NewVersion",
 	    "When set to true staff will be informed about new Jobs plugin version", "You need to have jobs.versioncheck permission node");
 	ShowNewVersion = c.get("Optimizations.NewVersion", true);
@@ -530,6 +573,14 @@ public class GeneralConfigManager {
 	    "Setting this too low may cause tick lag. Increase this to improve economy performance (at the cost of delays in payment)");
 	economyBatchDelay = c.get("economy-batch-delay", 5);
 
+	c.addComment("economy-payments-per-tick", "How many player payments are processed in one tick after each batch.",
+	    "Remaining payments are continued in the next ticks. Set to 0 to process all of them in the same tick.");
+	economyPaymentsPerTick = c.get("economy-payments-per-tick", 100);
+
+	c.addComment("economy-max-ms-per-tick", "Max time in milliseconds spent on payments in one tick, 0 for no limit.",
+	    "When payments pile up faster than they are processed, new ones are combined per player until the queue catches up.");
+	economyMaxMillisPerTick = c.get("economy-max-ms-per-tick", 5);
+
 	c.addComment("economy-async", "Enable async economy calls.", "Disable this if you have issues with payments or your plugin is not thread safe.");
 	economyAsync = c.get("economy-async", true);
 
@@ -951,6 +1002,9 @@ public class GeneralConfigManager {
 	c.addComment("Signs.InfoUpdateInterval",
 	    "This is update for same job signs, to avoid huge lag if you have bunch of same type signs. Keep it from 1 to as many sec you want");
 	InfoUpdateInterval = c.get("Signs.InfoUpdateInterval", 5);
+	c.addComment("Signs.UpdatesPerTick", "Max amount of signs changed in one tick, the rest are changed in the next ticks.",
+	    "Top lists are read asynchronously and only the signs with changed content in loaded chunks are updated.");
+	SignsUpdatesPerTick = Math.max(1, c.get("Signs.UpdatesPerTick", 10));
 
 	c.addComment("Scoreboard.ShowToplist", "This will enable to show top list in scoreboard instead of chat");
 	ShowToplistInScoreboard = c.get("Scoreboard.ShowToplist", true);
@@ -37,7 +37,7 @@ public class BlockProtection {
 	return deconvert(time);
     }
 
-    private static int convert(long time) {
+    static int convert(long time) {
 	return time == -1L ? -1 : (int) ((time - pre) / 1000L);
     }
 
@@ -45,6 +45,14 @@ public class BlockProtection {
 	return time == null ? -1L : ((time.longValue() * 1000L) + pre);
     }
 
+    /**
+     * Sets the time and recorded time in the compact form they are kept in, used by {@link BlockProtectionStore}.
+     */
+    void setStoredTimes(Integer time, Integer recorded) {
+	this.time = time;
+	this.recorded = recorded;
+    }
+
     public void setTime(long time) {
 	this.time = time == -1 ? null : convert(time);
 	this.recorded = convert(System.currentTimeMillis());
@@ -0,0 +1,216 @@
+/**
+ * Jobs Plugin for Bukkit
+ * Copyright (C) 2011 Zak Ford <zak.j.ford@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gamingmesh.jobs.container;
+
+/**
+ * Block protections of one world kept in flat arrays instead of objects.
+ * <p>
+ * Blocks are found by their packed coordinates in an open addressing table with
+ * linear probing, so lookups allocate nothing unless a protection is found and an
+ * entry takes around 30 bytes. Entries are not removed, removed protections are
+ * marked with {@link DBAction#DELETE} until they are saved.
+ * <p>
+ * This class is not thread safe.
+ */
+public final class BlockProtectionStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final DBAction[] ACTIONS = DBAction.values();
+
+    // Stored instead of null times
+    private static final int NO_TIME = Integer.MIN_VALUE;
+
+    private static final int USED = 1, UNPAID = 2, ACTION_SHIFT = 2;
+
+    private long[] keys;
+    private int[] ids, times, recorded;
+    private byte[] flags;
+    private int size = 0;
+
+    public BlockProtectionStore() {
+	allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Packs block coordinates into one key, 26 bits for x and z and 12 bits for y.
+     *
+     * @return the packed coordinates
+     */
+    public static long pack(int x, int y, int z) {
+	return ((x & 0x3FFFFFFL) << 38) | ((z & 0x3FFFFFFL) << 12) | (y & 0xFFFL);
+    }
+
+    public int size() {
+	return size;
+    }
+
+    public void clear() {
+	allocate(INITIAL_CAPACITY);
+	size = 0;
+    }
+
+    /**
+     * Returns a copy of the protection at the given block, changes of it are not stored.
+     *
+     * @return {@link BlockProtection} or null if the block is not protected
+     */
+    public BlockProtection get(int x, int y, int z) {
+	int i = indexOf(pack(x, y, z));
+	return i < 0 ? null : copy(i, x, y, z);
+    }
+
+    /**
+     * Protects the given block, same as changing time and paid state of a {@link BlockProtection}.
+     * New protections are marked for insert and existing ones for update.
+     *
+     * @param time the time when protection ends, or -1 for permanent protection
+     * @return a copy of the stored protection
+     */
+    public BlockProtection put(int x, int y, int z, long time, boolean paid) {
+	int i = slot(pack(x, y, z), DBAction.INSERT, DBAction.UPDATE);
+
+	times[i] = time == -1 ? NO_TIME : BlockProtection.convert(time);
+	recorded[i] = BlockProtection.convert(System.currentTimeMillis());
+	setPaid(i, paid);
+	return copy(i, x, y, z);
+    }
+
+    /**
+     * Adds a protection read from database, which is not changed.
+     */
+    public void load(int id, int x, int y, int z, long time, long recordedTime) {
+	int i = slot(pack(x, y, z), DBAction.NONE, DBAction.NONE);
+
+	ids[i] = id;
+	times[i] = time == -1 ? NO_TIME : BlockProtection.convert(time);
+	recorded[i] = BlockProtection.convert(recordedTime);
+	setPaid(i, true);
+    }
+
+    /**
+     * @return true if the block is protected
+     */
+    public boolean setAction(int x, int y, int z, DBAction action) {
+	int i = indexOf(pack(x, y, z));
+	if (i < 0)
+	    return false;
+
+	flags[i] = (byte) ((flags[i] & (USED | UNPAID)) | (action.ordinal() << ACTION_SHIFT));
+	return true;
+    }
+
+    /**
+     * @return true if the block is protected
+     */
+    public boolean setPaid(int x, int y, int z, boolean paid) {
+	int i = indexOf(pack(x, y, z));
+	if (i < 0)
+	    return false;
+
+	setPaid(i, paid);
+	return true;
+    }
+
+    private BlockProtection copy(int i, int x, int y, int z) {
+	BlockProtection bp = new BlockProtection(ACTIONS[flags[i] >> ACTION_SHIFT], x, y, z);
+	bp.setId(ids[i]);
+	bp.setStoredTimes(times[i] == NO_TIME ? null : times[i], recorded[i] == NO_TIME ? null : recorded[i]);
+	bp.setPaid((flags[i] & UNPAID) == 0);
+	return bp;
+    }
+
+    private void setPaid(int i, boolean paid) {
+	flags[i] = (byte) (paid ? flags[i] & ~UNPAID : flags[i] | UNPAID);
+    }
+
+    /**
+     * Finds the slot of the given key, adding it with the given action when missing.
+     */
+    private int slot(long key, DBAction added, DBAction existing) {
+	int i = indexOf(key);
+	if (i >= 0) {
+	    flags[i] = (byte) ((flags[i] & (USED | UNPAID)) | (existing.ordinal() << ACTION_SHIFT));
+	    return i;
+	}
+
+	if ((size + 1) * 4L > keys.length * 3L) {
+	    resize(keys.length * 2);
+	    i = indexOf(key);
+	}
+
+	i = -i - 1;
+	keys[i] = key;
+	ids[i] = 0;
+	times[i] = NO_TIME;
+	recorded[i] = NO_TIME;
+	flags[i] = (byte) (USED | (added.ordinal() << ACTION_SHIFT));
+	size++;
+	return i;
+    }
+
+    /**
+     * @return the slot of the given key, or -(insertion slot) - 1 when missing
+     */
+    private int indexOf(long key) {
+	int mask = keys.length - 1;
+	int i = hash(key) & mask;
+
+	while ((flags[i] & USED) != 0) {
+	    if (keys[i] == key)
+		return i;
+
+	    i = (i + 1) & mask;
+	}
+
+	return -i - 1;
+    }
+
+    private static int hash(long key) {
+	long h = key * 0x9E3779B97F4A7C15L;
+	return (int) (h ^ (h >>> 32));
+    }
+
+    private void allocate(int capacity) {
+	keys = new long[capacity];
+	ids = new int[capacity];
+	times = new int[capacity];
+	recorded = new int[capacity];
+	flags = new byte[capacity];
+    }
+
+    private void resize(int capacity) {
+	long[] oldKeys = keys;
+	int[] oldIds = ids, oldTimes = times, oldRecorded = recorded;
+	byte[] oldFlags = flags;
+
+	allocate(capacity);
+
+	for (int o = 0; o < oldKeys.length; o++) {
+	    if ((oldFlags[o] & USED) == 0)
+		continue;
+
+	    int i = -indexOf(oldKeys[o]) - 1;
+	    keys[i] = oldKeys[o];
+	    ids[i] = oldIds[o];
+	    times[i] = oldTimes[o];
+	    recorded[i] = oldRecorded[o];
+	    flags[i] = oldFlags[o];
+	}
+    }
+}
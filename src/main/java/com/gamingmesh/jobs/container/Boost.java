@@ -1,18 +1,18 @@
 package com.gamingmesh.jobs.container;
 
-import java.util.HashMap;
+import java.util.EnumMap;
 
 import com.gamingmesh.jobs.Jobs;
 import com.gamingmesh.jobs.PlayerManager.BoostOf;
 
 public class Boost {
 
-    private java.util.Map<BoostOf, BoostMultiplier> map = new HashMap<>();
+    private static final BoostOf[] BOOST_TYPES = BoostOf.values();
+
+    // Missing entries count as zero multiplier
+    private java.util.Map<BoostOf, BoostMultiplier> map = new EnumMap<>(BoostOf.class);
 
     public Boost() {
-	for (BoostOf one : BoostOf.values()) {
-	    map.put(one, new BoostMultiplier());
-	}
     }
 
     public void add(BoostOf boostoff, BoostMultiplier multiplier) {
@@ -58,7 +58,7 @@ public class Boost {
     public double getFinal(CurrencyType type, boolean percent, boolean excludeExtra) {
 	double r = 0D;
 
-	for (BoostOf one : BoostOf.values()) {
+	for (BoostOf one : BOOST_TYPES) {
 	    BoostMultiplier bm = map.get(one);
 	    if (bm == null)
 		continue;
@@ -1,30 +1,28 @@
 package com.gamingmesh.jobs.container;
 
-import java.util.HashMap;
+import java.util.Arrays;
 
 public class BoostMultiplier implements Cloneable {
 
-    private final java.util.Map<CurrencyType, Double> map = new HashMap<>();
+    private static final CurrencyType[] TYPES = CurrencyType.values();
+
+    // Indexed by currency type ordinal
+    private final double[] amounts = new double[TYPES.length];
 
     private Long time = 0L;
 
     @Override
     public BoostMultiplier clone() {
 	BoostMultiplier boost = new BoostMultiplier();
-	for (CurrencyType type : CurrencyType.values()) {
-	    boost.add(type, map.get(type));
-	}
+	System.arraycopy(amounts, 0, boost.amounts, 0, amounts.length);
 	return boost;
     }
 
     public BoostMultiplier() {
-	for (CurrencyType one : CurrencyType.values()) {
-	    map.put(one, 0D);
-	}
     }
 
     public BoostMultiplier add(CurrencyType type, double amount) {
-	map.put(type, amount);
+	amounts[type.ordinal()] = amount;
 	return this;
     }
 
@@ -35,17 +33,15 @@ public class BoostMultiplier implements Cloneable {
 
     public BoostMultiplier add(double amount) {
 	if (amount != 0) {
-	    for (CurrencyType one : CurrencyType.values()) {
-		map.put(one, amount);
-	    }
+	    Arrays.fill(amounts, amount);
 	}
 
 	return this;
     }
 
     public double get(CurrencyType type) {
-	isValid(type); // Call without check to make sure map cache is removed
-	return map.getOrDefault(type, 0D);
+	isValid(type); // Call without check to make sure cached amount is removed
+	return amounts[type.ordinal()];
     }
 
     public Long getTime() {
@@ -55,7 +51,7 @@ public class BoostMultiplier implements Cloneable {
     public boolean isValid(CurrencyType type) {
 	boolean valid = time > System.currentTimeMillis();
 	if (time != 0L && !valid) {
-	    map.remove(type);
+	    amounts[type.ordinal()] = 0D;
 	    time = 0L;
 	}
 
@@ -63,8 +59,8 @@ public class BoostMultiplier implements Cloneable {
     }
 
     public void add(BoostMultiplier armorboost) {
-	for (CurrencyType one : CurrencyType.values()) {
-	    map.put(one, get(one) + armorboost.get(one));
+	for (CurrencyType one : TYPES) {
+	    amounts[one.ordinal()] = get(one) + armorboost.get(one);
 	}
     }
 }
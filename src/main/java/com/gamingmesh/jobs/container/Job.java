@@ -27,7 +27,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
-import java.util.function.BiPredicate;
 
 import org.bukkit.block.Block;
 import org.bukkit.command.CommandSender;
@@ -37,13 +36,13 @@ import org.bukkit.inventory.ItemStack;
 
 import com.gamingmesh.jobs.Jobs;
 import com.gamingmesh.jobs.CMILib.CMIChatColor;
-import com.gamingmesh.jobs.CMILib.CMIMaterial;
-import com.gamingmesh.jobs.actions.PotionItemActionInfo;
+import com.gamingmesh.jobs.resources.jfep.CompiledExpression;
 import com.gamingmesh.jobs.resources.jfep.Parser;
 
 public class Job {
 
     private Map<ActionType, List<JobInfo>> jobInfo = new EnumMap<>(ActionType.class);
+    private final Map<ActionType, JobInfoIndex> jobInfoIndex = new EnumMap<>(ActionType.class);
 
     private List<JobPermission> jobPermissions;
     private List<JobCommands> jobCommands;
@@ -62,6 +61,7 @@ public class Job {
 
     private CMIChatColor jobColour;
     private Parser maxExpEquation;
+    private CompiledExpression maxExpExpression;
     private DisplayMethod displayMethod;
 
     private int maxLevel;
@@ -114,6 +114,7 @@ public class Job {
 	this.jobShortName = jobShortName;
 	this.jobColour = jobColour;
 	this.maxExpEquation = maxExpEquation;
+	this.maxExpExpression = maxExpEquation == null ? null : maxExpEquation.compile("joblevel", "numjobs");
 	this.displayMethod = displayMethod;
 	this.maxLevel = maxLevel;
 	this.vipmaxLevel = vipmaxLevel;
@@ -142,6 +143,7 @@ public class Job {
      */
     public void addBoost(CurrencyType type, double point) {
 	boost.add(type, point);
+	PayoutMemo.invalidateAll();
     }
 
     /**
@@ -182,10 +184,12 @@ public class Job {
 	}
 
 	boost.add(type, point, cal.getTimeInMillis());
+	PayoutMemo.invalidateAll();
     }
 
     public void setBoost(BoostMultiplier boost) {
 	this.boost = boost;
+	PayoutMemo.invalidateAll();
     }
 
     public BoostMultiplier getBoost() {
@@ -233,12 +237,8 @@ public class Job {
 	if (!Jobs.getGCManager().useDynamicPayment)
 	    return;
 
-	Parser eq = Jobs.getGCManager().DynamicPaymentEquation;
-	eq.setVariable("totalworkers", Jobs.getJobsDAO().getTotalPlayers());
-	eq.setVariable("totaljobs", Jobs.getJobs().size());
-	eq.setVariable("jobstotalplayers", getTotalPlayers());
-
-	double now = eq.getValue();
+	CompiledExpression eq = Jobs.getGCManager().DynamicPaymentEquation.compile("totalworkers", "totaljobs", "jobstotalplayers");
+	double now = eq.evaluate(Jobs.getJobsDAO().getTotalPlayers(), Jobs.getJobs().size(), getTotalPlayers());
 	if (now > Jobs.getGCManager().DynamicPaymentMaxBonus)
 	    now = Jobs.getGCManager().DynamicPaymentMaxBonus;
 
@@ -279,6 +279,7 @@ public class Job {
      */
     public void setJobInfo(ActionType type, List<JobInfo> info) {
 	jobInfo.put(type, info);
+	jobInfoIndex.put(type, new JobInfoIndex(info));
     }
 
     /**
@@ -298,34 +299,20 @@ public class Job {
 	return jobInfo;
     }
 
+    /**
+     * Gets the job info matching the given action. If the first matching info
+     * is out of the given level range, null is returned.
+     * <p>
+     * The lookup uses the index built in {@link #setJobInfo(ActionType, List)},
+     * so changes made directly to the list should be followed by calling that method again.
+     * 
+     * @param action {@link ActionInfo}
+     * @param level the level of job
+     * @return {@link JobInfo} or null
+     */
     public JobInfo getJobInfo(ActionInfo action, int level) {
-	BiPredicate<JobInfo, ActionInfo> condition = (jobInfo, actionInfo) -> {
-	    if (actionInfo instanceof PotionItemActionInfo) {
-		String subName = ((PotionItemActionInfo) action).getNameWithSub();
-		return jobInfo.getName().equalsIgnoreCase(subName) || (jobInfo.getName() + ":" + jobInfo.getMeta()).equalsIgnoreCase(subName);
-	    }
-
-	    return jobInfo.getName().equalsIgnoreCase(action.getNameWithSub()) ||
-		(jobInfo.getName() + ":" + jobInfo.getMeta()).equalsIgnoreCase(action.getNameWithSub()) ||
-		jobInfo.getName().equalsIgnoreCase(action.getName());
-	};
-
-	String shortActionName = CMIMaterial.getGeneralMaterialName(action.getName());
-	for (JobInfo info : getJobInfo(action.getType())) {
-	    if (condition.test(info, action)) {
-		if (!info.isInLevelRange(level)) {
-		    break;
-		}
-
-		return info;
-	    }
-
-	    if ((shortActionName + ":ALL").equalsIgnoreCase(info.getName())) {
-		return info;
-	    }
-	}
-
-	return null;
+	JobInfoIndex index = jobInfoIndex.get(action.getType());
+	return index == null ? null : index.get(action, level);
     }
 
     /**
@@ -395,14 +382,24 @@ public class Job {
 
     /**
      * Function to return the appropriate max exp for this level
-     * @param level - current level
+     * @param level - current level, only joblevel and numjobs are read
      * @return the correct max exp for this level
+     * @deprecated use {@link #getMaxExp(int, int)}
      */
+    @Deprecated
     public double getMaxExp(Map<String, Double> level) {
-	for (Map.Entry<String, Double> temp : level.entrySet()) {
-	    maxExpEquation.setVariable(temp.getKey(), temp.getValue());
-	}
-	return maxExpEquation.getValue();
+	Double jobLevel = level.get("joblevel"), numJobs = level.get("numjobs");
+	return getMaxExp(jobLevel == null ? 0 : jobLevel.intValue(), numJobs == null ? 0 : numJobs.intValue());
+    }
+
+    /**
+     * Function to return the appropriate max exp for this level
+     * @param level - current level
+     * @param numJobs - the amount of jobs the player have
+     * @return the correct max exp for this level
+     */
+    public double getMaxExp(int level, int numJobs) {
+	return maxExpExpression.evaluate(level, numJobs);
     }
 
     /**
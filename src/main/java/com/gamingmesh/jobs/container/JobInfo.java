@@ -29,6 +29,7 @@ public class JobInfo {
     private String name;
     private double baseIncome, baseXp, basePoints;
     private Parser moneyEquation, xpEquation, pointsEquation;
+    private PayoutTable moneyTable, xpTable, pointsTable;
     private int fromLevel = 0;
     private int untilLevel = Integer.MAX_VALUE;
 
@@ -58,6 +59,15 @@ public class JobInfo {
 	this.softIncomeLevelLimit = softIncomeLevelLimit;
 	this.softExpLevelLimit = softExpLevelLimit;
 	this.softPointsLevelLimit = softPointsLevelLimit;
+
+	// Frame order of compiled equations: joblevel, numjobs, maxjobs, base value
+	moneyTable = compile(moneyEquation, "baseincome");
+	xpTable = compile(xpEquation, "baseexperience");
+	pointsTable = compile(pointsEquation, "basepoints");
+    }
+
+    private static PayoutTable compile(Parser equation, String baseVariable) {
+	return equation == null ? null : new PayoutTable(equation.compile("joblevel", "numjobs", "maxjobs", baseVariable));
     }
 
     public int getFromLevel() {
@@ -113,11 +123,7 @@ public class JobInfo {
 	    level = softIncomeLevelLimit;
 	if (baseIncome == 0 || !Jobs.getGCManager().PaymentMethodsMoney)
 	    return 0;
-	moneyEquation.setVariable("joblevel", level);
-	moneyEquation.setVariable("numjobs", numjobs);
-	moneyEquation.setVariable("maxjobs", maxJobs);
-	moneyEquation.setVariable("baseincome", baseIncome);
-	return moneyEquation.getValue();
+	return moneyTable.get(level, numjobs, maxJobs, baseIncome);
     }
 
     public double getExperience(double level, int numjobs, int maxJobs) {
@@ -125,11 +131,7 @@ public class JobInfo {
 	    level = softExpLevelLimit;
 	if (baseXp == 0 || !Jobs.getGCManager().PaymentMethodsExp)
 	    return 0;
-	xpEquation.setVariable("joblevel", level);
-	xpEquation.setVariable("numjobs", numjobs);
-	xpEquation.setVariable("maxjobs", maxJobs);
-	xpEquation.setVariable("baseexperience", baseXp);
-	return xpEquation.getValue();
+	return xpTable.get(level, numjobs, maxJobs, baseXp);
     }
 
     public double getPoints(double level, int numjobs, int maxJobs) {
@@ -137,11 +139,7 @@ public class JobInfo {
 	    level = softPointsLevelLimit;
 	if (basePoints == 0 || !Jobs.getGCManager().PaymentMethodsPoints)
 	    return 0;
-	pointsEquation.setVariable("joblevel", level);
-	pointsEquation.setVariable("numjobs", numjobs);
-	pointsEquation.setVariable("maxjobs", maxJobs);
-	pointsEquation.setVariable("basepoints", basePoints);
-	return pointsEquation.getValue();
+	return pointsTable.get(level, numjobs, maxJobs, basePoints);
     }
 
     public String getConfigPath() {
@@ -150,13 +148,16 @@ public class JobInfo {
 
     public void setBaseIncome(double baseIncome) {
 	this.baseIncome = baseIncome;
+	moneyTable.clear();
     }
 
     public void setBaseXp(double baseXp) {
 	this.baseXp = baseXp;
+	xpTable.clear();
     }
 
     public void setBasePoints(double basePoints) {
 	this.basePoints = basePoints;
+	pointsTable.clear();
     }
 }
@@ -0,0 +1,125 @@
+/**
+ * Jobs Plugin for Bukkit
+ * Copyright (C) 2011 Zak Ford <zak.j.ford@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gamingmesh.jobs.container;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.gamingmesh.jobs.CMILib.CMIMaterial;
+import com.gamingmesh.jobs.actions.PotionItemActionInfo;
+
+/**
+ * Lookup index over the {@link JobInfo} list of a single {@link ActionType}.
+ * <p>
+ * The index keeps the first occurrence of every normalized name, name:meta and
+ * name:ALL key together with its position in the source list, so a lookup
+ * resolves to the same entry as scanning the list from the start would.
+ */
+final class JobInfoIndex {
+
+    // Action names can be anything, like names of renamed items, so the cache is bounded
+    private static final int MAX_ALL_KEYS = 1024;
+
+    private final Map<String, String> allKeys = new ConcurrentHashMap<>();
+    private final Map<String, Entry> byName = new HashMap<>(), byNameWithMeta = new HashMap<>(), byAllName = new HashMap<>();
+
+    JobInfoIndex(List<JobInfo> infos) {
+	for (int i = 0; i < infos.size(); i++) {
+	    JobInfo info = infos.get(i);
+	    Entry entry = new Entry(info, i);
+	    String name = normalize(info.getName());
+
+	    byName.putIfAbsent(name, entry);
+	    byNameWithMeta.putIfAbsent(normalize(info.getName() + ":" + info.getMeta()), entry);
+
+	    if (name.endsWith(":ALL")) {
+		byAllName.putIfAbsent(name, entry);
+	    }
+	}
+    }
+
+    /**
+     * Finds the job info for the given action at the given level.
+     *
+     * @param action {@link ActionInfo}
+     * @param level the level of job
+     * @return {@link JobInfo} or null if there is no matching info in level range
+     */
+    JobInfo get(ActionInfo action, int level) {
+	String nameWithSub = normalize(action.getNameWithSub());
+
+	Entry found = first(byName.get(nameWithSub), byNameWithMeta.get(nameWithSub));
+	if (!(action instanceof PotionItemActionInfo)) {
+	    found = first(found, byName.get(normalize(action.getName())));
+	}
+
+	if (!byAllName.isEmpty()) {
+	    Entry all = byAllName.get(getAllKey(action.getName()));
+
+	    // Named entries win over :ALL entries when both point to the same position
+	    if (all != null && (found == null || all.position < found.position)) {
+		return all.info;
+	    }
+	}
+
+	if (found == null || !found.info.isInLevelRange(level)) {
+	    return null;
+	}
+
+	return found.info;
+    }
+
+    private static Entry first(Entry one, Entry two) {
+	if (one == null)
+	    return two;
+
+	return two == null || one.position <= two.position ? one : two;
+    }
+
+    private String getAllKey(String name) {
+	String key = allKeys.get(name);
+	if (key != null)
+	    return key;
+
+	key = normalize(CMIMaterial.getGeneralMaterialName(name)) + ":ALL";
+
+	if (allKeys.size() >= MAX_ALL_KEYS)
+	    allKeys.clear();
+
+	allKeys.put(name, key);
+	return key;
+    }
+
+    private static String normalize(String name) {
+	return name.toUpperCase(Locale.ENGLISH);
+    }
+
+    private static final class Entry {
+	private final JobInfo info;
+	private final int position;
+
+	private Entry(JobInfo info, int position) {
+	    this.info = info;
+	    this.position = position;
+	}
+    }
+}
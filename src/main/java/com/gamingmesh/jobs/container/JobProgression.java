@@ -18,9 +18,7 @@
 
 package com.gamingmesh.jobs.container;
 
-import java.util.HashMap;
-import java.util.Map;
-
+import com.gamingmesh.jobs.Jobs;
 import com.gamingmesh.jobs.stuff.TimeManage;
 
 public class JobProgression {
@@ -31,6 +29,7 @@ public class JobProgression {
     private int level;
     private transient int maxExperience = -1;
     private Long leftOn = null;
+    private volatile boolean changed = false;
 
     public JobProgression(Job job, JobsPlayer jPlayer, int level, double experience) {
 	this.job = job;
@@ -39,6 +38,34 @@ public class JobProgression {
 	this.level = level;
     }
 
+    private void setChanged() {
+	changed = true;
+	jPlayer.setSaved(false);
+    }
+
+    /**
+     * Updates the rankings after the level or experience changed.
+     * 
+     * @param levelUp the result to return
+     * @return the given result
+     */
+    private boolean updateRanking(boolean levelUp) {
+	if (jPlayer != null)
+	    Jobs.getLeaderboards().update(jPlayer, this);
+	return levelUp;
+    }
+
+    /**
+     * @return true if the level or experience changed since it was last saved
+     */
+    public boolean isChanged() {
+	return changed;
+    }
+
+    public void setChanged(boolean changed) {
+	this.changed = changed;
+    }
+
     /**
      * Can the job level up?
      * @return true if the job can level up
@@ -71,9 +98,11 @@ public class JobProgression {
      */
     public void setJob(Job job) {
 //		synchronized (jPlayer.saveLock) {
-	jPlayer.setSaved(false);
+	setChanged();
+	if (this.job != null && jPlayer != null)
+	    Jobs.getLeaderboards().remove(jPlayer, this.job);
 	this.job = job;
-	reloadMaxExperienceAndCheckLevelUp();
+	updateRanking(reloadMaxExperienceAndCheckLevelUp());
 //		}
     }
 
@@ -91,10 +120,10 @@ public class JobProgression {
      * @return - job level up
      */
     public boolean addExperience(double experience) {
-	jPlayer.setSaved(false);
+	setChanged();
 	this.experience += experience;
 	lastExperience = getLastExperience() + experience;
-	return checkLevelUp();
+	return updateRanking(checkLevelUp());
     }
 
     /**
@@ -103,9 +132,9 @@ public class JobProgression {
      * @return - job level up
      */
     public boolean setExperience(double experience) {
-	jPlayer.setSaved(false);
+	setChanged();
 	this.experience = experience;
-	return checkLevelUp();
+	return updateRanking(checkLevelUp());
     }
 
     /**
@@ -114,10 +143,10 @@ public class JobProgression {
      * @return - job level up
      */
     public boolean takeExperience(double experience) {
-	jPlayer.setSaved(false);
+	setChanged();
 	this.experience -= experience;
 	lastExperience = getLastExperience() + experience;
-	return checkLevelUp();
+	return updateRanking(checkLevelUp());
     }
 
     /**
@@ -143,26 +172,20 @@ public class JobProgression {
      * @return true if this progression can level up
      */
     public boolean setLevel(int level) {
-	jPlayer.setSaved(false);
+	setChanged();
 	this.level = level;
-	return reloadMaxExperienceAndCheckLevelUp();
+	return updateRanking(reloadMaxExperienceAndCheckLevelUp());
     }
 
     /**
      * Reloads max experience
      */
     public void reloadMaxExperience() {
-	Map<String, Double> param = new HashMap<>();
-	param.put("joblevel", (double) level);
-	param.put("numjobs", (double) jPlayer.progression.size());
-	maxExperience = (int) job.getMaxExp(param);
+	maxExperience = getMaxExperience(level);
     }
 
     public int getMaxExperience(int level) {
-	Map<String, Double> param = new HashMap<>();
-	param.put("joblevel", (double) level);
-	param.put("numjobs", (double) jPlayer.progression.size());
-	return (int) job.getMaxExp(param);
+	return (int) job.getMaxExp(level, jPlayer.progression.size());
     }
 
     /**
@@ -40,7 +40,7 @@ import com.gamingmesh.jobs.api.JobsLevelUpEvent;
 import com.gamingmesh.jobs.container.blockOwnerShip.BlockTypes;
 import com.gamingmesh.jobs.dao.JobsDAO;
 import com.gamingmesh.jobs.economy.PaymentData;
-import com.gamingmesh.jobs.resources.jfep.Parser;
+import com.gamingmesh.jobs.resources.jfep.CompiledExpression;
 import com.gamingmesh.jobs.stuff.TimeManage;
 
 public class JobsPlayer {
@@ -65,6 +65,8 @@ public class JobsPlayer {
     private String honorific;
     // player save status
     private volatile boolean isSaved = true;
+    // changes which are not tracked by the saved data itself
+    private volatile boolean questsChanged = false, seenChanged = false;
     // player online status
     private volatile boolean isOnline = false;
 
@@ -82,6 +84,7 @@ public class JobsPlayer {
     private Long seen = System.currentTimeMillis();
 
     private Map<String, Boolean> permissionsCache;
+    private volatile PayoutMemo payoutMemo;
     private Long lastPermissionUpdate = -1L;
 
     private final Map<String, Map<String, QuestProgression>> qProgression = new HashMap<>();
@@ -139,6 +142,7 @@ public class JobsPlayer {
 	pointsData.setPoints(points.getCurrentPoints());
 	pointsData.setTotalPoints(points.getTotalPoints());
 	pointsData.setDbId(points.getDbId());
+	pointsData.setChanged(points.isChanged());
     }
 
     /**
@@ -405,11 +409,10 @@ public class JobsPlayer {
      * Reloads limit for this player.
      */
     public void reload(CurrencyType type) {
-	Parser eq = Jobs.getGCManager().getLimit(type).getMaxEquation();
-	eq.setVariable("totallevel", getTotalLevels());
+	CompiledExpression eq = Jobs.getGCManager().getLimit(type).getMaxEquation().compile("totallevel");
 
 	maxJobsEquation = Jobs.getPlayerManager().getMaxJobs(this);
-	limits.put(type, (int) eq.getValue());
+	limits.put(type, (int) eq.evaluate(getTotalLevels()));
 	setSaved(false);
     }
 
@@ -522,7 +525,11 @@ public class JobsPlayer {
 		Jobs.getJobsDAO().deleteArchive(this, job);
 	    }
 
-	    progression.add(new JobProgression(job, this, level, exp));
+	    JobProgression prog = new JobProgression(job, this, level, exp);
+	    progression.add(prog);
+	    Jobs.getLeaderboards().update(this, prog);
+	    invalidatePayoutMemo();
+	    invalidatePlaceholders();
 	    reloadMaxExperience();
 	    reloadLimits();
 	    reloadHonorific();
@@ -583,6 +590,9 @@ public class JobsPlayer {
     public boolean leaveJob(Job job) {
 //	synchronized (saveLock) {
 	if (progression.remove(getJobProgression(job))) {
+	    Jobs.getLeaderboards().remove(this, job);
+	    invalidatePayoutMemo();
+	    invalidatePlaceholders();
 	    reloadMaxExperience();
 	    reloadLimits();
 	    reloadHonorific();
@@ -600,6 +610,9 @@ public class JobsPlayer {
     public boolean leaveAllJobs() {
 //	synchronized (saveLock) {
 	progression.clear();
+	Jobs.getLeaderboards().removeAll(this);
+	invalidatePayoutMemo();
+	invalidatePlaceholders();
 	reloadHonorific();
 	Jobs.getPermissionHandler().recalculatePermissions(this);
 	reloadLimits();
@@ -668,6 +681,9 @@ public class JobsPlayer {
 	int oldLevel = prog.getLevel();
 
 	if (level != oldLevel) {
+	    invalidatePayoutMemo();
+	    invalidatePlaceholders();
+
 	    if (prog.setLevel(level)) {
 		JobsLevelUpEvent levelUpEvent = new JobsLevelUpEvent(this, job, prog.getLevel(),
 		    Jobs.getTitleManager().getTitle(oldLevel, prog.getJob().getName()),
@@ -702,6 +718,8 @@ public class JobsPlayer {
 		    continue;
 
 		prog.setJob(newjob);
+		invalidatePayoutMemo();
+		invalidatePlaceholders();
 
 		int maxLevel = getMaxJobLevelAllowed(newjob);
 
@@ -852,28 +870,28 @@ public class JobsPlayer {
     public void save() {
 //	synchronized (saveLock) {
 	if (!isSaved) {
-	    JobsDAO dao = Jobs.getJobsDAO();
-	    dao.save(this);
-	    dao.saveLog(this);
-	    dao.savePoints(this);
-	    dao.recordPlayersLimits(this);
-	    dao.updateSeen(this);
-	    setSaved(true);
-
-	    Player player = getPlayer();
-	    if (player == null || !player.isOnline()) {
-		Jobs.getPlayerManager().addPlayerToCache(this);
-		Jobs.getPlayerManager().removePlayer(player);
-	    }
+	    Jobs.getJobsDAO().savePlayers(Collections.singletonList(this));
+	    onSaved();
 	}
 //	}
     }
 
+    /**
+     * Performs the cache handling after the data of this player was written with {@link JobsDAO#savePlayers(java.util.Collection)}.
+     */
+    public void onSaved() {
+	if (isSaved && !isOnline()) {
+	    Jobs.getPlayerManager().addPlayerToCache(this);
+	    Jobs.getPlayerManager().removePlayer(this);
+	}
+    }
+
     /**
      * Perform connect
      */
     public void onConnect() {
 	isOnline = true;
+	seenChanged = true;
     }
 
     /**
@@ -883,6 +901,7 @@ public class JobsPlayer {
 //	Jobs.getJobsDAO().savePoints(this);
 	clearBossMaps();
 	isOnline = false;
+	seenChanged = true;
 	Jobs.getPlayerManager().addPlayerToCache(this);
     }
 
@@ -912,6 +931,52 @@ public class JobsPlayer {
 	this.isSaved = isSaved;
     }
 
+    /**
+     * @return true if the done quests or quest progressions changed since they were last saved
+     */
+    public boolean isQuestsChanged() {
+	return questsChanged;
+    }
+
+    public void setQuestsChanged(boolean questsChanged) {
+	this.questsChanged = questsChanged;
+    }
+
+    /**
+     * @return true if the seen time or name should be saved even if nothing else changed
+     */
+    public boolean isSeenChanged() {
+	return seenChanged;
+    }
+
+    public void setSeenChanged(boolean seenChanged) {
+	this.seenChanged = seenChanged;
+    }
+
+    /**
+     * Marks every saved data of this player as changed, so the next save writes all of it.
+     */
+    public void setAllChanged() {
+	for (JobProgression prog : progression) {
+	    prog.setChanged(true);
+	}
+
+	for (Log log : logList.values()) {
+	    for (LogAmounts amounts : log.getAmountList().values()) {
+		amounts.setChanged(true);
+	    }
+	}
+
+	pointsData.setChanged(true);
+
+	if (paymentLimits != null)
+	    paymentLimits.setChanged(true);
+
+	questsChanged = true;
+	seenChanged = true;
+	setSaved(false);
+    }
+
     public Long getSeen() {
 	return seen;
     }
@@ -932,6 +997,42 @@ public class JobsPlayer {
 	permissionsCache.put(permission, state);
     }
 
+    /**
+     * Returns the memoized payouts of the last action if the given action is the same
+     * and the memo did not expire yet.
+     * 
+     * @param info {@link ActionInfo}
+     * @param world the name of the world of the action block
+     * @return {@link PayoutMemo} or null if there is no valid memo for this action
+     */
+    public PayoutMemo getPayoutMemo(ActionInfo info, String world) {
+	PayoutMemo memo = payoutMemo;
+	if (memo == null)
+	    return null;
+
+	if (!memo.matches(info, world)) {
+	    payoutMemo = null;
+	    return null;
+	}
+
+	return memo;
+    }
+
+    public void setPayoutMemo(PayoutMemo payoutMemo) {
+	this.payoutMemo = payoutMemo;
+    }
+
+    public void invalidatePayoutMemo() {
+	payoutMemo = null;
+    }
+
+    /**
+     * Removes the cached placeholder values of this player, used when the levels or jobs are changed.
+     */
+    public void invalidatePlaceholders() {
+	plugin.getPlaceholderAPIManager().invalidate(getUniqueId());
+    }
+
     public Long getLastPermissionUpdate() {
 	return lastPermissionUpdate;
     }
@@ -1035,6 +1136,7 @@ public class JobsPlayer {
 
 		if (map != null) {
 		    map.clear();
+		    questsChanged = true;
 		}
 	    }
 	}
@@ -1048,12 +1150,14 @@ public class JobsPlayer {
 
     public void getNewQuests() {
 	qProgression.clear();
+	questsChanged = true;
     }
 
     public void getNewQuests(Job job) {
 	Map<String, QuestProgression> prog = qProgression.get(job.getName());
 	if (prog != null) {
 	    prog.clear();
+	    questsChanged = true;
 	    qProgression.put(job.getName(), prog);
 	}
     }
@@ -1102,6 +1206,7 @@ public class JobsPlayer {
 
 	prog.put(confName, new QuestProgression(q));
 	skippedQuests++;
+	questsChanged = true;
     }
 
     public List<QuestProgression> getQuestProgressions() {
@@ -1166,6 +1271,9 @@ public class JobsPlayer {
 	    }
 	}
 
+	if (qProg == null || !qProg.keySet().equals(g.keySet()))
+	    questsChanged = true;
+
 	qProgression.put(job.getName(), g);
 
 	Map<String, QuestProgression> tmp = new HashMap<>();
@@ -1296,7 +1404,9 @@ public class JobsPlayer {
 
     public void addDoneQuest(final Job job) {
 	doneQuests++;
+	questsChanged = true;
 	setSaved(false);
+	Jobs.getLeaderboards().updateQuests(this);
 
 	if (questSignUpdateShed == null) {
 	    questSignUpdateShed = Bukkit.getServer().getScheduler().scheduleSyncDelayedTask(plugin, () -> {
@@ -21,18 +21,24 @@ public final class Log {
     }
 
     public void add(String item, Map<CurrencyType, Double> amounts) {
-	LogAmounts logAmount = amountMap.getOrDefault(item, new LogAmounts(item));
+	LogAmounts logAmount = amountMap.computeIfAbsent(item, LogAmounts::new);
 	logAmount.addCount();
 	logAmount.add(amounts);
-	amountMap.put(item, logAmount);
+	logAmount.setChanged(true);
+    }
+
+    public void add(String item, double money, double points, double exp) {
+	LogAmounts logAmount = amountMap.computeIfAbsent(item, LogAmounts::new);
+	logAmount.addCount();
+	logAmount.add(money, points, exp);
+	logAmount.setChanged(true);
     }
 
     public void add(String item, int count, Map<CurrencyType, Double> amounts) {
-	LogAmounts logAmount = amountMap.getOrDefault(item, new LogAmounts(item));
+	LogAmounts logAmount = amountMap.computeIfAbsent(item, LogAmounts::new);
 	logAmount.setCount(count);
 	logAmount.add(amounts);
 	logAmount.setNewEntry(false);
-	amountMap.put(item, logAmount);
     }
 
     public void setDate() {
@@ -1,6 +1,5 @@
 package com.gamingmesh.jobs.container;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -12,9 +11,13 @@ public final class LogAmounts {
     private String item;
     private int count = 0;
 
-    private Map<CurrencyType, Double> amounts = new HashMap<>();
+    private static final CurrencyType[] TYPES = CurrencyType.values();
+
+    // Indexed by currency type ordinal
+    private final double[] amounts = new double[TYPES.length];
 
     private boolean newEntry = true;
+    private volatile boolean changed = false;
 
     public LogAmounts(String item) {
 	this.item = item;
@@ -28,6 +31,17 @@ public final class LogAmounts {
 	this.newEntry = newEntry;
     }
 
+    /**
+     * @return true if this entry changed since it was last saved
+     */
+    public boolean isChanged() {
+	return changed;
+    }
+
+    public void setChanged(boolean changed) {
+	this.changed = changed;
+    }
+
     public String getItemName() {
 	return item;
     }
@@ -42,11 +56,17 @@ public final class LogAmounts {
 	if (amount == null)
 	    return;
 
-	amounts.put(type, amounts.getOrDefault(type, 0D) + amount);
+	amounts[type.ordinal()] += amount;
+    }
+
+    public void add(double money, double points, double exp) {
+	amounts[CurrencyType.MONEY.ordinal()] += money;
+	amounts[CurrencyType.POINTS.ordinal()] += points;
+	amounts[CurrencyType.EXP.ordinal()] += exp;
     }
 
     public double get(CurrencyType type) {
-	return ((int) (amounts.getOrDefault(type, 0D) * 100D)) / 100D;
+	return ((int) (amounts[type.ordinal()] * 100D)) / 100D;
     }
 
     public void addCount() {
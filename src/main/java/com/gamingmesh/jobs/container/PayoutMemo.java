@@ -0,0 +1,134 @@
+/**
+ * Jobs Plugin for Bukkit
+ * Copyright (C) 2011 Zak Ford <zak.j.ford@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gamingmesh.jobs.container;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.gamingmesh.jobs.economy.BufferedPayment;
+
+/**
+ * The resolved payouts of the last action of a player, per job.
+ * <p>
+ * Repeating the same action in a short time replays these payouts instead
+ * of resolving job infos, boosts and limits again. A memo is only valid for
+ * {@link #TTL} milliseconds and gets dropped when the player levels up or
+ * changes jobs, or when a job boost or reload invalidates all of them.
+ */
+public final class PayoutMemo {
+
+    /**
+     * Time in milliseconds while the memo can be replayed
+     */
+    public static final long TTL = 45L;
+
+    // Actions whose payouts do not depend on entities
+    private static final Set<ActionType> MEMOIZABLE = EnumSet.of(ActionType.BREAK, ActionType.PLACE, ActionType.FISH,
+	ActionType.SMELT);
+
+    private static final AtomicInteger EPOCH = new AtomicInteger();
+
+    private final ActionType type;
+    private final String name;
+    private final String world;
+    private final List<Payout> payouts;
+    private final long expires;
+    private final int epoch = EPOCH.get();
+
+    /**
+     * @param info {@link ActionInfo}
+     * @param world the name of the world of the action block, jobs can be disabled per world
+     * @param payouts the resolved payouts
+     */
+    public PayoutMemo(ActionInfo info, String world, List<Payout> payouts) {
+	type = info.getType();
+	name = info.getNameWithSub();
+	this.world = world;
+	this.payouts = Collections.unmodifiableList(payouts);
+	expires = System.currentTimeMillis() + TTL;
+    }
+
+    /**
+     * Checks if this memo was made for the given action and is still valid.
+     * 
+     * @param info {@link ActionInfo}
+     * @param world the name of the world of the action block
+     * @return true if the payouts can be replayed
+     */
+    public boolean matches(ActionInfo info, String world) {
+	return epoch == EPOCH.get() && type == info.getType() && System.currentTimeMillis() < expires
+	    && name.equals(info.getNameWithSub()) && Objects.equals(this.world, world);
+    }
+
+    public List<Payout> getPayouts() {
+	return payouts;
+    }
+
+    /**
+     * Returns if payouts of the given action type can be memoized.
+     * 
+     * @param type {@link ActionType}
+     * @return true if the type is frequent enough to be worth it
+     */
+    public static boolean isMemoizable(ActionType type) {
+	return MEMOIZABLE.contains(type);
+    }
+
+    /**
+     * Invalidates the memo of every player, used when job boosts or configuration changes.
+     */
+    public static void invalidateAll() {
+	EPOCH.incrementAndGet();
+    }
+
+    /**
+     * Resolved payment of a single job.
+     */
+    public static final class Payout {
+
+	private final Job job;
+	private final BufferedPayment payment;
+	private final double vanillaExp;
+
+	public Payout(Job job, BufferedPayment payment, double vanillaExp) {
+	    this.job = job;
+	    this.payment = payment;
+	    this.vanillaExp = vanillaExp;
+	}
+
+	public Job getJob() {
+	    return job;
+	}
+
+	public BufferedPayment getPayment() {
+	    return payment;
+	}
+
+	/**
+	 * @return the experience amount before boosts, given as vanilla experience
+	 */
+	public double getVanillaExp() {
+	    return vanillaExp;
+	}
+    }
+}
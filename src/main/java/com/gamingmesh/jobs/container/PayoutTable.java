@@ -0,0 +1,146 @@
+/**
+ * Jobs Plugin for Bukkit
+ * Copyright (C) 2011 Zak Ford <zak.j.ford@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gamingmesh.jobs.container;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.gamingmesh.jobs.resources.jfep.CompiledExpression;
+
+/**
+ * Lazily filled table of equation results for one {@link JobInfo} currency,
+ * keyed by job level, number of jobs and max jobs.
+ * <p>
+ * Rows are created on first use for each (numjobs, maxjobs) pair and grow with
+ * the requested level. Inputs outside of the table bounds and equations using
+ * random values are evaluated directly. Rows and values are published with atomic
+ * arrays, so other threads never see a partially filled row. Concurrent writers can
+ * only cause the same value to be computed twice.
+ */
+public final class PayoutTable {
+
+    static final int MAX_LEVEL = 4096;
+    static final int MAX_JOBS = 16;
+
+    private static final LongAdder HITS = new LongAdder(), MISSES = new LongAdder();
+
+    // Not computed values of a row
+    private static final long EMPTY = Double.doubleToRawLongBits(Double.NaN);
+
+    private final CompiledExpression expression;
+    private final boolean cacheable;
+
+    private volatile AtomicReferenceArray<AtomicLongArray> rows;
+
+    PayoutTable(CompiledExpression expression) {
+	this.expression = expression;
+	cacheable = !expression.isRandom();
+    }
+
+    /**
+     * Returns the value of the equation for the given inputs.
+     *
+     * @param level the job level
+     * @param numjobs the amount of jobs of player
+     * @param maxJobs the max jobs of player
+     * @param base the base value of job info
+     * @return the calculated value
+     */
+    double get(double level, int numjobs, int maxJobs, double base) {
+	int lvl = (int) level;
+
+	if (!cacheable || lvl != level || lvl < 0 || lvl >= MAX_LEVEL || numjobs < 0 || numjobs >= MAX_JOBS
+	    || maxJobs < 0 || maxJobs >= MAX_JOBS) {
+	    return expression.evaluate(level, numjobs, maxJobs, base);
+	}
+
+	AtomicReferenceArray<AtomicLongArray> rows = this.rows;
+	if (rows == null) {
+	    this.rows = rows = new AtomicReferenceArray<>(MAX_JOBS * MAX_JOBS);
+	}
+
+	int key = numjobs * MAX_JOBS + maxJobs;
+	AtomicLongArray row = rows.get(key);
+
+	if (row != null && lvl < row.length()) {
+	    double value = Double.longBitsToDouble(row.get(lvl));
+
+	    if (!Double.isNaN(value)) {
+		HITS.increment();
+		return value;
+	    }
+	}
+
+	MISSES.increment();
+
+	double value = expression.evaluate(level, numjobs, maxJobs, base);
+
+	if (row == null || lvl >= row.length()) {
+	    int size = Math.min(MAX_LEVEL, Math.max(32, Integer.highestOneBit(lvl) << 1));
+	    AtomicLongArray grown = new AtomicLongArray(size);
+
+	    for (int i = 0; i < size; i++) {
+		grown.lazySet(i, row != null && i < row.length() ? row.get(i) : EMPTY);
+	    }
+
+	    // Published after filled
+	    rows.set(key, row = grown);
+	}
+
+	row.set(lvl, Double.doubleToRawLongBits(value));
+	return value;
+    }
+
+    /**
+     * Drops every cached value, used when the base value of job info changes.
+     */
+    void clear() {
+	rows = null;
+    }
+
+    /**
+     * @return the amount of lookups served from cache since last reset
+     */
+    public static long getHits() {
+	return HITS.sum();
+    }
+
+    /**
+     * @return the amount of lookups which needed equation evaluation since last reset
+     */
+    public static long getMisses() {
+	return MISSES.sum();
+    }
+
+    /**
+     * Returns the ratio of cached lookups, from 0 to 1.
+     *
+     * @return the hit rate or 0 if there was no lookups
+     */
+    public static double getHitRate() {
+	long hits = getHits(), total = hits + getMisses();
+	return total == 0 ? 0D : (double) hits / total;
+    }
+
+    public static void resetStatistics() {
+	HITS.reset();
+	MISSES.reset();
+    }
+}
@@ -5,6 +5,7 @@ public class PlayerPoints {
     private double current = 0D;
     private double total = 0D;
     private int dbId = 0;
+    private volatile boolean changed = false;
 
     public PlayerPoints() {
     }
@@ -17,15 +18,18 @@ public class PlayerPoints {
     public void addPoints(double points) {
 	current += points;
 	total += points;
+	changed = true;
     }
 
     public void setPoints(double points) {
 	current = points;
 	total = points;
+	changed = true;
     }
 
     public void takePoints(double points) {
 	current -= points;
+	changed = true;
     }
 
     public boolean havePoints(double points) {
@@ -42,6 +46,7 @@ public class PlayerPoints {
 
     public void setTotalPoints(double total) {
 	this.total = total;
+	changed = true;
     }
 
     public int getDbId() {
@@ -51,4 +56,15 @@ public class PlayerPoints {
     public void setDbId(int dbId) {
 	this.dbId = dbId;
     }
+
+    /**
+     * @return true if the points changed since they were last saved
+     */
+    public boolean isChanged() {
+	return changed;
+    }
+
+    public void setChanged(boolean changed) {
+	this.changed = changed;
+    }
 }
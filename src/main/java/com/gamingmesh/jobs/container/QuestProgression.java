@@ -134,6 +134,7 @@ public class QuestProgression {
 	    }
 	}
 
+	jPlayer.setQuestsChanged(true);
 	jPlayer.setSaved(false);
 
 	if (!isCompleted() || !player.isOnline() || givenReward)
@@ -0,0 +1,263 @@
+/**
+ * Jobs Plugin for Bukkit
+ * Copyright (C) 2011 Zak Ford <zak.j.ford@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gamingmesh.jobs.container;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ordered ranking of players by level and experience, highest first.
+ * <p>
+ * The entries are kept in a treap where every node knows the size of its
+ * subtree, so updates, the position of a player and the player at a position
+ * are all found in O(log n). Equal scores are ordered by user id.
+ * <p>
+ * This class is not thread safe.
+ */
+public final class Ranking {
+
+    private final Map<Integer, Node> byUser = new HashMap<>();
+    private Node root;
+
+    /**
+     * Sets the score of the given player, adding it when not ranked yet.
+     *
+     * @param userId the player id
+     * @param level the level
+     * @param exp the experience, used when levels are equal
+     */
+    public void set(int userId, int level, double exp) {
+	Node old = byUser.get(userId);
+	if (old != null) {
+	    if (old.level == level && Double.compare(old.exp, exp) == 0)
+		return;
+
+	    root = delete(root, old);
+	}
+
+	Node node = new Node(userId, level, exp);
+	byUser.put(userId, node);
+	root = insert(root, node);
+    }
+
+    /**
+     * Removes the given player from this ranking.
+     *
+     * @param userId the player id
+     */
+    public void remove(int userId) {
+	Node old = byUser.remove(userId);
+	if (old != null)
+	    root = delete(root, old);
+    }
+
+    public void clear() {
+	byUser.clear();
+	root = null;
+    }
+
+    public int size() {
+	return byUser.size();
+    }
+
+    public boolean contains(int userId) {
+	return byUser.containsKey(userId);
+    }
+
+    /**
+     * Returns the position of the given player.
+     *
+     * @param userId the player id
+     * @return the position starting from 0, or -1 if the player is not ranked
+     */
+    public int indexOf(int userId) {
+	Node target = byUser.get(userId);
+	if (target == null)
+	    return -1;
+
+	int index = 0;
+	Node node = root;
+	while (node != null) {
+	    int c = compare(target, node);
+	    if (c == 0)
+		return index + size(node.left);
+
+	    if (c < 0) {
+		node = node.left;
+	    } else {
+		index += size(node.left) + 1;
+		node = node.right;
+	    }
+	}
+	return -1;
+    }
+
+    /**
+     * Returns the player at the given position.
+     *
+     * @param index the position starting from 0
+     * @return the user id, or -1 if the index is out of range
+     */
+    public int getUserAt(int index) {
+	Node node = nodeAt(index);
+	return node == null ? -1 : node.userId;
+    }
+
+    /**
+     * @param index the position starting from 0
+     * @return the level at the given position or 0 if out of range
+     */
+    public int getLevelAt(int index) {
+	Node node = nodeAt(index);
+	return node == null ? 0 : node.level;
+    }
+
+    /**
+     * @param index the position starting from 0
+     * @return the experience at the given position or 0 if out of range
+     */
+    public double getExpAt(int index) {
+	Node node = nodeAt(index);
+	return node == null ? 0D : node.exp;
+    }
+
+    private Node nodeAt(int index) {
+	if (index < 0 || index >= size())
+	    return null;
+
+	Node node = root;
+	while (node != null) {
+	    int left = size(node.left);
+	    if (index == left)
+		return node;
+
+	    if (index < left) {
+		node = node.left;
+	    } else {
+		index -= left + 1;
+		node = node.right;
+	    }
+	}
+	return null;
+    }
+
+    private static int compare(Node one, Node two) {
+	if (one.level != two.level)
+	    return one.level > two.level ? -1 : 1;
+
+	int c = Double.compare(two.exp, one.exp);
+	return c != 0 ? c : Integer.compare(one.userId, two.userId);
+    }
+
+    private static int size(Node node) {
+	return node == null ? 0 : node.size;
+    }
+
+    private static Node update(Node node) {
+	node.size = size(node.left) + size(node.right) + 1;
+	return node;
+    }
+
+    private static Node insert(Node node, Node added) {
+	if (node == null)
+	    return added;
+
+	if (added.priority > node.priority) {
+	    Node[] parts = split(node, added);
+	    added.left = parts[0];
+	    added.right = parts[1];
+	    return update(added);
+	}
+
+	if (compare(added, node) < 0)
+	    node.left = insert(node.left, added);
+	else
+	    node.right = insert(node.right, added);
+
+	return update(node);
+    }
+
+    private static Node delete(Node node, Node removed) {
+	if (node == null)
+	    return null;
+
+	if (node == removed)
+	    return merge(node.left, node.right);
+
+	if (compare(removed, node) < 0)
+	    node.left = delete(node.left, removed);
+	else
+	    node.right = delete(node.right, removed);
+
+	return update(node);
+    }
+
+    /**
+     * Splits the tree into nodes ordered before and after the given node.
+     */
+    private static Node[] split(Node node, Node key) {
+	if (node == null)
+	    return new Node[2];
+
+	if (compare(node, key) < 0) {
+	    Node[] parts = split(node.right, key);
+	    node.right = parts[0];
+	    parts[0] = update(node);
+	    return parts;
+	}
+
+	Node[] parts = split(node.left, key);
+	node.left = parts[1];
+	parts[1] = update(node);
+	return parts;
+    }
+
+    private static Node merge(Node left, Node right) {
+	if (left == null)
+	    return right;
+
+	if (right == null)
+	    return left;
+
+	if (left.priority > right.priority) {
+	    left.right = merge(left.right, right);
+	    return update(left);
+	}
+
+	right.left = merge(left, right.left);
+	return update(right);
+    }
+
+    private static final class Node {
+	private final int userId;
+	private final int level;
+	private final double exp;
+	private final int priority = ThreadLocalRandom.current().nextInt();
+
+	private Node left, right;
+	private int size = 1;
+
+	private Node(int userId, int level, double exp) {
+	    this.userId = userId;
+	    this.level = level;
+	    this.exp = exp;
+	}
+    }
+}
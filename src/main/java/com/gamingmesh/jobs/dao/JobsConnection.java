@@ -1,16 +1,40 @@
 package com.gamingmesh.jobs.dao;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class JobsConnection implements AutoCloseable {
+
+    private static final int MAX_CACHED_STATEMENTS = 64;
 
-public class JobsConnection {
     private Connection conn;
 
+    // Pool which leased this connection, null if it is not pooled
+    private final JobsConnectionPool pool;
+
+    // Last time the pool handed out or got back this connection
+    volatile long lastUsed;
+
+    // Prepared statements by their sql, in access order
+    private final Map<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
     public JobsConnection(Connection conn) {
+	this(conn, null);
+    }
+
+    JobsConnection(Connection conn, JobsConnectionPool pool) {
 	this.conn = conn;
+	this.pool = pool;
+	lastUsed = System.currentTimeMillis();
     }
 
     public Connection getConnection() {
@@ -35,7 +59,21 @@ public class JobsConnection {
 	return true;
     }
 
+    /**
+     * Hands this connection back to the pool it was leased from. The underlying
+     * connection stays open, use {@link #closeConnection()} to close it.
+     */
+    @Override
+    public void close() {
+	if (pool != null)
+	    pool.release(this);
+    }
+
     public synchronized void closeConnection() throws SQLException {
+	for (CachedStatement one : statements.values()) {
+	    one.closeStatement();
+	}
+	statements.clear();
 	conn.close();
     }
 
@@ -43,8 +81,68 @@ public class JobsConnection {
 	return conn.createStatement();
     }
 
+    /**
+     * Returns a prepared statement for the given sql from the statement cache of this
+     * connection. Closing the returned statement only hands it back to the cache.
+     * <p>
+     * When the cached statement is still used by another caller, an uncached statement is returned.
+     * 
+     * @param sql the sql to prepare
+     * @return {@link PreparedStatement}
+     * @throws SQLException
+     */
     public synchronized PreparedStatement prepareStatement(String sql) throws SQLException {
-	return conn.prepareStatement(sql);
+	CachedStatement cached = statements.get(sql);
+	if (cached != null) {
+	    if (cached.inUse)
+		return conn.prepareStatement(sql);
+
+	    return cached.lease();
+	}
+
+	cached = new CachedStatement(sql, conn.prepareStatement(sql));
+	statements.put(sql, cached);
+
+	if (statements.size() > MAX_CACHED_STATEMENTS) {
+	    Iterator<CachedStatement> it = statements.values().iterator();
+	    while (it.hasNext() && statements.size() > MAX_CACHED_STATEMENTS) {
+		CachedStatement eldest = it.next();
+		if (eldest.inUse)
+		    continue;
+
+		it.remove();
+		eldest.closeStatement();
+	    }
+	}
+
+	return cached.lease();
+    }
+
+    /**
+     * @return the amount of prepared statements cached by this connection
+     */
+    public synchronized int getCachedStatements() {
+	return statements.size();
+    }
+
+    private synchronized void release(CachedStatement cached) {
+	try {
+	    ResultSet res = cached.statement.getResultSet();
+	    if (res != null)
+		res.close();
+
+	    cached.statement.clearParameters();
+	    cached.statement.clearBatch();
+	    cached.inUse = false;
+	} catch (SQLException e) {
+	    // Statement is broken, prepare a new one on next use
+	    if (statements.get(cached.sql) == cached)
+		statements.remove(cached.sql);
+	    cached.closeStatement();
+	}
+
+	if (statements.get(cached.sql) != cached)
+	    cached.closeStatement();
     }
 
     public synchronized PreparedStatement prepareStatement(String sql, int returnGeneratedKeys) throws SQLException {
@@ -72,4 +170,57 @@ public class JobsConnection {
     public synchronized void setClientInfo(String path, String value) throws SQLException {
 	conn.setClientInfo(path, value);
     }
+
+    /**
+     * Prepared statement kept open between uses. Each caller gets its own proxy of
+     * it, which hands the statement back to the cache when closed.
+     */
+    private final class CachedStatement {
+	private final String sql;
+	private final PreparedStatement statement;
+	private boolean inUse = false;
+
+	private CachedStatement(String sql, PreparedStatement statement) {
+	    this.sql = sql;
+	    this.statement = statement;
+	}
+
+	private PreparedStatement lease() {
+	    inUse = true;
+
+	    boolean[] closed = { false };
+	    return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+		new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+		    switch (method.getName()) {
+		    case "close":
+			// Closing twice must not release the statement of the next caller
+			if (!closed[0]) {
+			    closed[0] = true;
+			    release(this);
+			}
+			return null;
+		    case "isClosed":
+			return closed[0] || statement.isClosed();
+		    default:
+			break;
+		    }
+
+		    if (closed[0])
+			throw new SQLException("Statement is closed");
+
+		    try {
+			return method.invoke(statement, args);
+		    } catch (InvocationTargetException e) {
+			throw e.getCause();
+		    }
+		});
+	}
+
+	private void closeStatement() {
+	    try {
+		statement.close();
+	    } catch (SQLException e) {
+	    }
+	}
+    }
 }
@@ -1,46 +1,470 @@
 package com.gamingmesh.jobs.dao;
 
+import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
+import org.bukkit.Bukkit;
+
+import com.gamingmesh.jobs.Jobs;
+
+/**
+ * Bounded pool of database connections.
+ * <p>
+ * A connection is leased for one unit of work and handed back by closing it,
+ * best with a try-with-resources block. A thread which already holds a lease gets
+ * the same connection again, so nested calls share one transaction.
+ * <p>
+ * The primary thread never waits for a free connection, it has a dedicated
+ * connection outside of the pool limit. With a max size of 1 every thread
+ * shares the same connection.
+ * <p>
+ * Connections are validated outside of the pool lock, idle ones by a timer and
+ * borrowed ones when they were not used for a while. Leases held for too long
+ * are reported as leaks.
+ */
 public class JobsConnectionPool {
 
-    private JobsConnection connection;
+    private static final long VALIDATION_PERIOD = TimeUnit.SECONDS.toMillis(30);
+    private static final long BORROW_TIMEOUT = TimeUnit.SECONDS.toMillis(5);
+    private static final long LEAK_THRESHOLD = TimeUnit.SECONDS.toMillis(60);
+
     private String url;
     private String username;
     private String password;
 
+    private int maxSize = 1;
+    private int size = 0;
+
+    private volatile String[] initStatements = new String[0];
+
+    private final Deque<JobsConnection> idle = new ArrayDeque<>();
+    private final Map<Thread, Lease> leases = new HashMap<>();
+    private JobsConnection shared, primary;
+
+    private final LongAdder waitCount = new LongAdder(), waitTime = new LongAdder(), leakCount = new LongAdder();
+
+    private Timer timer;
+
     public JobsConnectionPool(String url, String username, String password) {
 	this.url = url;
 	this.username = username;
 	this.password = password;
     }
 
-    public synchronized JobsConnection getConnection() throws SQLException {
-	if (connection != null && (connection.isClosed() || !connection.isValid(1))) {
-	    try {
-		connection.closeConnection();
-	    } catch (SQLException e) {}
-	    connection = null;
+    /**
+     * Sets how many connections can be open at the same time.
+     * 
+     * @param maxSize max amount of connections, 1 to share a single connection
+     */
+    public synchronized void setMaxSize(int maxSize) {
+	this.maxSize = Math.max(1, maxSize);
+	notifyAll();
+    }
+
+    public synchronized int getMaxSize() {
+	return maxSize;
+    }
+
+    /**
+     * Sets the statements which are executed on every newly opened connection,
+     * like connection scoped pragmas.
+     * 
+     * @param statements the sql statements
+     */
+    public void setInitStatements(String... statements) {
+	initStatements = statements.clone();
+    }
+
+    /**
+     * Leases a connection to the current thread. The lease ends when the returned
+     * connection is closed as many times as it was leased.
+     * <p>
+     * Threads other than the primary one wait up to 5 seconds for a free connection.
+     * 
+     * @return {@link JobsConnection} or null if there is no available connection
+     * @throws SQLException
+     */
+    public JobsConnection getConnection() throws SQLException {
+	Thread thread = Thread.currentThread();
+	long start = System.currentTimeMillis();
+	boolean waited = false;
+
+	while (true) {
+	    JobsConnection connection;
+	    boolean sharing, dedicated;
+
+	    synchronized (this) {
+		startTimer();
+
+		Lease lease = leases.get(thread);
+		if (lease != null) {
+		    lease.holds++;
+		    return lease.connection;
+		}
+
+		sharing = maxSize == 1;
+		dedicated = sharing || isPrimaryThread();
+
+		if (dedicated) {
+		    connection = sharing ? shared : primary;
+		} else {
+		    connection = idle.poll();
+
+		    if (connection == null) {
+			if (size < maxSize) {
+			    size++;
+			} else {
+			    long wait = start + BORROW_TIMEOUT - System.currentTimeMillis();
+			    if (wait <= 0) {
+				waitCount.increment();
+				waitTime.add(BORROW_TIMEOUT);
+				Jobs.getPluginLogger().warning("Timed out waiting for a database connection on " + thread.getName()
+				    + ", all " + maxSize + " connections are in use");
+				return null;
+			    }
+
+			    waited = true;
+			    try {
+				wait(wait);
+			    } catch (InterruptedException e) {
+				thread.interrupt();
+				return null;
+			    }
+			    continue;
+			}
+		    }
+		}
+
+		if (connection != null && System.currentTimeMillis() - connection.lastUsed < VALIDATION_PERIOD)
+		    return lease(thread, connection, start, waited);
+	    }
+
+	    // Opening and validating needs network round trips, so it happens outside of the lock
+	    if (connection == null) {
+		connection = open();
+
+		if (connection == null) {
+		    if (!dedicated) {
+			synchronized (this) {
+			    size--;
+			    notifyAll();
+			}
+		    }
+		    return null;
+		}
+	    } else if (!isValid(connection)) {
+		synchronized (this) {
+		    discard(connection);
+		}
+		continue;
+	    }
+
+	    synchronized (this) {
+		if (dedicated) {
+		    JobsConnection current = sharing ? shared : primary;
+
+		    if (current == null) {
+			if (sharing)
+			    shared = connection;
+			else
+			    primary = connection;
+		    } else if (current != connection) {
+			// Another thread opened the shared connection meanwhile
+			closeQuietly(connection);
+			connection = current;
+		    }
+		}
+
+		return lease(thread, connection, start, waited);
+	    }
 	}
+    }
 
-	if (connection == null) {
-	    try {
-		connection = new JobsConnection(DriverManager.getConnection(url, username, password));
-	    } catch (SQLException e) {
+    private JobsConnection lease(Thread thread, JobsConnection connection, long start, boolean waited) {
+	long now = System.currentTimeMillis();
+
+	if (waited) {
+	    waitCount.increment();
+	    waitTime.add(now - start);
+	}
+
+	connection.lastUsed = now;
+	leases.put(thread, new Lease(connection, now));
+	return connection;
+    }
+
+    /**
+     * Ends one lease of the current thread, called when the connection is closed.
+     * Open transactions of pooled connections are rolled back before the
+     * connection is handed to the next thread.
+     */
+    void release(JobsConnection connection) {
+	Thread thread = Thread.currentThread();
+
+	synchronized (this) {
+	    Lease lease = leases.get(thread);
+	    // Closed twice or by a thread which does not hold it
+	    if (lease == null || lease.connection != connection)
+		return;
+
+	    if (--lease.holds > 0)
+		return;
+
+	    leases.remove(thread);
+	    connection.lastUsed = System.currentTimeMillis();
+
+	    // Other threads can be inside a transaction of the shared connection
+	    if (connection == shared)
+		return;
+	}
+
+	boolean reusable = reset(connection);
+
+	synchronized (this) {
+	    if (!reusable) {
+		discard(connection);
+	    } else if (connection != primary && !idle.contains(connection)) {
+		idle.push(connection);
+		notifyAll();
+	    }
+	}
+    }
+
+    /**
+     * Rolls back transactions which were left open by the previous lease.
+     * 
+     * @return true if the connection can be reused
+     */
+    private boolean reset(JobsConnection connection) {
+	try {
+	    Connection conn = connection.getConnection();
+	    if (conn.isClosed())
+		return false;
+
+	    if (!conn.getAutoCommit()) {
+		leakCount.increment();
+		Jobs.getPluginLogger().warning("Database connection was left in an open transaction, rolling back");
+		conn.rollback();
+		conn.setAutoCommit(true);
 	    }
+
+	    return true;
+	} catch (SQLException e) {
+	    return false;
 	}
+    }
 
+    private JobsConnection open() {
+	JobsConnection connection = null;
+	try {
+	    connection = new JobsConnection(DriverManager.getConnection(url, username, password), this);
+	    init(connection);
+	} catch (SQLException e) {
+	}
 	return connection;
     }
 
-    public void closeConnection() {
-	if (connection != null) {
+    private void init(JobsConnection connection) {
+	for (String sql : initStatements) {
+	    Statement statement = null;
 	    try {
-		connection.closeConnection();
+		statement = connection.createStatement();
+		statement.execute(sql);
 	    } catch (SQLException e) {
-		e.printStackTrace();
+		Jobs.consoleMsg("&cCould not execute " + sql + ", SQLException: " + e.getMessage());
+	    } finally {
+		JobsDAO.close(statement);
 	    }
 	}
     }
+
+    private void discard(JobsConnection connection) {
+	if (connection == shared)
+	    shared = null;
+	else if (connection == primary)
+	    primary = null;
+	else
+	    size--;
+
+	closeQuietly(connection);
+	notifyAll();
+    }
+
+    private static void closeQuietly(JobsConnection connection) {
+	try {
+	    connection.closeConnection();
+	} catch (SQLException e) {
+	}
+    }
+
+    private static boolean isValid(JobsConnection connection) {
+	try {
+	    return !connection.isClosed() && connection.isValid(1);
+	} catch (SQLException e) {
+	    return false;
+	}
+    }
+
+    private static boolean isPrimaryThread() {
+	try {
+	    return Bukkit.isPrimaryThread();
+	} catch (Throwable e) {
+	    // Server is not running
+	    return false;
+	}
+    }
+
+    private void startTimer() {
+	if (timer != null)
+	    return;
+
+	timer = new Timer("Jobs-ConnectionPool", true);
+	timer.schedule(new TimerTask() {
+	    @Override
+	    public void run() {
+		validate();
+	    }
+	}, VALIDATION_PERIOD, VALIDATION_PERIOD);
+    }
+
+    private void validate() {
+	List<JobsConnection> toValidate;
+
+	synchronized (this) {
+	    reportLeaks();
+
+	    toValidate = new ArrayList<>(idle);
+	    idle.clear();
+	}
+
+	// Network round trips happen outside of the lock
+	List<JobsConnection> valid = new ArrayList<>(toValidate.size());
+	List<JobsConnection> invalid = new ArrayList<>();
+	for (JobsConnection connection : toValidate) {
+	    (isValid(connection) ? valid : invalid).add(connection);
+	}
+
+	long now = System.currentTimeMillis();
+
+	synchronized (this) {
+	    for (JobsConnection connection : invalid) {
+		discard(connection);
+	    }
+
+	    for (JobsConnection connection : valid) {
+		connection.lastUsed = now;
+		idle.push(connection);
+	    }
+
+	    if (!toValidate.isEmpty())
+		notifyAll();
+	}
+    }
+
+    /**
+     * Reports every lease which is held longer than the leak threshold once.
+     */
+    private void reportLeaks() {
+	long now = System.currentTimeMillis();
+
+	for (Entry<Thread, Lease> one : leases.entrySet()) {
+	    Lease lease = one.getValue();
+	    if (lease.reported || now - lease.since < LEAK_THRESHOLD)
+		continue;
+
+	    lease.reported = true;
+	    leakCount.increment();
+	    Jobs.getPluginLogger().warning("Database connection is held by " + one.getKey().getName() + " for more than "
+		+ TimeUnit.MILLISECONDS.toSeconds(LEAK_THRESHOLD) + " seconds, it was probably not closed");
+	}
+    }
+
+    /**
+     * @return the amount of threads holding a connection
+     */
+    public synchronized int getActiveConnections() {
+	return leases.size();
+    }
+
+    /**
+     * @return the amount of open connections waiting to be borrowed
+     */
+    public synchronized int getIdleConnections() {
+	return idle.size();
+    }
+
+    /**
+     * @return how many times threads had to wait for a free connection
+     */
+    public long getWaitCount() {
+	return waitCount.sum();
+    }
+
+    /**
+     * @return the total time in milliseconds threads spent waiting for a free connection
+     */
+    public long getWaitTime() {
+	return waitTime.sum();
+    }
+
+    /**
+     * @return the amount of leases held for too long or ended with an unfinished transaction
+     */
+    public long getLeakCount() {
+	return leakCount.sum();
+    }
+
+    public synchronized void closeConnection() {
+	if (timer != null) {
+	    timer.cancel();
+	    timer = null;
+	}
+
+	List<JobsConnection> all = new ArrayList<>(idle);
+	for (Lease lease : leases.values()) {
+	    if (!all.contains(lease.connection))
+		all.add(lease.connection);
+	}
+	if (shared != null && !all.contains(shared))
+	    all.add(shared);
+	if (primary != null && !all.contains(primary))
+	    all.add(primary);
+
+	for (JobsConnection connection : all) {
+	    closeQuietly(connection);
+	}
+
+	idle.clear();
+	leases.clear();
+	shared = null;
+	primary = null;
+	size = 0;
+
+	notifyAll();
+    }
+
+    private static final class Lease {
+	private final JobsConnection connection;
+	private final long since;
+	private int holds = 1;
+	private boolean reported = false;
+
+	private Lease(JobsConnection connection, long since) {
+	    this.connection = connection;
+	    this.since = since;
+	}
+    }
 }
@@ -6,6 +6,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -15,7 +16,6 @@ import java.util.Set;
 import java.util.UUID;
 
 import org.bukkit.Bukkit;
-import org.bukkit.Location;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
@@ -36,6 +36,7 @@ import com.gamingmesh.jobs.container.Log;
 import com.gamingmesh.jobs.container.LogAmounts;
 import com.gamingmesh.jobs.container.PlayerInfo;
 import com.gamingmesh.jobs.container.PlayerPoints;
+import com.gamingmesh.jobs.container.Ranking;
 import com.gamingmesh.jobs.container.TopList;
 import com.gamingmesh.jobs.dao.JobsManager.DataBaseType;
 import com.gamingmesh.jobs.economy.PaymentData;
@@ -50,6 +51,10 @@ public abstract class JobsDAO {
 
     private static DataBaseType dbType = DataBaseType.SqLite;
 
+    // Queries of frequently used statements, built once in setUp
+    private String updateJobQuery, updateUserQuery, updateSeenQuery, updateQuestsQuery, updatePointsQuery, deletePointsQuery,
+	insertPointsQuery, deleteLimitsQuery, insertLimitsQuery, logUpsertQuery, countJobPlayersQuery;
+
     // Not in use currently
     public enum TablesFieldsType {
 	decimal, number, text, varchar, stringList, stringLongMap, stringIntMap, locationMap, state, location, longNumber;
@@ -473,8 +478,12 @@ public abstract class JobsDAO {
     }
 
     public final synchronized void setUp() {
-	if (getConnection() == null)
-	    return;
+	buildQueries();
+
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
+	}
 
 	vacuum();
 
@@ -484,10 +493,50 @@ public abstract class JobsDAO {
 	    }
 
 	    checkDefaultCollumns();
+	    checkLogIndex();
+	    checkUserIndexes();
 	} finally {
 	}
     }
 
+    /**
+     * Builds the queries of frequently used statements, table names only change with the prefix.
+     */
+    private void buildQueries() {
+	updateJobQuery = "UPDATE `" + getJobsTableName() + "` SET `" + JobsTableFields.level.getCollumn() + "` = ?, `"
+	    + JobsTableFields.experience.getCollumn() + "` = ? WHERE `" + JobsTableFields.userid.getCollumn() + "` = ? AND `"
+	    + JobsTableFields.jobid.getCollumn() + "` = ?;";
+	updateUserQuery = "UPDATE `" + DBTables.UsersTable.getTableName() + "` SET `" + UserTableFields.seen.getCollumn()
+	    + "` = ?, `" + UserTableFields.username.getCollumn()
+	    + "` = ?, `" + UserTableFields.donequests.getCollumn()
+	    + "` = ?, `" + UserTableFields.quests.getCollumn()
+	    + "` = ? WHERE `id` = ?;";
+	updateSeenQuery = "UPDATE `" + DBTables.UsersTable.getTableName() + "` SET `" + UserTableFields.seen.getCollumn()
+	    + "` = ?, `" + UserTableFields.username.getCollumn()
+	    + "` = ? WHERE `id` = ?;";
+	updateQuestsQuery = "UPDATE `" + DBTables.UsersTable.getTableName() + "` SET `" + UserTableFields.donequests.getCollumn()
+	    + "` = ?, `" + UserTableFields.quests.getCollumn()
+	    + "` = ? WHERE `id` = ?;";
+	updatePointsQuery = "UPDATE `" + DBTables.PointsTable.getTableName() + "` SET `" + PointsTableFields.totalpoints.getCollumn()
+	    + "` = ?, `" + PointsTableFields.currentpoints.getCollumn()
+	    + "` = ? WHERE `id` = ?;";
+	deletePointsQuery = "DELETE FROM `" + DBTables.PointsTable.getTableName() + "` WHERE `" + PointsTableFields.userid.getCollumn()
+	    + "` = ?;";
+	insertPointsQuery = "INSERT INTO `" + DBTables.PointsTable.getTableName() + "` (`" + PointsTableFields.totalpoints.getCollumn()
+	    + "`, `" + PointsTableFields.currentpoints.getCollumn()
+	    + "`, `" + PointsTableFields.userid.getCollumn() + "`) VALUES (?, ?, ?);";
+	deleteLimitsQuery = "DELETE FROM `" + DBTables.LimitsTable.getTableName() + "` WHERE `" + LimitTableFields.userid.getCollumn()
+	    + "` = ?;";
+	insertLimitsQuery = "INSERT INTO `" + DBTables.LimitsTable.getTableName() + "` (`" +
+	    LimitTableFields.userid.getCollumn() + "`, `" +
+	    LimitTableFields.typeid.getCollumn() + "`, `" +
+	    LimitTableFields.collected.getCollumn() + "`, `" +
+	    LimitTableFields.started.getCollumn() + "`, `" +
+	    LimitTableFields.type.getCollumn() + "`) VALUES (?, ?, ?, ?, ?);";
+	logUpsertQuery = getLogUpsertQuery();
+	countJobPlayersQuery = "SELECT COUNT(*) FROM `" + getJobsTableName() + "` WHERE `" + JobsTableFields.jobid.getCollumn() + "` = ?;";
+    }
+
     protected abstract void checkUpdate() throws SQLException;
 
     public abstract Statement prepareStatement(String query) throws SQLException;
@@ -504,12 +553,25 @@ public abstract class JobsDAO {
 
     public abstract boolean drop(String table);
 
+    /**
+     * Sets how many database connections can be open at the same time.
+     * 
+     * @param maxConnections max amount of connections, 1 to share a single connection between threads
+     */
+    public void setMaxConnections(int maxConnections) {
+	if (pool != null)
+	    pool.setMaxSize(maxConnections);
+    }
+
+    public JobsConnectionPool getConnectionPool() {
+	return pool;
+    }
+
     public boolean isConnected() {
 	if (pool == null)
 	    return false;
 
-	try {
-	    JobsConnection conn = pool.getConnection();
+	try (JobsConnection conn = pool.getConnection()) {
 	    return conn != null && !conn.isClosed();
 	} catch (SQLException e) {
 	    return false;
@@ -587,279 +649,303 @@ public abstract class JobsDAO {
 	    return jobs;
 	}
 
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return jobs;
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return jobs;
 
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    prest = conn.prepareStatement("SELECT * FROM `" + getJobsTableName() + "` WHERE `" + JobsTableFields.userid.getCollumn() + "` = ?;");
-	    prest.setInt(1, userData.getID());
-	    res = prest.executeQuery();
-	    while (res.next()) {
-		int jobId = res.getInt(JobsTableFields.jobid.getCollumn());
-		if (jobId == 0) {
-		    jobs.add(new JobsDAOData(res.getString(JobsTableFields.job.getCollumn()), res.getInt(JobsTableFields.level.getCollumn()), res.getDouble(JobsTableFields.experience.getCollumn())));
-		} else {
-		    Job job = Jobs.getJob(jobId);
-		    if (job != null)
-			jobs.add(new JobsDAOData(job.getName(), res.getInt(JobsTableFields.level.getCollumn()), res.getDouble(JobsTableFields.experience.getCollumn())));
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement("SELECT * FROM `" + getJobsTableName() + "` WHERE `" + JobsTableFields.userid.getCollumn() + "` = ?;");
+		prest.setInt(1, userData.getID());
+		res = prest.executeQuery();
+		while (res.next()) {
+		    int jobId = res.getInt(JobsTableFields.jobid.getCollumn());
+		    if (jobId == 0) {
+			jobs.add(new JobsDAOData(res.getString(JobsTableFields.job.getCollumn()), res.getInt(JobsTableFields.level.getCollumn()), res.getDouble(JobsTableFields.experience.getCollumn())));
+		    } else {
+			Job job = Jobs.getJob(jobId);
+			if (job != null)
+			    jobs.add(new JobsDAOData(job.getName(), res.getInt(JobsTableFields.level.getCollumn()), res.getDouble(JobsTableFields.experience.getCollumn())));
+		    }
 		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
+	    return jobs;
 	}
-	return jobs;
     }
 
+    /**
+     * @deprecated reads the whole table into memory, use {@link JobsPlayerLoader}
+     */
+    @Deprecated
     public Map<Integer, List<JobsDAOData>> getAllJobs() {
 	Map<Integer, List<JobsDAOData>> map = new HashMap<>();
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return map;
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    prest = conn.prepareStatement("SELECT * FROM `" + getJobsTableName() + "`;");
-	    res = prest.executeQuery();
-	    while (res.next()) {
-		int id = res.getInt(JobsTableFields.userid.getCollumn());
-		List<JobsDAOData> ls = map.get(id);
-		if (ls == null)
-		    ls = new ArrayList<>();
-
-		int jobId = res.getInt(JobsTableFields.jobid.getCollumn());
-		if (jobId == 0) {
-		    ls.add(new JobsDAOData(res.getString(JobsTableFields.job.getCollumn()), res.getInt(JobsTableFields.level.getCollumn()), res.getDouble(JobsTableFields.experience.getCollumn())));
-		    converted = false;
-		} else {
-		    // This should be removed when we switch over to id only method
-		    if (converted)
-			if (res.getString(JobsTableFields.job.getCollumn()) == null || res.getString(JobsTableFields.job.getCollumn()).isEmpty())
-			    converted = false;
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return map;
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement("SELECT * FROM `" + getJobsTableName() + "`;");
+		res = prest.executeQuery();
+		while (res.next()) {
+		    int id = res.getInt(JobsTableFields.userid.getCollumn());
+		    List<JobsDAOData> ls = map.get(id);
+		    if (ls == null)
+			ls = new ArrayList<>();
+
+		    int jobId = res.getInt(JobsTableFields.jobid.getCollumn());
+		    if (jobId == 0) {
+			ls.add(new JobsDAOData(res.getString(JobsTableFields.job.getCollumn()), res.getInt(JobsTableFields.level.getCollumn()), res.getDouble(JobsTableFields.experience.getCollumn())));
+			converted = false;
+		    } else {
+			// This should be removed when we switch over to id only method
+			if (converted)
+			    if (res.getString(JobsTableFields.job.getCollumn()) == null || res.getString(JobsTableFields.job.getCollumn()).isEmpty())
+				converted = false;
+
+			Job job = Jobs.getJob(jobId);
+			if (job != null)
+			    ls.add(new JobsDAOData(job.getName(), res.getInt(JobsTableFields.level.getCollumn()), res.getDouble(JobsTableFields.experience.getCollumn())));
+		    }
 
-		    Job job = Jobs.getJob(jobId);
-		    if (job != null)
-			ls.add(new JobsDAOData(job.getName(), res.getInt(JobsTableFields.level.getCollumn()), res.getDouble(JobsTableFields.experience.getCollumn())));
+		    map.put(id, ls);
 		}
-
-		map.put(id, ls);
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
+	    return map;
 	}
-	return map;
     }
 
+    /**
+     * @deprecated reads the whole table into memory, use {@link JobsPlayerLoader}
+     */
+    @Deprecated
     public Map<Integer, PlayerPoints> getAllPoints() {
 	Map<Integer, PlayerPoints> map = new HashMap<>();
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return map;
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    prest = conn.prepareStatement("SELECT * FROM `" + DBTables.PointsTable.getTableName() + "`;");
-	    res = prest.executeQuery();
-	    while (res.next()) {
-		map.put(res.getInt(PointsTableFields.userid.getCollumn()), new PlayerPoints(res.getDouble(PointsTableFields.currentpoints.getCollumn()), res.getDouble(PointsTableFields.totalpoints
-		    .getCollumn())));
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return map;
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement("SELECT * FROM `" + DBTables.PointsTable.getTableName() + "`;");
+		res = prest.executeQuery();
+		while (res.next()) {
+		    map.put(res.getInt(PointsTableFields.userid.getCollumn()), new PlayerPoints(res.getDouble(PointsTableFields.currentpoints.getCollumn()), res.getDouble(PointsTableFields.totalpoints
+			.getCollumn())));
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
+	    return map;
 	}
-	return map;
     }
 
     public PlayerPoints getPlayerPoints(JobsPlayer player) {
 	PlayerPoints points = new PlayerPoints();
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return points;
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    prest = conn.prepareStatement("SELECT * FROM `" + DBTables.PointsTable.getTableName() + "` WHERE `" + PointsTableFields.userid.getCollumn() + "` = ?;");
-	    prest.setInt(1, player.getUserId());
-	    res = prest.executeQuery();
-	    while (res.next()) {
-		points = new PlayerPoints(res.getDouble(PointsTableFields.currentpoints.getCollumn()), res.getDouble(PointsTableFields.totalpoints.getCollumn()));
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return points;
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement("SELECT * FROM `" + DBTables.PointsTable.getTableName() + "` WHERE `" + PointsTableFields.userid.getCollumn() + "` = ?;");
+		prest.setInt(1, player.getUserId());
+		res = prest.executeQuery();
+		while (res.next()) {
+		    points = new PlayerPoints(res.getDouble(PointsTableFields.currentpoints.getCollumn()), res.getDouble(PointsTableFields.totalpoints.getCollumn()));
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
+	    return points;
 	}
-	return points;
     }
 
+    /**
+     * @deprecated reads the whole table into memory, use {@link JobsPlayerLoader}
+     */
+    @Deprecated
     public Map<Integer, ArchivedJobs> getAllArchivedJobs() {
 	Map<Integer, ArchivedJobs> map = new HashMap<>();
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return map;
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    prest = conn.prepareStatement("SELECT * FROM `" + DBTables.ArchiveTable.getTableName() + "`;");
-	    res = prest.executeQuery();
-	    while (res.next()) {
-
-		int id = res.getInt(ArchiveTableFields.userid.getCollumn());
-		String jobName = res.getString(ArchiveTableFields.job.getCollumn());
-		Double exp = res.getDouble(ArchiveTableFields.experience.getCollumn());
-		int lvl = res.getInt(ArchiveTableFields.level.getCollumn());
-		Long left = res.getLong(ArchiveTableFields.left.getCollumn());
-		int jobid = res.getInt(ArchiveTableFields.jobid.getCollumn());
-
-		Job job = null;
-		if (jobid != 0) {
-		    job = Jobs.getJob(jobid);
-		} else {
-		    job = Jobs.getJob(jobName);
-		    converted = false;
-		}
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return map;
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement("SELECT * FROM `" + DBTables.ArchiveTable.getTableName() + "`;");
+		res = prest.executeQuery();
+		while (res.next()) {
+
+		    int id = res.getInt(ArchiveTableFields.userid.getCollumn());
+		    String jobName = res.getString(ArchiveTableFields.job.getCollumn());
+		    Double exp = res.getDouble(ArchiveTableFields.experience.getCollumn());
+		    int lvl = res.getInt(ArchiveTableFields.level.getCollumn());
+		    Long left = res.getLong(ArchiveTableFields.left.getCollumn());
+		    int jobid = res.getInt(ArchiveTableFields.jobid.getCollumn());
+
+		    Job job = null;
+		    if (jobid != 0) {
+			job = Jobs.getJob(jobid);
+		    } else {
+			job = Jobs.getJob(jobName);
+			converted = false;
+		    }
 
-		if (job == null)
-		    continue;
+		    if (job == null)
+			continue;
 
-		ArchivedJobs m = map.get(id);
-		if (m == null)
-		    m = new ArchivedJobs();
-		JobProgression jp = new JobProgression(job, null, lvl, exp);
-		if (left != 0L)
-		    jp.setLeftOn(left);
-		m.addArchivedJob(jp);
-		map.put(id, m);
-	    }
-	} catch (Exception e) {
-	    close(res);
-	    close(prest);
-	} finally {
-	    close(res);
-	    close(prest);
+		    ArchivedJobs m = map.get(id);
+		    if (m == null)
+			m = new ArchivedJobs();
+		    JobProgression jp = new JobProgression(job, null, lvl, exp);
+		    if (left != 0L)
+			jp.setLeftOn(left);
+		    m.addArchivedJob(jp);
+		    map.put(id, m);
+		}
+	    } catch (Exception e) {
+		close(res);
+		close(prest);
+	    } finally {
+		close(res);
+		close(prest);
+	    }
+	    return map;
 	}
-	return map;
     }
 
     public ArchivedJobs getArchivedJobs(JobsPlayer player) {
 	ArchivedJobs jobs = new ArchivedJobs();
-	JobsConnection conn = getConnection();
-	if (conn == null || player == null)
-	    return jobs;
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    prest = conn.prepareStatement("SELECT * FROM `" + DBTables.ArchiveTable.getTableName() + "` WHERE `" + ArchiveTableFields.userid.getCollumn() + "` = ?;");
-	    prest.setInt(1, player.getUserId());
-	    res = prest.executeQuery();
-	    while (res.next()) {
-
-		String jobName = res.getString(ArchiveTableFields.job.getCollumn());
-		double exp = res.getDouble(ArchiveTableFields.experience.getCollumn());
-		int lvl = res.getInt(ArchiveTableFields.level.getCollumn());
-		Long left = res.getLong(ArchiveTableFields.left.getCollumn());
-		int jobid = res.getInt(ArchiveTableFields.jobid.getCollumn());
-
-		Job job = null;
-		if (jobid != 0) {
-		    job = Jobs.getJob(jobid);
-		} else {
-		    job = Jobs.getJob(jobName);
-		    converted = false;
-		}
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null || player == null)
+		return jobs;
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement("SELECT * FROM `" + DBTables.ArchiveTable.getTableName() + "` WHERE `" + ArchiveTableFields.userid.getCollumn() + "` = ?;");
+		prest.setInt(1, player.getUserId());
+		res = prest.executeQuery();
+		while (res.next()) {
+
+		    String jobName = res.getString(ArchiveTableFields.job.getCollumn());
+		    double exp = res.getDouble(ArchiveTableFields.experience.getCollumn());
+		    int lvl = res.getInt(ArchiveTableFields.level.getCollumn());
+		    Long left = res.getLong(ArchiveTableFields.left.getCollumn());
+		    int jobid = res.getInt(ArchiveTableFields.jobid.getCollumn());
+
+		    Job job = null;
+		    if (jobid != 0) {
+			job = Jobs.getJob(jobid);
+		    } else {
+			job = Jobs.getJob(jobName);
+			converted = false;
+		    }
 
-		if (job == null)
-		    continue;
+		    if (job == null)
+			continue;
 
-		JobProgression jp = new JobProgression(job, player, lvl, exp);
-		if (left != 0L)
-		    jp.setLeftOn(left);
-		jobs.addArchivedJob(jp);
+		    JobProgression jp = new JobProgression(job, player, lvl, exp);
+		    if (left != 0L)
+			jp.setLeftOn(left);
+		    jobs.addArchivedJob(jp);
+		}
+	    } catch (Exception e) {
+		close(res);
+		close(prest);
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} catch (Exception e) {
-	    close(res);
-	    close(prest);
-	} finally {
-	    close(res);
-	    close(prest);
+	    return jobs;
 	}
-	return jobs;
     }
 
+    /**
+     * @deprecated reads the whole table into memory, use {@link JobsPlayerLoader}
+     */
+    @Deprecated
     public Map<Integer, Map<String, Log>> getAllLogs() {
 	Map<Integer, Map<String, Log>> map = new HashMap<>();
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return map;
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    int time = TimeManage.timeInInt();
-	    prest = conn.prepareStatement("SELECT * FROM `" + DBTables.LogTable.getTableName() + "` WHERE `" + LogTableFields.time.getCollumn() + "` = ? ;");
-	    prest.setInt(1, time);
-	    res = prest.executeQuery();
-	    while (res.next()) {
-		int id = res.getInt(LogTableFields.userid.getCollumn());
-		String action = res.getString(LogTableFields.action.getCollumn());
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return map;
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		int time = TimeManage.timeInInt();
+		prest = conn.prepareStatement("SELECT * FROM `" + DBTables.LogTable.getTableName() + "` WHERE `" + LogTableFields.time.getCollumn() + "` = ? ;");
+		prest.setInt(1, time);
+		res = prest.executeQuery();
+		while (res.next()) {
+		    int id = res.getInt(LogTableFields.userid.getCollumn());
+		    String action = res.getString(LogTableFields.action.getCollumn());
 
-		Map<String, Log> m = map.getOrDefault(id, new HashMap<>());
-		Log log = m.getOrDefault(action, new Log(action));
+		    Map<String, Log> m = map.getOrDefault(id, new HashMap<>());
+		    Log log = m.getOrDefault(action, new Log(action));
 
-		Map<CurrencyType, Double> amounts = new HashMap<>();
-		amounts.put(CurrencyType.MONEY, res.getDouble(LogTableFields.money.getCollumn()));
-		amounts.put(CurrencyType.EXP, res.getDouble(LogTableFields.exp.getCollumn()));
-		amounts.put(CurrencyType.POINTS, res.getDouble(LogTableFields.points.getCollumn()));
+		    Map<CurrencyType, Double> amounts = new HashMap<>();
+		    amounts.put(CurrencyType.MONEY, res.getDouble(LogTableFields.money.getCollumn()));
+		    amounts.put(CurrencyType.EXP, res.getDouble(LogTableFields.exp.getCollumn()));
+		    amounts.put(CurrencyType.POINTS, res.getDouble(LogTableFields.points.getCollumn()));
 
-		log.add(res.getString(LogTableFields.itemname.getCollumn()), res.getInt(LogTableFields.count.getCollumn()), amounts);
+		    log.add(res.getString(LogTableFields.itemname.getCollumn()), res.getInt(LogTableFields.count.getCollumn()), amounts);
 
-		m.put(action, log);
-		map.put(id, m);
+		    m.put(action, log);
+		    map.put(id, m);
 
-//		Jobs.getLoging().loadToLog(player, res.getString("action"), res.getString("itemname"), res.getInt("count"), res.getDouble("money"), res.getDouble("exp"));
+    //		Jobs.getLoging().loadToLog(player, res.getString("action"), res.getString("itemname"), res.getInt("count"), res.getDouble("money"), res.getDouble("exp"));
+		}
+	    } catch (Exception e) {
+		close(res);
+		close(prest);
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} catch (Exception e) {
-	    close(res);
-	    close(prest);
-	} finally {
-	    close(res);
-	    close(prest);
+	    return map;
 	}
-	return map;
     }
 
     public void cleanUsers() {
 	if (!Jobs.getGCManager().DBCleaningUsersUse)
 	    return;
 
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
 
-	Calendar cal = Calendar.getInstance();
-	cal.add(Calendar.DATE, -Jobs.getGCManager().DBCleaningUsersDays);
-	long mark = cal.getTimeInMillis();
+	    Calendar cal = Calendar.getInstance();
+	    cal.add(Calendar.DATE, -Jobs.getGCManager().DBCleaningUsersDays);
+	    long mark = cal.getTimeInMillis();
 
-	PreparedStatement prest = null;
-	try {
-	    prest = conn.prepareStatement("DELETE FROM `" + DBTables.UsersTable.getTableName() + "` WHERE `" + UserTableFields.seen.getCollumn() + "` < ?;");
-	    prest.setLong(1, mark);
-	    prest.execute();
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(prest);
+	    PreparedStatement prest = null;
+	    try {
+		prest = conn.prepareStatement("DELETE FROM `" + DBTables.UsersTable.getTableName() + "` WHERE `" + UserTableFields.seen.getCollumn() + "` < ?;");
+		prest.setLong(1, mark);
+		prest.execute();
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(prest);
+	    }
 	}
     }
 
@@ -867,19 +953,20 @@ public abstract class JobsDAO {
 	if (!Jobs.getGCManager().DBCleaningJobsUse)
 	    return;
 
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
 
-	PreparedStatement prest = null;
-	try {
-	    prest = conn.prepareStatement("DELETE FROM `" + getJobsTableName() + "` WHERE `" + JobsTableFields.level.getCollumn() + "` <= ?;");
-	    prest.setInt(1, Jobs.getGCManager().DBCleaningJobsLvl);
-	    prest.execute();
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(prest);
+	    PreparedStatement prest = null;
+	    try {
+		prest = conn.prepareStatement("DELETE FROM `" + getJobsTableName() + "` WHERE `" + JobsTableFields.level.getCollumn() + "` <= ?;");
+		prest.setInt(1, Jobs.getGCManager().DBCleaningJobsLvl);
+		prest.execute();
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(prest);
+	    }
 	}
     }
 
@@ -888,83 +975,86 @@ public abstract class JobsDAO {
     }
 
     public void recordNewPlayer(String playerName, UUID uuid) {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
-	PreparedStatement prestt = null;
-	ResultSet res2 = null;
-	try {
-	    prestt = conn.prepareStatement("INSERT INTO `" + DBTables.UsersTable.getTableName() + "` (`" + UserTableFields.player_uuid.getCollumn()
-		+ "`, `" + UserTableFields.username.getCollumn()
-		+ "`, `" + UserTableFields.seen.getCollumn()
-		+ "`, `" + UserTableFields.donequests.getCollumn()
-		+ "`) VALUES (?, ?, ?, ?);",
-		Statement.RETURN_GENERATED_KEYS);
-	    prestt.setString(1, uuid.toString());
-	    prestt.setString(2, playerName);
-	    prestt.setLong(3, System.currentTimeMillis());
-	    prestt.setInt(4, 0);
-	    prestt.execute();
-
-	    res2 = prestt.getGeneratedKeys();
-
-	    Jobs.getPlayerManager().addPlayerToMap(new PlayerInfo(playerName, res2.next() ? res2.getInt(1) : 0,
-		uuid, System.currentTimeMillis(), 0));
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(prestt);
-	    close(res2);
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
+	    PreparedStatement prestt = null;
+	    ResultSet res2 = null;
+	    try {
+		prestt = conn.prepareStatement("INSERT INTO `" + DBTables.UsersTable.getTableName() + "` (`" + UserTableFields.player_uuid.getCollumn()
+		    + "`, `" + UserTableFields.username.getCollumn()
+		    + "`, `" + UserTableFields.seen.getCollumn()
+		    + "`, `" + UserTableFields.donequests.getCollumn()
+		    + "`) VALUES (?, ?, ?, ?);",
+		    Statement.RETURN_GENERATED_KEYS);
+		prestt.setString(1, uuid.toString());
+		prestt.setString(2, playerName);
+		prestt.setLong(3, System.currentTimeMillis());
+		prestt.setInt(4, 0);
+		prestt.execute();
+
+		res2 = prestt.getGeneratedKeys();
+
+		Jobs.getPlayerManager().addPlayerToMap(new PlayerInfo(playerName, res2.next() ? res2.getInt(1) : 0,
+		    uuid, System.currentTimeMillis(), 0));
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(prestt);
+		close(res2);
+	    }
 	}
     }
 
     public void recordNewWorld(String worldName) {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
-	PreparedStatement prestt = null;
-	ResultSet res2 = null;
-	try {
-	    prestt = conn.prepareStatement("INSERT INTO `" + DBTables.WorldTable.getTableName() + "` (`" + worldsTableFields.name.getCollumn() + "`) VALUES (?);",
-		Statement.RETURN_GENERATED_KEYS);
-	    prestt.setString(1, worldName);
-	    prestt.executeUpdate();
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
+	    PreparedStatement prestt = null;
+	    ResultSet res2 = null;
+	    try {
+		prestt = conn.prepareStatement("INSERT INTO `" + DBTables.WorldTable.getTableName() + "` (`" + worldsTableFields.name.getCollumn() + "`) VALUES (?);",
+		    Statement.RETURN_GENERATED_KEYS);
+		prestt.setString(1, worldName);
+		prestt.executeUpdate();
 
-	    res2 = prestt.getGeneratedKeys();
-	    Util.addJobsWorld(new JobsWorld(worldName, res2.next() ? res2.getInt(1) : 0));
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(prestt);
-	    close(res2);
+		res2 = prestt.getGeneratedKeys();
+		Util.addJobsWorld(new JobsWorld(worldName, res2.next() ? res2.getInt(1) : 0));
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(prestt);
+		close(res2);
+	    }
 	}
     }
 
     public synchronized void loadAllJobsWorlds() {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
 
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    prest = conn.prepareStatement("SELECT * FROM `" + DBTables.WorldTable.getTableName() + "`;");
-	    res = prest.executeQuery();
-	    while (res.next()) {
-		int id = res.getInt("id");
-		String name = res.getString(worldsTableFields.name.getCollumn());
-		Util.addJobsWorld(new JobsWorld(name, id));
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement("SELECT * FROM `" + DBTables.WorldTable.getTableName() + "`;");
+		res = prest.executeQuery();
+		while (res.next()) {
+		    int id = res.getInt("id");
+		    String name = res.getString(worldsTableFields.name.getCollumn());
+		    Util.addJobsWorld(new JobsWorld(name, id));
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
-	}
 
-	for (World one : Bukkit.getWorlds()) {
-	    if (Util.getJobsWorld(one.getName()) == null)
-		recordNewWorld(one.getName());
+	    for (World one : Bukkit.getWorlds()) {
+		if (Util.getJobsWorld(one.getName()) == null)
+		    recordNewWorld(one.getName());
+	    }
 	}
     }
 
@@ -983,215 +1073,218 @@ public abstract class JobsDAO {
     }
 
     private void convertID() {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
-	PreparedStatement exploreStatement = null;
-	try {
-	    exploreStatement = conn.prepareStatement("UPDATE `" + DBTables.ExploreDataTable.getTableName() + "` SET `" + ExploreDataTableFields.worldid.getCollumn() + "` = ? WHERE `"
-		+ ExploreDataTableFields.worldname.getCollumn() + "` = ?;");
-	    for (JobsWorld jobsWorld : Util.getJobsWorlds().values()) {
-		exploreStatement.setInt(1, jobsWorld.getId());
-		exploreStatement.setString(2, jobsWorld.getName());
-		exploreStatement.executeUpdate();
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
+	    PreparedStatement exploreStatement = null;
+	    try {
+		exploreStatement = conn.prepareStatement("UPDATE `" + DBTables.ExploreDataTable.getTableName() + "` SET `" + ExploreDataTableFields.worldid.getCollumn() + "` = ? WHERE `"
+		    + ExploreDataTableFields.worldname.getCollumn() + "` = ?;");
+		for (JobsWorld jobsWorld : Util.getJobsWorlds().values()) {
+		    exploreStatement.setInt(1, jobsWorld.getId());
+		    exploreStatement.setString(2, jobsWorld.getName());
+		    exploreStatement.executeUpdate();
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(exploreStatement);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(exploreStatement);
-	}
 
-	PreparedStatement exploreStatementBack = null;
-	try {
-	    exploreStatementBack = conn.prepareStatement("UPDATE `" + DBTables.ExploreDataTable.getTableName() + "` SET `" + ExploreDataTableFields.worldname.getCollumn() + "` = ? WHERE `"
-		+ ExploreDataTableFields.worldid.getCollumn() + "` = ?;");
-	    for (JobsWorld jobsWorld : Util.getJobsWorlds().values()) {
-		exploreStatementBack.setString(1, jobsWorld.getName());
-		exploreStatementBack.setInt(2, jobsWorld.getId());
-		exploreStatementBack.executeUpdate();
+	    PreparedStatement exploreStatementBack = null;
+	    try {
+		exploreStatementBack = conn.prepareStatement("UPDATE `" + DBTables.ExploreDataTable.getTableName() + "` SET `" + ExploreDataTableFields.worldname.getCollumn() + "` = ? WHERE `"
+		    + ExploreDataTableFields.worldid.getCollumn() + "` = ?;");
+		for (JobsWorld jobsWorld : Util.getJobsWorlds().values()) {
+		    exploreStatementBack.setString(1, jobsWorld.getName());
+		    exploreStatementBack.setInt(2, jobsWorld.getId());
+		    exploreStatementBack.executeUpdate();
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(exploreStatementBack);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(exploreStatementBack);
-	}
 
-	PreparedStatement bpStatement = null;
-	try {
-	    bpStatement = conn.prepareStatement("UPDATE `" + DBTables.BlocksTable.getTableName() + "` SET `" + BlockTableFields.worldid.getCollumn() + "` = ?  WHERE `" + BlockTableFields.world
-		.getCollumn() + "` = ?;");
-	    for (JobsWorld jobsWorld : Util.getJobsWorlds().values()) {
-		bpStatement.setInt(1, jobsWorld.getId());
-		bpStatement.setString(2, jobsWorld.getName());
-		bpStatement.executeUpdate();
+	    PreparedStatement bpStatement = null;
+	    try {
+		bpStatement = conn.prepareStatement("UPDATE `" + DBTables.BlocksTable.getTableName() + "` SET `" + BlockTableFields.worldid.getCollumn() + "` = ?  WHERE `" + BlockTableFields.world
+		    .getCollumn() + "` = ?;");
+		for (JobsWorld jobsWorld : Util.getJobsWorlds().values()) {
+		    bpStatement.setInt(1, jobsWorld.getId());
+		    bpStatement.setString(2, jobsWorld.getName());
+		    bpStatement.executeUpdate();
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(bpStatement);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(bpStatement);
-	}
 
-	PreparedStatement bpStatementback = null;
-	try {
-	    bpStatementback = conn.prepareStatement("UPDATE `" + DBTables.BlocksTable.getTableName() + "` SET `" + BlockTableFields.world.getCollumn() + "` = ?  WHERE `" + BlockTableFields.worldid
-		.getCollumn() + "` = ?;");
-	    for (JobsWorld jobsWorld : Util.getJobsWorlds().values()) {
-		bpStatementback.setString(1, jobsWorld.getName());
-		bpStatementback.setInt(2, jobsWorld.getId());
-		bpStatementback.executeUpdate();
+	    PreparedStatement bpStatementback = null;
+	    try {
+		bpStatementback = conn.prepareStatement("UPDATE `" + DBTables.BlocksTable.getTableName() + "` SET `" + BlockTableFields.world.getCollumn() + "` = ?  WHERE `" + BlockTableFields.worldid
+		    .getCollumn() + "` = ?;");
+		for (JobsWorld jobsWorld : Util.getJobsWorlds().values()) {
+		    bpStatementback.setString(1, jobsWorld.getName());
+		    bpStatementback.setInt(2, jobsWorld.getId());
+		    bpStatementback.executeUpdate();
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(bpStatementback);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(bpStatementback);
-	}
 
-	PreparedStatement archiveStatement = null;
-	try {
-	    archiveStatement = conn.prepareStatement("UPDATE `" + DBTables.ArchiveTable.getTableName() + "` SET `" + ArchiveTableFields.jobid.getCollumn() + "` = ? WHERE `" + ArchiveTableFields.job
-		.getCollumn() + "` = ?;");
-	    for (Job job : Jobs.getJobs()) {
-		archiveStatement.setInt(1, job.getId());
-		archiveStatement.setString(2, job.getName());
-		archiveStatement.executeUpdate();
+	    PreparedStatement archiveStatement = null;
+	    try {
+		archiveStatement = conn.prepareStatement("UPDATE `" + DBTables.ArchiveTable.getTableName() + "` SET `" + ArchiveTableFields.jobid.getCollumn() + "` = ? WHERE `" + ArchiveTableFields.job
+		    .getCollumn() + "` = ?;");
+		for (Job job : Jobs.getJobs()) {
+		    archiveStatement.setInt(1, job.getId());
+		    archiveStatement.setString(2, job.getName());
+		    archiveStatement.executeUpdate();
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(archiveStatement);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(archiveStatement);
-	}
-	PreparedStatement archiveStatementBack = null;
-	try {
-	    archiveStatementBack = conn.prepareStatement("UPDATE `" + DBTables.ArchiveTable.getTableName() + "` SET `" + ArchiveTableFields.job.getCollumn() + "` = ? WHERE `" + ArchiveTableFields.jobid
-		.getCollumn() + "` = ?;");
-	    for (Job job : Jobs.getJobs()) {
-		archiveStatementBack.setString(1, job.getName());
-		archiveStatementBack.setInt(2, job.getId());
-		archiveStatementBack.executeUpdate();
+	    PreparedStatement archiveStatementBack = null;
+	    try {
+		archiveStatementBack = conn.prepareStatement("UPDATE `" + DBTables.ArchiveTable.getTableName() + "` SET `" + ArchiveTableFields.job.getCollumn() + "` = ? WHERE `" + ArchiveTableFields.jobid
+		    .getCollumn() + "` = ?;");
+		for (Job job : Jobs.getJobs()) {
+		    archiveStatementBack.setString(1, job.getName());
+		    archiveStatementBack.setInt(2, job.getId());
+		    archiveStatementBack.executeUpdate();
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(archiveStatementBack);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(archiveStatementBack);
-	}
 
-	PreparedStatement usersStatement = null;
-	try {
-	    usersStatement = conn.prepareStatement("UPDATE `" + getJobsTableName() + "` SET `" + JobsTableFields.jobid.getCollumn() + "` = ? WHERE `" + JobsTableFields.job.getCollumn() + "` = ?;");
-	    for (Job job : Jobs.getJobs()) {
-		usersStatement.setInt(1, job.getId());
-		usersStatement.setString(2, job.getName());
-		usersStatement.executeUpdate();
+	    PreparedStatement usersStatement = null;
+	    try {
+		usersStatement = conn.prepareStatement("UPDATE `" + getJobsTableName() + "` SET `" + JobsTableFields.jobid.getCollumn() + "` = ? WHERE `" + JobsTableFields.job.getCollumn() + "` = ?;");
+		for (Job job : Jobs.getJobs()) {
+		    usersStatement.setInt(1, job.getId());
+		    usersStatement.setString(2, job.getName());
+		    usersStatement.executeUpdate();
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(usersStatement);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(usersStatement);
-	}
-	PreparedStatement usersStatementBack = null;
-	try {
-	    usersStatementBack = conn.prepareStatement("UPDATE `" + getJobsTableName() + "` SET `" + JobsTableFields.job.getCollumn() + "` = ? WHERE `" + JobsTableFields.jobid.getCollumn() + "` = ?;");
-	    for (Job job : Jobs.getJobs()) {
-		usersStatementBack.setString(1, job.getName());
-		usersStatementBack.setInt(2, job.getId());
-		usersStatementBack.executeUpdate();
+	    PreparedStatement usersStatementBack = null;
+	    try {
+		usersStatementBack = conn.prepareStatement("UPDATE `" + getJobsTableName() + "` SET `" + JobsTableFields.job.getCollumn() + "` = ? WHERE `" + JobsTableFields.jobid.getCollumn() + "` = ?;");
+		for (Job job : Jobs.getJobs()) {
+		    usersStatementBack.setString(1, job.getName());
+		    usersStatementBack.setInt(2, job.getId());
+		    usersStatementBack.executeUpdate();
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(usersStatementBack);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(usersStatementBack);
-	}
 
-	PreparedStatement limitsStatement = null;
-	try {
-	    limitsStatement = conn.prepareStatement("UPDATE `" + DBTables.LimitsTable.getTableName() + "` SET `" + LimitTableFields.typeid.getCollumn() + "` = ? WHERE `" + LimitTableFields.type
-		.getCollumn() + "` = ?;");
-	    for (CurrencyType type : CurrencyType.values()) {
-		limitsStatement.setInt(1, type.getId());
-		limitsStatement.setString(2, type.getName());
-		limitsStatement.executeUpdate();
+	    PreparedStatement limitsStatement = null;
+	    try {
+		limitsStatement = conn.prepareStatement("UPDATE `" + DBTables.LimitsTable.getTableName() + "` SET `" + LimitTableFields.typeid.getCollumn() + "` = ? WHERE `" + LimitTableFields.type
+		    .getCollumn() + "` = ?;");
+		for (CurrencyType type : CurrencyType.values()) {
+		    limitsStatement.setInt(1, type.getId());
+		    limitsStatement.setString(2, type.getName());
+		    limitsStatement.executeUpdate();
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(limitsStatement);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(limitsStatement);
-	}
 
-	PreparedStatement limitsStatementBack = null;
-	try {
-	    limitsStatementBack = conn.prepareStatement("UPDATE `" + DBTables.LimitsTable.getTableName() + "` SET `" + LimitTableFields.type.getCollumn() + "` = ? WHERE `" + LimitTableFields.typeid
-		.getCollumn() + "` = ?;");
-	    for (CurrencyType type : CurrencyType.values()) {
-		limitsStatementBack.setString(1, type.getName());
-		limitsStatementBack.setInt(2, type.getId());
-		limitsStatementBack.executeUpdate();
+	    PreparedStatement limitsStatementBack = null;
+	    try {
+		limitsStatementBack = conn.prepareStatement("UPDATE `" + DBTables.LimitsTable.getTableName() + "` SET `" + LimitTableFields.type.getCollumn() + "` = ? WHERE `" + LimitTableFields.typeid
+		    .getCollumn() + "` = ?;");
+		for (CurrencyType type : CurrencyType.values()) {
+		    limitsStatementBack.setString(1, type.getName());
+		    limitsStatementBack.setInt(2, type.getId());
+		    limitsStatementBack.executeUpdate();
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(limitsStatementBack);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(limitsStatementBack);
 	}
     }
 
     public void recordNewJobName(Job job) {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
 
-	PreparedStatement prestt = null;
-	ResultSet res2 = null;
-	try {
-	    conn.setAutoCommit(false);
+	    PreparedStatement prestt = null;
+	    ResultSet res2 = null;
+	    try {
+		conn.setAutoCommit(false);
 
-	    prestt = conn.prepareStatement("INSERT INTO `" + DBTables.JobNameTable.getTableName() + "` (`" + jobsNameTableFields.name.getCollumn() + "`) VALUES (?);",
-		Statement.RETURN_GENERATED_KEYS);
-	    prestt.setString(1, job.getName());
-	    int rowAffected = prestt.executeUpdate();
+		prestt = conn.prepareStatement("INSERT INTO `" + DBTables.JobNameTable.getTableName() + "` (`" + jobsNameTableFields.name.getCollumn() + "`) VALUES (?);",
+		    Statement.RETURN_GENERATED_KEYS);
+		prestt.setString(1, job.getName());
+		int rowAffected = prestt.executeUpdate();
 
-	    res2 = prestt.getGeneratedKeys();
+		res2 = prestt.getGeneratedKeys();
 
-	    job.setId(res2.next() ? res2.getInt(1) : 0);
+		job.setId(res2.next() ? res2.getInt(1) : 0);
 
-	    if (rowAffected != 1) {
-		conn.getConnection().rollback();
-	    }
+		if (rowAffected != 1) {
+		    conn.getConnection().rollback();
+		}
 
-	    conn.commit();
-	} catch (SQLException e) {
-	} finally {
-	    close(prestt);
-	    close(res2);
+		conn.commit();
+	    } catch (SQLException e) {
+	    } finally {
+		close(prestt);
+		close(res2);
+	    }
 	}
     }
 
     public synchronized void loadAllJobsNames() {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
 
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    prest = conn.prepareStatement("SELECT * FROM `" + DBTables.JobNameTable.getTableName() + "`;");
-	    res = prest.executeQuery();
-	    while (res.next()) {
-		int id = res.getInt("id");
-		String name = res.getString(worldsTableFields.name.getCollumn());
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement("SELECT * FROM `" + DBTables.JobNameTable.getTableName() + "`;");
+		res = prest.executeQuery();
+		while (res.next()) {
+		    int id = res.getInt("id");
+		    String name = res.getString(worldsTableFields.name.getCollumn());
 
-		Job job = Jobs.getJob(name);
-		if (job != null)
-		    job.setId(id);
+		    Job job = Jobs.getJob(name);
+		    if (job != null)
+			job.setId(id);
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
-	}
 
-	for (Job one : Jobs.getJobs()) {
-	    if (one.getId() == 0)
-		recordNewJobName(one);
+	    for (Job one : Jobs.getJobs()) {
+		if (one.getId() == 0)
+		    recordNewJobName(one);
+	    }
 	}
     }
 
@@ -1200,39 +1293,40 @@ public abstract class JobsDAO {
      * @param JobName - the job name
      * @return amount of player currently working.
      */
-    public synchronized int getTotalPlayerAmountByJobName(String JobName) {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return 0;
-
-	int count = 0;
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    Job job = Jobs.getJob(JobName);
-	    if (job != null && job.getId() != 0) {
-		prest = conn.prepareStatement("SELECT COUNT(*) FROM `" + getJobsTableName() + "` WHERE `" + JobsTableFields.jobid + "` = ?;");
-		prest.setInt(1, job.getId());
-		res = prest.executeQuery();
-		if (res.next()) {
-		    count += res.getInt(1);
+    public int getTotalPlayerAmountByJobName(String JobName) {
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return 0;
+
+	    int count = 0;
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		Job job = Jobs.getJob(JobName);
+		if (job != null && job.getId() != 0) {
+		    prest = conn.prepareStatement(countJobPlayersQuery);
+		    prest.setInt(1, job.getId());
+		    res = prest.executeQuery();
+		    if (res.next()) {
+			count += res.getInt(1);
+		    }
 		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
-	}
 
-	return count;
+	    return count;
+	}
     }
 
     /**
      * Get player count for a job.
      * @return total amount of player currently working.
      */
-    public synchronized int getTotalPlayers() {
+    public int getTotalPlayers() {
 	int total = 0;
 	for (Job one : Jobs.getJobs()) {
 	    total += one.getTotalPlayers();
@@ -1245,158 +1339,168 @@ public abstract class JobsDAO {
      * @param userName - the player being searched for
      * @return list of all of the names of the jobs the players are part of.
      */
-    public synchronized List<JobsDAOData> getAllJobsOffline(String userName) {
+    public List<JobsDAOData> getAllJobsOffline(String userName) {
 	List<JobsDAOData> jobs = new ArrayList<>();
 
 	PlayerInfo info = Jobs.getPlayerManager().getPlayerInfo(userName);
 	if (info == null)
 	    return jobs;
 
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return jobs;
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    prest = conn.prepareStatement("SELECT * FROM `" + getJobsTableName() + "` WHERE `" + JobsTableFields.userid.getCollumn() + "` = ?;");
-	    prest.setInt(1, info.getID());
-	    res = prest.executeQuery();
-	    while (res.next()) {
-		int jobId = res.getInt(JobsTableFields.jobid.getCollumn());
-		if (jobId == 0) {
-		    jobs.add(new JobsDAOData(res.getString(JobsTableFields.job.getCollumn()), res.getInt(JobsTableFields.level.getCollumn()), res.getDouble(JobsTableFields.experience.getCollumn())));
-		} else {
-		    Job job = Jobs.getJob(jobId);
-		    jobs.add(new JobsDAOData(job.getName(), res.getInt(JobsTableFields.level.getCollumn()), res.getDouble(JobsTableFields.experience.getCollumn())));
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return jobs;
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement("SELECT * FROM `" + getJobsTableName() + "` WHERE `" + JobsTableFields.userid.getCollumn() + "` = ?;");
+		prest.setInt(1, info.getID());
+		res = prest.executeQuery();
+		while (res.next()) {
+		    int jobId = res.getInt(JobsTableFields.jobid.getCollumn());
+		    if (jobId == 0) {
+			jobs.add(new JobsDAOData(res.getString(JobsTableFields.job.getCollumn()), res.getInt(JobsTableFields.level.getCollumn()), res.getDouble(JobsTableFields.experience.getCollumn())));
+		    } else {
+			Job job = Jobs.getJob(jobId);
+			jobs.add(new JobsDAOData(job.getName(), res.getInt(JobsTableFields.level.getCollumn()), res.getDouble(JobsTableFields.experience.getCollumn())));
+		    }
 		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
+	    return jobs;
 	}
-	return jobs;
     }
 
     public synchronized void recordPlayersLimits(JobsPlayer jPlayer) {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
-	PreparedStatement prest2 = null;
-	try {
-	    prest2 = conn.prepareStatement("DELETE FROM `" + DBTables.LimitsTable.getTableName() + "` WHERE `" + LimitTableFields.userid.getCollumn() + "` = ?;");
-	    prest2.setInt(1, jPlayer.getUserId());
-	    prest2.execute();
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(prest2);
-	}
-
-	PaymentData limit = jPlayer.getPaymentLimit();
-	if (limit == null)
-	    return;
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
+	    PreparedStatement prest2 = null;
+	    try {
+		prest2 = conn.prepareStatement("DELETE FROM `" + DBTables.LimitsTable.getTableName() + "` WHERE `" + LimitTableFields.userid.getCollumn() + "` = ?;");
+		prest2.setInt(1, jPlayer.getUserId());
+		prest2.execute();
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(prest2);
+	    }
 
-	PreparedStatement prest = null;
-	try {
-	    prest = conn.prepareStatement("INSERT INTO `" + DBTables.LimitsTable.getTableName() + "` (`" +
-		LimitTableFields.userid.getCollumn() + "`, `" +
-		LimitTableFields.typeid.getCollumn() + "`, `" +
-		LimitTableFields.collected.getCollumn() + "`, `" +
-		LimitTableFields.started.getCollumn() + "`, `" +
-		LimitTableFields.type.getCollumn() + "`) VALUES (?, ?, ?, ?, ?);");
-	    conn.setAutoCommit(false);
-	    for (CurrencyType type : CurrencyType.values()) {
-		if (limit.getAmount(type) == 0D || limit.getLeftTime(type) < 0)
-		    continue;
+	    PaymentData limit = jPlayer.getPaymentLimit();
+	    if (limit == null)
+		return;
 
-		prest.setInt(1, jPlayer.getUserId());
-		prest.setInt(2, type.getId());
-		prest.setDouble(3, limit.getAmount(type));
-		prest.setLong(4, limit.getTime(type));
-		prest.setString(5, type.toString());
-		prest.addBatch();
-	    }
-	    prest.executeBatch();
-	    conn.commit();
-	} catch (Exception e) {
-	    e.printStackTrace();
-	} finally {
-	    close(prest);
+	    PreparedStatement prest = null;
 	    try {
-		conn.setAutoCommit(true);
-	    } catch (SQLException e) {
+		prest = conn.prepareStatement("INSERT INTO `" + DBTables.LimitsTable.getTableName() + "` (`" +
+		    LimitTableFields.userid.getCollumn() + "`, `" +
+		    LimitTableFields.typeid.getCollumn() + "`, `" +
+		    LimitTableFields.collected.getCollumn() + "`, `" +
+		    LimitTableFields.started.getCollumn() + "`, `" +
+		    LimitTableFields.type.getCollumn() + "`) VALUES (?, ?, ?, ?, ?);");
+		conn.setAutoCommit(false);
+		for (CurrencyType type : CurrencyType.values()) {
+		    if (limit.getAmount(type) == 0D || limit.getLeftTime(type) < 0)
+			continue;
+
+		    prest.setInt(1, jPlayer.getUserId());
+		    prest.setInt(2, type.getId());
+		    prest.setDouble(3, limit.getAmount(type));
+		    prest.setLong(4, limit.getTime(type));
+		    prest.setString(5, type.toString());
+		    prest.addBatch();
+		}
+		prest.executeBatch();
+		conn.commit();
+	    } catch (Exception e) {
 		e.printStackTrace();
+	    } finally {
+		close(prest);
+		try {
+		    conn.setAutoCommit(true);
+		} catch (SQLException e) {
+		    e.printStackTrace();
+		}
 	    }
 	}
     }
 
-    public synchronized PaymentData getPlayersLimits(JobsPlayer jPlayer) {
+    public PaymentData getPlayersLimits(JobsPlayer jPlayer) {
 	PaymentData data = new PaymentData();
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return data;
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    prest = conn.prepareStatement("SELECT * FROM `" + DBTables.LimitsTable.getTableName() + "` WHERE `" + LimitTableFields.userid.getCollumn() + "` = ?;");
-	    prest.setInt(1, jPlayer.getUserId());
-	    res = prest.executeQuery();
-	    while (res.next()) {
-		String typeName = res.getString(LimitTableFields.type.getCollumn());
-		int typeId = res.getInt(LimitTableFields.typeid.getCollumn());
-
-		CurrencyType type = typeId != 0 ? CurrencyType.get(typeId) : CurrencyType.getByName(typeName);
-		if (type != null)
-		    data.addNewAmount(type, res.getDouble(LimitTableFields.collected.getCollumn()), res.getLong(LimitTableFields.started.getCollumn()));
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return data;
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement("SELECT * FROM `" + DBTables.LimitsTable.getTableName() + "` WHERE `" + LimitTableFields.userid.getCollumn() + "` = ?;");
+		prest.setInt(1, jPlayer.getUserId());
+		res = prest.executeQuery();
+		while (res.next()) {
+		    String typeName = res.getString(LimitTableFields.type.getCollumn());
+		    int typeId = res.getInt(LimitTableFields.typeid.getCollumn());
+
+		    CurrencyType type = typeId != 0 ? CurrencyType.get(typeId) : CurrencyType.getByName(typeName);
+		    if (type != null)
+			data.addNewAmount(type, res.getDouble(LimitTableFields.collected.getCollumn()), res.getLong(LimitTableFields.started.getCollumn()));
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
+	    data.setChanged(false);
+	    return data;
 	}
-	return data;
     }
 
-    public synchronized Map<Integer, PaymentData> loadPlayerLimits() {
+    /**
+     * @deprecated reads the whole table into memory, use {@link JobsPlayerLoader}
+     */
+    @Deprecated
+    public Map<Integer, PaymentData> loadPlayerLimits() {
 	Map<Integer, PaymentData> map = new HashMap<>();
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return map;
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    prest = conn.prepareStatement("SELECT * FROM `" + DBTables.LimitsTable.getTableName() + "`;");
-	    res = prest.executeQuery();
-	    while (res.next()) {
-		int id = res.getInt(LimitTableFields.userid.getCollumn());
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return map;
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement("SELECT * FROM `" + DBTables.LimitsTable.getTableName() + "`;");
+		res = prest.executeQuery();
+		while (res.next()) {
+		    int id = res.getInt(LimitTableFields.userid.getCollumn());
 
-		PaymentData data = map.getOrDefault(id, new PaymentData());
+		    PaymentData data = map.getOrDefault(id, new PaymentData());
 
-		String typeName = res.getString(LimitTableFields.type.getCollumn());
-		int typeId = res.getInt(LimitTableFields.typeid.getCollumn());
+		    String typeName = res.getString(LimitTableFields.type.getCollumn());
+		    int typeId = res.getInt(LimitTableFields.typeid.getCollumn());
 
-		CurrencyType type = null;
-		if (typeId != 0)
-		    type = CurrencyType.get(typeId);
-		else
-		    type = CurrencyType.getByName(typeName);
+		    CurrencyType type = null;
+		    if (typeId != 0)
+			type = CurrencyType.get(typeId);
+		    else
+			type = CurrencyType.getByName(typeName);
 
-		if (type == null)
-		    continue;
+		    if (type == null)
+			continue;
 
-		data.addNewAmount(type, res.getDouble(LimitTableFields.collected.getCollumn()), res.getLong(LimitTableFields.started.getCollumn()));
-		map.put(id, data);
+		    data.addNewAmount(type, res.getDouble(LimitTableFields.collected.getCollumn()), res.getLong(LimitTableFields.started.getCollumn()));
+		    data.setChanged(false);
+		    map.put(id, data);
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
+	    return map;
 	}
-	return map;
     }
 
     /**
@@ -1405,23 +1509,24 @@ public abstract class JobsDAO {
      * @param job - job that the player wishes to join
      */
     public synchronized void joinJob(JobsPlayer jPlayer, JobProgression job) {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
-	PreparedStatement prest = null;
-	try {
-	    prest = conn.prepareStatement("INSERT INTO `" + getJobsTableName() + "` (`" + JobsTableFields.userid.getCollumn() + "`, `" + JobsTableFields.jobid.getCollumn()
-		+ "`, `" + JobsTableFields.level.getCollumn() + "`, `" + JobsTableFields.experience.getCollumn() + "`, `" + JobsTableFields.job.getCollumn() + "`) VALUES (?, ?, ?, ?, ?);");
-	    prest.setInt(1, jPlayer.getUserId());
-	    prest.setInt(2, job.getJob().getId());
-	    prest.setInt(3, job.getLevel());
-	    prest.setDouble(4, job.getExperience());
-	    prest.setString(5, job.getJob().getName());
-	    prest.execute();
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(prest);
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
+	    PreparedStatement prest = null;
+	    try {
+		prest = conn.prepareStatement("INSERT INTO `" + getJobsTableName() + "` (`" + JobsTableFields.userid.getCollumn() + "`, `" + JobsTableFields.jobid.getCollumn()
+		    + "`, `" + JobsTableFields.level.getCollumn() + "`, `" + JobsTableFields.experience.getCollumn() + "`, `" + JobsTableFields.job.getCollumn() + "`) VALUES (?, ?, ?, ?, ?);");
+		prest.setInt(1, jPlayer.getUserId());
+		prest.setInt(2, job.getJob().getId());
+		prest.setInt(3, job.getLevel());
+		prest.setDouble(4, job.getExperience());
+		prest.setString(5, job.getJob().getName());
+		prest.execute();
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(prest);
+	    }
 	}
     }
 
@@ -1431,26 +1536,27 @@ public abstract class JobsDAO {
      * @param job - job that the player wishes to join
      */
     public synchronized void insertJob(JobsPlayer jPlayer, JobProgression prog) {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
-	PreparedStatement prest = null;
-	try {
-	    double exp = prog.getExperience();
-	    if (exp < 0)
-		exp = 0;
-	    prest = conn.prepareStatement("INSERT INTO `" + getJobsTableName() + "` (`" + JobsTableFields.userid.getCollumn() + "`, `" + JobsTableFields.jobid.getCollumn()
-		+ "`, `" + JobsTableFields.level.getCollumn() + "`, `" + JobsTableFields.experience.getCollumn() + "`, `" + JobsTableFields.job.getCollumn() + "`) VALUES (?, ?, ?, ?, ?);");
-	    prest.setInt(1, jPlayer.getUserId());
-	    prest.setInt(2, prog.getJob().getId());
-	    prest.setInt(3, prog.getLevel());
-	    prest.setDouble(4, exp);
-	    prest.setString(5, prog.getJob().getName());
-	    prest.execute();
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(prest);
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
+	    PreparedStatement prest = null;
+	    try {
+		double exp = prog.getExperience();
+		if (exp < 0)
+		    exp = 0;
+		prest = conn.prepareStatement("INSERT INTO `" + getJobsTableName() + "` (`" + JobsTableFields.userid.getCollumn() + "`, `" + JobsTableFields.jobid.getCollumn()
+		    + "`, `" + JobsTableFields.level.getCollumn() + "`, `" + JobsTableFields.experience.getCollumn() + "`, `" + JobsTableFields.job.getCollumn() + "`) VALUES (?, ?, ?, ?, ?);");
+		prest.setInt(1, jPlayer.getUserId());
+		prest.setInt(2, prog.getJob().getId());
+		prest.setInt(3, prog.getLevel());
+		prest.setDouble(4, exp);
+		prest.setString(5, prog.getJob().getName());
+		prest.execute();
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(prest);
+	    }
 	}
     }
 
@@ -1462,87 +1568,89 @@ public abstract class JobsDAO {
      */
     public List<Convert> convertDatabase() throws SQLException {
 	List<Convert> list = new ArrayList<>();
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return list;
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return list;
 
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    prest = conn.prepareStatement("SELECT * FROM `" + DBTables.ArchiveTable.getTableName() + "`");
-	    res = prest.executeQuery();
-	    while (res.next()) {
-		int id = res.getInt(ArchiveTableFields.userid.getCollumn());
-		PlayerInfo pi = Jobs.getPlayerManager().getPlayerInfo(id);
-		if (pi == null)
-		    continue;
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement("SELECT * FROM `" + DBTables.ArchiveTable.getTableName() + "`");
+		res = prest.executeQuery();
+		while (res.next()) {
+		    int id = res.getInt(ArchiveTableFields.userid.getCollumn());
+		    PlayerInfo pi = Jobs.getPlayerManager().getPlayerInfo(id);
+		    if (pi == null)
+			continue;
 
-		JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(pi.getUuid());
-		if (jPlayer == null)
-		    continue;
+		    JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(pi.getUuid());
+		    if (jPlayer == null)
+			continue;
 
-		String jobName = res.getString(ArchiveTableFields.job.getCollumn());
-		int jobid = res.getInt(ArchiveTableFields.jobid.getCollumn());
+		    String jobName = res.getString(ArchiveTableFields.job.getCollumn());
+		    int jobid = res.getInt(ArchiveTableFields.jobid.getCollumn());
 
-		Job job = jobid != 0 ? Jobs.getJob(jobid) : Jobs.getJob(jobName);
-		if (job == null)
-		    continue;
+		    Job job = jobid != 0 ? Jobs.getJob(jobid) : Jobs.getJob(jobName);
+		    if (job == null)
+			continue;
 
-		list.add(new Convert(res.getInt("id"), jPlayer.getUniqueId(), job.getId(), res.getInt(ArchiveTableFields.level.getCollumn()), res.getInt(ArchiveTableFields.experience.getCollumn())));
+		    list.add(new Convert(res.getInt("id"), jPlayer.getUniqueId(), job.getId(), res.getInt(ArchiveTableFields.level.getCollumn()), res.getInt(ArchiveTableFields.experience.getCollumn())));
+		}
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} finally {
-	    close(res);
-	    close(prest);
-	}
 
-	conn.closeConnection();
-	return list;
+	    conn.closeConnection();
+	    return list;
+	}
     }
 
     public void continueConvertions(List<Convert> list) throws SQLException {
-	JobsConnection conns = getConnection();
-	if (conns == null)
-	    return;
-	PreparedStatement insert = null;
-	Statement statement = null;
-	int i = list.size();
-	try {
-	    statement = conns.createStatement();
-	    if (Jobs.getDBManager().getDbType() == DataBaseType.MySQL) {
-		statement.executeUpdate("TRUNCATE TABLE `" + DBTables.ArchiveTable.getTableName() + "`");
-	    } else {
-		statement.executeUpdate("DELETE from `" + DBTables.ArchiveTable.getTableName() + "`");
-	    }
+	try (JobsConnection conns = getConnection()) {
+	    if (conns == null)
+		return;
+	    PreparedStatement insert = null;
+	    Statement statement = null;
+	    int i = list.size();
+	    try {
+		statement = conns.createStatement();
+		if (Jobs.getDBManager().getDbType() == DataBaseType.MySQL) {
+		    statement.executeUpdate("TRUNCATE TABLE `" + DBTables.ArchiveTable.getTableName() + "`");
+		} else {
+		    statement.executeUpdate("DELETE from `" + DBTables.ArchiveTable.getTableName() + "`");
+		}
 
-	    insert = conns.prepareStatement("INSERT INTO `" + DBTables.ArchiveTable.getTableName() + "` (`" + ArchiveTableFields.userid.getCollumn()
-		+ "`, `" + ArchiveTableFields.jobid.getCollumn() + "`, `" + ArchiveTableFields.level.getCollumn() + "`, `" + ArchiveTableFields.experience.getCollumn() + "`, `"
-		+ ArchiveTableFields.job.getCollumn() + "`) VALUES (?, ?, ?, ?, ?);");
-	    conns.setAutoCommit(false);
-	    while (i > 0) {
-		i--;
+		insert = conns.prepareStatement("INSERT INTO `" + DBTables.ArchiveTable.getTableName() + "` (`" + ArchiveTableFields.userid.getCollumn()
+		    + "`, `" + ArchiveTableFields.jobid.getCollumn() + "`, `" + ArchiveTableFields.level.getCollumn() + "`, `" + ArchiveTableFields.experience.getCollumn() + "`, `"
+		    + ArchiveTableFields.job.getCollumn() + "`) VALUES (?, ?, ?, ?, ?);");
+		conns.setAutoCommit(false);
+		while (i > 0) {
+		    i--;
 
-		Convert convertData = list.get(i);
+		    Convert convertData = list.get(i);
 
-		JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(convertData.getUserUUID());
-		Job job = Jobs.getJob(convertData.getJobId());
+		    JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(convertData.getUserUUID());
+		    Job job = Jobs.getJob(convertData.getJobId());
 
-		insert.setInt(1, jPlayer != null ? jPlayer.getUserId() : -1);
-		insert.setInt(2, convertData.getJobId());
-		insert.setInt(3, convertData.getLevel());
-		insert.setInt(4, convertData.getExp());
-		insert.setString(5, job != null ? job.getName() : "");
-		insert.addBatch();
-	    }
-	    insert.executeBatch();
-	    conns.commit();
-	    conns.setAutoCommit(true);
-	} finally {
-	    close(statement);
-	    close(insert);
-	    try {
+		    insert.setInt(1, jPlayer != null ? jPlayer.getUserId() : -1);
+		    insert.setInt(2, convertData.getJobId());
+		    insert.setInt(3, convertData.getLevel());
+		    insert.setInt(4, convertData.getExp());
+		    insert.setString(5, job != null ? job.getName() : "");
+		    insert.addBatch();
+		}
+		insert.executeBatch();
+		conns.commit();
 		conns.setAutoCommit(true);
-	    } catch (SQLException e) {
-		e.printStackTrace();
+	    } finally {
+		close(statement);
+		close(insert);
+		try {
+		    conns.setAutoCommit(true);
+		} catch (SQLException e) {
+		    e.printStackTrace();
+		}
 	    }
 	}
     }
@@ -1553,27 +1661,28 @@ public abstract class JobsDAO {
      * @param job - job that the player wishes to quit
      */
     public synchronized boolean quitJob(JobsPlayer jPlayer, Job job) {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return false;
-	PreparedStatement prest = null;
-	boolean ok = true;
-	try {
-	    prest = conn.prepareStatement("DELETE FROM `" + getJobsTableName() + "` WHERE `" + JobsTableFields.userid.getCollumn() + "` = ? AND `" + JobsTableFields.jobid.getCollumn()
-		+ "` = ?;");
-	    prest.setInt(1, jPlayer.getUserId());
-	    prest.setInt(2, job.getId());
-	    prest.execute();
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	    ok = false;
-	} finally {
-	    close(prest);
-	}
-	return ok;
-    }
-
-    /**
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return false;
+	    PreparedStatement prest = null;
+	    boolean ok = true;
+	    try {
+		prest = conn.prepareStatement("DELETE FROM `" + getJobsTableName() + "` WHERE `" + JobsTableFields.userid.getCollumn() + "` = ? AND `" + JobsTableFields.jobid.getCollumn()
+		    + "` = ?;");
+		prest.setInt(1, jPlayer.getUserId());
+		prest.setInt(2, job.getId());
+		prest.execute();
+	    } catch (SQLException e) {
+		e.printStackTrace();
+		ok = false;
+	    } finally {
+		close(prest);
+	    }
+	    return ok;
+	}
+    }
+
+    /**
      * Record job to archive
      * @param player - player that wishes to quit the job
      * @param job - job that the player wishes to quit
@@ -1584,30 +1693,62 @@ public abstract class JobsDAO {
 	    return;
 	jp.setLeftOn(System.currentTimeMillis());
 	jPlayer.getArchivedJobs().addArchivedJob(jp);
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
-	PreparedStatement prest = null;
-	try {
-	    Double exp = jp.getExperience();
-	    prest = conn.prepareStatement("INSERT INTO `" + DBTables.ArchiveTable.getTableName() + "` (`" + ArchiveTableFields.userid.getCollumn()
-		+ "`, `" + ArchiveTableFields.jobid.getCollumn()
-		+ "`, `" + ArchiveTableFields.level.getCollumn()
-		+ "`, `" + ArchiveTableFields.experience.getCollumn()
-		+ "`, `" + ArchiveTableFields.left.getCollumn()
-		+ "`, `" + ArchiveTableFields.job.getCollumn()
-		+ "`) VALUES (?, ?, ?, ?, ?, ?);");
-	    prest.setInt(1, jPlayer.getUserId());
-	    prest.setInt(2, job.getId());
-	    prest.setInt(3, jp.getLevel());
-	    prest.setInt(4, exp.intValue());
-	    prest.setLong(5, System.currentTimeMillis());
-	    prest.setString(6, job.getName());
-	    prest.execute();
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(prest);
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
+	    PreparedStatement prest = null;
+	    try {
+		Double exp = jp.getExperience();
+		prest = conn.prepareStatement("INSERT INTO `" + DBTables.ArchiveTable.getTableName() + "` (`" + ArchiveTableFields.userid.getCollumn()
+		    + "`, `" + ArchiveTableFields.jobid.getCollumn()
+		    + "`, `" + ArchiveTableFields.level.getCollumn()
+		    + "`, `" + ArchiveTableFields.experience.getCollumn()
+		    + "`, `" + ArchiveTableFields.left.getCollumn()
+		    + "`, `" + ArchiveTableFields.job.getCollumn()
+		    + "`) VALUES (?, ?, ?, ?, ?, ?);");
+		prest.setInt(1, jPlayer.getUserId());
+		prest.setInt(2, job.getId());
+		prest.setInt(3, jp.getLevel());
+		prest.setInt(4, exp.intValue());
+		prest.setLong(5, System.currentTimeMillis());
+		prest.setString(6, job.getName());
+		prest.execute();
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(prest);
+	    }
+	}
+    }
+
+    /**
+     * Copies the jobs of every player into the archive table with a single statement.
+     */
+    public void archiveAllJobs() {
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
+	    PreparedStatement prest = null;
+	    try {
+		prest = conn.prepareStatement("INSERT INTO `" + DBTables.ArchiveTable.getTableName() + "` (`" + ArchiveTableFields.userid.getCollumn()
+		    + "`, `" + ArchiveTableFields.jobid.getCollumn()
+		    + "`, `" + ArchiveTableFields.level.getCollumn()
+		    + "`, `" + ArchiveTableFields.experience.getCollumn()
+		    + "`, `" + ArchiveTableFields.left.getCollumn()
+		    + "`, `" + ArchiveTableFields.job.getCollumn()
+		    + "`) SELECT `" + JobsTableFields.userid.getCollumn()
+		    + "`, `" + JobsTableFields.jobid.getCollumn()
+		    + "`, `" + JobsTableFields.level.getCollumn()
+		    + "`, `" + JobsTableFields.experience.getCollumn()
+		    + "`, ?, `" + JobsTableFields.job.getCollumn()
+		    + "` FROM `" + getJobsTableName() + "`;");
+		prest.setLong(1, System.currentTimeMillis());
+		prest.execute();
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(prest);
+	    }
 	}
     }
 
@@ -1621,42 +1762,43 @@ public abstract class JobsDAO {
      * @return info - information about jobs
      */
     public List<TopList> getGlobalTopList(int start) {
-	JobsConnection conn = getConnection();
-	List<TopList> names = new ArrayList<>();
-	if (conn == null)
-	    return names;
+	try (JobsConnection conn = getConnection()) {
+	    List<TopList> names = new ArrayList<>();
+	    if (conn == null)
+		return names;
 
-	if (start < 0) {
-	    start = 0;
-	}
+	    if (start < 0) {
+		start = 0;
+	    }
 
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
 
-	    prest = conn.prepareStatement("SELECT " + JobsTableFields.userid.getCollumn()
-		+ ", COUNT(*) AS amount, sum(" + JobsTableFields.level.getCollumn() + ") AS totallvl FROM `" + getJobsTableName()
-		+ "` GROUP BY userid ORDER BY totallvl DESC LIMIT " + start + "," + (Jobs.getGCManager().JobsTopAmount * 2) + ";");
-	    res = prest.executeQuery();
+		prest = conn.prepareStatement("SELECT " + JobsTableFields.userid.getCollumn()
+		    + ", COUNT(*) AS amount, sum(" + JobsTableFields.level.getCollumn() + ") AS totallvl FROM `" + getJobsTableName()
+		    + "` GROUP BY userid ORDER BY totallvl DESC LIMIT " + start + "," + (Jobs.getGCManager().JobsTopAmount * 2) + ";");
+		res = prest.executeQuery();
 
-	    while (res.next()) {
-		PlayerInfo info = Jobs.getPlayerManager().getPlayerInfo(res.getInt(JobsTableFields.userid.getCollumn()));
-		if (info == null)
-		    continue;
+		while (res.next()) {
+		    PlayerInfo info = Jobs.getPlayerManager().getPlayerInfo(res.getInt(JobsTableFields.userid.getCollumn()));
+		    if (info == null)
+			continue;
 
-		names.add(new TopList(info, res.getInt("totallvl"), 0));
+		    names.add(new TopList(info, res.getInt("totallvl"), 0));
 
-		if (names.size() >= Jobs.getGCManager().JobsTopAmount * 2)
-		    break;
+		    if (names.size() >= Jobs.getGCManager().JobsTopAmount * 2)
+			break;
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
-	}
 
-	return names;
+	    return names;
+	}
     }
 
     /**
@@ -1666,118 +1808,172 @@ public abstract class JobsDAO {
      * @return info - information about jobs
      */
     public List<TopList> getQuestTopList(int start) {
-	JobsConnection conn = getConnection();
-	List<TopList> names = new ArrayList<>();
-	if (conn == null)
-	    return names;
+	try (JobsConnection conn = getConnection()) {
+	    List<TopList> names = new ArrayList<>();
+	    if (conn == null)
+		return names;
 
-	if (start < 0) {
-	    start = 0;
-	}
+	    if (start < 0) {
+		start = 0;
+	    }
 
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    prest = conn.prepareStatement("SELECT `id`, `" + UserTableFields.player_uuid.getCollumn() + "`, `" + UserTableFields.donequests.getCollumn() + "` FROM `" + DBTables.UsersTable.getTableName()
-		+ "` ORDER BY `" + UserTableFields.donequests.getCollumn() + "` DESC, LOWER(" + UserTableFields.seen.getCollumn() + ") DESC LIMIT " + start + ", 30;");
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement("SELECT `id`, `" + UserTableFields.player_uuid.getCollumn() + "`, `" + UserTableFields.donequests.getCollumn() + "` FROM `" + DBTables.UsersTable.getTableName()
+		    + "` ORDER BY `" + UserTableFields.donequests.getCollumn() + "` DESC, LOWER(" + UserTableFields.seen.getCollumn() + ") DESC LIMIT " + start + ", 30;");
 
-	    res = prest.executeQuery();
+		res = prest.executeQuery();
 
-	    while (res.next()) {
-		PlayerInfo info = Jobs.getPlayerManager().getPlayerInfo(res.getInt("id"));
-		if (info == null)
-		    continue;
+		while (res.next()) {
+		    PlayerInfo info = Jobs.getPlayerManager().getPlayerInfo(res.getInt("id"));
+		    if (info == null)
+			continue;
 
-		names.add(new TopList(info, res.getInt(UserTableFields.donequests.getCollumn()), 0));
+		    names.add(new TopList(info, res.getInt(UserTableFields.donequests.getCollumn()), 0));
 
-		if (names.size() >= Jobs.getGCManager().JobsTopAmount)
-		    break;
+		    if (names.size() >= Jobs.getGCManager().JobsTopAmount)
+			break;
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
+	    return names;
+	}
+    }
+
+    /**
+     * Reads the level and experience of every job of every player and the done quests
+     * of players who finished any quest into the given rankings.
+     * 
+     * @param jobRankings the rankings by job id, missing ones are created
+     * @param quests the ranking of done quests
+     * @return true if everything was read
+     */
+    public boolean loadRankings(Map<Integer, Ranking> jobRankings, Ranking quests) {
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return false;
+
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement("SELECT `" + JobsTableFields.userid.getCollumn() + "`, `" + JobsTableFields.jobid.getCollumn() + "`, `"
+		    + JobsTableFields.job.getCollumn() + "`, `" + JobsTableFields.level.getCollumn() + "`, `" + JobsTableFields.experience.getCollumn()
+		    + "` FROM `" + getJobsTableName() + "`;");
+		prest.setFetchSize(1000);
+		res = prest.executeQuery();
+		while (res.next()) {
+		    int jobId = res.getInt(JobsTableFields.jobid.getCollumn());
+		    Job job = jobId != 0 ? Jobs.getJob(jobId) : Jobs.getJob(res.getString(JobsTableFields.job.getCollumn()));
+		    if (job == null)
+			continue;
+
+		    jobRankings.computeIfAbsent(job.getId(), id -> new Ranking()).set(res.getInt(JobsTableFields.userid.getCollumn()),
+			res.getInt(JobsTableFields.level.getCollumn()), res.getDouble(JobsTableFields.experience.getCollumn()));
+		}
+		close(res);
+		close(prest);
+
+		prest = conn.prepareStatement("SELECT `id`, `" + UserTableFields.donequests.getCollumn() + "` FROM `" + DBTables.UsersTable.getTableName()
+		    + "` WHERE `" + UserTableFields.donequests.getCollumn() + "` > 0;");
+		prest.setFetchSize(1000);
+		res = prest.executeQuery();
+		while (res.next()) {
+		    quests.set(res.getInt("id"), res.getInt(UserTableFields.donequests.getCollumn()), 0);
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+		return false;
+	    } finally {
+		close(res);
+		close(prest);
+	    }
+	    return true;
 	}
-	return names;
     }
 
     public PlayerInfo loadPlayerData(UUID uuid) {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return null;
-	PlayerInfo pInfo = null;
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    prest = conn.prepareStatement("SELECT * FROM `" + DBTables.UsersTable.getTableName() + "` WHERE `" + UserTableFields.player_uuid.getCollumn() + "` = ?;");
-	    prest.setString(1, uuid.toString());
-	    res = prest.executeQuery();
-	    while (res.next()) {
-		pInfo = new PlayerInfo(
-		    res.getString(UserTableFields.username.getCollumn()),
-		    res.getInt("id"), uuid,
-		    res.getLong(UserTableFields.seen.getCollumn()),
-		    res.getInt(UserTableFields.donequests.getCollumn()),
-		    res.getString(UserTableFields.quests.getCollumn()));
-		Jobs.getPlayerManager().addPlayerToMap(pInfo);
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return null;
+	    PlayerInfo pInfo = null;
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement("SELECT * FROM `" + DBTables.UsersTable.getTableName() + "` WHERE `" + UserTableFields.player_uuid.getCollumn() + "` = ?;");
+		prest.setString(1, uuid.toString());
+		res = prest.executeQuery();
+		while (res.next()) {
+		    pInfo = new PlayerInfo(
+			res.getString(UserTableFields.username.getCollumn()),
+			res.getInt("id"), uuid,
+			res.getLong(UserTableFields.seen.getCollumn()),
+			res.getInt(UserTableFields.donequests.getCollumn()),
+			res.getString(UserTableFields.quests.getCollumn()));
+		    Jobs.getPlayerManager().addPlayerToMap(pInfo);
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
+	    return pInfo;
 	}
-	return pInfo;
     }
 
     public void loadPlayerData() {
 	Jobs.getPlayerManager().clearMaps();
 
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
-
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    prest = conn.prepareStatement("SELECT * FROM `" + DBTables.UsersTable.getTableName() + "`;");
-	    res = prest.executeQuery();
-	    List<String> uuids = new ArrayList<>();
-	    while (res.next()) {
-		String uuid = res.getString(UserTableFields.player_uuid.getCollumn());
-		if (uuid == null || uuid.isEmpty()) {
-		    uuids.add(uuid);
-		    continue;
-		}
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
 
-		long seen = res.getLong(UserTableFields.seen.getCollumn());
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement("SELECT * FROM `" + DBTables.UsersTable.getTableName() + "`;");
+		res = prest.executeQuery();
+		List<String> uuids = new ArrayList<>();
+		while (res.next()) {
+		    String uuid = res.getString(UserTableFields.player_uuid.getCollumn());
+		    if (uuid == null || uuid.isEmpty()) {
+			uuids.add(uuid);
+			continue;
+		    }
 
-		try {
-		    Jobs.getPlayerManager().addPlayerToMap(new PlayerInfo(
-			res.getString(UserTableFields.username.getCollumn()),
-			res.getInt("id"),
-			UUID.fromString(uuid),
-			seen,
-			res.getInt(UserTableFields.donequests.getCollumn()),
-			res.getString(UserTableFields.quests.getCollumn())));
-		} catch (IllegalArgumentException e) {
-		    uuids.add(uuid);
+		    long seen = res.getLong(UserTableFields.seen.getCollumn());
+
+		    try {
+			Jobs.getPlayerManager().addPlayerToMap(new PlayerInfo(
+			    res.getString(UserTableFields.username.getCollumn()),
+			    res.getInt("id"),
+			    UUID.fromString(uuid),
+			    seen,
+			    res.getInt(UserTableFields.donequests.getCollumn()),
+			    res.getString(UserTableFields.quests.getCollumn())));
+		    } catch (IllegalArgumentException e) {
+			uuids.add(uuid);
+		    }
 		}
-	    }
 
-	    for (String u : uuids) {
-		PreparedStatement ps = conn.prepareStatement("DELETE FROM `" + DBTables.UsersTable.getTableName()
-		    + "` WHERE `" + UserTableFields.player_uuid.getCollumn() + "` = ?;");
-		ps.setString(1, u);
-		ps.execute();
-		close(ps);
+		for (String u : uuids) {
+		    PreparedStatement ps = conn.prepareStatement("DELETE FROM `" + DBTables.UsersTable.getTableName()
+			+ "` WHERE `" + UserTableFields.player_uuid.getCollumn() + "` = ?;");
+		    ps.setString(1, u);
+		    ps.execute();
+		    close(ps);
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
 	}
     }
 
@@ -1805,27 +2001,112 @@ public abstract class JobsDAO {
 	return loadFromDao(jPlayer);
     }
 
+    /**
+     * Loads the job progressions, quests and log of the given player, recording it
+     * as a new player when it does not exist yet. The user row and the jobs are read
+     * with a single joined query.
+     * <p>
+     * Max experience and limits are not reloaded, as they can depend on the permissions
+     * of an online player.
+     * 
+     * @param jPlayer the player to load into, which needs to have its uuid set
+     * @param full whether to load the archived jobs, payment limits and points too
+     * @return the given player
+     * @throws SQLException if the player could not be read, the player is not recorded then
+     */
+    public JobsPlayer loadPlayer(JobsPlayer jPlayer, boolean full) throws SQLException {
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		throw new SQLException("No database connection");
+
+	    UUID uuid = jPlayer.getUniqueId();
+	    List<JobProgression> progression = new ArrayList<>();
+	    PlayerInfo info = null;
+
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement("SELECT u.`id`, u.`" + UserTableFields.username.getCollumn() + "`, u.`" + UserTableFields.seen.getCollumn()
+		    + "`, u.`" + UserTableFields.donequests.getCollumn() + "`, u.`" + UserTableFields.quests.getCollumn()
+		    + "`, j.`" + JobsTableFields.jobid.getCollumn() + "`, j.`" + JobsTableFields.job.getCollumn()
+		    + "`, j.`" + JobsTableFields.level.getCollumn() + "`, j.`" + JobsTableFields.experience.getCollumn()
+		    + "` FROM `" + DBTables.UsersTable.getTableName() + "` u LEFT JOIN `" + getJobsTableName() + "` j ON j.`"
+		    + JobsTableFields.userid.getCollumn() + "` = u.`id` WHERE u.`" + UserTableFields.player_uuid.getCollumn() + "` = ?;");
+		prest.setString(1, uuid.toString());
+		res = prest.executeQuery();
+		while (res.next()) {
+		    if (info == null) {
+			info = new PlayerInfo(res.getString(UserTableFields.username.getCollumn()), res.getInt("id"), uuid,
+			    res.getLong(UserTableFields.seen.getCollumn()), res.getInt(UserTableFields.donequests.getCollumn()),
+			    res.getString(UserTableFields.quests.getCollumn()));
+		    }
+
+		    int jobId = res.getInt(JobsTableFields.jobid.getCollumn());
+		    Job job = jobId == 0 ? null : Jobs.getJob(jobId);
+		    if (job == null) {
+			// Left joined row without jobs or an old row with job name only
+			String jobName = res.getString(JobsTableFields.job.getCollumn());
+			job = jobName == null ? null : Jobs.getJob(jobName);
+		    }
+
+		    if (job != null)
+			progression.add(new JobProgression(job, jPlayer, res.getInt(JobsTableFields.level.getCollumn()),
+			    res.getDouble(JobsTableFields.experience.getCollumn())));
+		}
+	    } finally {
+		close(res);
+		close(prest);
+	    }
+
+	    // Only recorded when the query succeeded without rows
+	    if (info == null) {
+		recordNewPlayer(jPlayer.getName(), uuid);
+	    } else {
+		Jobs.getPlayerManager().addPlayerToMap(info);
+	    }
+
+	    jPlayer.setUserId(Jobs.getPlayerManager().getPlayerId(uuid));
+	    jPlayer.progression.clear();
+	    jPlayer.progression.addAll(progression);
+
+	    if (info != null) {
+		jPlayer.setDoneQuests(info.getQuestsDone());
+		jPlayer.setQuestProgressionFromString(info.getQuestProgression());
+	    }
+
+	    if (full) {
+		jPlayer.setArchivedJobs(getArchivedJobs(jPlayer));
+		jPlayer.setPaymentLimit(getPlayersLimits(jPlayer));
+		jPlayer.setPoints(getPlayerPoints(jPlayer));
+	    }
+
+	    loadLog(jPlayer);
+	    return jPlayer;
+	}
+    }
+
     /**
      * Delete job from archive
      * @param player - player that wishes to quit the job
      * @param job - job that the player wishes to quit
      */
-    public synchronized void deleteArchive(JobsPlayer jPlayer, Job job) {
+    public void deleteArchive(JobsPlayer jPlayer, Job job) {
 	jPlayer.getArchivedJobs().removeArchivedJob(job);
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
-	PreparedStatement prest = null;
-	try {
-	    prest = conn.prepareStatement("DELETE FROM `" + DBTables.ArchiveTable.getTableName() + "` WHERE `" + ArchiveTableFields.userid.getCollumn() + "` = ? AND `" + ArchiveTableFields.jobid
-		.getCollumn() + "` = ?;");
-	    prest.setInt(1, jPlayer.getUserId());
-	    prest.setInt(2, job.getId());
-	    prest.execute();
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(prest);
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
+	    PreparedStatement prest = null;
+	    try {
+		prest = conn.prepareStatement("DELETE FROM `" + DBTables.ArchiveTable.getTableName() + "` WHERE `" + ArchiveTableFields.userid.getCollumn() + "` = ? AND `" + ArchiveTableFields.jobid
+		    .getCollumn() + "` = ?;");
+		prest.setInt(1, jPlayer.getUserId());
+		prest.setInt(2, job.getId());
+		prest.execute();
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(prest);
+	    }
 	}
     }
 
@@ -1834,24 +2115,198 @@ public abstract class JobsDAO {
      * @param jobInfo - the information getting saved
      */
     public void save(JobsPlayer player) {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
-	PreparedStatement prest = null;
-	try {
-	    prest = conn.prepareStatement("UPDATE `" + getJobsTableName() + "` SET `" + JobsTableFields.level.getCollumn() + "` = ?, `" + JobsTableFields.experience.getCollumn()
-		+ "` = ? WHERE `" + JobsTableFields.userid.getCollumn() + "` = ? AND `" + JobsTableFields.jobid.getCollumn() + "` = ?;");
-	    for (JobProgression progression : player.getJobProgression()) {
-		prest.setInt(1, progression.getLevel());
-		prest.setDouble(2, progression.getExperience());
-		prest.setInt(3, player.getUserId());
-		prest.setInt(4, progression.getJob().getId());
-		prest.execute();
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
+	    PreparedStatement prest = null;
+	    try {
+		prest = conn.prepareStatement("UPDATE `" + getJobsTableName() + "` SET `" + JobsTableFields.level.getCollumn() + "` = ?, `" + JobsTableFields.experience.getCollumn()
+		    + "` = ? WHERE `" + JobsTableFields.userid.getCollumn() + "` = ? AND `" + JobsTableFields.jobid.getCollumn() + "` = ?;");
+		for (JobProgression progression : player.getJobProgression()) {
+		    prest.setInt(1, progression.getLevel());
+		    prest.setDouble(2, progression.getExperience());
+		    prest.setInt(3, player.getUserId());
+		    prest.setInt(4, progression.getJob().getId());
+		    prest.execute();
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(prest);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(prest);
+	}
+    }
+
+    /**
+     * Saves the changed job progressions, points, limits, quests, seen time and logs of the given players.
+     * <p>
+     * Only the data marked as changed is written. Rows of every player are written with batched
+     * statements in a single transaction, so the amount of round trips does not depend on the amount
+     * of players. If the transaction fails, every data of these players is marked as changed again.
+     * <p>
+     * Writes with more statements are synchronized with this, as SQLite shares one connection
+     * between threads and their statements would become part of this transaction.
+     * 
+     * @param players players to save
+     * @return true if the data was written
+     */
+    public synchronized boolean savePlayers(Collection<JobsPlayer> players) {
+	if (players.isEmpty())
+	    return true;
+
+	// Rows can only be written after the player got an id
+	for (JobsPlayer player : players) {
+	    if (player.getUserId() == -1)
+		insertPlayer(player);
+	}
+
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return false;
+
+	    PreparedStatement jobsUpdate = null, seenUpdate = null, questsUpdate = null, pointsUpdate = null, pointsDelete = null,
+		pointsInsert = null, limitsDelete = null, limitsInsert = null, logUpsert = null;
+	    try {
+		conn.setAutoCommit(false);
+
+		jobsUpdate = conn.prepareStatement(updateJobQuery);
+		seenUpdate = conn.prepareStatement(updateSeenQuery);
+		questsUpdate = conn.prepareStatement(updateQuestsQuery);
+		pointsUpdate = conn.prepareStatement(updatePointsQuery);
+		pointsDelete = conn.prepareStatement(deletePointsQuery);
+		pointsInsert = conn.prepareStatement(insertPointsQuery);
+		limitsDelete = conn.prepareStatement(deleteLimitsQuery);
+		limitsInsert = conn.prepareStatement(insertLimitsQuery);
+		logUpsert = conn.prepareStatement(logUpsertQuery);
+
+		long now = System.currentTimeMillis();
+
+		for (JobsPlayer player : players) {
+		    int userId = player.getUserId();
+		    if (userId == -1)
+			continue;
+
+		    // Changes made while saving mark the player unsaved again
+		    player.setSaved(true);
+
+		    boolean changed = false;
+
+		    for (JobProgression progression : player.getJobProgression()) {
+			if (!progression.isChanged())
+			    continue;
+
+			progression.setChanged(false);
+			jobsUpdate.setInt(1, progression.getLevel());
+			jobsUpdate.setDouble(2, progression.getExperience());
+			jobsUpdate.setInt(3, userId);
+			jobsUpdate.setInt(4, progression.getJob().getId());
+			jobsUpdate.addBatch();
+			changed = true;
+		    }
+
+		    PlayerPoints pointInfo = player.getPointsData();
+		    if (pointInfo.isChanged()) {
+			pointInfo.setChanged(false);
+
+			if (pointInfo.getDbId() == 0) {
+			    // This needs to exist, removing existing entry by user id unless we have actual line id
+			    pointsDelete.setInt(1, userId);
+			    pointsDelete.addBatch();
+
+			    pointsInsert.setDouble(1, pointInfo.getTotalPoints());
+			    pointsInsert.setDouble(2, pointInfo.getCurrentPoints());
+			    pointsInsert.setInt(3, userId);
+			    pointsInsert.addBatch();
+			} else {
+			    pointsUpdate.setDouble(1, pointInfo.getTotalPoints());
+			    pointsUpdate.setDouble(2, pointInfo.getCurrentPoints());
+			    pointsUpdate.setInt(3, pointInfo.getDbId());
+			    pointsUpdate.addBatch();
+			}
+			changed = true;
+		    }
+
+		    PaymentData limit = player.getPaymentLimit();
+		    if (limit != null && limit.isChanged()) {
+			limit.setChanged(false);
+
+			limitsDelete.setInt(1, userId);
+			limitsDelete.addBatch();
+
+			for (CurrencyType type : CurrencyType.values()) {
+			    if (limit.getAmount(type) == 0D || limit.getLeftTime(type) < 0)
+				continue;
+
+			    limitsInsert.setInt(1, userId);
+			    limitsInsert.setInt(2, type.getId());
+			    limitsInsert.setDouble(3, limit.getAmount(type));
+			    limitsInsert.setLong(4, limit.getTime(type));
+			    limitsInsert.setString(5, type.toString());
+			    limitsInsert.addBatch();
+			}
+			changed = true;
+		    }
+
+		    if (player.isQuestsChanged()) {
+			player.setQuestsChanged(false);
+			questsUpdate.setInt(1, player.getDoneQuests());
+			questsUpdate.setString(2, player.getQuestProgressionString());
+			questsUpdate.setInt(3, userId);
+			questsUpdate.addBatch();
+			changed = true;
+		    }
+
+		    changed |= addLogBatch(logUpsert, player, true);
+
+		    if (changed || player.isSeenChanged()) {
+			player.setSeenChanged(false);
+			seenUpdate.setLong(1, now);
+			seenUpdate.setString(2, player.getName());
+			seenUpdate.setInt(3, userId);
+			seenUpdate.addBatch();
+		    }
+		}
+
+		// Deletes need to run before the inserts of the same rows
+		jobsUpdate.executeBatch();
+		pointsUpdate.executeBatch();
+		pointsDelete.executeBatch();
+		pointsInsert.executeBatch();
+		limitsDelete.executeBatch();
+		limitsInsert.executeBatch();
+		seenUpdate.executeBatch();
+		questsUpdate.executeBatch();
+		logUpsert.executeBatch();
+
+		conn.commit();
+	    } catch (SQLException e) {
+		e.printStackTrace();
+		try {
+		    conn.getConnection().rollback();
+		} catch (SQLException ex) {
+		    ex.printStackTrace();
+		}
+
+		players.forEach(JobsPlayer::setAllChanged);
+		return false;
+	    } finally {
+		close(jobsUpdate);
+		close(seenUpdate);
+		close(questsUpdate);
+		close(pointsUpdate);
+		close(pointsDelete);
+		close(pointsInsert);
+		close(limitsDelete);
+		close(limitsInsert);
+		close(logUpsert);
+		try {
+		    conn.setAutoCommit(true);
+		} catch (SQLException e) {
+		    e.printStackTrace();
+		}
+	    }
+
+	    return true;
 	}
     }
 
@@ -1861,237 +2316,376 @@ public abstract class JobsDAO {
 	    return;
 	}
 
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
 
-	PreparedStatement prest = null;
-	try {
-	    prest = conn.prepareStatement("UPDATE `" + DBTables.UsersTable.getTableName() + "` SET `" + UserTableFields.seen.getCollumn()
-		+ "` = ?, `" + UserTableFields.username.getCollumn()
-		+ "` = ?, `" + UserTableFields.donequests.getCollumn()
-		+ "` = ?, `" + UserTableFields.quests.getCollumn()
-		+ "` = ? WHERE `id` = ?;");
-	    prest.setLong(1, System.currentTimeMillis());
-	    prest.setString(2, player.getName());
-	    prest.setInt(3, player.getDoneQuests());
-	    prest.setString(4, player.getQuestProgressionString());
-	    prest.setInt(5, player.getUserId());
-	    prest.execute();
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(prest);
+	    PreparedStatement prest = null;
+	    try {
+		prest = conn.prepareStatement(updateUserQuery);
+		prest.setLong(1, System.currentTimeMillis());
+		prest.setString(2, player.getName());
+		prest.setInt(3, player.getDoneQuests());
+		prest.setString(4, player.getQuestProgressionString());
+		prest.setInt(5, player.getUserId());
+		prest.execute();
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(prest);
+	    }
 	}
     }
 
     private void insertPlayer(JobsPlayer player) {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
-	String uuid = player.getUniqueId().toString();
-	String name = player.getName();
-	PreparedStatement prestt = null;
-	try {
-	    prestt = conn.prepareStatement("INSERT INTO `" + DBTables.UsersTable.getTableName() + "` (`" + UserTableFields.player_uuid.getCollumn()
-		+ "`, `" + UserTableFields.username.getCollumn()
-		+ "`, `" + UserTableFields.seen.getCollumn()
-		+ "`, `" + UserTableFields.donequests.getCollumn()
-		+ "`) VALUES (?, ?, ?, ?);");
-	    prestt.setString(1, uuid);
-	    prestt.setString(2, name);
-	    prestt.setLong(3, player.getSeen());
-	    prestt.setInt(4, 0);
-	    prestt.executeUpdate();
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(prestt);
-	}
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    prest = conn.prepareStatement("SELECT `id`, `" + UserTableFields.donequests.getCollumn()
-		+ "` FROM `" + DBTables.UsersTable.getTableName() + "` WHERE `" + UserTableFields.player_uuid.getCollumn() + "` = ?;");
-	    prest.setString(1, uuid);
-	    res = prest.executeQuery();
-	    if (res.next()) {
-		int id = res.getInt("id");
-		player.setUserId(id);
-		Jobs.getPlayerManager().addPlayerToMap(new PlayerInfo(
-		    name,
-		    id,
-		    player.getUniqueId(),
-		    player.getSeen(),
-		    res.getInt(UserTableFields.donequests.getCollumn())));
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
+	    String uuid = player.getUniqueId().toString();
+	    String name = player.getName();
+	    PreparedStatement prestt = null;
+	    try {
+		prestt = conn.prepareStatement("INSERT INTO `" + DBTables.UsersTable.getTableName() + "` (`" + UserTableFields.player_uuid.getCollumn()
+		    + "`, `" + UserTableFields.username.getCollumn()
+		    + "`, `" + UserTableFields.seen.getCollumn()
+		    + "`, `" + UserTableFields.donequests.getCollumn()
+		    + "`) VALUES (?, ?, ?, ?);");
+		prestt.setString(1, uuid);
+		prestt.setString(2, name);
+		prestt.setLong(3, player.getSeen());
+		prestt.setInt(4, 0);
+		prestt.executeUpdate();
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(prestt);
+	    }
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement("SELECT `id`, `" + UserTableFields.donequests.getCollumn()
+		    + "` FROM `" + DBTables.UsersTable.getTableName() + "` WHERE `" + UserTableFields.player_uuid.getCollumn() + "` = ?;");
+		prest.setString(1, uuid);
+		res = prest.executeQuery();
+		if (res.next()) {
+		    int id = res.getInt("id");
+		    player.setUserId(id);
+		    Jobs.getPlayerManager().addPlayerToMap(new PlayerInfo(
+			name,
+			id,
+			player.getUniqueId(),
+			player.getSeen(),
+			res.getInt(UserTableFields.donequests.getCollumn())));
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
 	}
     }
 
     public void savePoints(JobsPlayer jPlayer) {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
 
-	PlayerPoints pointInfo = jPlayer.getPointsData();
+	    PlayerPoints pointInfo = jPlayer.getPointsData();
+
+	    if (pointInfo.getDbId() == 0) {
+		// This needs to exist, removing existing entry by user id unless we have actual line id
+		PreparedStatement prest2 = null;
+		try {
+		    prest2 = conn.prepareStatement(deletePointsQuery);
+		    prest2.setInt(1, jPlayer.getUserId());
+		    prest2.execute();
+		} catch (SQLException e) {
+		    e.printStackTrace();
+		} finally {
+		    close(prest2);
+		}
+		PreparedStatement prest = null;
+		try {
+		    prest = conn.prepareStatement(insertPointsQuery);
+		    prest.setDouble(1, pointInfo.getTotalPoints());
+		    prest.setDouble(2, pointInfo.getCurrentPoints());
+		    prest.setInt(3, jPlayer.getUserId());
+		    prest.execute();
+		} catch (SQLException e) {
+		    e.printStackTrace();
+		} finally {
+		    close(prest);
+		}
+	    } else {
+
+		PreparedStatement prest = null;
+		try {
+		    prest = conn.prepareStatement(updatePointsQuery);
+		    prest.setDouble(1, pointInfo.getTotalPoints());
+		    prest.setDouble(2, pointInfo.getCurrentPoints());
+		    prest.setInt(3, pointInfo.getDbId());
+		    prest.execute();
+		} catch (SQLException e) {
+		    e.printStackTrace();
+		} finally {
+		    close(prest);
+		}
 
-	if (pointInfo.getDbId() == 0) {
-	    // This needs to exist, removing existing entry by user id unless we have actual line id
-	    PreparedStatement prest2 = null;
-	    try {
-		prest2 = conn.prepareStatement("DELETE FROM `" + DBTables.PointsTable.getTableName() + "` WHERE `" + PointsTableFields.userid.getCollumn() + "` = ?;");
-		prest2.setInt(1, jPlayer.getUserId());
-		prest2.execute();
-	    } catch (SQLException e) {
-		e.printStackTrace();
-	    } finally {
-		close(prest2);
 	    }
+	}
+    }
+
+    public void loadPoints(JobsPlayer player) {
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
 	    PreparedStatement prest = null;
+	    ResultSet res = null;
 	    try {
-		prest = conn.prepareStatement("INSERT INTO `" + DBTables.PointsTable.getTableName() + "` (`" + PointsTableFields.totalpoints.getCollumn() + "`, `" + PointsTableFields.currentpoints
-		    .getCollumn()
-		    + "`, `" + PointsTableFields.userid.getCollumn() + "`) VALUES (?, ?, ?);");
-		prest.setDouble(1, pointInfo.getTotalPoints());
-		prest.setDouble(2, pointInfo.getCurrentPoints());
-		prest.setInt(3, jPlayer.getUserId());
-		prest.execute();
+		prest = conn.prepareStatement("SELECT `" + PointsTableFields.totalpoints.getCollumn() + "`, `" + PointsTableFields.currentpoints.getCollumn() + "` FROM `" + DBTables.PointsTable.getTableName()
+		    + "` WHERE `" + PointsTableFields.userid.getCollumn() + "` = ?;");
+		prest.setInt(1, player.getUserId());
+		res = prest.executeQuery();
+
+		if (res.next()) {
+		    player.getPointsData().setDbId(res.getInt("id"));
+		    player.getPointsData().setPoints(res.getDouble(PointsTableFields.currentpoints.getCollumn()));
+		    player.getPointsData().setTotalPoints(res.getDouble(PointsTableFields.totalpoints.getCollumn()));
+		    player.getPointsData().setChanged(false);
+		}
 	    } catch (SQLException e) {
 		e.printStackTrace();
 	    } finally {
+		close(res);
 		close(prest);
 	    }
-	} else {
+	}
+    }
+
+    /**
+     * Save player-job information
+     * @param jobInfo - the information getting saved
+     */
+    public synchronized void saveLog(JobsPlayer player) {
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
 
 	    PreparedStatement prest = null;
 	    try {
-		prest = conn.prepareStatement("UPDATE `" + DBTables.PointsTable.getTableName() + "` SET `" + PointsTableFields.totalpoints.getCollumn()
-		    + "` = ?, `" + PointsTableFields.currentpoints.getCollumn()
-		    + "` = ? WHERE `id` = ?;");
-		prest.setDouble(1, pointInfo.getTotalPoints());
-		prest.setDouble(2, pointInfo.getCurrentPoints());
-		prest.setInt(3, pointInfo.getDbId());
-		prest.execute();
+		conn.setAutoCommit(false);
+
+		prest = conn.prepareStatement(logUpsertQuery);
+		if (addLogBatch(prest, player, false)) {
+		    prest.executeBatch();
+		    conn.commit();
+		}
 	    } catch (SQLException e) {
 		e.printStackTrace();
+		try {
+		    conn.getConnection().rollback();
+		} catch (SQLException ex) {
+		    ex.printStackTrace();
+		}
 	    } finally {
 		close(prest);
+		try {
+		    conn.setAutoCommit(true);
+		} catch (SQLException e) {
+		    e.printStackTrace();
+		}
 	    }
-
 	}
     }
 
-    public void loadPoints(JobsPlayer player) {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    prest = conn.prepareStatement("SELECT `" + PointsTableFields.totalpoints.getCollumn() + "`, `" + PointsTableFields.currentpoints.getCollumn() + "` FROM `" + DBTables.PointsTable.getTableName()
-		+ "` WHERE `" + PointsTableFields.userid.getCollumn() + "` = ?;");
-	    prest.setInt(1, player.getUserId());
-	    res = prest.executeQuery();
+    /**
+     * Adds the log entries of the given player to the batch of log upsert statement.
+     * 
+     * @param prest statement created from {@link #getLogUpsertQuery()}
+     * @param player the player whose log should be saved
+     * @param changedOnly whether to add only the entries which changed since last save
+     * @return true if at least one entry was added
+     * @throws SQLException
+     */
+    private static boolean addLogBatch(PreparedStatement prest, JobsPlayer player, boolean changedOnly) throws SQLException {
+	boolean added = false;
+	for (Log log : player.getLog().values()) {
+	    for (Entry<String, LogAmounts> one : log.getAmountList().entrySet()) {
+		LogAmounts amounts = one.getValue();
+		if (changedOnly && !amounts.isChanged())
+		    continue;
+
+		amounts.setChanged(false);
+
+		prest.setInt(1, player.getUserId());
+		prest.setInt(2, log.getDate());
+		prest.setString(3, log.getActionType());
+		prest.setString(4, one.getKey());
+		prest.setInt(5, amounts.getCount());
+		prest.setDouble(6, amounts.get(CurrencyType.MONEY));
+		prest.setDouble(7, amounts.get(CurrencyType.EXP));
+		prest.setDouble(8, amounts.get(CurrencyType.POINTS));
+		prest.addBatch();
 
-	    if (res.next()) {
-		player.getPointsData().setDbId(res.getInt("id"));
-		player.getPointsData().setPoints(res.getDouble(PointsTableFields.currentpoints.getCollumn()));
-		player.getPointsData().setTotalPoints(res.getDouble(PointsTableFields.totalpoints.getCollumn()));
+		amounts.setNewEntry(false);
+		added = true;
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
 	}
+	return added;
     }
 
     /**
-     * Save player-job information
-     * @param jobInfo - the information getting saved
+     * Returns the query to insert a log entry or update the existing one with the same
+     * user id, time, action and item name. Entries are saved with their full amounts, so
+     * SQLite replaces the existing row, as upsert clauses need SQLite 3.24 or newer.
+     * 
+     * @return the upsert query for current database type
      */
-    public void saveLog(JobsPlayer player) {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
-	PreparedStatement prest1 = null;
-	PreparedStatement prest2 = null;
-	try {
+    private static String getLogUpsertQuery() {
+	String query = (dbType == DataBaseType.MySQL ? "INSERT INTO `" : "INSERT OR REPLACE INTO `") + DBTables.LogTable.getTableName()
+	    + "` (`" + LogTableFields.userid.getCollumn() + "`, `" + LogTableFields.time.getCollumn() + "`, `" + LogTableFields.action.getCollumn()
+	    + "`, `" + LogTableFields.itemname.getCollumn() + "`, `" + LogTableFields.count.getCollumn() + "`, `" + LogTableFields.money.getCollumn()
+	    + "`, `" + LogTableFields.exp.getCollumn() + "`, `" + LogTableFields.points.getCollumn() + "`) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
 
-	    conn.setAutoCommit(false);
+	if (dbType == DataBaseType.MySQL) {
+	    return query + " ON DUPLICATE KEY UPDATE `"
+		+ LogTableFields.count.getCollumn() + "` = VALUES(`" + LogTableFields.count.getCollumn() + "`), `"
+		+ LogTableFields.money.getCollumn() + "` = VALUES(`" + LogTableFields.money.getCollumn() + "`), `"
+		+ LogTableFields.exp.getCollumn() + "` = VALUES(`" + LogTableFields.exp.getCollumn() + "`), `"
+		+ LogTableFields.points.getCollumn() + "` = VALUES(`" + LogTableFields.points.getCollumn() + "`);";
+	}
 
-	    prest1 = conn.prepareStatement("UPDATE `" + DBTables.LogTable.getTableName()
-		+ "` SET `" + LogTableFields.count.getCollumn() + "` = ?, `" + LogTableFields.money.getCollumn() + "` = ?, `" + LogTableFields.exp.getCollumn()
-		+ "` = ?, `" + LogTableFields.points.getCollumn() + "` = ? WHERE `" + LogTableFields.userid.getCollumn() + "` = ? AND `" + LogTableFields.time.getCollumn()
-		+ "` = ? AND `" + LogTableFields.action.getCollumn() + "` = ? AND `" + LogTableFields.itemname.getCollumn() + "` = ?;");
+	return query + ";";
+    }
 
-	    boolean added = false;
-	    for (Log log : player.getLog().values()) {
-		for (Entry<String, LogAmounts> one : log.getAmountList().entrySet()) {
-		    if (one.getValue().isNewEntry())
-			continue;
+    /**
+     * Creates the unique index which log upserts rely on. Duplicated log rows are merged
+     * before, the latest one gets the summed amounts and the others are removed.
+     */
+    private void checkLogIndex() {
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
 
-		    prest1.setInt(1, one.getValue().getCount());
-		    prest1.setDouble(2, one.getValue().get(CurrencyType.MONEY));
-		    prest1.setDouble(3, one.getValue().get(CurrencyType.EXP));
-		    prest1.setDouble(4, one.getValue().get(CurrencyType.POINTS));
+	    String table = DBTables.LogTable.getTableName(), index = table + "_entry";
 
-		    prest1.setInt(5, player.getUserId());
-		    prest1.setInt(6, log.getDate());
-		    prest1.setString(7, log.getActionType());
-		    prest1.setString(8, one.getKey());
-//		    prest1.addBatch();
-		    added = true;
+	    ResultSet res = null;
+	    try {
+		res = conn.getMetaData().getIndexInfo(null, null, table, true, false);
+		while (res.next()) {
+		    if (index.equalsIgnoreCase(res.getString("INDEX_NAME")))
+			return;
 		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+		return;
+	    } finally {
+		close(res);
 	    }
-	    if (added) {
-		prest1.execute();
-		conn.commit();
+
+	    String userid = LogTableFields.userid.getCollumn(), time = LogTableFields.time.getCollumn(),
+		action = LogTableFields.action.getCollumn(), itemname = LogTableFields.itemname.getCollumn();
+	    String[] amounts = { LogTableFields.count.getCollumn(), LogTableFields.money.getCollumn(), LogTableFields.exp.getCollumn(),
+		LogTableFields.points.getCollumn() };
+
+	    String merge, delete, createIndex;
+	    if (dbType == DataBaseType.MySQL) {
+		StringBuilder sums = new StringBuilder(), sets = new StringBuilder();
+		for (String amount : amounts) {
+		    sums.append(", SUM(`").append(amount).append("`) AS `").append(amount).append('`');
+		    sets.append(sets.length() == 0 ? "" : ", ").append("a.`").append(amount).append("` = b.`").append(amount).append('`');
+		}
+
+		merge = "UPDATE `" + table + "` a INNER JOIN (SELECT MAX(`id`) AS `id`" + sums + " FROM `" + table + "` GROUP BY `" + userid
+		    + "`, `" + time + "`, `" + action + "`, `" + itemname + "` HAVING COUNT(*) > 1) b ON a.`id` = b.`id` SET " + sets + ";";
+		delete = "DELETE a FROM `" + table + "` a INNER JOIN `" + table + "` b ON a.`" + userid + "` = b.`" + userid + "` AND a.`"
+		    + time + "` = b.`" + time + "` AND a.`" + action + "` = b.`" + action + "` AND a.`" + itemname + "` = b.`" + itemname
+		    + "` AND a.`id` < b.`id`;";
+		// Text columns can only be indexed by prefix
+		createIndex = "ALTER TABLE `" + table + "` ADD UNIQUE INDEX `" + index + "` (`" + userid + "`, `" + time + "`, `" + action
+		    + "`, `" + itemname + "`(191));";
+	    } else {
+		String same = " FROM `" + table + "` b WHERE b.`" + userid + "` = `" + table + "`.`" + userid + "` AND b.`" + time + "` = `" + table
+		    + "`.`" + time + "` AND b.`" + action + "` = `" + table + "`.`" + action + "` AND b.`" + itemname + "` = `" + table + "`.`"
+		    + itemname + "`)";
+
+		StringBuilder sets = new StringBuilder();
+		for (String amount : amounts) {
+		    sets.append(sets.length() == 0 ? "" : ", ").append('`').append(amount).append("` = (SELECT SUM(b.`").append(amount).append("`)")
+			.append(same);
+		}
+
+		merge = "UPDATE `" + table + "` SET " + sets + " WHERE `id` IN (SELECT MAX(`id`) FROM `" + table + "` GROUP BY `" + userid
+		    + "`, `" + time + "`, `" + action + "`, `" + itemname + "` HAVING COUNT(*) > 1);";
+		delete = "DELETE FROM `" + table + "` WHERE `id` NOT IN (SELECT MAX(`id`) FROM `" + table + "` GROUP BY `" + userid
+		    + "`, `" + time + "`, `" + action + "`, `" + itemname + "`);";
+		createIndex = "CREATE UNIQUE INDEX IF NOT EXISTS `" + index + "` ON `" + table + "` (`" + userid + "`, `" + time + "`, `"
+		    + action + "`, `" + itemname + "`);";
 	    }
-	    added = false;
-	    prest2 = conn.prepareStatement("INSERT INTO `" + DBTables.LogTable.getTableName()
-		+ "` (`" + LogTableFields.userid.getCollumn() + "`, `" + LogTableFields.time.getCollumn() + "`, `" + LogTableFields.action.getCollumn()
-		+ "`, `" + LogTableFields.itemname.getCollumn() + "`, `" + LogTableFields.count.getCollumn() + "`, `" + LogTableFields.money.getCollumn()
-		+ "`, `" + LogTableFields.exp.getCollumn() + "`, `" + LogTableFields.points.getCollumn() + "`) VALUES (?, ?, ?, ?, ?, ?, ?, ?);");
-	    for (Log log : player.getLog().values()) {
-		for (Entry<String, LogAmounts> one : log.getAmountList().entrySet()) {
-		    if (!one.getValue().isNewEntry())
-			continue;
-		    one.getValue().setNewEntry(false);
 
-		    prest2.setInt(1, player.getUserId());
-		    prest2.setInt(2, log.getDate());
-		    prest2.setString(3, log.getActionType());
-		    prest2.setString(4, one.getKey());
-		    prest2.setInt(5, one.getValue().getCount());
-		    prest2.setDouble(6, one.getValue().get(CurrencyType.MONEY));
-		    prest2.setDouble(7, one.getValue().get(CurrencyType.EXP));
-		    prest2.setDouble(8, one.getValue().get(CurrencyType.POINTS));
-//		    prest2.addBatch();
-		    added = true;
+	    try {
+		// In one transaction, so the amounts are never summed twice if the index is not created
+		conn.setAutoCommit(false);
+		try (Statement stmt = conn.createStatement()) {
+		    stmt.execute(merge);
+		    stmt.execute(delete);
+		    conn.commit();
+		} catch (SQLException e) {
+		    conn.getConnection().rollback();
+		    throw e;
+		} finally {
+		    conn.setAutoCommit(true);
+		}
+
+		executeSQL(createIndex);
+	    } catch (SQLException e) {
+		Jobs.consoleMsg("&cCould not create log table index, SQLException: " + e.getMessage());
+	    }
+	}
+    }
+
+    /**
+     * Creates the user id indexes of the player data tables, so the data of one player
+     * or a range of players can be read without scanning the whole table.
+     */
+    private void checkUserIndexes() {
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
+
+	    for (DBTables one : new DBTables[] { DBTables.JobsTable, DBTables.PointsTable, DBTables.ArchiveTable, DBTables.LimitsTable }) {
+		String table = one.getTableName(), index = table + "_userid";
+
+		ResultSet res = null;
+		boolean exists = false;
+		try {
+		    res = conn.getMetaData().getIndexInfo(null, null, table, false, false);
+		    while (res.next()) {
+			if (index.equalsIgnoreCase(res.getString("INDEX_NAME"))) {
+			    exists = true;
+			    break;
+			}
+		    }
+		} catch (SQLException e) {
+		    e.printStackTrace();
+		    continue;
+		} finally {
+		    close(res);
+		}
+
+		if (exists)
+		    continue;
+
+		try {
+		    if (dbType == DataBaseType.MySQL)
+			executeSQL("ALTER TABLE `" + table + "` ADD INDEX `" + index + "` (`userid`);");
+		    else
+			executeSQL("CREATE INDEX IF NOT EXISTS `" + index + "` ON `" + table + "` (`userid`);");
+		} catch (SQLException e) {
+		    Jobs.consoleMsg("&cCould not create " + table + " table index, SQLException: " + e.getMessage());
 		}
 	    }
-	    if (added) {
-		prest2.execute();
-		conn.commit();
-	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	    close(prest1);
-	    close(prest2);
-	} finally {
-	    close(prest1);
-	    close(prest2);
-	    try {
-		conn.setAutoCommit(true);
-	    } catch (SQLException e) {
-		e.printStackTrace();
-	    }
 	}
     }
 
@@ -2100,140 +2694,156 @@ public abstract class JobsDAO {
      * @param jobInfo - the information getting saved
      */
     public void loadLog(JobsPlayer player) {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    int time = TimeManage.timeInInt();
-	    prest = conn.prepareStatement("SELECT * FROM `" + DBTables.LogTable.getTableName()
-		+ "` WHERE `" + LogTableFields.userid.getCollumn() + "` = ?  AND `" + LogTableFields.time.getCollumn() + "` = ? ;");
-	    prest.setInt(1, player.getUserId());
-	    prest.setInt(2, time);
-	    res = prest.executeQuery();
-	    while (res.next()) {
-
-		Map<CurrencyType, Double> amounts = new HashMap<>();
-		amounts.put(CurrencyType.MONEY, res.getDouble(LogTableFields.money.getCollumn()));
-		amounts.put(CurrencyType.EXP, res.getDouble(LogTableFields.exp.getCollumn()));
-		amounts.put(CurrencyType.POINTS, res.getDouble(LogTableFields.points.getCollumn()));
-
-		Jobs.getLoging().loadToLog(player, res.getString(LogTableFields.action.getCollumn()), res.getString(LogTableFields.itemname.getCollumn()), res.getInt(LogTableFields.count.getCollumn()),
-		    amounts);
-	    }
-	} catch (Exception e) {
-	    close(res);
-	    close(prest);
-	    drop(DBTables.LogTable.getTableName());
-	    createDefaultTable(DBTables.LogTable);
-	} finally {
-	    close(res);
-	    close(prest);
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		int time = TimeManage.timeInInt();
+		prest = conn.prepareStatement("SELECT * FROM `" + DBTables.LogTable.getTableName()
+		    + "` WHERE `" + LogTableFields.userid.getCollumn() + "` = ?  AND `" + LogTableFields.time.getCollumn() + "` = ? ;");
+		prest.setInt(1, player.getUserId());
+		prest.setInt(2, time);
+		res = prest.executeQuery();
+		while (res.next()) {
+
+		    Map<CurrencyType, Double> amounts = new HashMap<>();
+		    amounts.put(CurrencyType.MONEY, res.getDouble(LogTableFields.money.getCollumn()));
+		    amounts.put(CurrencyType.EXP, res.getDouble(LogTableFields.exp.getCollumn()));
+		    amounts.put(CurrencyType.POINTS, res.getDouble(LogTableFields.points.getCollumn()));
+
+		    Jobs.getLoging().loadToLog(player, res.getString(LogTableFields.action.getCollumn()), res.getString(LogTableFields.itemname.getCollumn()), res.getInt(LogTableFields.count.getCollumn()),
+			amounts);
+		}
+	    } catch (Exception e) {
+		close(res);
+		close(prest);
+		drop(DBTables.LogTable.getTableName());
+		createDefaultTable(DBTables.LogTable);
+	    } finally {
+		close(res);
+		close(prest);
+	    }
 	}
     }
 
     /**
      * Save block protection information
      * @param jobBlockProtection - the information getting saved
+     * @return false if the protections could not be written, the transaction is rolled back then
      */
-    public void saveBlockProtection(String world, java.util.concurrent.ConcurrentMap<String, BlockProtection> concurrentHashMap) {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
-	PreparedStatement insert = null;
-	PreparedStatement update = null;
-	PreparedStatement delete = null;
-	try {
-	    conn.setAutoCommit(false);
-	    JobsWorld jobsWorld = Util.getJobsWorld(world);
-	    if (jobsWorld == null)
-		return;
-
-	    int worldId = jobsWorld.getId();
-	    if (worldId == 0)
-		return;
+    public boolean saveBlockProtection(String world, java.util.concurrent.ConcurrentMap<Long, BlockProtection> concurrentHashMap) {
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return false;
+	    PreparedStatement insert = null;
+	    PreparedStatement update = null;
+	    PreparedStatement delete = null;
+	    // Only marked as stored after the commit
+	    List<BlockProtection> written = new ArrayList<>();
+	    try {
+		conn.setAutoCommit(false);
+		JobsWorld jobsWorld = Util.getJobsWorld(world);
+		// Protections of unknown worlds can't be stored
+		if (jobsWorld == null)
+		    return true;
+
+		int worldId = jobsWorld.getId();
+		if (worldId == 0)
+		    return true;
+
+		insert = conn.prepareStatement("INSERT INTO `" + DBTables.BlocksTable.getTableName() + "` (`" + BlockTableFields.worldid.getCollumn()
+		    + "`, `" + BlockTableFields.x.getCollumn()
+		    + "`, `" + BlockTableFields.y.getCollumn()
+		    + "`, `" + BlockTableFields.z.getCollumn()
+		    + "`, `" + BlockTableFields.recorded.getCollumn()
+		    + "`, `" + BlockTableFields.resets.getCollumn()
+		    + "`, `" + BlockTableFields.world.getCollumn()
+		    + "`) VALUES (?, ?, ?, ?, ?, ?, ?);");
+		update = conn.prepareStatement("UPDATE `" + DBTables.BlocksTable.getTableName() + "` SET `" + BlockTableFields.recorded.getCollumn()
+		    + "` = ?, `" + BlockTableFields.resets.getCollumn()
+		    + "` = ? WHERE `id` = ?;");
+		delete = conn.prepareStatement("DELETE from `" + DBTables.BlocksTable.getTableName() + "` WHERE `id` = ?;");
 
-	    insert = conn.prepareStatement("INSERT INTO `" + DBTables.BlocksTable.getTableName() + "` (`" + BlockTableFields.worldid.getCollumn()
-		+ "`, `" + BlockTableFields.x.getCollumn()
-		+ "`, `" + BlockTableFields.y.getCollumn()
-		+ "`, `" + BlockTableFields.z.getCollumn()
-		+ "`, `" + BlockTableFields.recorded.getCollumn()
-		+ "`, `" + BlockTableFields.resets.getCollumn()
-		+ "`, `" + BlockTableFields.world.getCollumn()
-		+ "`) VALUES (?, ?, ?, ?, ?, ?, ?);");
-	    update = conn.prepareStatement("UPDATE `" + DBTables.BlocksTable.getTableName() + "` SET `" + BlockTableFields.recorded.getCollumn()
-		+ "` = ?, `" + BlockTableFields.resets.getCollumn()
-		+ "` = ? WHERE `id` = ?;");
-	    delete = conn.prepareStatement("DELETE from `" + DBTables.BlocksTable.getTableName() + "` WHERE `id` = ?;");
-
-	    Long current = System.currentTimeMillis();
-	    Long mark = System.currentTimeMillis() - (Jobs.getGCManager().BlockProtectionDays * 24L * 60L * 60L * 1000L);
-
-	    for (Entry<String, BlockProtection> block : concurrentHashMap.entrySet()) {
-		if (block.getValue() == null)
-		    continue;
-		switch (block.getValue().getAction()) {
-		case DELETE:
-		    delete.setInt(1, block.getValue().getId());
-		    delete.addBatch();
+		Long current = System.currentTimeMillis();
+		Long mark = System.currentTimeMillis() - (Jobs.getGCManager().BlockProtectionDays * 24L * 60L * 60L * 1000L);
 
-		    break;
-		case INSERT:
-		    if (block.getValue().getTime() < current && block.getValue().getTime() != -1)
+		for (Entry<Long, BlockProtection> block : concurrentHashMap.entrySet()) {
+		    if (block.getValue() == null)
 			continue;
+		    switch (block.getValue().getAction()) {
+		    case DELETE:
+			delete.setInt(1, block.getValue().getId());
+			delete.addBatch();
+
+			break;
+		    case INSERT:
+			if (block.getValue().getTime() < current && block.getValue().getTime() != -1)
+			    continue;
 
-		    insert.setInt(1, worldId);
-		    insert.setInt(2, block.getValue().getX());
-		    insert.setInt(3, block.getValue().getY());
-		    insert.setInt(4, block.getValue().getZ());
-		    insert.setLong(5, block.getValue().getRecorded());
-		    insert.setLong(6, block.getValue().getTime());
-		    insert.setString(7, world);
-		    insert.addBatch();
-		    block.getValue().setAction(DBAction.NONE);
+			insert.setInt(1, worldId);
+			insert.setInt(2, block.getValue().getX());
+			insert.setInt(3, block.getValue().getY());
+			insert.setInt(4, block.getValue().getZ());
+			insert.setLong(5, block.getValue().getRecorded());
+			insert.setLong(6, block.getValue().getTime());
+			insert.setString(7, world);
+			insert.addBatch();
+			written.add(block.getValue());
+
+			break;
+		    case UPDATE:
+			if (block.getValue().getTime() < current && block.getValue().getTime() != -1)
+			    continue;
+			update.setLong(1, block.getValue().getRecorded());
+			update.setLong(2, block.getValue().getTime());
+			update.setInt(3, block.getValue().getId());
+			update.addBatch();
+			written.add(block.getValue());
+
+			break;
+		    case NONE:
+			if (block.getValue().getTime() < current && block.getValue().getTime() != -1)
+			    continue;
+			if (block.getValue().getTime() == -1 && block.getValue().getRecorded() > mark)
+			    continue;
 
-		    break;
-		case UPDATE:
-		    if (block.getValue().getTime() < current && block.getValue().getTime() != -1)
-			continue;
-		    update.setLong(1, block.getValue().getRecorded());
-		    update.setLong(2, block.getValue().getTime());
-		    update.setInt(3, block.getValue().getId());
-		    update.addBatch();
-		    block.getValue().setAction(DBAction.NONE);
+			delete.setInt(1, block.getValue().getId());
+			delete.addBatch();
 
-		    break;
-		case NONE:
-		    if (block.getValue().getTime() < current && block.getValue().getTime() != -1)
+			break;
+		    default:
 			continue;
-		    if (block.getValue().getTime() == -1 && block.getValue().getRecorded() > mark)
-			continue;
-
-		    delete.setInt(1, block.getValue().getId());
-		    delete.addBatch();
-
-		    break;
-		default:
-		    continue;
+		    }
 		}
-	    }
 
-	    insert.executeBatch();
-	    update.executeBatch();
-	    delete.executeBatch();
-	    conn.commit();
+		insert.executeBatch();
+		update.executeBatch();
+		delete.executeBatch();
+		conn.commit();
 
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(insert);
-	    close(update);
-	    close(delete);
-	    try {
-		conn.setAutoCommit(true);
+		for (BlockProtection one : written) {
+		    one.setAction(DBAction.NONE);
+		}
+		return true;
 	    } catch (SQLException e) {
 		e.printStackTrace();
+		try {
+		    conn.getConnection().rollback();
+		} catch (SQLException ex) {
+		    ex.printStackTrace();
+		}
+		return false;
+	    } finally {
+		close(insert);
+		close(update);
+		close(delete);
+		try {
+		    conn.setAutoCommit(true);
+		} catch (SQLException e) {
+		    e.printStackTrace();
+		}
 	    }
 	}
     }
@@ -2243,76 +2853,73 @@ public abstract class JobsDAO {
      * @param jobBlockProtection - the information getting saved
      */
     public void loadBlockProtection() {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
-	PreparedStatement prest = null;
-	PreparedStatement prestDel = null;
-	ResultSet res = null;
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
+	    PreparedStatement prest = null;
+	    PreparedStatement prestDel = null;
+	    ResultSet res = null;
 
-	long timer = System.currentTimeMillis();
+	    long timer = System.currentTimeMillis();
 
-	try {
-	    long mark = System.currentTimeMillis() - (Jobs.getGCManager().BlockProtectionDays * 24L * 60L * 60L * 1000L);
-	    prestDel = conn.prepareStatement("DELETE FROM `" + DBTables.BlocksTable.getTableName() + "` WHERE `" + BlockTableFields.recorded.getCollumn() + "` < ? OR `" +
-		BlockTableFields.resets.getCollumn() + "` < ? AND `" + BlockTableFields.resets.getCollumn() + "` > 0;");
-	    prestDel.setLong(1, mark);
-	    prestDel.setLong(2, System.currentTimeMillis());
-	    prestDel.execute();
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(prestDel);
-	}
+	    try {
+		long mark = System.currentTimeMillis() - (Jobs.getGCManager().BlockProtectionDays * 24L * 60L * 60L * 1000L);
+		prestDel = conn.prepareStatement("DELETE FROM `" + DBTables.BlocksTable.getTableName() + "` WHERE `" + BlockTableFields.recorded.getCollumn() + "` < ? OR `" +
+		    BlockTableFields.resets.getCollumn() + "` < ? AND `" + BlockTableFields.resets.getCollumn() + "` > 0;");
+		prestDel.setLong(1, mark);
+		prestDel.setLong(2, System.currentTimeMillis());
+		prestDel.execute();
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(prestDel);
+	    }
 
-	try {
-	    prest = conn.prepareStatement("SELECT * FROM `" + DBTables.BlocksTable.getTableName() + "`;");
-	    res = prest.executeQuery();
-	    int i = 0;
-	    int ii = 0;
+	    try {
+		prest = conn.prepareStatement("SELECT * FROM `" + DBTables.BlocksTable.getTableName() + "`;");
+		res = prest.executeQuery();
+		int i = 0;
+		int ii = 0;
 
-	    while (res.next()) {
+		while (res.next()) {
 
-		String name = res.getString(BlockTableFields.world.getCollumn());
-		int worldId = res.getInt(BlockTableFields.worldid.getCollumn());
+		    String name = res.getString(BlockTableFields.world.getCollumn());
+		    int worldId = res.getInt(BlockTableFields.worldid.getCollumn());
 
-		World world = null;
-		if (worldId != 0) {
-		    JobsWorld jobsWorld = Util.getJobsWorld(worldId);
-		    if (jobsWorld != null)
-			world = jobsWorld.getWorld();
-		} else {
-		    world = Bukkit.getWorld(name);
-		}
-		if (world == null)
-		    continue;
+		    World world = null;
+		    if (worldId != 0) {
+			JobsWorld jobsWorld = Util.getJobsWorld(worldId);
+			if (jobsWorld != null)
+			    world = jobsWorld.getWorld();
+		    } else {
+			world = Bukkit.getWorld(name);
+		    }
+		    if (world == null)
+			continue;
 
-		int id = res.getInt("id");
-		int x = res.getInt(BlockTableFields.x.getCollumn());
-		int y = res.getInt(BlockTableFields.y.getCollumn());
-		int z = res.getInt(BlockTableFields.z.getCollumn());
-		long resets = res.getLong(BlockTableFields.resets.getCollumn());
-		Location loc = new Location(world, x, y, z);
+		    int id = res.getInt("id");
+		    int x = res.getInt(BlockTableFields.x.getCollumn());
+		    int y = res.getInt(BlockTableFields.y.getCollumn());
+		    int z = res.getInt(BlockTableFields.z.getCollumn());
+		    long resets = res.getLong(BlockTableFields.resets.getCollumn());
 
-		BlockProtection bp = Jobs.getBpManager().addP(loc, resets, true, false);
-		bp.setId(id);
-		bp.setRecorded(res.getLong(BlockTableFields.recorded.getCollumn()));
-		bp.setAction(DBAction.NONE);
-		i++;
+		    Jobs.getBpManager().load(world, id, x, y, z, resets, res.getLong(BlockTableFields.recorded.getCollumn()));
+		    i++;
 
-		if (ii++ >= 100000) {
-		    Jobs.consoleMsg("&6[Jobs] Loading (" + i + ") BP");
-		    ii = 0;
+		    if (ii++ >= 100000) {
+			Jobs.consoleMsg("&6[Jobs] Loading (" + i + ") BP");
+			ii = 0;
+		    }
 		}
+		if (i > 0) {
+		    Jobs.consoleMsg("&e[Jobs] Loaded " + i + " block protection entries. " + (System.currentTimeMillis() - timer) + "ms");
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	    if (i > 0) {
-		Jobs.consoleMsg("&e[Jobs] Loaded " + i + " block protection entries. " + (System.currentTimeMillis() - timer) + "ms");
-	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
 	}
     }
 
@@ -2328,55 +2935,56 @@ public abstract class JobsDAO {
 	if (!Jobs.getExplore().isExploreEnabled())
 	    return;
 
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
-	PreparedStatement prest2 = null;
-	try {
-
-	    prest2 = conn.prepareStatement("INSERT INTO `" + DBTables.ExploreDataTable.getTableName() + "` (`" + ExploreDataTableFields.worldid.getCollumn()
-		+ "`, `" + ExploreDataTableFields.chunkX.getCollumn()
-		+ "`, `" + ExploreDataTableFields.chunkZ.getCollumn()
-		+ "`, `" + ExploreDataTableFields.playerNames.getCollumn()
-		+ "`, `" + ExploreDataTableFields.worldname.getCollumn()
-		+ "`) VALUES (?, ?, ?, ?, ?);");
-	    conn.setAutoCommit(false);
-	    int i = 0;
-
-	    Map<String, ExploreRegion> temp = new HashMap<>(Jobs.getExplore().getWorlds());
-
-	    for (Entry<String, ExploreRegion> worlds : temp.entrySet()) {
-		JobsWorld jobsWorld = Util.getJobsWorld(worlds.getKey());
-
-		int id = jobsWorld == null ? 0 : jobsWorld.getId();
-		if (id != 0)
-		    for (Entry<Short, ExploreChunk> oneChunk : worlds.getValue().getChunks().entrySet()) {
-			ExploreChunk chunk = oneChunk.getValue();
-			if (chunk.getDbId() != -1)
-			    continue;
-			prest2.setInt(1, id);
-			prest2.setInt(2, worlds.getValue().getChunkX(oneChunk.getKey()));
-			prest2.setInt(3, worlds.getValue().getChunkZ(oneChunk.getKey()));
-			prest2.setString(4, chunk.serializeNames());
-			prest2.setString(5, jobsWorld != null ? jobsWorld.getName() : "");
-			prest2.addBatch();
-			i++;
-		    }
-	    }
-	    prest2.executeBatch();
-	    conn.commit();
-	    conn.setAutoCommit(true);
-
-	    if (i > 0)
-		Jobs.consoleMsg("&e[Jobs] Saved " + i + " new explorer entries.");
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(prest2);
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
+	    PreparedStatement prest2 = null;
 	    try {
+
+		prest2 = conn.prepareStatement("INSERT INTO `" + DBTables.ExploreDataTable.getTableName() + "` (`" + ExploreDataTableFields.worldid.getCollumn()
+		    + "`, `" + ExploreDataTableFields.chunkX.getCollumn()
+		    + "`, `" + ExploreDataTableFields.chunkZ.getCollumn()
+		    + "`, `" + ExploreDataTableFields.playerNames.getCollumn()
+		    + "`, `" + ExploreDataTableFields.worldname.getCollumn()
+		    + "`) VALUES (?, ?, ?, ?, ?);");
+		conn.setAutoCommit(false);
+		int i = 0;
+
+		Map<String, ExploreRegion> temp = new HashMap<>(Jobs.getExplore().getWorlds());
+
+		for (Entry<String, ExploreRegion> worlds : temp.entrySet()) {
+		    JobsWorld jobsWorld = Util.getJobsWorld(worlds.getKey());
+
+		    int id = jobsWorld == null ? 0 : jobsWorld.getId();
+		    if (id != 0)
+			for (Entry<Short, ExploreChunk> oneChunk : worlds.getValue().getChunks().entrySet()) {
+			    ExploreChunk chunk = oneChunk.getValue();
+			    if (chunk.getDbId() != -1)
+				continue;
+			    prest2.setInt(1, id);
+			    prest2.setInt(2, worlds.getValue().getChunkX(oneChunk.getKey()));
+			    prest2.setInt(3, worlds.getValue().getChunkZ(oneChunk.getKey()));
+			    prest2.setString(4, chunk.serializeNames());
+			    prest2.setString(5, jobsWorld != null ? jobsWorld.getName() : "");
+			    prest2.addBatch();
+			    i++;
+			}
+		}
+		prest2.executeBatch();
+		conn.commit();
 		conn.setAutoCommit(true);
+
+		if (i > 0)
+		    Jobs.consoleMsg("&e[Jobs] Saved " + i + " new explorer entries.");
 	    } catch (SQLException e) {
 		e.printStackTrace();
+	    } finally {
+		close(prest2);
+		try {
+		    conn.setAutoCommit(true);
+		} catch (SQLException e) {
+		    e.printStackTrace();
+		}
 	    }
 	}
     }
@@ -2385,44 +2993,45 @@ public abstract class JobsDAO {
 	if (!Jobs.getExplore().isExploreEnabled())
 	    return;
 
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
-	PreparedStatement prest = null;
-	try {
-	    conn.setAutoCommit(false);
-	    prest = conn.prepareStatement("UPDATE `" + DBTables.ExploreDataTable.getTableName() + "` SET `" + ExploreDataTableFields.playerNames.getCollumn() + "` = ? WHERE `id` = ?;");
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
+	    PreparedStatement prest = null;
+	    try {
+		conn.setAutoCommit(false);
+		prest = conn.prepareStatement("UPDATE `" + DBTables.ExploreDataTable.getTableName() + "` SET `" + ExploreDataTableFields.playerNames.getCollumn() + "` = ? WHERE `id` = ?;");
 
-	    int i = 0;
+		int i = 0;
 
-	    Map<String, ExploreRegion> temp = new HashMap<>(Jobs.getExplore().getWorlds());
+		Map<String, ExploreRegion> temp = new HashMap<>(Jobs.getExplore().getWorlds());
 
-	    for (ExploreRegion worlds : temp.values()) {
-		for (ExploreChunk oneChunk : worlds.getChunks().values()) {
-		    if (oneChunk.getDbId() == -1 || !oneChunk.isUpdated())
-			continue;
+		for (ExploreRegion worlds : temp.values()) {
+		    for (ExploreChunk oneChunk : worlds.getChunks().values()) {
+			if (oneChunk.getDbId() == -1 || !oneChunk.isUpdated())
+			    continue;
 
-		    prest.setString(1, oneChunk.serializeNames());
-		    prest.setInt(2, oneChunk.getDbId());
-		    prest.addBatch();
-		    i++;
+			prest.setString(1, oneChunk.serializeNames());
+			prest.setInt(2, oneChunk.getDbId());
+			prest.addBatch();
+			i++;
+		    }
 		}
-	    }
-	    prest.executeBatch();
-	    conn.commit();
-	    conn.setAutoCommit(true);
+		prest.executeBatch();
+		conn.commit();
+		conn.setAutoCommit(true);
 
-	    if (i > 0)
-		Jobs.consoleMsg("&e[Jobs] Updated " + i + " explorer entries.");
+		if (i > 0)
+		    Jobs.consoleMsg("&e[Jobs] Updated " + i + " explorer entries.");
 
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(prest);
-	    try {
-		conn.setAutoCommit(true);
 	    } catch (SQLException e) {
 		e.printStackTrace();
+	    } finally {
+		close(prest);
+		try {
+		    conn.setAutoCommit(true);
+		} catch (SQLException e) {
+		    e.printStackTrace();
+		}
 	    }
 	}
     }
@@ -2435,46 +3044,47 @@ public abstract class JobsDAO {
 	if (!Jobs.getExplore().isExploreEnabled())
 	    return;
 
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return;
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
 
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    prest = conn.prepareStatement("SELECT * FROM `" + DBTables.ExploreDataTable.getTableName() + "`;");
-	    res = prest.executeQuery();
-	    Set<Integer> missingWorlds = new HashSet<>();
-	    while (res.next()) {
-		int worldId = res.getInt(ExploreDataTableFields.worldid.getCollumn());
-		JobsWorld jworld = Util.getJobsWorld(worldId);
-		if (jworld == null || jworld.getWorld() == null) {
-		    missingWorlds.add(worldId);
-		} else {
-		    Jobs.getExplore().load(res);
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement("SELECT * FROM `" + DBTables.ExploreDataTable.getTableName() + "`;");
+		res = prest.executeQuery();
+		Set<Integer> missingWorlds = new HashSet<>();
+		while (res.next()) {
+		    int worldId = res.getInt(ExploreDataTableFields.worldid.getCollumn());
+		    JobsWorld jworld = Util.getJobsWorld(worldId);
+		    if (jworld == null || jworld.getWorld() == null) {
+			missingWorlds.add(worldId);
+		    } else {
+			Jobs.getExplore().load(res);
+		    }
 		}
-	    }
 
-	    for (Integer one : missingWorlds) {
-		PreparedStatement prest2 = null;
-		try {
-		    prest2 = conn.prepareStatement("DELETE FROM `" + DBTables.ExploreDataTable.getTableName() + "` WHERE `" + ExploreDataTableFields.worldid.getCollumn() + "` = ?;");
-		    prest2.setInt(1, one);
-		    prest2.execute();
-		} catch (Throwable e) {
-		    e.printStackTrace();
-		} finally {
-		    close(prest2);
+		for (Integer one : missingWorlds) {
+		    PreparedStatement prest2 = null;
+		    try {
+			prest2 = conn.prepareStatement("DELETE FROM `" + DBTables.ExploreDataTable.getTableName() + "` WHERE `" + ExploreDataTableFields.worldid.getCollumn() + "` = ?;");
+			prest2.setInt(1, one);
+			prest2.execute();
+		    } catch (Throwable e) {
+			e.printStackTrace();
+		    } finally {
+			close(prest2);
+		    }
 		}
+
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(res);
+		close(prest);
 	    }
 
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
 	}
-
     }
 
     /**
@@ -2483,30 +3093,31 @@ public abstract class JobsDAO {
      * @return 
      */
     public List<Integer> getLognameList(int fromtime, int untiltime) {
-	JobsConnection conn = getConnection();
-	List<Integer> nameList = new ArrayList<>();
-	if (conn == null)
-	    return nameList;
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    prest = conn.prepareStatement("SELECT `" + LogTableFields.userid.getCollumn() + "` FROM `" + DBTables.LogTable.getTableName() + "` WHERE `" + LogTableFields.time.getCollumn() + "` >= ?  AND `"
-		+ LogTableFields.time.getCollumn() + "` <= ? ;");
-	    prest.setInt(1, fromtime);
-	    prest.setInt(2, untiltime);
-	    res = prest.executeQuery();
-	    while (res.next()) {
-		int id = res.getInt(LogTableFields.userid.getCollumn());
-		if (!nameList.contains(id))
-		    nameList.add(id);
+	try (JobsConnection conn = getConnection()) {
+	    List<Integer> nameList = new ArrayList<>();
+	    if (conn == null)
+		return nameList;
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement("SELECT `" + LogTableFields.userid.getCollumn() + "` FROM `" + DBTables.LogTable.getTableName() + "` WHERE `" + LogTableFields.time.getCollumn() + "` >= ?  AND `"
+		    + LogTableFields.time.getCollumn() + "` <= ? ;");
+		prest.setInt(1, fromtime);
+		prest.setInt(2, untiltime);
+		res = prest.executeQuery();
+		while (res.next()) {
+		    int id = res.getInt(LogTableFields.userid.getCollumn());
+		    if (!nameList.contains(id))
+			nameList.add(id);
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
+	    return nameList;
 	}
-	return nameList;
     }
 
     /**
@@ -2525,40 +3136,41 @@ public abstract class JobsDAO {
      */
     public List<TopList> toplist(String jobsname, int limit) {
 	List<TopList> jobs = new ArrayList<>();
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return jobs;
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return jobs;
 
-	Job job = Jobs.getJob(jobsname);
-	if (job == null)
-	    return jobs;
+	    Job job = Jobs.getJob(jobsname);
+	    if (job == null)
+		return jobs;
 
-	PreparedStatement prest = null;
-	ResultSet res = null;
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
 
-	if (limit < 0)
-	    limit = 0;
+	    if (limit < 0)
+		limit = 0;
 
-	try {
-	    prest = conn.prepareStatement("SELECT `" + JobsTableFields.userid.getCollumn() + "`, `" + JobsTableFields.level.getCollumn() + "`, `" + JobsTableFields.experience.getCollumn() + "` FROM `"
-		+ getJobsTableName() + "` WHERE `" + JobsTableFields.jobid.getCollumn() + "` LIKE ? ORDER BY `" + JobsTableFields.level.getCollumn() + "` DESC, LOWER("
-		+ JobsTableFields.experience.getCollumn() + ") DESC LIMIT " + limit + ", 50;");
-	    prest.setInt(1, job.getId());
-	    res = prest.executeQuery();
+	    try {
+		prest = conn.prepareStatement("SELECT `" + JobsTableFields.userid.getCollumn() + "`, `" + JobsTableFields.level.getCollumn() + "`, `" + JobsTableFields.experience.getCollumn() + "` FROM `"
+		    + getJobsTableName() + "` WHERE `" + JobsTableFields.jobid.getCollumn() + "` LIKE ? ORDER BY `" + JobsTableFields.level.getCollumn() + "` DESC, LOWER("
+		    + JobsTableFields.experience.getCollumn() + ") DESC LIMIT " + limit + ", 50;");
+		prest.setInt(1, job.getId());
+		res = prest.executeQuery();
 
-	    while (res.next()) {
-		PlayerInfo info = Jobs.getPlayerManager().getPlayerInfo(res.getInt(JobsTableFields.userid.getCollumn()));
-		if (info != null)
-		    jobs.add(new TopList(info, res.getInt(JobsTableFields.level.getCollumn()), res.getInt(JobsTableFields.experience.getCollumn())));
+		while (res.next()) {
+		    PlayerInfo info = Jobs.getPlayerManager().getPlayerInfo(res.getInt(JobsTableFields.userid.getCollumn()));
+		    if (info != null)
+			jobs.add(new TopList(info, res.getInt(JobsTableFields.level.getCollumn()), res.getInt(JobsTableFields.experience.getCollumn())));
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
-	}
 
-	return jobs;
+	    return jobs;
+	}
     }
 
     /**
@@ -2566,27 +3178,28 @@ public abstract class JobsDAO {
      * @param job - the job
      * @return  the number of players that have a particular job
      */
-    public synchronized int getSlotsTaken(Job job) {
+    public int getSlotsTaken(Job job) {
 	int slot = 0;
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return slot;
-	PreparedStatement prest = null;
-	ResultSet res = null;
-	try {
-	    prest = conn.prepareStatement("SELECT COUNT(*) FROM `" + getJobsTableName() + "` WHERE `" + JobsTableFields.jobid.getCollumn() + "` = ?;");
-	    prest.setInt(1, job.getId());
-	    res = prest.executeQuery();
-	    if (res.next()) {
-		slot = res.getInt(1);
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return slot;
+	    PreparedStatement prest = null;
+	    ResultSet res = null;
+	    try {
+		prest = conn.prepareStatement(countJobPlayersQuery);
+		prest.setInt(1, job.getId());
+		res = prest.executeQuery();
+		if (res.next()) {
+		    slot = res.getInt(1);
+		}
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(res);
+		close(prest);
 	    }
-	} catch (SQLException e) {
-	    e.printStackTrace();
-	} finally {
-	    close(res);
-	    close(prest);
+	    return slot;
 	}
-	return slot;
     }
 
     /**
@@ -2595,39 +3208,95 @@ public abstract class JobsDAO {
      * @throws SQLException
      */
     public void executeSQL(String sql) throws SQLException {
-	JobsConnection conn = getConnection();
-	if (conn == null) {
-	    return;
-	}
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null) {
+		return;
+	    }
 
-	try (Statement stmt = conn.createStatement()) {
-	    stmt.execute(sql);
+	    try (Statement stmt = conn.createStatement()) {
+		stmt.execute(sql);
+	    }
 	}
     }
 
+    /**
+     * Leases a connection from the pool, it has to be closed to hand it back.
+     * 
+     * @return {@link JobsConnection} or null if there is no available connection
+     */
     protected JobsConnection getConnection() {
+	if (pool == null)
+	    return null;
+
 	try {
-	    return isConnected() ? pool.getConnection() : null;
+	    JobsConnection conn = pool.getConnection();
+	    if (conn != null && conn.isClosed()) {
+		conn.close();
+		return null;
+	    }
+	    return conn;
 	} catch (SQLException e) {
 	    Jobs.getPluginLogger().severe("Unable to connect to the database: " + e.getMessage());
 	    return null;
 	}
     }
 
+    /**
+     * Gives the free pages of the SQLite database back to the file system. The
+     * database is switched to incremental auto vacuum with a full vacuum once,
+     * after that only the free pages are released.
+     */
     public synchronized void vacuum() {
 	if (dbType != DataBaseType.SqLite)
 	    return;
-	JobsConnection conn = getConnection();
-	if (conn == null)
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
+
+	    Statement statement = null;
+	    ResultSet res = null;
+	    try {
+		statement = conn.createStatement();
+		res = statement.executeQuery("PRAGMA auto_vacuum;");
+		// 2 is incremental
+		boolean incremental = res.next() && res.getInt(1) == 2;
+		close(res);
+		res = null;
+
+		if (incremental) {
+		    statement.execute("PRAGMA incremental_vacuum;");
+		} else {
+		    statement.execute("PRAGMA auto_vacuum = INCREMENTAL;");
+		    statement.execute("VACUUM;");
+		}
+	    } catch (Throwable e) {
+	    } finally {
+		close(res);
+		close(statement);
+	    }
+	}
+    }
+
+    /**
+     * Moves the write ahead log of the SQLite database into the database file
+     * without waiting for readers.
+     */
+    public void checkpoint() {
+	if (dbType != DataBaseType.SqLite)
 	    return;
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return;
 
-	PreparedStatement prest = null;
-	try {
-	    prest = conn.prepareStatement("VACUUM;");
-	    prest.execute();
-	} catch (Throwable e) {
-	} finally {
-	    close(prest);
+	    Statement statement = null;
+	    try {
+		statement = conn.createStatement();
+		statement.execute("PRAGMA wal_checkpoint(PASSIVE);");
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    } finally {
+		close(statement);
+	    }
 	}
     }
 
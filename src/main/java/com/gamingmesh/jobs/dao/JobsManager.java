@@ -63,6 +63,7 @@ public class JobsManager {
     private String username = "root", password = "", hostname = "localhost:3306", database = "minecraft", prefix = "jobs_",
         characterEncoding = "utf8", encoding = "UTF-8";
     private boolean certificate = false, ssl = false, autoReconnect = false;
+    private int poolSize = 8;
 
     public void start() {
 	ConfigReader c = Jobs.getGCManager().getConfig();
@@ -81,6 +82,8 @@ public class JobsManager {
 	autoReconnect = c.get("mysql.auto-reconnect", c.getC().getBoolean("auto-reconnect", true));
 	characterEncoding = c.get("mysql.characterEncoding", "utf8");
 	encoding = c.get("mysql.encoding", "UTF-8");
+	c.addComment("mysql.pool-size", "Max amount of connections to the database at the same time");
+	poolSize = c.get("mysql.pool-size", 8);
 
 	if (storageMethod.equalsIgnoreCase("mysql")) {
 	    dbType = DataBaseType.MySQL;
@@ -124,6 +127,7 @@ public class JobsManager {
 	if (plugin.isEnabled()) {
 	    JobsMySQL data = new JobsMySQL(plugin, hostname, database, username, password, prefix, certificate, ssl, autoReconnect,
 	        characterEncoding, encoding);
+	    data.setMaxConnections(poolSize);
 	    data.initialize();
 	    return data;
 	}
@@ -15,7 +15,11 @@ public class JobsMySQL extends JobsDAO {
 	super(plugin, "com.mysql.jdbc.Driver", "jdbc:mysql://" + hostname + "/" + database
 	    + "?maxReconnects=1&characterEncoding=" + characterEncoding + "&encoding="
 	    + encoding + "&useUnicode=true&autoReconnect=" + autoReconnect + "&useSSL=" + ssl
-	    + "&verifyServerCertificate=" + certificate, username, password, prefix);
+	    + "&verifyServerCertificate=" + certificate
+	    // Batches are sent as multi row statements, which server side prepared statements can't do.
+	    // The driver caches the parsed statements instead, next to the statement cache of each connection
+	    + "&rewriteBatchedStatements=true&cachePrepStmts=true&prepStmtCacheSize=64&prepStmtCacheSqlLimit=2048",
+	    username, password, prefix);
 	setDbType(DataBaseType.MySQL);
     }
 
@@ -33,28 +37,30 @@ public class JobsMySQL extends JobsDAO {
 
     @Override
     protected void checkUpdate() throws SQLException {
-	JobsConnection conn = getConnection();
-	if (conn == null) {
-	    Jobs.consoleMsg("&cCould not run database updates! Could not connect to MySQL!");
-	    return;
-	}
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null) {
+		Jobs.consoleMsg("&cCould not run database updates! Could not connect to MySQL!");
+		return;
+	    }
 
-	executeSQL("CREATE TABLE `" + getPrefix()
-	+ "users` (`id` int NOT NULL AUTO_INCREMENT PRIMARY KEY, `player_uuid` varchar(36) NOT NULL, `username` varchar(20), `seen` bigint);");
+	    executeSQL("CREATE TABLE `" + getPrefix()
+	    + "users` (`id` int NOT NULL AUTO_INCREMENT PRIMARY KEY, `player_uuid` varchar(36) NOT NULL, `username` varchar(20), `seen` bigint);");
+	}
     }
 
     @Override
     public Statement prepareStatement(String query) throws SQLException {
-	JobsConnection conn = getConnection();
-	if (conn == null)
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return null;
+
+	    try {
+		return conn.prepareStatement(query);
+	    } catch (SQLException e) {
+		e.printStackTrace();
+	    }
 	    return null;
-
-	try {
-	    return conn.prepareStatement(query);
-	} catch (SQLException e) {
-	    e.printStackTrace();
 	}
-	return null;
     }
 
     @Override
@@ -63,137 +69,159 @@ public class JobsMySQL extends JobsDAO {
 	    Jobs.consoleMsg("&cCould not create table: query is empty or null.");
 	    return false;
 	}
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return false;
-	Statement statement = null;
-	try {
-	    statement = conn.createStatement();
-	    statement.execute(query);
-	} catch (SQLException e) {
-	    Jobs.consoleMsg("&cCould not create table, SQLException: " + e.getMessage());
-	    return false;
-	} finally {
-	    close(statement);
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return false;
+	    Statement statement = null;
+	    try {
+		statement = conn.createStatement();
+		statement.execute(query);
+	    } catch (SQLException e) {
+		Jobs.consoleMsg("&cCould not create table, SQLException: " + e.getMessage());
+		return false;
+	    } finally {
+		close(statement);
+	    }
+	    return true;
 	}
-	return true;
     }
 
     @Override
     public boolean isTable(String table) {
-	JobsConnection conn = getConnection();
-	if (conn == null)
-	    return false;
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return false;
 
-	try {
-	    ResultSet tables = conn.getMetaData().getTables(null, null, table, null);
-	    if (tables.next()) {
+	    try {
+		ResultSet tables = conn.getMetaData().getTables(null, null, table, null);
+		if (tables.next()) {
+		    tables.close();
+		    return true;
+		}
 		tables.close();
-		return true;
+		return false;
+	    } catch (SQLException e) {
+		Jobs.consoleMsg("Not a table |" + "SELECT * FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME ='" + table + "';" + "|");
 	    }
-	    tables.close();
-	    return false;
-	} catch (SQLException e) {
-	    Jobs.consoleMsg("Not a table |" + "SELECT * FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME ='" + table + "';" + "|");
-	}
 
-	PreparedStatement insert = null;
-	ResultSet res = null;
-	try {
-	    insert = conn.prepareStatement("SELECT * FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME ='" + table + "';");
-	    res = insert.executeQuery();
-	    if (res.next()) {
+	    PreparedStatement insert = null;
+	    ResultSet res = null;
+	    try {
+		insert = conn.prepareStatement("SELECT * FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME ='" + table + "';");
+		res = insert.executeQuery();
+		if (res.next()) {
+		    close(res);
+		    close(insert);
+		    return true;
+		}
+	    } catch (SQLException e) {
+		Jobs.consoleMsg("Not a table |" + "SELECT * FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME ='" + table + "';" + "|");
+	    } finally {
 		close(res);
 		close(insert);
-		return true;
 	    }
-	} catch (SQLException e) {
-	    Jobs.consoleMsg("Not a table |" + "SELECT * FROM INFORMATION_SCHEMA.COLUMNS WHERE TABLE_NAME ='" + table + "';" + "|");
-	} finally {
-	    close(res);
-	    close(insert);
-	}
 
-	return false;
+	    return false;
+	}
     }
 
     @Override
     public boolean isCollumn(String table, String collumn) {
-	Statement statement;
-	try {
-	    statement = getConnection().createStatement();
-	} catch (SQLException e) {
-	    Jobs.consoleMsg("&cCould not check if its collumn, SQLException: " + e.getMessage());
-	    return false;
-	}
-	try {
-	    statement.executeQuery("SELECT `" + collumn + "` FROM `" + table + "`;");
-	    return true;
-	} catch (SQLException e) {
-	    Jobs.consoleMsg("Not a collumn |" + "SELECT " + collumn + " FROM " + table + "|");
-	    return false;
-	} finally {
-	    close(statement);
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return false;
+
+	    Statement statement;
+	    try {
+		statement = conn.createStatement();
+	    } catch (SQLException e) {
+		Jobs.consoleMsg("&cCould not check if its collumn, SQLException: " + e.getMessage());
+		return false;
+	    }
+	    try {
+		statement.executeQuery("SELECT `" + collumn + "` FROM `" + table + "`;");
+		return true;
+	    } catch (SQLException e) {
+		Jobs.consoleMsg("Not a collumn |" + "SELECT " + collumn + " FROM " + table + "|");
+		return false;
+	    } finally {
+		close(statement);
+	    }
 	}
     }
 
     @Override
     public boolean addCollumn(String table, String collumn, String type) {
-	Statement statement;
-	try {
-	    statement = getConnection().createStatement();
-	} catch (SQLException e) {
-	    Jobs.consoleMsg("&cCould not add new collumn, SQLException: " + e.getMessage());
-	    return false;
-	}
-	try {
-	    Jobs.consoleMsg("Creating collumn |" + "ALTER TABLE `" + table + "` ADD COLUMN `" + collumn + "` " + type + ";" + "|");
-	    statement.executeUpdate("ALTER TABLE `" + table + "` ADD COLUMN `" + collumn + "` " + type + ";");
-	    return true;
-	} catch (SQLException e) {
-	    return false;
-	} finally {
-	    close(statement);
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return false;
+
+	    Statement statement;
+	    try {
+		statement = conn.createStatement();
+	    } catch (SQLException e) {
+		Jobs.consoleMsg("&cCould not add new collumn, SQLException: " + e.getMessage());
+		return false;
+	    }
+	    try {
+		Jobs.consoleMsg("Creating collumn |" + "ALTER TABLE `" + table + "` ADD COLUMN `" + collumn + "` " + type + ";" + "|");
+		statement.executeUpdate("ALTER TABLE `" + table + "` ADD COLUMN `" + collumn + "` " + type + ";");
+		return true;
+	    } catch (SQLException e) {
+		return false;
+	    } finally {
+		close(statement);
+	    }
 	}
     }
 
     @Override
     public boolean truncate(String table) {
-	Statement statement = null;
-	try {
-	    if (!isTable(table)) {
-		Jobs.consoleMsg("&cTable \"" + table + "\" does not exist.");
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
 		return false;
+
+	    Statement statement = null;
+	    try {
+		if (!isTable(table)) {
+		    Jobs.consoleMsg("&cTable \"" + table + "\" does not exist.");
+		    return false;
+		}
+		statement = conn.createStatement();
+		statement.executeUpdate("DELETE FROM " + table + ";");
+		return true;
+	    } catch (SQLException e) {
+		Jobs.consoleMsg("&cCould not wipe table, SQLException: " + e.getMessage());
+		e.printStackTrace();
+		return false;
+	    } finally {
+		close(statement);
 	    }
-	    statement = getConnection().createStatement();
-	    statement.executeUpdate("DELETE FROM " + table + ";");
-	    return true;
-	} catch (SQLException e) {
-	    Jobs.consoleMsg("&cCould not wipe table, SQLException: " + e.getMessage());
-	    e.printStackTrace();
-	    return false;
-	} finally {
-	    close(statement);
 	}
     }
 
     @Override
     public boolean drop(String table) {
-	Statement statement = null;
-	try {
-	    if (!isTable(table)) {
-		Jobs.consoleMsg("&cTable \"" + table + "\" does not exist.");
+	try (JobsConnection conn = getConnection()) {
+	    if (conn == null)
+		return false;
+
+	    Statement statement = null;
+	    try {
+		if (!isTable(table)) {
+		    Jobs.consoleMsg("&cTable \"" + table + "\" does not exist.");
+		    return false;
+		}
+		statement = conn.createStatement();
+		statement.executeUpdate("DROP TABLE IF EXISTS `" + table + "`;");
+		return true;
+	    } catch (SQLException e) {
+		Jobs.consoleMsg("&cCould not wipe table, SQLException: " + e.getMessage());
+		e.printStackTrace();
 		return false;
+	    } finally {
+		close(statement);
 	    }
-	    statement = getConnection().createStatement();
-	    statement.executeUpdate("DROP TABLE IF EXISTS `" + table + "`;");
-	    return true;
-	} catch (SQLException e) {
-	    Jobs.consoleMsg("&cCould not wipe table, SQLException: " + e.getMessage());
-	    e.printStackTrace();
-	    return false;
-	} finally {
-	    close(statement);
 	}
     }
 }
@@ -0,0 +1,381 @@
+/**
+ * Jobs Plugin for Bukkit
+ * Copyright (C) 2011 Zak Ford <zak.j.ford@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gamingmesh.jobs.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import com.gamingmesh.jobs.Jobs;
+import com.gamingmesh.jobs.container.ArchivedJobs;
+import com.gamingmesh.jobs.container.CurrencyType;
+import com.gamingmesh.jobs.container.Job;
+import com.gamingmesh.jobs.container.JobProgression;
+import com.gamingmesh.jobs.container.JobsPlayer;
+import com.gamingmesh.jobs.container.Log;
+import com.gamingmesh.jobs.container.PlayerInfo;
+import com.gamingmesh.jobs.container.PlayerPoints;
+import com.gamingmesh.jobs.dao.JobsDAO.ArchiveTableFields;
+import com.gamingmesh.jobs.dao.JobsDAO.DBTables;
+import com.gamingmesh.jobs.dao.JobsDAO.JobsTableFields;
+import com.gamingmesh.jobs.dao.JobsDAO.LimitTableFields;
+import com.gamingmesh.jobs.dao.JobsDAO.LogTableFields;
+import com.gamingmesh.jobs.dao.JobsDAO.PointsTableFields;
+import com.gamingmesh.jobs.dao.JobsDAO.UserTableFields;
+import com.gamingmesh.jobs.economy.PaymentData;
+import com.gamingmesh.jobs.stuff.TimeManage;
+
+/**
+ * Streaming loader of the data of every player.
+ * <p>
+ * Users are read in pages by id with keyset pagination. For every page the jobs,
+ * points, logs, archive and limits rows of the page id range are read in user id
+ * order and merged into the page, so only one page of data is in memory before the
+ * players are built and handed to the consumer.
+ */
+public class JobsPlayerLoader {
+
+    private final JobsDAO dao;
+    private final int pageSize;
+
+    private volatile boolean cancelled = false;
+
+    public JobsPlayerLoader(JobsDAO dao, int pageSize) {
+	this.dao = dao;
+	this.pageSize = Math.max(1, pageSize);
+    }
+
+    /**
+     * Stops the loading after the current page.
+     */
+    public void cancel() {
+	cancelled = true;
+    }
+
+    public boolean isCancelled() {
+	return cancelled;
+    }
+
+    /**
+     * Loads every player page by page, reporting the progress to console.
+     *
+     * @param consumer receives each loaded player in user id order
+     * @return the amount of loaded players, or -1 if the loading failed or was cancelled
+     */
+    public int load(Consumer<JobsPlayer> consumer) {
+	long time = System.currentTimeMillis(), reported = time;
+	int total, loaded = 0, lastId = 0;
+
+	try (JobsConnection conn = dao.getConnection()) {
+	    if (conn == null)
+		return -1;
+
+	    total = count(conn);
+	}
+
+	try {
+	    while (!cancelled) {
+		List<Slot> page;
+
+		// Connection is leased per page, so the loading doesn't hold it for minutes
+		try (JobsConnection conn = dao.getConnection()) {
+		    if (conn == null)
+			return -1;
+
+		    page = readUsers(conn, lastId);
+		    if (page.isEmpty())
+			break;
+
+		    int from = page.get(0).info.getID();
+		    lastId = page.get(page.size() - 1).info.getID();
+
+		    readJobs(conn, page, from, lastId);
+		    readPoints(conn, page, from, lastId);
+		    readLogs(conn, page, from, lastId);
+		    readArchive(conn, page, from, lastId);
+		    readLimits(conn, page, from, lastId);
+		}
+
+		for (Slot slot : page) {
+		    JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayerOffline(slot.info, slot.jobs, slot.points, slot.logs,
+			slot.archive, slot.limits);
+		    if (jPlayer != null) {
+			consumer.accept(jPlayer);
+			loaded++;
+		    }
+		}
+
+		if (System.currentTimeMillis() - reported > 5000L) {
+		    reported = System.currentTimeMillis();
+		    Jobs.consoleMsg("&e[Jobs] Loaded " + loaded + "/" + total + " players data");
+		}
+	    }
+	} catch (SQLException e) {
+	    e.printStackTrace();
+	    return -1;
+	}
+
+	if (cancelled) {
+	    Jobs.consoleMsg("&e[Jobs] Players data loading was cancelled after " + loaded + " players");
+	    return -1;
+	}
+
+	Jobs.consoleMsg("&e[Jobs] Loaded " + loaded + " players data in " + ((int) (((System.currentTimeMillis() - time) / 1000d) * 100) / 100D));
+	return loaded;
+    }
+
+    private static int count(JobsConnection conn) {
+	PreparedStatement prest = null;
+	ResultSet res = null;
+	try {
+	    prest = conn.prepareStatement("SELECT COUNT(*) FROM `" + DBTables.UsersTable.getTableName() + "`;");
+	    res = prest.executeQuery();
+	    return res.next() ? res.getInt(1) : 0;
+	} catch (SQLException e) {
+	    return 0;
+	} finally {
+	    JobsDAO.close(res);
+	    JobsDAO.close(prest);
+	}
+    }
+
+    private List<Slot> readUsers(JobsConnection conn, int afterId) throws SQLException {
+	List<Slot> page = new ArrayList<>(pageSize);
+	PreparedStatement prest = null;
+	ResultSet res = null;
+	try {
+	    prest = conn.prepareStatement("SELECT * FROM `" + DBTables.UsersTable.getTableName() + "` WHERE `id` > ? ORDER BY `id` LIMIT ?;");
+	    prest.setInt(1, afterId);
+	    prest.setInt(2, pageSize);
+	    prest.setFetchSize(pageSize);
+	    res = prest.executeQuery();
+	    while (res.next()) {
+		UUID uuid;
+		try {
+		    uuid = UUID.fromString(res.getString(UserTableFields.player_uuid.getCollumn()));
+		} catch (IllegalArgumentException | NullPointerException e) {
+		    continue;
+		}
+
+		page.add(new Slot(new PlayerInfo(res.getString(UserTableFields.username.getCollumn()), res.getInt("id"), uuid,
+		    res.getLong(UserTableFields.seen.getCollumn()), res.getInt(UserTableFields.donequests.getCollumn()),
+		    res.getString(UserTableFields.quests.getCollumn()))));
+	    }
+	} finally {
+	    JobsDAO.close(res);
+	    JobsDAO.close(prest);
+	}
+	return page;
+    }
+
+    private ResultSet query(PreparedStatement prest, int from, int to) throws SQLException {
+	prest.setInt(1, from);
+	prest.setInt(2, to);
+	prest.setFetchSize(pageSize);
+	return prest.executeQuery();
+    }
+
+    private static String rangeQuery(String table, String extra) {
+	return "SELECT * FROM `" + table + "` WHERE `userid` BETWEEN ? AND ?" + extra + " ORDER BY `userid`;";
+    }
+
+    private void readJobs(JobsConnection conn, List<Slot> page, int from, int to) throws SQLException {
+	PreparedStatement prest = null;
+	ResultSet res = null;
+	try {
+	    prest = conn.prepareStatement(rangeQuery(dao.getJobsTableName(), ""));
+	    res = query(prest, from, to);
+	    Cursor cursor = new Cursor(page);
+	    while (res.next()) {
+		Slot slot = cursor.seek(res.getInt(JobsTableFields.userid.getCollumn()));
+		if (slot == null)
+		    continue;
+
+		int jobId = res.getInt(JobsTableFields.jobid.getCollumn());
+		Job job = jobId == 0 ? null : Jobs.getJob(jobId);
+		String jobName = job != null ? job.getName() : res.getString(JobsTableFields.job.getCollumn());
+		if (jobName == null)
+		    continue;
+
+		if (slot.jobs == null)
+		    slot.jobs = new ArrayList<>();
+
+		slot.jobs.add(new JobsDAOData(jobName, res.getInt(JobsTableFields.level.getCollumn()), res.getDouble(JobsTableFields.experience.getCollumn())));
+	    }
+	} finally {
+	    JobsDAO.close(res);
+	    JobsDAO.close(prest);
+	}
+    }
+
+    private void readPoints(JobsConnection conn, List<Slot> page, int from, int to) throws SQLException {
+	PreparedStatement prest = null;
+	ResultSet res = null;
+	try {
+	    prest = conn.prepareStatement(rangeQuery(DBTables.PointsTable.getTableName(), ""));
+	    res = query(prest, from, to);
+	    Cursor cursor = new Cursor(page);
+	    while (res.next()) {
+		Slot slot = cursor.seek(res.getInt(PointsTableFields.userid.getCollumn()));
+		if (slot != null)
+		    slot.points = new PlayerPoints(res.getDouble(PointsTableFields.currentpoints.getCollumn()),
+			res.getDouble(PointsTableFields.totalpoints.getCollumn()));
+	    }
+	} finally {
+	    JobsDAO.close(res);
+	    JobsDAO.close(prest);
+	}
+    }
+
+    private void readLogs(JobsConnection conn, List<Slot> page, int from, int to) throws SQLException {
+	PreparedStatement prest = null;
+	ResultSet res = null;
+	try {
+	    prest = conn.prepareStatement(rangeQuery(DBTables.LogTable.getTableName(), " AND `" + LogTableFields.time.getCollumn() + "` = ?"));
+	    prest.setInt(3, TimeManage.timeInInt());
+	    res = query(prest, from, to);
+	    Cursor cursor = new Cursor(page);
+	    while (res.next()) {
+		Slot slot = cursor.seek(res.getInt(LogTableFields.userid.getCollumn()));
+		if (slot == null)
+		    continue;
+
+		if (slot.logs == null)
+		    slot.logs = new HashMap<>();
+
+		String action = res.getString(LogTableFields.action.getCollumn());
+		Log log = slot.logs.computeIfAbsent(action, Log::new);
+
+		Map<CurrencyType, Double> amounts = new HashMap<>();
+		amounts.put(CurrencyType.MONEY, res.getDouble(LogTableFields.money.getCollumn()));
+		amounts.put(CurrencyType.EXP, res.getDouble(LogTableFields.exp.getCollumn()));
+		amounts.put(CurrencyType.POINTS, res.getDouble(LogTableFields.points.getCollumn()));
+
+		log.add(res.getString(LogTableFields.itemname.getCollumn()), res.getInt(LogTableFields.count.getCollumn()), amounts);
+	    }
+	} finally {
+	    JobsDAO.close(res);
+	    JobsDAO.close(prest);
+	}
+    }
+
+    private void readArchive(JobsConnection conn, List<Slot> page, int from, int to) throws SQLException {
+	PreparedStatement prest = null;
+	ResultSet res = null;
+	try {
+	    prest = conn.prepareStatement(rangeQuery(DBTables.ArchiveTable.getTableName(), ""));
+	    res = query(prest, from, to);
+	    Cursor cursor = new Cursor(page);
+	    while (res.next()) {
+		Slot slot = cursor.seek(res.getInt(ArchiveTableFields.userid.getCollumn()));
+		if (slot == null)
+		    continue;
+
+		int jobId = res.getInt(ArchiveTableFields.jobid.getCollumn());
+		Job job = jobId != 0 ? Jobs.getJob(jobId) : Jobs.getJob(res.getString(ArchiveTableFields.job.getCollumn()));
+		if (job == null)
+		    continue;
+
+		if (slot.archive == null)
+		    slot.archive = new ArchivedJobs();
+
+		JobProgression jp = new JobProgression(job, null, res.getInt(ArchiveTableFields.level.getCollumn()),
+		    res.getDouble(ArchiveTableFields.experience.getCollumn()));
+		long left = res.getLong(ArchiveTableFields.left.getCollumn());
+		if (left != 0L)
+		    jp.setLeftOn(left);
+		slot.archive.addArchivedJob(jp);
+	    }
+	} finally {
+	    JobsDAO.close(res);
+	    JobsDAO.close(prest);
+	}
+    }
+
+    private void readLimits(JobsConnection conn, List<Slot> page, int from, int to) throws SQLException {
+	PreparedStatement prest = null;
+	ResultSet res = null;
+	try {
+	    prest = conn.prepareStatement(rangeQuery(DBTables.LimitsTable.getTableName(), ""));
+	    res = query(prest, from, to);
+	    Cursor cursor = new Cursor(page);
+	    while (res.next()) {
+		Slot slot = cursor.seek(res.getInt(LimitTableFields.userid.getCollumn()));
+		if (slot == null)
+		    continue;
+
+		int typeId = res.getInt(LimitTableFields.typeid.getCollumn());
+		CurrencyType type = typeId != 0 ? CurrencyType.get(typeId) : CurrencyType.getByName(res.getString(LimitTableFields.type.getCollumn()));
+		if (type == null)
+		    continue;
+
+		if (slot.limits == null)
+		    slot.limits = new PaymentData();
+
+		slot.limits.addNewAmount(type, res.getDouble(LimitTableFields.collected.getCollumn()), res.getLong(LimitTableFields.started.getCollumn()));
+		slot.limits.setChanged(false);
+	    }
+	} finally {
+	    JobsDAO.close(res);
+	    JobsDAO.close(prest);
+	}
+    }
+
+    /**
+     * Walks the page forward while rows ordered by user id are read.
+     */
+    private static final class Cursor {
+	private final List<Slot> page;
+	private int position = 0;
+
+	private Cursor(List<Slot> page) {
+	    this.page = page;
+	}
+
+	private Slot seek(int userId) {
+	    while (position < page.size() && page.get(position).info.getID() < userId)
+		position++;
+
+	    if (position == page.size())
+		return null;
+
+	    Slot slot = page.get(position);
+	    return slot.info.getID() == userId ? slot : null;
+	}
+    }
+
+    private static final class Slot {
+	private final PlayerInfo info;
+	private List<JobsDAOData> jobs;
+	private PlayerPoints points;
+	private Map<String, Log> logs;
+	private ArchivedJobs archive;
+	private PaymentData limits;
+
+	private Slot(PlayerInfo info) {
+	    this.info = info;
+	}
+    }
+}
@@ -0,0 +1,475 @@
+/**
+ * Jobs Plugin for Bukkit
+ * Copyright (C) 2011 Zak Ford <zak.j.ford@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gamingmesh.jobs.dao;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitTask;
+
+import com.gamingmesh.jobs.Jobs;
+import com.gamingmesh.jobs.container.BlockProtection;
+import com.gamingmesh.jobs.container.BlockProtectionStore;
+import com.gamingmesh.jobs.container.DBAction;
+import com.gamingmesh.jobs.container.JobProgression;
+import com.gamingmesh.jobs.container.JobsPlayer;
+import com.gamingmesh.jobs.container.PlayerPoints;
+import com.gamingmesh.jobs.dao.JobsDAO.DBTables;
+import com.gamingmesh.jobs.dao.JobsDAO.JobsTableFields;
+import com.gamingmesh.jobs.dao.JobsDAO.PointsTableFields;
+import com.gamingmesh.jobs.dao.JobsDAO.UserTableFields;
+
+/**
+ * Write-behind persistence of player data and block protections.
+ * <p>
+ * Changes are kept in memory by the changed flags of the saved data and flushed in batched
+ * transactions on a single dedicated thread, every save period and when a player save is queued.
+ * Between flushes the changed values are appended to a local journal, one line per changed
+ * job progression, points, quests or protected block. The values are read on the main thread,
+ * which changes them, and written by the write-behind thread. A key is only appended again when its
+ * value changed, and the journal is removed after every successful flush. Records of players
+ * saved in between are dropped from the journal, so older values are never replayed over them.
+ * A journal left over by a crash is replayed on start up.
+ */
+public class JobsWriteBehind {
+
+    private static final String JOURNAL_TYPE_JOB = "J", JOURNAL_TYPE_POINTS = "P", JOURNAL_TYPE_QUESTS = "Q", JOURNAL_TYPE_BLOCK = "B";
+
+    private final JobsDAO dao;
+    private final File journalFile;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "Jobs-WriteBehind"));
+
+    // Only used from the executor thread
+    private final Map<String, String> journaled = new HashMap<>();
+    private BufferedWriter journal;
+
+    private BukkitTask journalTask;
+
+    public JobsWriteBehind(JobsDAO dao, File journalFile) {
+	this.dao = dao;
+	this.journalFile = journalFile;
+    }
+
+    /**
+     * Starts the periodic flush and journal tasks.
+     *
+     * @param savePeriod minutes between flushes
+     * @param journalInterval seconds between journal writes, 0 to disable the journal
+     * @param rankingsInterval minutes between reads of the rankings changed by other servers, 0 to disable
+     */
+    public void start(int savePeriod, int journalInterval, int rankingsInterval) {
+	executor.scheduleWithFixedDelay(() -> run(this::flush), savePeriod, savePeriod, TimeUnit.MINUTES);
+
+	if (journalInterval > 0)
+	    journalTask = Bukkit.getScheduler().runTaskTimer(Jobs.getInstance(), this::snapshotJournal, journalInterval * 20L,
+		journalInterval * 20L);
+
+	// Full read of the jobs table, so not done with every save
+	if (rankingsInterval > 0)
+	    executor.scheduleWithFixedDelay(() -> run(() -> Jobs.getLeaderboards().load()), rankingsInterval, rankingsInterval, TimeUnit.MINUTES);
+
+	Jobs.consoleMsg("&e[Jobs] Started database save task.");
+    }
+
+    /**
+     * Queues the save of the given player, which is done on the write-behind thread.
+     *
+     * @param jPlayer {@link JobsPlayer}
+     */
+    public void queue(JobsPlayer jPlayer) {
+	if (executor.isShutdown()) {
+	    jPlayer.save();
+	    return;
+	}
+
+	executor.execute(() -> run(() -> {
+	    jPlayer.save();
+	    pruneJournal(Collections.singletonList(jPlayer));
+	}));
+    }
+
+    /**
+     * Stops the scheduled tasks, waits for the queued saves and flushes every remaining change
+     * on the calling thread.
+     */
+    public void shutdown() {
+	if (journalTask != null) {
+	    journalTask.cancel();
+	    journalTask = null;
+	}
+
+	executor.shutdown();
+
+	try {
+	    if (!executor.awaitTermination(30, TimeUnit.SECONDS))
+		Jobs.consoleMsg("&c[Jobs] Database save task did not finish in time!");
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	}
+
+	flush();
+	closeJournal();
+
+	Jobs.consoleMsg("&e[Jobs] Database save task shutdown!");
+    }
+
+    private static void run(Runnable task) {
+	try {
+	    task.run();
+	} catch (Throwable t) {
+	    t.printStackTrace();
+	    Jobs.consoleMsg("&c[Jobs] Exception in database save task!");
+	}
+    }
+
+    private void flush() {
+	List<JobsPlayer> unsaved = Jobs.getPlayerManager().getUnsavedPlayers();
+
+	if (Jobs.getPlayerManager().saveAll())
+	    resetJournal();
+	else
+	    pruneJournal(unsaved);
+
+	dao.checkpoint();
+    }
+
+    /**
+     * Reads the changed values on the main thread and hands them to the write-behind thread.
+     */
+    private void snapshotJournal() {
+	if (executor.isShutdown())
+	    return;
+
+	Map<String, String> records = new LinkedHashMap<>();
+
+	for (JobsPlayer jPlayer : Jobs.getPlayerManager().getUnsavedPlayers()) {
+	    int userId = jPlayer.getUserId();
+	    if (userId == -1)
+		continue;
+
+	    for (JobProgression prog : jPlayer.getJobProgression()) {
+		if (prog.isChanged())
+		    records.put(JOURNAL_TYPE_JOB + "\t" + userId + "\t" + prog.getJob().getId(), prog.getLevel() + "\t" + prog.getExperience());
+	    }
+
+	    PlayerPoints points = jPlayer.getPointsData();
+	    if (points.isChanged())
+		records.put(JOURNAL_TYPE_POINTS + "\t" + userId, points.getCurrentPoints() + "\t" + points.getTotalPoints());
+
+	    if (jPlayer.isQuestsChanged()) {
+		String quests = jPlayer.getQuestProgressionString();
+		records.put(JOURNAL_TYPE_QUESTS + "\t" + userId, jPlayer.getDoneQuests() + "\t" + (quests == null ? "" : quests));
+	    }
+	}
+
+	if (Jobs.getGCManager().useBlockProtection) {
+	    for (Entry<World, ConcurrentHashMap<Long, BlockProtection>> world : Jobs.getBpManager().getTempCache().entrySet()) {
+		for (Entry<Long, BlockProtection> one : world.getValue().entrySet()) {
+		    BlockProtection bp = one.getValue();
+		    // Only stored protections can be deleted, by their id
+		    if (bp.getAction() == DBAction.NONE || (bp.getAction() == DBAction.DELETE && bp.getId() == 0))
+			continue;
+
+		    records.put(JOURNAL_TYPE_BLOCK + "\t" + world.getKey().getName() + "\t" + bp.getX() + "\t" + bp.getY() + "\t" + bp.getZ(),
+			bp.getId() + "\t" + bp.getAction() + "\t" + bp.getRecorded() + "\t" + bp.getTime());
+		}
+	    }
+	}
+
+	if (!records.isEmpty())
+	    executor.execute(() -> run(() -> writeJournal(records)));
+    }
+
+    private void writeJournal(Map<String, String> records) {
+	try {
+	    boolean written = false;
+
+	    for (Entry<String, String> one : records.entrySet()) {
+		if (one.getValue().equals(journaled.put(one.getKey(), one.getValue())))
+		    continue;
+
+		if (journal == null)
+		    journal = Files.newBufferedWriter(journalFile.toPath(), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+
+		journal.write(one.getKey() + "\t" + one.getValue());
+		journal.newLine();
+		written = true;
+	    }
+
+	    if (written)
+		journal.flush();
+	} catch (IOException e) {
+	    Jobs.consoleMsg("&c[Jobs] Could not write save journal: " + e.getMessage());
+	}
+    }
+
+    /**
+     * Drops the journaled records of the given players which are saved now and rewrites the
+     * journal with the remaining records.
+     *
+     * @param players the players which were saved
+     */
+    private void pruneJournal(Collection<JobsPlayer> players) {
+	Set<String> saved = new HashSet<>();
+	for (JobsPlayer jPlayer : players) {
+	    if (jPlayer.isSaved())
+		saved.add(Integer.toString(jPlayer.getUserId()));
+	}
+
+	// Keys of player records start with type and user id
+	if (saved.isEmpty() || !journaled.keySet().removeIf(key -> {
+	    String[] split = key.split("\t", 3);
+	    return !split[0].equals(JOURNAL_TYPE_BLOCK) && saved.contains(split[1]);
+	}))
+	    return;
+
+	if (journaled.isEmpty()) {
+	    resetJournal();
+	    return;
+	}
+
+	closeJournal();
+
+	File temp = new File(journalFile.getParentFile(), journalFile.getName() + ".tmp");
+	try {
+	    try (BufferedWriter writer = Files.newBufferedWriter(temp.toPath(), StandardCharsets.UTF_8)) {
+		for (Entry<String, String> one : journaled.entrySet()) {
+		    writer.write(one.getKey() + "\t" + one.getValue());
+		    writer.newLine();
+		}
+	    }
+
+	    Files.move(temp.toPath(), journalFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	} catch (IOException e) {
+	    Jobs.consoleMsg("&c[Jobs] Could not rewrite save journal: " + e.getMessage());
+	}
+    }
+
+    private void resetJournal() {
+	closeJournal();
+	journaled.clear();
+
+	if (journalFile.exists() && !journalFile.delete())
+	    Jobs.consoleMsg("&c[Jobs] Could not remove save journal " + journalFile.getName());
+    }
+
+    private void closeJournal() {
+	if (journal == null)
+	    return;
+
+	try {
+	    journal.close();
+	} catch (IOException e) {
+	    e.printStackTrace();
+	}
+
+	journal = null;
+    }
+
+    /**
+     * Writes the changes left in the journal by a previous run into the database. This should be called
+     * after the jobs and worlds were loaded and before any player data is loaded.
+     */
+    public void replayJournal() {
+	if (!journalFile.isFile())
+	    return;
+
+	// Later lines hold newer values of the same key
+	Map<String, String[]> records = new LinkedHashMap<>();
+	try (BufferedReader reader = Files.newBufferedReader(journalFile.toPath(), StandardCharsets.UTF_8)) {
+	    String line;
+	    while ((line = reader.readLine()) != null) {
+		String[] split = line.split("\t", -1);
+		int keyLength = getKeyLength(split[0]);
+		if (keyLength == -1 || split.length < keyLength + 2)
+		    continue;
+
+		records.put(String.join("\t", Arrays.copyOf(split, keyLength)), split);
+	    }
+	} catch (IOException e) {
+	    Jobs.consoleMsg("&c[Jobs] Could not read save journal: " + e.getMessage());
+	    return;
+	}
+
+	if (records.isEmpty() || applyJournal(records.values())) {
+	    if (!records.isEmpty())
+		Jobs.consoleMsg("&e[Jobs] Restored " + records.size() + " unsaved changes from save journal");
+
+	    resetJournal();
+	} else {
+	    File failed = new File(journalFile.getParentFile(), journalFile.getName() + "." + System.currentTimeMillis() + ".failed");
+	    Jobs.consoleMsg("&c[Jobs] Could not restore save journal, keeping it as " + failed.getName());
+	    journalFile.renameTo(failed);
+	}
+    }
+
+    private static int getKeyLength(String type) {
+	switch (type) {
+	case JOURNAL_TYPE_JOB:
+	    return 3;
+	case JOURNAL_TYPE_POINTS:
+	case JOURNAL_TYPE_QUESTS:
+	    return 2;
+	case JOURNAL_TYPE_BLOCK:
+	    return 5;
+	default:
+	    return -1;
+	}
+    }
+
+    private boolean applyJournal(Iterable<String[]> records) {
+	try (JobsConnection conn = dao.getConnection()) {
+	    if (conn == null)
+		return false;
+
+	    Map<String, ConcurrentHashMap<Long, BlockProtection>> blocks = new HashMap<>();
+
+	    PreparedStatement jobsUpdate = null, pointsDelete = null, pointsInsert = null, questsUpdate = null;
+	    try {
+		conn.setAutoCommit(false);
+
+		jobsUpdate = conn.prepareStatement("UPDATE `" + dao.getJobsTableName() + "` SET `" + JobsTableFields.level.getCollumn() + "` = ?, `"
+		    + JobsTableFields.experience.getCollumn() + "` = ? WHERE `" + JobsTableFields.userid.getCollumn() + "` = ? AND `"
+		    + JobsTableFields.jobid.getCollumn() + "` = ?;");
+		pointsDelete = conn.prepareStatement("DELETE FROM `" + DBTables.PointsTable.getTableName() + "` WHERE `" + PointsTableFields.userid.getCollumn()
+		    + "` = ?;");
+		pointsInsert = conn.prepareStatement("INSERT INTO `" + DBTables.PointsTable.getTableName() + "` (`" + PointsTableFields.totalpoints.getCollumn()
+		    + "`, `" + PointsTableFields.currentpoints.getCollumn()
+		    + "`, `" + PointsTableFields.userid.getCollumn() + "`) VALUES (?, ?, ?);");
+		questsUpdate = conn.prepareStatement("UPDATE `" + DBTables.UsersTable.getTableName() + "` SET `" + UserTableFields.donequests.getCollumn()
+		    + "` = ?, `" + UserTableFields.quests.getCollumn()
+		    + "` = ? WHERE `id` = ?;");
+
+		for (String[] record : records) {
+		    try {
+			switch (record[0]) {
+			case JOURNAL_TYPE_JOB:
+			    jobsUpdate.setInt(1, Integer.parseInt(record[3]));
+			    jobsUpdate.setDouble(2, Double.parseDouble(record[4]));
+			    jobsUpdate.setInt(3, Integer.parseInt(record[1]));
+			    jobsUpdate.setInt(4, Integer.parseInt(record[2]));
+			    jobsUpdate.addBatch();
+			    break;
+			case JOURNAL_TYPE_POINTS:
+			    int userId = Integer.parseInt(record[1]);
+			    double current = Double.parseDouble(record[2]), total = Double.parseDouble(record[3]);
+
+			    pointsDelete.setInt(1, userId);
+			    pointsDelete.addBatch();
+
+			    pointsInsert.setDouble(1, total);
+			    pointsInsert.setDouble(2, current);
+			    pointsInsert.setInt(3, userId);
+			    pointsInsert.addBatch();
+			    break;
+			case JOURNAL_TYPE_QUESTS:
+			    questsUpdate.setInt(1, Integer.parseInt(record[2]));
+			    questsUpdate.setString(2, record[3].isEmpty() ? null : record[3]);
+			    questsUpdate.setInt(3, Integer.parseInt(record[1]));
+			    questsUpdate.addBatch();
+			    break;
+			case JOURNAL_TYPE_BLOCK:
+			    if (record.length < 9)
+				break;
+
+			    int x = Integer.parseInt(record[2]), y = Integer.parseInt(record[3]), z = Integer.parseInt(record[4]);
+
+			    BlockProtection bp = new BlockProtection(DBAction.valueOf(record[6]), x, y, z);
+			    bp.setId(Integer.parseInt(record[5]));
+			    bp.setTime(Long.parseLong(record[8]));
+			    bp.setRecorded(Long.parseLong(record[7]));
+
+			    blocks.computeIfAbsent(record[1], w -> new ConcurrentHashMap<>()).put(BlockProtectionStore.pack(x, y, z), bp);
+			    break;
+			default:
+			    break;
+			}
+		    } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+			// Partially written line
+		    }
+		}
+
+		// Deletes need to run before the inserts of the same rows
+		jobsUpdate.executeBatch();
+		pointsDelete.executeBatch();
+		pointsInsert.executeBatch();
+		questsUpdate.executeBatch();
+
+		conn.commit();
+	    } catch (SQLException e) {
+		e.printStackTrace();
+		try {
+		    conn.getConnection().rollback();
+		} catch (SQLException ex) {
+		    ex.printStackTrace();
+		}
+		return false;
+	    } finally {
+		JobsDAO.close(jobsUpdate);
+		JobsDAO.close(pointsDelete);
+		JobsDAO.close(pointsInsert);
+		JobsDAO.close(questsUpdate);
+		try {
+		    conn.setAutoCommit(true);
+		} catch (SQLException e) {
+		    e.printStackTrace();
+		}
+	    }
+
+	    boolean saved = true;
+	    for (Entry<String, ConcurrentHashMap<Long, BlockProtection>> one : blocks.entrySet()) {
+		if (!dao.saveBlockProtection(one.getKey(), one.getValue()))
+		    saved = false;
+	    }
+
+	    return saved;
+	}
+    }
+
+    /**
+     * @return the journal file, which only exists while there are unsaved changes
+     */
+    public File getJournalFile() {
+	return journalFile;
+    }
+}
@@ -18,6 +18,8 @@
 
 package com.gamingmesh.jobs.economy;
 
+import java.util.Map;
+
 import org.bukkit.OfflinePlayer;
 
 public class BlackholeEconomy implements Economy {
@@ -55,4 +57,8 @@ public class BlackholeEconomy implements Economy {
     public boolean depositPlayer(String PlayerName, double money) {
 	return true;
     }
+
+    @Override
+    public void depositPlayers(Map<OfflinePlayer, Double> deposits) {
+    }
 }
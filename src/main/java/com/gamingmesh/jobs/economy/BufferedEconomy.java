@@ -22,6 +22,7 @@ import com.gamingmesh.jobs.Jobs;
 import com.gamingmesh.jobs.CMILib.ActionBarManager;
 import com.gamingmesh.jobs.CMILib.Version;
 import com.gamingmesh.jobs.api.JobsPaymentEvent;
+import com.gamingmesh.jobs.api.JobsPaymentSummaryEvent;
 import com.gamingmesh.jobs.container.CurrencyType;
 import com.gamingmesh.jobs.container.JobsPlayer;
 import com.gamingmesh.jobs.stuff.ToggleBarHandling;
@@ -30,20 +31,29 @@ import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
 
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.UUID;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class BufferedEconomy {
 
     private Jobs plugin;
     private Economy economy;
 
-    private final BlockingQueue<BufferedPayment> payments = new LinkedBlockingQueue<>();
-    private final Map<UUID, BufferedPayment> paymentCache = Collections.synchronizedMap(new HashMap<UUID, BufferedPayment>());
+    // Combined pending payment of each player, updated under the lock of its own map bin only
+    private final Map<UUID, BufferedPayment> payments = new ConcurrentHashMap<>();
+
+    // Payments waiting for deposit, drained by a single task in limited amounts per tick
+    private final Queue<BufferedPayment> deposits = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean depositing = new AtomicBoolean(false);
+    private final AtomicInteger depositCount = new AtomicInteger();
+    private volatile long depositsWaitingSince = 0L;
 
     private OfflinePlayer serverTaxesAccount;
 
@@ -69,12 +79,37 @@ public class BufferedEconomy {
 	pay(new BufferedPayment(player.getPlayer(), payments));
     }
 
+    /**
+     * Add payment to player's payment buffer
+     * @param player - player to be paid
+     * @param money the amount of money
+     * @param points the amount of points
+     * @param exp the amount of experience
+     */
+    public void pay(JobsPlayer player, double money, double points, double exp) {
+	pay(new BufferedPayment(player.getPlayer(), money, points, exp));
+    }
+
     /**
      * Add payment to player's payment buffer
      * @param payment - payment to be paid
      */
     public void pay(BufferedPayment payment) {
-	payments.add(payment);
+	OfflinePlayer offlinePlayer = payment.getOfflinePlayer();
+	if (offlinePlayer == null)
+	    return;
+
+	double money = payment.get(CurrencyType.MONEY), points = payment.get(CurrencyType.POINTS),
+	    exp = payment.get(CurrencyType.EXP);
+
+	// Never keep the given instance, callers are free to reuse it
+	payments.compute(offlinePlayer.getUniqueId(), (uuid, pending) -> {
+	    if (pending == null)
+		return new BufferedPayment(offlinePlayer, money, points, exp);
+
+	    pending.add(money, points, exp);
+	    return pending;
+	});
     }
 
     public String format(double money) {
@@ -83,114 +118,86 @@ public class BufferedEconomy {
 
     /**
      * Payout all players the amount they are going to be paid
+     * <p>
+     * This should only be called from one thread at a time, the payment thread.
      */
     @SuppressWarnings("deprecation")
     public void payAll() {
 	if (payments.isEmpty() || !plugin.isEnabled())
 	    return;
 
-	synchronized (paymentCache) {
+	double totalAmount = 0.0, taxesAmount = 0.0;
 
-	    double totalAmount = 0.0, taxesAmount = 0.0;
+	List<BufferedPayment> paymentCache = new ArrayList<>(payments.size());
 
-	    // combine all payments using paymentCache
-	    while (!payments.isEmpty()) {
-		BufferedPayment payment = payments.remove();
-		double money = payment.get(CurrencyType.MONEY);
+	// take out the combined payment of every player, new payments will start a new entry
+	for (UUID uuid : payments.keySet()) {
+	    BufferedPayment payment = payments.remove(uuid);
+	    if (payment == null)
+		continue;
 
-		totalAmount += money;
+	    double money = payment.get(CurrencyType.MONEY);
 
-		if (Jobs.getGCManager().UseTaxes) {
-		    taxesAmount += money * (Jobs.getGCManager().TaxesAmount / 100.0);
-		}
+	    totalAmount += money;
 
-		OfflinePlayer offPlayer = payment.getOfflinePlayer();
-		if (offPlayer == null)
-		    continue;
+	    if (Jobs.getGCManager().UseTaxes) {
+		taxesAmount += money * (Jobs.getGCManager().TaxesAmount / 100.0);
+	    }
+
+	    OfflinePlayer offPlayer = payment.getOfflinePlayer();
+
+	    if (Jobs.getGCManager().TakeFromPlayersPayment && Jobs.getGCManager().UseTaxes &&
+		((offPlayer.isOnline() && !offPlayer.getPlayer().hasPermission("jobs.tax.bypass")) || !offPlayer.isOnline())) {
+		JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(uuid);
+		double moneyTaxAmount = Jobs.getPermissionManager().getMaxPermission(jPlayer, "jobs.tax.money", false, false);
+		if (moneyTaxAmount == 0D) {
+		    moneyTaxAmount = Jobs.getGCManager().TaxesAmount;
+		}
 
-		BufferedPayment existing = paymentCache.get(offPlayer.getUniqueId());
-		if (existing != null) {
-		    double points = payment.get(CurrencyType.POINTS);
-		    double exp = payment.get(CurrencyType.EXP);
-
-		    if (Jobs.getGCManager().TakeFromPlayersPayment && Jobs.getGCManager().UseTaxes &&
-			((offPlayer.isOnline() && !offPlayer.getPlayer().hasPermission("jobs.tax.bypass")) || !offPlayer.isOnline())) {
-			JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(offPlayer.getUniqueId());
-			double moneyTaxAmount = Jobs.getPermissionManager().getMaxPermission(jPlayer, "jobs.tax.money", false, false);
-			if (moneyTaxAmount == 0D) {
-			    moneyTaxAmount = Jobs.getGCManager().TaxesAmount;
-			}
-
-			double pointsTaxAmount = Jobs.getPermissionManager().getMaxPermission(jPlayer, "jobs.tax.points", false, false);
-			if (pointsTaxAmount == 0D) {
-			    pointsTaxAmount = Jobs.getGCManager().TaxesAmount;
-			}
-
-			money = money - (money * (moneyTaxAmount / 100.0));
-			points = points - (points * (pointsTaxAmount / 100.0));
-		    }
-
-		    existing.set(CurrencyType.MONEY, existing.get(CurrencyType.MONEY) + money);
-		    existing.set(CurrencyType.POINTS, existing.get(CurrencyType.POINTS) + points);
-		    existing.set(CurrencyType.EXP, existing.get(CurrencyType.EXP) + exp);
-		} else {
-		    double points = payment.get(CurrencyType.POINTS);
-
-		    if (Jobs.getGCManager().TakeFromPlayersPayment && Jobs.getGCManager().UseTaxes &&
-			((offPlayer.isOnline() && !offPlayer.getPlayer().hasPermission("jobs.tax.bypass")) || !offPlayer.isOnline())) {
-			JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(offPlayer.getUniqueId());
-			double moneyTaxAmount = Jobs.getPermissionManager().getMaxPermission(jPlayer, "jobs.tax.money", false, false);
-			if (moneyTaxAmount == 0D) {
-			    moneyTaxAmount = Jobs.getGCManager().TaxesAmount;
-			}
-
-			double pointsTaxAmount = Jobs.getPermissionManager().getMaxPermission(jPlayer, "jobs.tax.points", false, false);
-			if (pointsTaxAmount == 0D) {
-			    pointsTaxAmount = Jobs.getGCManager().TaxesAmount;
-			}
-
-			money = money - (money * (moneyTaxAmount / 100.0));
-			points = points - (points * (pointsTaxAmount / 100.0));
-
-			payment.set(CurrencyType.MONEY, money);
-			payment.set(CurrencyType.POINTS, points);
-		    }
-
-		    paymentCache.put(offPlayer.getUniqueId(), payment);
+		double pointsTaxAmount = Jobs.getPermissionManager().getMaxPermission(jPlayer, "jobs.tax.points", false, false);
+		if (pointsTaxAmount == 0D) {
+		    pointsTaxAmount = Jobs.getGCManager().TaxesAmount;
 		}
+
+		double points = payment.get(CurrencyType.POINTS);
+
+		payment.set(CurrencyType.MONEY, money - (money * (moneyTaxAmount / 100.0)));
+		payment.set(CurrencyType.POINTS, points - (points * (pointsTaxAmount / 100.0)));
 	    }
 
-	    String serverAccountName = Jobs.getGCManager().ServerAccountName;
+	    paymentCache.add(payment);
+	}
 
-	    if (serverTaxesAccount == null)
-		serverTaxesAccount = Bukkit.getOfflinePlayer(Jobs.getGCManager().ServertaxesAccountName);
+	String serverAccountName = Jobs.getGCManager().ServerAccountName;
 
-	    if (Jobs.getGCManager().UseTaxes && Jobs.getGCManager().TransferToServerAccount && serverTaxesAccount != null) {
-		if (taxesAmount > 0) {
-		    economy.depositPlayer(serverTaxesAccount, taxesAmount);
-		}
+	if (serverTaxesAccount == null)
+	    serverTaxesAccount = Bukkit.getOfflinePlayer(Jobs.getGCManager().ServertaxesAccountName);
 
-		if (Jobs.getGCManager().ActionBarsMessageByDefault && serverTaxesAccount.isOnline()) {
-		    ActionBarManager.send(Bukkit.getPlayer(serverAccountName),
-			Jobs.getLanguage().getMessage("message.taxes", "[amount]", (int) (totalAmount * 100) / 100.0));
-		}
+	if (Jobs.getGCManager().UseTaxes && Jobs.getGCManager().TransferToServerAccount && serverTaxesAccount != null) {
+	    if (taxesAmount > 0) {
+		economy.depositPlayer(serverTaxesAccount, taxesAmount);
 	    }
 
-	    boolean hasMoney = false;
-	    if (Jobs.getGCManager().UseServerAccount && economy.hasMoney(serverAccountName, totalAmount)) {
-		hasMoney = true;
-		economy.withdrawPlayer(serverAccountName, totalAmount);
+	    if (Jobs.getGCManager().ActionBarsMessageByDefault && serverTaxesAccount.isOnline()) {
+		ActionBarManager.send(Bukkit.getPlayer(serverAccountName),
+		    Jobs.getLanguage().getMessage("message.taxes", "[amount]", (int) (totalAmount * 100) / 100.0));
 	    }
+	}
 
-	    // Schedule all payments
-	    int i = 0;
-	    for (BufferedPayment payment : paymentCache.values()) {
-		i++;
+	boolean hasMoney = false;
+	if (Jobs.getGCManager().UseServerAccount && economy.hasMoney(serverAccountName, totalAmount)) {
+	    hasMoney = true;
+	    economy.withdrawPlayer(serverAccountName, totalAmount);
+	}
 
-		if (payment.getOfflinePlayer() == null)
-		    continue;
+	// Only collected when somebody listens for the summary
+	List<BufferedPayment> scheduled = Jobs.hasListeners(JobsPaymentSummaryEvent.getHandlerList())
+	    ? new ArrayList<>(paymentCache.size()) : null;
 
-		// JobsPayment event
+	// Schedule all payments
+	for (BufferedPayment payment : paymentCache) {
+	    // JobsPayment event
+	    if (Jobs.hasListeners(JobsPaymentEvent.getHandlerList())) {
 		JobsPaymentEvent jobsPaymentEvent = new JobsPaymentEvent(payment.getOfflinePlayer(), payment.getPayment());
 		Bukkit.getServer().getPluginManager().callEvent(jobsPaymentEvent);
 		// If event is canceled, dont do anything
@@ -198,29 +205,104 @@ public class BufferedEconomy {
 		    continue;
 
 		// Do we need this?
-		payment.getPayment().putAll(jobsPaymentEvent.getPayment());
-
-		if (Jobs.getGCManager().UseServerAccount && !hasMoney) {
-		    ActionBarManager.send(payment.getOfflinePlayer().getPlayer(), Jobs.getLanguage().getMessage("economy.error.nomoney"));
-		    continue;
+		for (Map.Entry<CurrencyType, Double> one : jobsPaymentEvent.getPayment().entrySet()) {
+		    if (one.getValue() != null)
+			payment.set(one.getKey(), one.getValue());
 		}
+	    }
 
-		if (Jobs.getGCManager().isEconomyAsync())
-		    Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, new BufferedPaymentTask(this, economy, payment), i);
-		else
-		    Bukkit.getScheduler().runTaskLater(plugin, new BufferedPaymentTask(this, economy, payment), i);
+	    if (Jobs.getGCManager().UseServerAccount && !hasMoney) {
+		ActionBarManager.send(payment.getOfflinePlayer().getPlayer(), Jobs.getLanguage().getMessage("economy.error.nomoney"));
+		continue;
+	    }
 
-		// Show players payment stuff
-		showPayment(payment);
+	    queueDeposit(payment);
 
-		if (Version.getCurrent().isHigher(Version.v1_8_R3) && payment.getOfflinePlayer().isOnline()) {
-		    Jobs.getBBManager().ShowJobProgression(Jobs.getPlayerManager().getJobsPlayer(payment.getOfflinePlayer().getUniqueId()));
-		}
-	    }
+	    if (scheduled != null)
+		scheduled.add(payment);
+
+	    // Show players payment stuff
+	    showPayment(payment);
 
-	    // empty payment cache
-	    paymentCache.clear();
+	    if (Version.getCurrent().isHigher(Version.v1_8_R3) && payment.getOfflinePlayer().isOnline()) {
+		Jobs.getBBManager().ShowJobProgression(Jobs.getPlayerManager().getJobsPlayer(payment.getOfflinePlayer().getUniqueId()));
+	    }
 	}
+
+	scheduleDeposits();
+
+	if (scheduled != null && !scheduled.isEmpty())
+	    Bukkit.getServer().getPluginManager().callEvent(new JobsPaymentSummaryEvent(scheduled));
+    }
+
+    /**
+     * Starts the deposit task in the next tick if there are waiting payments
+     * and the task is not running already.
+     */
+    private void scheduleDeposits() {
+	if (deposits.isEmpty() || !plugin.isEnabled() || !depositing.compareAndSet(false, true))
+	    return;
+
+	BufferedPaymentTask task = new BufferedPaymentTask(this, economy, Jobs.getGCManager().getEconomyPaymentsPerTick(),
+	    Jobs.getGCManager().getEconomyMaxMillisPerTick());
+
+	if (Jobs.getGCManager().isEconomyAsync())
+	    Bukkit.getScheduler().runTaskLaterAsynchronously(plugin, task, 1);
+	else
+	    Bukkit.getScheduler().runTaskLater(plugin, task, 1);
+    }
+
+    /**
+     * Called by {@link BufferedPaymentTask} after each run to continue with the
+     * remaining payments in the next tick.
+     */
+    public void depositsProcessed() {
+	depositing.set(false);
+	scheduleDeposits();
+    }
+
+    private void queueDeposit(BufferedPayment payment) {
+	if (depositCount.getAndIncrement() == 0)
+	    depositsWaitingSince = System.currentTimeMillis();
+
+	deposits.add(payment);
+    }
+
+    /**
+     * Takes the next payment waiting for deposit.
+     * 
+     * @return {@link BufferedPayment} or null if there is nothing to deposit
+     */
+    public BufferedPayment pollDeposit() {
+	BufferedPayment payment = deposits.poll();
+	if (payment != null && depositCount.decrementAndGet() == 0)
+	    depositsWaitingSince = 0L;
+
+	return payment;
+    }
+
+    /**
+     * @return the amount of players with payments not yet taken by {@link #payAll()}
+     */
+    public int getPendingPayments() {
+	return payments.size();
+    }
+
+    /**
+     * @return the amount of payments waiting for deposit
+     */
+    public int getQueuedDeposits() {
+	return depositCount.get();
+    }
+
+    /**
+     * Returns how long the deposit queue is not empty.
+     * 
+     * @return time in milliseconds, 0 if there is nothing to deposit
+     */
+    public long getDepositLag() {
+	long since = depositsWaitingSince;
+	return since == 0L ? 0L : System.currentTimeMillis() - since;
     }
 
     /**
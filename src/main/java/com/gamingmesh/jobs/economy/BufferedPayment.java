@@ -18,8 +18,12 @@
 
 package com.gamingmesh.jobs.economy;
 
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 import org.bukkit.OfflinePlayer;
 
@@ -29,13 +33,23 @@ public class BufferedPayment {
 
     private OfflinePlayer offlinePlayer;
 
-    private final Map<CurrencyType, Double> payments = new HashMap<>();
+    private double money, points, exp;
 
     public BufferedPayment(OfflinePlayer offlinePlayer, Map<CurrencyType, Double> payments) {
 	this.offlinePlayer = offlinePlayer;
 
 	// This can contain only one value instead of all possible ones
-	this.payments.putAll(payments);
+	for (Map.Entry<CurrencyType, Double> one : payments.entrySet()) {
+	    if (one.getValue() != null)
+		set(one.getKey(), one.getValue());
+	}
+    }
+
+    public BufferedPayment(OfflinePlayer offlinePlayer, double money, double points, double exp) {
+	this.offlinePlayer = offlinePlayer;
+	this.money = money;
+	this.points = points;
+	this.exp = exp;
     }
 
     public OfflinePlayer getOfflinePlayer() {
@@ -43,22 +57,167 @@ public class BufferedPayment {
     }
 
     public double get(CurrencyType type) {
-	return payments.getOrDefault(type, 0d);
+	switch (type) {
+	case MONEY:
+	    return money;
+	case POINTS:
+	    return points;
+	case EXP:
+	    return exp;
+	default:
+	    return 0D;
+	}
     }
 
     public Double set(CurrencyType type, double amount) {
-	return payments.put(type, amount);
+	double old = get(type);
+
+	switch (type) {
+	case MONEY:
+	    money = amount;
+	    break;
+	case POINTS:
+	    points = amount;
+	    break;
+	case EXP:
+	    exp = amount;
+	    break;
+	default:
+	    break;
+	}
+
+	return old;
+    }
+
+    /**
+     * Adds the given amounts to this payment.
+     * 
+     * @param money the amount of money
+     * @param points the amount of points
+     * @param exp the amount of experience
+     */
+    public void add(double money, double points, double exp) {
+	this.money += money;
+	this.points += points;
+	this.exp += exp;
     }
 
     public boolean containsPayment() {
-	for (Double one : payments.values()) {
-	    if (one != 0D)
-		return true;
-	}
-	return false;
+	return money != 0D || points != 0D || exp != 0D;
     }
 
+    /**
+     * Returns the amounts of this payment as {@link Map}. The map is a view of
+     * this payment, changes made to it are written back and removing a
+     * currency sets its amount to 0.
+     * 
+     * @return {@link Map}
+     */
     public Map<CurrencyType, Double> getPayment() {
-	return payments;
+	return new PaymentView();
+    }
+
+    private final class PaymentView extends AbstractMap<CurrencyType, Double> {
+
+	@Override
+	public Double get(Object key) {
+	    return key instanceof CurrencyType ? BufferedPayment.this.get((CurrencyType) key) : null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+	    return key instanceof CurrencyType;
+	}
+
+	@Override
+	public Double put(CurrencyType key, Double value) {
+	    return set(key, value == null ? 0D : value);
+	}
+
+	@Override
+	public Double remove(Object key) {
+	    return key instanceof CurrencyType ? set((CurrencyType) key, 0D) : null;
+	}
+
+	@Override
+	public void clear() {
+	    money = points = exp = 0D;
+	}
+
+	@Override
+	public int size() {
+	    return CurrencyType.values().length;
+	}
+
+	@Override
+	public Set<Map.Entry<CurrencyType, Double>> entrySet() {
+	    return new AbstractSet<Map.Entry<CurrencyType, Double>>() {
+
+		@Override
+		public Iterator<Map.Entry<CurrencyType, Double>> iterator() {
+		    CurrencyType[] types = CurrencyType.values();
+
+		    return new Iterator<Map.Entry<CurrencyType, Double>>() {
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+			    return index < types.length;
+			}
+
+			@Override
+			public Map.Entry<CurrencyType, Double> next() {
+			    if (!hasNext())
+				throw new NoSuchElementException();
+
+			    return new PaymentEntry(types[index++]);
+			}
+		    };
+		}
+
+		@Override
+		public int size() {
+		    return PaymentView.this.size();
+		}
+	    };
+	}
+    }
+
+    private final class PaymentEntry implements Map.Entry<CurrencyType, Double> {
+
+	private final CurrencyType type;
+
+	private PaymentEntry(CurrencyType type) {
+	    this.type = type;
+	}
+
+	@Override
+	public CurrencyType getKey() {
+	    return type;
+	}
+
+	@Override
+	public Double getValue() {
+	    return get(type);
+	}
+
+	@Override
+	public Double setValue(Double value) {
+	    return set(type, value == null ? 0D : value);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+	    if (!(o instanceof Map.Entry))
+		return false;
+
+	    Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+	    return type == e.getKey() && getValue().equals(e.getValue());
+	}
+
+	@Override
+	public int hashCode() {
+	    return type.hashCode() ^ getValue().hashCode();
+	}
     }
 }
@@ -18,6 +18,8 @@
 
 package com.gamingmesh.jobs.economy;
 
+import java.util.Map;
+
 import org.bukkit.OfflinePlayer;
 
 public interface Economy {
@@ -34,4 +36,16 @@ public interface Economy {
     boolean withdrawPlayer(String PlayerName, double money);
 
     boolean depositPlayer(String PlayerName, double money);
+
+    /**
+     * Deposits money to several players at once. Implementations can override
+     * this if their backend supports bulk updates.
+     * 
+     * @param deposits the players and the amount of money to deposit
+     */
+    default void depositPlayers(Map<OfflinePlayer, Double> deposits) {
+	for (Map.Entry<OfflinePlayer, Double> one : deposits.entrySet()) {
+	    depositPlayer(one.getKey(), one.getValue());
+	}
+    }
 }
@@ -12,6 +12,7 @@ public class PaymentData {
     private final java.util.Map<CurrencyType, LimitsData> payments = new HashMap<>();
 
     private boolean informed = false;
+    private volatile boolean changed = false;
 
     public PaymentData(Long time, Double Payment, Double Points, Double Exp, Long lastAnnouced, boolean Informed) {
 	payments.put(CurrencyType.EXP, new LimitsData(CurrencyType.EXP, time, Exp));
@@ -79,10 +80,12 @@ public class PaymentData {
 
     public void addNewAmount(CurrencyType type, Double Payment, Long time) {
 	payments.put(type, new LimitsData(type, time == null ? System.currentTimeMillis() : time, Payment));
+	changed = true;
     }
 
     public void addAmount(CurrencyType type, double payment) {
 	payments.get(type).addAmount(payment);
+	changed = true;
     }
 
     public long getLeftTime(CurrencyType type) {
@@ -132,4 +135,15 @@ public class PaymentData {
     public void setInformed(boolean informed) {
 	this.informed = informed;
     }
+
+    /**
+     * @return true if the limits changed since they were last saved
+     */
+    public boolean isChanged() {
+	return changed;
+    }
+
+    public void setChanged(boolean changed) {
+	this.changed = changed;
+    }
 }
@@ -18,6 +18,8 @@
 
 package com.gamingmesh.jobs.economy;
 
+import java.util.Map;
+
 import org.bukkit.OfflinePlayer;
 
 @SuppressWarnings("deprecation")
@@ -38,6 +40,22 @@ public class VaultEconomy implements Economy {
 	return vault.depositPlayer(PlayerName, money).transactionSuccess();
     }
 
+    /**
+     * Deposits the whole batch through one provider lookup, skipping players
+     * which have nothing to receive instead of sending empty transactions.
+     */
+    @Override
+    public void depositPlayers(Map<OfflinePlayer, Double> deposits) {
+	net.milkbowl.vault.economy.Economy provider = vault;
+	for (Map.Entry<OfflinePlayer, Double> one : deposits.entrySet()) {
+	    Double money = one.getValue();
+	    if (money == null || money == 0D)
+		continue;
+
+	    provider.depositPlayer(one.getKey(), money);
+	}
+    }
+
     @Override
     public boolean withdrawPlayer(OfflinePlayer offlinePlayer, double money) {
 	return vault.withdrawPlayer(offlinePlayer, money).transactionSuccess();
@@ -49,13 +49,16 @@ import org.bukkit.event.inventory.InventoryAction;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.event.inventory.InventoryType.SlotType;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
 import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerItemBreakEvent;
 import org.bukkit.event.player.PlayerItemHeldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerLoginEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
 import org.bukkit.event.world.StructureGrowEvent;
 import org.bukkit.event.world.WorldLoadEvent;
 import org.bukkit.inventory.ItemStack;
@@ -143,6 +146,18 @@ public class JobsListener implements Listener {
 	}
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAsyncPlayerPreLogin(AsyncPlayerPreLoginEvent event) {
+	if (event.getLoginResult() == AsyncPlayerPreLoginEvent.Result.ALLOWED)
+	    Jobs.getPlayerManager().preloadPlayer(event.getUniqueId(), event.getName());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerLogin(PlayerLoginEvent event) {
+	if (event.getResult() != PlayerLoginEvent.Result.ALLOWED)
+	    Jobs.getPlayerManager().cancelPreload(event.getPlayer().getUniqueId());
+    }
+
     @EventHandler(priority = EventPriority.HIGHEST)
     public void onPlayerJoin(final PlayerJoinEvent event) {
 	if (!Jobs.getGCManager().MultiServerCompatability())
@@ -167,10 +182,7 @@ public class JobsListener implements Listener {
 
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerQuit(PlayerQuitEvent event) {
-	java.util.concurrent.CompletableFuture.supplyAsync(() -> {
-	    Jobs.getPlayerManager().playerQuit(event.getPlayer());
-	    return true;
-	});
+	Jobs.getPlayerManager().playerQuit(event.getPlayer());
     }
 
     @EventHandler(priority = EventPriority.MONITOR)
@@ -240,6 +252,12 @@ public class JobsListener implements Listener {
 	    Jobs.getSignUtil().saveSigns();
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onSignChunkLoad(ChunkLoadEvent event) {
+	if (Jobs.getGCManager().SignsEnabled)
+	    Jobs.getSignUtil().onChunkLoad(event.getChunk());
+    }
+
     @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
     public void onSignTopListCreate(SignChangeEvent event) {
 	if (!Jobs.getGCManager().SignsEnabled)
@@ -387,16 +387,6 @@ public class JobsPaymentListener implements Listener {
 
 	BlockActionInfo bInfo = new BlockActionInfo(block, ActionType.BREAK);
 
-	FastPayment fp = Jobs.FASTPAYMENT.get(player.getUniqueId());
-	if (fp != null) {
-	    if (fp.getTime() > System.currentTimeMillis() && (fp.getInfo().getName().equalsIgnoreCase(bInfo.getName()) ||
-		fp.getInfo().getNameWithSub().equalsIgnoreCase(bInfo.getNameWithSub()))) {
-		Jobs.perform(fp.getPlayer(), fp.getInfo(), fp.getPayment(), fp.getJob());
-		return;
-	    }
-	    Jobs.FASTPAYMENT.remove(player.getUniqueId());
-	}
-
 	if (!payForItemDurabilityLoss(player))
 	    return;
 
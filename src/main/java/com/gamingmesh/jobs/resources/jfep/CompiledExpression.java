@@ -0,0 +1,458 @@
+/**
+ * Jobs Plugin for Bukkit
+ * Copyright (C) 2011 Zak Ford <zak.j.ford@gmail.com>
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gamingmesh.jobs.resources.jfep;
+
+import java.util.Arrays;
+
+/**
+ * <p><b>Name:</b> CompiledExpression</p>
+ * <p><b>Description:</b>
+ * Flat postfix form of a parsed expression. Variables are resolved to fixed slots
+ * at compile time, so evaluation reads them from a <code>double[]</code> frame
+ * without any name lookup or tree walk.
+ * </p>
+ * <p>
+ * Sub expressions without slot variables are folded into constants. Variables
+ * which are not listed as slots are bound to the value they had in the parsed tree
+ * when the expression was compiled.
+ * </p>
+ * <p>
+ * Instances are immutable and can be evaluated from any thread. The evaluation
+ * stack is a per thread buffer, so the fixed arity evaluate methods do not allocate.
+ * </p>
+ */
+public final class CompiledExpression {
+
+    private static final int PUSH_CONSTANT = 0;
+    private static final int LOAD = 1;
+    private static final int ADD = 2;
+    private static final int SUB = 3;
+    private static final int MUL = 4;
+    private static final int DIV = 5;
+    private static final int MOD = 6;
+    private static final int POW = 7;
+    private static final int ADD_CONSTANT = 8;
+    private static final int SUB_CONSTANT = 9;
+    private static final int MUL_CONSTANT = 10;
+    private static final int DIV_CONSTANT = 11;
+    private static final int MOD_CONSTANT = 12;
+    private static final int POW_CONSTANT = 13;
+    private static final int FUNCTION = 14;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final String[] variables;
+
+    // Pairs of opcode and operand
+    private final int[] code;
+    private final double[] constants;
+    private final int maxStack;
+    private final boolean random;
+
+    private CompiledExpression(String[] variables, int[] code, double[] constants, int maxStack, boolean random) {
+	this.variables = variables;
+	this.code = code;
+	this.constants = constants;
+	this.maxStack = maxStack;
+	this.random = random;
+    }
+
+    /**
+     * Compiles the given expression tree.
+     * @param root root node of parsed tree
+     * @param variables names of the variables to be read from the frame, in slot order
+     * @return compiled expression
+     * @throws EvaluationException if a variable which is not listed was not initialized
+     * and the tree was created with <code>error = true</code>
+     */
+    public static CompiledExpression compile(ExpressionNode root, String... variables) throws EvaluationException {
+	Compiler compiler = new Compiler(variables);
+	compiler.emit(root);
+	return new CompiledExpression(variables.clone(), Arrays.copyOf(compiler.code, compiler.codeSize),
+	    Arrays.copyOf(compiler.constants, compiler.constantsSize), compiler.maxStack, compiler.random);
+    }
+
+    /**
+     * Returns the names of the variables in slot order
+     * @return a copy of the variable names
+     */
+    public String[] getVariables() {
+	return variables.clone();
+    }
+
+    boolean hasVariables(String[] names) {
+	return Arrays.equals(variables, names);
+    }
+
+    /**
+     * Returns the slot of the given variable
+     * @param name name of the variable (case sensitive)
+     * @return slot index or -1 if the variable is not read from the frame
+     */
+    public int getSlot(String name) {
+	for (int i = 0; i < variables.length; i++) {
+	    if (variables[i].equals(name))
+		return i;
+	}
+	return -1;
+    }
+
+    /**
+     * Returns if this expression was folded into a single constant
+     * @return truth value
+     */
+    public boolean isConstant() {
+	return code.length == 2 && code[0] == PUSH_CONSTANT;
+    }
+
+    /**
+     * Returns if the expression uses the rand function, so the same frame can give different values
+     * @return truth value
+     */
+    public boolean isRandom() {
+	return random;
+    }
+
+    /**
+     * Evaluates the expression with one slot
+     * @param a value of slot 0
+     * @return value of expression
+     * @throws IllegalArgumentException if there are more slots
+     */
+    public double evaluate(double a) {
+	checkArity(1);
+	Scratch scratch = SCRATCH.get();
+	scratch.frame[0] = a;
+	return run(scratch, scratch.frame);
+    }
+
+    /**
+     * Evaluates the expression with up to two slots
+     * @param a value of slot 0
+     * @param b value of slot 1
+     * @return value of expression
+     * @throws IllegalArgumentException if there are more slots
+     */
+    public double evaluate(double a, double b) {
+	checkArity(2);
+	Scratch scratch = SCRATCH.get();
+	scratch.frame[0] = a;
+	scratch.frame[1] = b;
+	return run(scratch, scratch.frame);
+    }
+
+    /**
+     * Evaluates the expression with up to three slots
+     * @param a value of slot 0
+     * @param b value of slot 1
+     * @param c value of slot 2
+     * @return value of expression
+     * @throws IllegalArgumentException if there are more slots
+     */
+    public double evaluate(double a, double b, double c) {
+	checkArity(3);
+	Scratch scratch = SCRATCH.get();
+	scratch.frame[0] = a;
+	scratch.frame[1] = b;
+	scratch.frame[2] = c;
+	return run(scratch, scratch.frame);
+    }
+
+    /**
+     * Evaluates the expression with up to four slots
+     * @param a value of slot 0
+     * @param b value of slot 1
+     * @param c value of slot 2
+     * @param d value of slot 3
+     * @return value of expression
+     * @throws IllegalArgumentException if there are more slots
+     */
+    public double evaluate(double a, double b, double c, double d) {
+	checkArity(4);
+	Scratch scratch = SCRATCH.get();
+	scratch.frame[0] = a;
+	scratch.frame[1] = b;
+	scratch.frame[2] = c;
+	scratch.frame[3] = d;
+	return run(scratch, scratch.frame);
+    }
+
+    /**
+     * Evaluates the expression
+     * @param frame values of the variables, indexed by slot
+     * @return value of expression
+     * @throws IllegalArgumentException if the frame has less values than there are slots
+     */
+    public double evaluate(double... frame) {
+	checkArity(frame.length);
+	return run(SCRATCH.get(), frame);
+    }
+
+    private void checkArity(int given) {
+	if (given < variables.length)
+	    throw new IllegalArgumentException("Expected " + variables.length + " variables, got " + given);
+    }
+
+    private double run(Scratch scratch, double[] frame) {
+	if (code.length == 2) {
+	    return code[0] == PUSH_CONSTANT ? constants[code[1]] : frame[code[1]];
+	}
+
+	double[] stack = scratch.stack(maxStack);
+	int top = -1;
+
+	for (int pc = 0; pc < code.length; pc += 2) {
+	    int operand = code[pc + 1];
+
+	    switch (code[pc]) {
+	    case PUSH_CONSTANT:
+		stack[++top] = constants[operand];
+		break;
+	    case LOAD:
+		stack[++top] = frame[operand];
+		break;
+	    case ADD:
+		top--;
+		stack[top] += stack[top + 1];
+		break;
+	    case SUB:
+		top--;
+		stack[top] -= stack[top + 1];
+		break;
+	    case MUL:
+		top--;
+		stack[top] *= stack[top + 1];
+		break;
+	    case DIV:
+		top--;
+		stack[top] /= stack[top + 1];
+		break;
+	    case MOD:
+		top--;
+		stack[top] %= stack[top + 1];
+		break;
+	    case POW:
+		top--;
+		stack[top] = Math.pow(stack[top], stack[top + 1]);
+		break;
+	    case ADD_CONSTANT:
+		stack[top] += constants[operand];
+		break;
+	    case SUB_CONSTANT:
+		stack[top] -= constants[operand];
+		break;
+	    case MUL_CONSTANT:
+		stack[top] *= constants[operand];
+		break;
+	    case DIV_CONSTANT:
+		stack[top] /= constants[operand];
+		break;
+	    case MOD_CONSTANT:
+		stack[top] %= constants[operand];
+		break;
+	    case POW_CONSTANT:
+		stack[top] = Math.pow(stack[top], constants[operand]);
+		break;
+	    case FUNCTION:
+		stack[top] = FunctionNode.evaluate(operand, stack[top]);
+		break;
+	    default:
+		break;
+	    }
+	}
+
+	return stack[0];
+    }
+
+    /**
+     * Evaluation buffers of one thread, shared by every expression.
+     */
+    private static final class Scratch {
+	// Slots of the fixed arity evaluate methods
+	private final double[] frame = new double[4];
+	private double[] stack = new double[16];
+
+	private double[] stack(int size) {
+	    if (stack.length < size)
+		stack = new double[Math.max(size, stack.length * 2)];
+	    return stack;
+	}
+    }
+
+    /**
+     * Helper to translate an expression tree into postfix code.
+     */
+    private static final class Compiler {
+	private final String[] variables;
+
+	private int[] code = new int[16];
+	private int codeSize = 0;
+	private double[] constants = new double[4];
+	private int constantsSize = 0;
+	private int stack = 0, maxStack = 0;
+	private boolean random = false;
+
+	private Compiler(String[] variables) {
+	    this.variables = variables;
+	}
+
+	private void emit(ExpressionNode node) {
+	    if (isFoldable(node)) {
+		push(PUSH_CONSTANT, constant(node.getValue()));
+		return;
+	    }
+
+	    if (node instanceof VariableNode) {
+		push(LOAD, slot(((VariableNode) node).name));
+		return;
+	    }
+
+	    if (node instanceof FunctionNode) {
+		FunctionNode function = (FunctionNode) node;
+		emit(function.child);
+		add(FUNCTION, function.function);
+		random |= "rand".equals(FunctionNode.FUNCTIONS[function.function]);
+		return;
+	    }
+
+	    OperatorNode operator = (OperatorNode) node;
+	    ExpressionNode left = operator.left, right = operator.right;
+
+	    if (isFoldable(right)) {
+		double value = right.getValue();
+		emit(left);
+
+		if (!isIdentity(operator.operation, value))
+		    add(withConstant(operator.operation), constant(value));
+		return;
+	    }
+
+	    // Addition and multiplication do not care about the order of operands
+	    if (isFoldable(left) && (operator.operation == '+' || operator.operation == '*')) {
+		double value = left.getValue();
+		emit(right);
+
+		if (!isIdentity(operator.operation, value))
+		    add(withConstant(operator.operation), constant(value));
+		return;
+	    }
+
+	    emit(left);
+	    emit(right);
+	    add(of(operator.operation), 0);
+	    stack--;
+	}
+
+	/**
+	 * Returns if the subtree can be replaced by its current value
+	 * @param node node to check
+	 * @return truth value
+	 */
+	private boolean isFoldable(ExpressionNode node) {
+	    if (node instanceof ConstantNode)
+		return true;
+
+	    if (node instanceof VariableNode)
+		return slot(((VariableNode) node).name) < 0;
+
+	    if (node instanceof FunctionNode) {
+		FunctionNode function = (FunctionNode) node;
+		// rand gives a different value on each evaluation
+		return !"rand".equals(FunctionNode.FUNCTIONS[function.function]) && isFoldable(function.child);
+	    }
+
+	    if (node instanceof OperatorNode) {
+		OperatorNode operator = (OperatorNode) node;
+		return isFoldable(operator.left) && isFoldable(operator.right);
+	    }
+
+	    return false;
+	}
+
+	private int slot(String name) {
+	    for (int i = 0; i < variables.length; i++) {
+		if (variables[i].equals(name))
+		    return i;
+	    }
+	    return -1;
+	}
+
+	private int constant(double value) {
+	    for (int i = 0; i < constantsSize; i++) {
+		if (Double.compare(constants[i], value) == 0)
+		    return i;
+	    }
+
+	    if (constantsSize == constants.length)
+		constants = Arrays.copyOf(constants, constantsSize * 2);
+
+	    constants[constantsSize] = value;
+	    return constantsSize++;
+	}
+
+	private void push(int opcode, int operand) {
+	    add(opcode, operand);
+	    if (++stack > maxStack)
+		maxStack = stack;
+	}
+
+	private void add(int opcode, int operand) {
+	    if (codeSize + 2 > code.length)
+		code = Arrays.copyOf(code, code.length * 2);
+
+	    code[codeSize++] = opcode;
+	    code[codeSize++] = operand;
+	}
+
+	private static boolean isIdentity(char operation, double value) {
+	    switch (operation) {
+	    case '+':
+	    case '-':
+		return value == 0;
+	    case '*':
+	    case '/':
+	    case '^':
+		return value == 1;
+	    default:
+		return false;
+	    }
+	}
+
+	private static int of(char operation) {
+	    switch (operation) {
+	    case '+':
+		return ADD;
+	    case '-':
+		return SUB;
+	    case '*':
+		return MUL;
+	    case '/':
+		return DIV;
+	    case '%':
+		return MOD;
+	    default:
+		return POW;
+	    }
+	}
+
+	private static int withConstant(char operation) {
+	    return of(operation) - ADD + ADD_CONSTANT;
+	}
+    }
+}
@@ -107,55 +107,66 @@ public class FunctionNode implements ExpressionNode {
      */
     @Override
     public double getValue() {
+	return evaluate(function, child.getValue());
+    }
+
+    /**
+     * Evaluates a function on the given argument.
+     * @param function index of the function in <code>FUNCTIONS</code> array
+     * @param value argument of the function
+     * @return result of the function
+     * @see FunctionNode#FUNCTIONS
+     */
+    public static double evaluate(int function, double value) {
 	switch (function) {
 	case 0:
-	    return -child.getValue();
+	    return -value;
 	case 1:
-	    return Math.sin(child.getValue());
+	    return Math.sin(value);
 	case 2:
-	    return Math.cos(child.getValue());
+	    return Math.cos(value);
 	case 3:
-	    return Math.tan(child.getValue());
+	    return Math.tan(value);
 	case 4:
-	    return Math.asin(child.getValue());
+	    return Math.asin(value);
 	case 5:
-	    return Math.acos(child.getValue());
+	    return Math.acos(value);
 	case 6:
-	    return Math.atan(child.getValue());
+	    return Math.atan(value);
 	case 7:
-	    return Sfun.sinh(child.getValue());
+	    return Sfun.sinh(value);
 	case 8:
-	    return Sfun.cosh(child.getValue());
+	    return Sfun.cosh(value);
 	case 9:
-	    return Sfun.tanh(child.getValue());
+	    return Sfun.tanh(value);
 	case 10:
-	    return Sfun.asinh(child.getValue());
+	    return Sfun.asinh(value);
 	case 11:
-	    return Sfun.acosh(child.getValue());
+	    return Sfun.acosh(value);
 	case 12:
-	    return Sfun.atanh(child.getValue());
+	    return Sfun.atanh(value);
 	case 13:
-	    return Math.log(child.getValue());
+	    return Math.log(value);
 	case 14:
-	    return Math.log(child.getValue()) * 0.43429448190325182765;
+	    return Math.log(value) * 0.43429448190325182765;
 	case 15:
-	    return Math.abs(child.getValue());
+	    return Math.abs(value);
 	case 16:
-	    return Math.random() * child.getValue();
+	    return Math.random() * value;
 	case 17:
-	    return Math.sqrt(child.getValue());
+	    return Math.sqrt(value);
 	case 18:
-	    return Sfun.erf(child.getValue());
+	    return Sfun.erf(value);
 	case 19:
-	    return Sfun.erfc(child.getValue());
+	    return Sfun.erfc(value);
 	case 20:
-	    return Sfun.gamma(child.getValue());
+	    return Sfun.gamma(value);
 	case 21:
-	    return Math.exp(child.getValue());
+	    return Math.exp(value);
 	case 22:
-	    return Sfun.cot(child.getValue());
+	    return Sfun.cot(value);
 	case 23:
-	    return Math.log(child.getValue()) * 1.442695040888963407360;
+	    return Math.log(value) * 1.442695040888963407360;
 	}
 	// This is never reached
 	return 0;
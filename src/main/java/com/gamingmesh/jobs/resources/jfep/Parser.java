@@ -16,6 +16,7 @@
 
 package com.gamingmesh.jobs.resources.jfep;
 
+import java.util.Arrays;
 import java.util.HashSet;
 
 /**
@@ -33,6 +34,11 @@ import java.util.HashSet;
  * F -&gt; U ('^' U)*<br>
  * U -&gt; function '(' S ')' | number | '(' S ')' | variable<br>
  * </p>
+ * <p>
+ * Values set with {@link #setVariable(String, double)} are stored in the shared tree,
+ * so {@link #getValue()} is not safe to use from several threads. Use {@link #compile(String...)}
+ * and evaluate the returned expression with a per call frame instead.
+ * </p>
  * <p><b>Date:</b> 08/dic/06
  * <b>Time:</b> 13:58:28</p>
  * @author Bertoli Marco
@@ -55,6 +61,7 @@ public class Parser {
 
     private HashSet<String> functions; // Used functions
     private HashSet<String> variables; // Used variables
+    private volatile CompiledExpression[] compiled = new CompiledExpression[0]; // Compiled forms by variable list
 
     /**
      * Class constructor
@@ -103,7 +110,7 @@ public class Parser {
      * @return Node root node of parsed tree
      * @throws ParseError if parsed input string was malformed
      */
-    public ExpressionNode getTree() throws ParseError {
+    public synchronized ExpressionNode getTree() throws ParseError {
 	if (root == null) { // Function need parsing
 	    cc = parse();
 	    root = S();
@@ -420,9 +427,48 @@ public class Parser {
      * @param value value for the variable
      * @throws ParseError if parsed input string was malformed
      */
-    public void setVariable(String name, double value) throws ParseError {
+    public synchronized void setVariable(String name, double value) throws ParseError {
 	getTree();
 	root.setVariable(name, value);
+	compiled = new CompiledExpression[0]; // Unlisted variables are bound at compile time
+    }
+
+    /**
+     * Compiles parsed expression to a flat form evaluated from a variable frame.
+     * Variables which are not listed keep the value set by {@link #setVariable(String, double)}.
+     * The compiled form is cached for each variable list.
+     * @param variables names of the variables read from the frame, in slot order
+     * @return compiled expression
+     * @throws ParseError if parsed input string was malformed
+     * @see CompiledExpression#evaluate(double...)
+     */
+    public CompiledExpression compile(String... variables) throws ParseError {
+	CompiledExpression cached = getCompiled(compiled, variables);
+	if (cached != null)
+	    return cached;
+
+	synchronized (this) {
+	    CompiledExpression[] current = compiled;
+	    cached = getCompiled(current, variables);
+	    if (cached != null)
+		return cached;
+
+	    getTree();
+	    cached = CompiledExpression.compile(root, variables);
+
+	    CompiledExpression[] updated = Arrays.copyOf(current, current.length + 1);
+	    updated[current.length] = cached;
+	    compiled = updated;
+	    return cached;
+	}
+    }
+
+    private static CompiledExpression getCompiled(CompiledExpression[] compiled, String[] variables) {
+	for (CompiledExpression one : compiled) {
+	    if (one.hasVariables(variables))
+		return one;
+	}
+	return null;
     }
 
     /**
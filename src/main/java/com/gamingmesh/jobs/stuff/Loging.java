@@ -15,16 +15,21 @@ public class Loging {
     }
 
     public void recordToLog(JobsPlayer jPlayer, String actionName, String item, Map<CurrencyType, Double> amounts) {
+	getLog(jPlayer, actionName).add(item, amounts);
+    }
+
+    public void recordToLog(JobsPlayer jPlayer, ActionInfo info, double money, double points, double exp) {
+	getLog(jPlayer, info.getType().getName()).add(info.getNameWithSub(), money, points, exp);
+    }
+
+    private Log getLog(JobsPlayer jPlayer, String actionName) {
 	Map<String, Log> logList = jPlayer.getLog();
-	Log l = logList.values().stream().findFirst().orElse(null);
-	if (l != null && TimeManage.timeInInt() != l.getDate()) {
+	if (!logList.isEmpty() && TimeManage.timeInInt() != logList.values().iterator().next().getDate()) {
 	    Jobs.getJobsDAO().saveLog(jPlayer);
-	    jPlayer.getLog().clear();
+	    logList.clear();
 	}
 
-	Log log = logList.getOrDefault(actionName, new Log(actionName));
-	log.add(item, amounts);
-	logList.put(actionName, log);
+	return logList.computeIfAbsent(actionName, Log::new);
     }
 
     public void loadToLog(JobsPlayer jPlayer, String actionName, String item, int count, Map<CurrencyType, Double> amounts) {
@@ -7,8 +7,27 @@ import com.gamingmesh.jobs.Jobs;
 
 public class TimeManage {
 
+    // Current day as {start millis, end millis, value} of timeInInt, refreshed at midnight
+    private static volatile long[] today = { 0L, 0L, 0L };
+
     public static int timeInInt() {
-	return timeInInt(System.currentTimeMillis());
+	long now = System.currentTimeMillis();
+	long[] day = today;
+	if (now >= day[0] && now < day[1])
+	    return (int) day[2];
+
+	Calendar calendar = Calendar.getInstance();
+	calendar.setTimeInMillis(now);
+	calendar.set(Calendar.HOUR_OF_DAY, 0);
+	calendar.set(Calendar.MINUTE, 0);
+	calendar.set(Calendar.SECOND, 0);
+	calendar.set(Calendar.MILLISECOND, 0);
+	long start = calendar.getTimeInMillis();
+	calendar.add(Calendar.DAY_OF_MONTH, 1);
+
+	int value = timeInInt(now);
+	today = new long[] { start, calendar.getTimeInMillis(), value };
+	return value;
     }
 
     public static int timeInInt(Long time) {
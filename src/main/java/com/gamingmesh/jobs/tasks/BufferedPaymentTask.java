@@ -18,40 +18,106 @@
 
 package com.gamingmesh.jobs.tasks;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.bukkit.OfflinePlayer;
+
 import com.gamingmesh.jobs.Jobs;
 import com.gamingmesh.jobs.container.CurrencyType;
+import com.gamingmesh.jobs.container.JobsPlayer;
 import com.gamingmesh.jobs.economy.BufferedEconomy;
 import com.gamingmesh.jobs.economy.BufferedPayment;
 import com.gamingmesh.jobs.economy.Economy;
 
+/**
+ * Processes queued payments until the amount or time limit of a run is reached,
+ * money deposits of them are passed to the economy at once.
+ */
 public class BufferedPaymentTask implements Runnable {
 
     private BufferedEconomy bufferedEconomy;
     private Economy economy;
-    private BufferedPayment payment;
+    private int limit;
+    private long maxNanos;
 
-    public BufferedPaymentTask(BufferedEconomy bufferedEconomy, Economy economy, BufferedPayment payment) {
+    /**
+     * @param bufferedEconomy {@link BufferedEconomy} to take payments from
+     * @param economy {@link Economy}
+     * @param limit max amount of payments per run, 0 or less for no limit
+     * @param maxMillis max time of a run in milliseconds, 0 or less for no limit
+     */
+    public BufferedPaymentTask(BufferedEconomy bufferedEconomy, Economy economy, int limit, int maxMillis) {
 	this.bufferedEconomy = bufferedEconomy;
 	this.economy = economy;
-	this.payment = payment;
+	this.limit = limit <= 0 ? Integer.MAX_VALUE : limit;
+	this.maxNanos = maxMillis <= 0 ? Long.MAX_VALUE : maxMillis * 1000000L;
     }
 
     @Override
     public void run() {
-	double money = payment.get(CurrencyType.MONEY);
-	if (money > 0) {
-	    if (Jobs.getGCManager().isEconomyAsync()) {
-		org.bukkit.Bukkit.getScheduler().scheduleSyncDelayedTask(bufferedEconomy.getPlugin(), () ->
-		    economy.depositPlayer(payment.getOfflinePlayer(), money));
-	    } else {
-		economy.depositPlayer(payment.getOfflinePlayer(), money);
+	Map<OfflinePlayer, Double> deposits = new HashMap<>();
+
+	try {
+	    long start = System.nanoTime();
+
+	    BufferedPayment payment;
+	    for (int i = 0; i < limit && (payment = bufferedEconomy.pollDeposit()) != null; i++) {
+		OfflinePlayer offlinePlayer = payment.getOfflinePlayer();
+
+		double money = payment.get(CurrencyType.MONEY);
+		if (money > 0) {
+		    deposits.merge(offlinePlayer, money, Double::sum);
+		} else if (money < 0 && !economy.withdrawPlayer(offlinePlayer, -money)) {
+		    // Try again with the next batch
+		    bufferedEconomy.pay(new BufferedPayment(offlinePlayer, money, 0D, 0D));
+		}
+
+		double points = payment.get(CurrencyType.POINTS);
+		if (points != 0D)
+		    depositPoints(offlinePlayer, points);
+
+		// Points, experience and limits of the player are changed
+		Jobs.getInstance().getPlaceholderAPIManager().invalidate(offlinePlayer.getUniqueId());
+
+		// Leave the rest for the next tick
+		if (System.nanoTime() - start >= maxNanos)
+		    break;
+	    }
+	} finally {
+	    try {
+		// Money of the polled payments is deposited even if this run failed
+		deposit(deposits);
+	    } finally {
+		// Always continue with the remaining payments, even if this run failed
+		bufferedEconomy.depositsProcessed();
 	    }
-	} else if (!economy.withdrawPlayer(payment.getOfflinePlayer(), -money)) {
-	    bufferedEconomy.pay(payment);
+	}
+    }
+
+    private void depositPoints(OfflinePlayer offlinePlayer, double points) {
+	JobsPlayer jPlayer = Jobs.getPlayerManager().getJobsPlayer(offlinePlayer.getUniqueId());
+	if (jPlayer != null) {
+	    jPlayer.getPointsData().addPoints(points);
+	    return;
 	}
 
-	double points = payment.get(CurrencyType.POINTS);
-	if (points != 0D)
-	    Jobs.getPlayerManager().getJobsPlayer(payment.getOfflinePlayer().getUniqueId()).getPointsData().addPoints(points);
+	// Player is being loaded, try again with the next batch. Points of unknown players are dropped
+	UUID uuid = offlinePlayer.getUniqueId();
+	if (Jobs.getPlayerManager().isLoading(uuid) || Jobs.getPlayerManager().getPlayerInfo(uuid) != null)
+	    bufferedEconomy.pay(new BufferedPayment(offlinePlayer, 0D, points, 0D));
+    }
+
+    private void deposit(Map<OfflinePlayer, Double> deposits) {
+	if (deposits.isEmpty())
+	    return;
+
+	if (Jobs.getGCManager().isEconomyAsync()) {
+	    org.bukkit.Bukkit.getScheduler().scheduleSyncDelayedTask(bufferedEconomy.getPlugin(), () ->
+		economy.depositPlayers(deposits));
+	} else {
+	    economy.depositPlayers(deposits);
+	}
     }
-}
\ No newline at end of file
+}
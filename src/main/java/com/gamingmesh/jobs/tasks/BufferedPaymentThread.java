@@ -22,9 +22,17 @@ import com.gamingmesh.jobs.Jobs;
 import com.gamingmesh.jobs.economy.BufferedEconomy;
 
 public class BufferedPaymentThread extends Thread {
+
+    private static final long MAX_BACKOFF = 5 * 60 * 1000L;
+    private static final long LAG_WARNING = 60 * 1000L;
+
     private volatile boolean running = true;
     private int sleep;
 
+    private int failures = 0;
+    private volatile int deferredCycles = 0;
+    private long lastLagWarning = 0L;
+
     public BufferedPaymentThread(int duration) {
 	super("Jobs-BufferedPaymentThread");
 	this.sleep = duration * 1000;
@@ -37,24 +45,65 @@ public class BufferedPaymentThread extends Thread {
 
 	while (running) {
 	    try {
-		sleep(sleep);
+		sleep(getDelay());
 	    } catch (InterruptedException e) {
 		this.running = false;
 		continue;
 	    }
 	    try {
 		BufferedEconomy economy = Jobs.getEconomy();
-		if (economy != null)
+		if (economy != null) {
+		    // Deposits of the previous cycles are still running, keep combining new payments per player
+		    if (economy.getQueuedDeposits() > 0) {
+			deferredCycles++;
+			warnDepositLag(economy);
+			continue;
+		    }
+
+		    deferredCycles = 0;
 		    economy.payAll();
+		}
+
+		failures = 0;
 	    } catch (Throwable t) {
 		t.printStackTrace();
-		Jobs.consoleMsg("&c[Jobs] Exception in BufferedPaymentThread, stopping economy payments!");
-		running = false;
+		failures++;
+		Jobs.consoleMsg("&c[Jobs] Exception in BufferedPaymentThread, retrying in " + getDelay() / 1000 + " seconds!");
 	    }
 	}
 	Jobs.consoleMsg("&e[Jobs] Buffered payment thread shutdown.");
     }
 
+    /**
+     * Returns the time to wait before the next cycle, doubled after each consecutive failure.
+     */
+    private long getDelay() {
+	if (failures == 0)
+	    return sleep;
+
+	return Math.min(MAX_BACKOFF, Math.max(sleep, 1000L) << Math.min(failures, 16));
+    }
+
+    /**
+     * Warns the console at most once a minute while deposits have been waiting for more than a minute.
+     */
+    private void warnDepositLag(BufferedEconomy economy) {
+	long lag = economy.getDepositLag(), now = System.currentTimeMillis();
+	if (lag < LAG_WARNING || now - lastLagWarning < LAG_WARNING)
+	    return;
+
+	lastLagWarning = now;
+	Jobs.consoleMsg("&c[Jobs] Payment deposits are " + lag / 1000 + " seconds behind with " + economy.getQueuedDeposits()
+	    + " deposits queued and " + deferredCycles + " payment cycles deferred, consider raising economy-payments-per-tick or economy-max-ms-per-tick.");
+    }
+
+    /**
+     * @return the amount of consecutive cycles skipped because deposits were still in progress
+     */
+    public int getDeferredCycles() {
+	return deferredCycles;
+    }
+
     public void shutdown() {
 	this.running = false;
 	interrupt();